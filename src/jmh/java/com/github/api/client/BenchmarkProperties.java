@@ -0,0 +1,69 @@
+package com.github.api.client;
+
+import java.util.List;
+
+// Same values as in application.properties, pointed at the given Github API base url
+public final class BenchmarkProperties {
+
+    private BenchmarkProperties() {
+    }
+
+    public static PropertiesValues create(String githubApiBaseUrl) {
+        PropertiesValues propertiesValues = new PropertiesValues();
+        propertiesValues.githubApiBaseUrl = githubApiBaseUrl;
+        propertiesValues.githubApiUserReposUrl = "users/%s/repos";
+        propertiesValues.githubApiUserRepoBranchesUrl = "repos/%s/%s/branches";
+        propertiesValues.githubApiGraphQlUrl = "graphql";
+        propertiesValues.githubApiBackend = "rest";
+        propertiesValues.githubApiAcceptHeader = "application/vnd.github+json";
+        propertiesValues.githubApiVersion = "2022-11-28";
+        propertiesValues.githubApiPageSize = 100;
+        propertiesValues.httpConnectTimeoutMs = 5000;
+        propertiesValues.httpReadTimeoutMs = 10000;
+        propertiesValues.httpMaxConnections = 32;
+        propertiesValues.httpKeepAliveTimeoutS = 120;
+        propertiesValues.httpCompressionEnabled = true;
+        propertiesValues.httpMaxResponseBytes = 33554432;
+        propertiesValues.conditionalCacheMaxEntries = 10000;
+        propertiesValues.rateLimitLowWatermark = 100;
+        propertiesValues.rateLimitMaxWaitMs = 10000;
+        propertiesValues.rateLimitMaxRetries = 2;
+        propertiesValues.rateLimitSecondaryBackoffMs = 5000;
+        propertiesValues.rateLimitMaxTrackedTokens = 10000;
+        propertiesValues.circuitBreakerWindowSize = 20;
+        propertiesValues.circuitBreakerMinCalls = 10;
+        propertiesValues.circuitBreakerFailureRateThreshold = 50;
+        propertiesValues.circuitBreakerOpenMs = 30000;
+        propertiesValues.bulkheadUserReposMaxConcurrent = 16;
+        propertiesValues.bulkheadBranchesMaxConcurrent = 64;
+        propertiesValues.bulkheadMaxWaitMs = 2000;
+        propertiesValues.retryMaxRetries = 2;
+        propertiesValues.retryBaseBackoffMs = 100;
+        propertiesValues.retryMaxBackoffMs = 2000;
+        propertiesValues.hedgingEnabled = true;
+        propertiesValues.hedgingMinSamples = 50;
+        propertiesValues.hedgingMaxRatio = 0.05;
+        propertiesValues.allowedSorts = List.of("created", "updated", "pushed", "full_name");
+        propertiesValues.allowedDirections = List.of("asc", "desc");
+        propertiesValues.fanOutMaxParallelism = 16;
+        propertiesValues.fanOutDeadlineMs = 30000;
+        propertiesValues.resultsCacheTtlMs = 60000;
+        propertiesValues.resultsCacheMaxEntries = 1000;
+        propertiesValues.resultsCacheMaxWeight = 1000000;
+        propertiesValues.incrementalEnabled = true;
+        propertiesValues.incrementalMaxEntries = 50000;
+        propertiesValues.incrementalMaxAgeMs = 3600000;
+        propertiesValues.partialResultsEnabled = true;
+        propertiesValues.filterMaxPatternLength = 100;
+        propertiesValues.wrongSortParamMessage = "Wrong parameter value for sort.";
+        propertiesValues.wrongDirectionParamMessage = "Wrong parameter value for direction.";
+        propertiesValues.wrongFilterParamMessage = "Wrong parameter value for name, offset or limit.";
+        propertiesValues.userNotFoundMessage = "User with provided username has not been found.";
+        propertiesValues.unexpectedErrorMessage = "Unexpected error occurred during request.";
+        propertiesValues.fetchTimeoutMessage = "Fetching repositories data has not finished in the expected time.";
+        propertiesValues.rateLimitExceededMessage = "Github API rate limit has been exceeded.";
+        propertiesValues.githubUnavailableMessage = "Github API is temporarily unavailable.";
+
+        return propertiesValues;
+    }
+}
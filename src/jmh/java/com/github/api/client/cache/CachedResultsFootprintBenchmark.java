@@ -0,0 +1,94 @@
+package com.github.api.client.cache;
+
+import com.github.api.client.GithubPayloads;
+import com.github.api.client.model.dto.BranchDTO;
+import com.github.api.client.model.dto.RepositoryDTO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cached results of 100 users with 100 repositories each, as they come out of decoding: every owner login,
+// branch name and SHA is a separate String. Retained heap of plain records and of the compact lists is printed
+// once per trial with JOL, which attaches an agent to the forked JVM. The benchmarks measure the cost
+// of compacting a result and of reading it back.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djdk.attach.allowAttachSelf", "-XX:+EnableDynamicAgentLoading"})
+@State(Scope.Benchmark)
+public class CachedResultsFootprintBenchmark {
+    private static final String[] COMMON_BRANCHES = {"main", "master", "develop"};
+
+    @Param({"100"})
+    public int usersCount;
+
+    @Param({"100"})
+    public int repositoriesPerUser;
+
+    @Param({"5"})
+    public int branchesPerRepository;
+
+    private List<List<RepositoryDTO>> results;
+    private List<CompactRepositoryList> compactResults;
+
+    @Setup
+    public void setup() {
+        this.results = new ArrayList<>(this.usersCount);
+        for (int user = 0; user < this.usersCount; user++) {
+            this.results.add(result("user-" + user, user));
+        }
+        this.compactResults = this.results.stream().map(CompactRepositoryList::of).toList();
+
+        long plainBytes = GraphLayout.parseInstance(this.results).totalSize();
+        long compactBytes = GraphLayout.parseInstance(this.compactResults).totalSize();
+        System.out.printf("%n%d repositories: plain records %d bytes, compact lists %d bytes (%.1f%%)%n",
+                this.usersCount * this.repositoriesPerUser, plainBytes, compactBytes, 100.0 * compactBytes / plainBytes);
+    }
+
+    @Benchmark
+    public CompactRepositoryList compact() {
+        return CompactRepositoryList.of(this.results.get(0));
+    }
+
+    // Same work as writing the response, every record is created on the way out
+    @Benchmark
+    public void readCompact(Blackhole blackhole) {
+        for (RepositoryDTO repository : this.compactResults.get(0)) {
+            blackhole.consume(repository.repositoryName());
+            for (BranchDTO branch : repository.branches()) {
+                blackhole.consume(branch.sha());
+            }
+        }
+    }
+
+    @Benchmark
+    public void readPlain(Blackhole blackhole) {
+        for (RepositoryDTO repository : this.results.get(0)) {
+            blackhole.consume(repository.repositoryName());
+            for (BranchDTO branch : repository.branches()) {
+                blackhole.consume(branch.sha());
+            }
+        }
+    }
+
+    // Two of every five branches have one of the common names, the rest is unique to the repository
+    private List<RepositoryDTO> result(String userName, int seed) {
+        List<RepositoryDTO> repositories = new ArrayList<>(this.repositoriesPerUser);
+
+        for (int i = 0; i < this.repositoriesPerUser; i++) {
+            List<BranchDTO> branches = new ArrayList<>(this.branchesPerRepository);
+            for (int j = 0; j < this.branchesPerRepository; j++) {
+                String branchName = j < 2 ? COMMON_BRANCHES[(i + j) % COMMON_BRANCHES.length] : "feature-" + i + "-" + j;
+                branches.add(new BranchDTO(new String(branchName), GithubPayloads.sha(seed * 1_000_000L + i * 100L + j)));
+            }
+            repositories.add(new RepositoryDTO("repository-" + i, new String(userName), List.copyOf(branches)));
+        }
+
+        return List.copyOf(repositories);
+    }
+}
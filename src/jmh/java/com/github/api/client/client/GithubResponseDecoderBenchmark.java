@@ -0,0 +1,67 @@
+package com.github.api.client.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.api.client.GithubPayloads;
+import com.github.api.client.model.Branch;
+import com.github.api.client.model.Repository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compares streaming decoding with full binding done by Jackson converter for ParameterizedTypeReference.
+// Fork filtering is part of both paths, as the service has to drop forks after binding.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GithubResponseDecoderBenchmark {
+    private static final TypeReference<List<Repository>> REPOSITORIES_TYPE = new TypeReference<>() {};
+    private static final TypeReference<List<Branch>> BRANCHES_TYPE = new TypeReference<>() {};
+
+    @Param({"100"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private GithubResponseDecoder decoder;
+    private byte[] repositoriesPage;
+    private byte[] branchesPage;
+
+    @Setup
+    public void setup() {
+        // Same configuration as the mapper used by RestTemplate converters
+        this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        this.decoder = new GithubResponseDecoder(this.objectMapper.getFactory());
+        this.repositoriesPage = GithubPayloads.repositoriesPage("userName", this.pageSize);
+        this.branchesPage = GithubPayloads.branchesPage("userName", "repositoryName", this.pageSize);
+    }
+
+    @Benchmark
+    public List<Repository> repositoriesBinding() throws IOException {
+        return this.objectMapper.readValue(new ByteArrayInputStream(this.repositoriesPage), REPOSITORIES_TYPE)
+                .stream()
+                .filter(repository -> !repository.fork())
+                .toList();
+    }
+
+    @Benchmark
+    public List<Repository> repositoriesStreaming() throws IOException {
+        return this.decoder.decodeNonForkRepositories(new ByteArrayInputStream(this.repositoriesPage));
+    }
+
+    @Benchmark
+    public List<Branch> branchesBinding() throws IOException {
+        return this.objectMapper.readValue(new ByteArrayInputStream(this.branchesPage), BRANCHES_TYPE);
+    }
+
+    @Benchmark
+    public List<Branch> branchesStreaming() throws IOException {
+        return this.decoder.decodeBranches(new ByteArrayInputStream(this.branchesPage));
+    }
+}
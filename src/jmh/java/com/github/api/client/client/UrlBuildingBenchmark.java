@@ -0,0 +1,35 @@
+package com.github.api.client.client;
+
+import com.github.api.client.BenchmarkProperties;
+import com.github.api.client.PropertiesValues;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UrlBuildingBenchmark {
+    private PropertiesValues propertiesValues;
+    private String userReposUrl;
+
+    @Setup
+    public void setup() {
+        this.propertiesValues = BenchmarkProperties.create("https://api.github.com/");
+        this.userReposUrl = this.propertiesValues.githubApiBaseUrl
+                + String.format(this.propertiesValues.githubApiUserReposUrl, "userName");
+    }
+
+    @Benchmark
+    public String withoutParameters() {
+        return GithubApiUrls.withParameters(this.propertiesValues, this.userReposUrl, null, null).toUriString();
+    }
+
+    @Benchmark
+    public String withSortAndDirection() {
+        return GithubApiUrls.withParameters(this.propertiesValues, this.userReposUrl, "pushed", "desc").toUriString();
+    }
+}
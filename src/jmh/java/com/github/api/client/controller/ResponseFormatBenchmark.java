@@ -0,0 +1,77 @@
+package com.github.api.client.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.api.client.GithubPayloads;
+import com.github.api.client.model.dto.BranchDTO;
+import com.github.api.client.model.dto.RepositoryDTO;
+import com.github.api.client.model.response.CompactUserRepositoriesResponse;
+import com.github.api.client.model.response.GetUserRepositoriesResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+// Serialization time of a whole response in every format, with and without gzip applied by the server.
+// Sizes of the serialized responses are printed once per trial, as JMH reports only times.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseFormatBenchmark {
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    @Param({"100"})
+    public int repositoriesCount;
+
+    @Param({"10"})
+    public int branchesCount;
+
+    private ObjectMapper objectMapper;
+    private Object response;
+
+    @Setup
+    public void setup() throws IOException {
+        // Same configuration as the mappers of the HTTP message converters
+        this.objectMapper = switch (this.format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+
+        List<RepositoryDTO> repositories = IntStream.range(0, this.repositoriesCount)
+                .mapToObj(i -> new RepositoryDTO("repository-" + i, "userName", IntStream.range(0, this.branchesCount)
+                        .mapToObj(j -> new BranchDTO("branch-" + j, GithubPayloads.sha(i * 31L + j)))
+                        .toList()))
+                .toList();
+        this.response = this.format.equals("json")
+                ? new GetUserRepositoriesResponse(repositories)
+                : CompactUserRepositoriesResponse.of(repositories);
+
+        System.out.printf("%n%s%s response: %d bytes%n", this.format, this.gzip ? " + gzip" : "", serialize().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        if (this.gzip) {
+            try (GZIPOutputStream gzipStream = new GZIPOutputStream(bytes)) {
+                this.objectMapper.writeValue(gzipStream, this.response);
+            }
+        } else {
+            this.objectMapper.writeValue(bytes, this.response);
+        }
+
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.api.client.service;
+
+import com.github.api.client.BenchmarkProperties;
+import com.github.api.client.GithubPayloads;
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.ConditionalRequestCache;
+import com.github.api.client.cache.RepositoryStateCache;
+import com.github.api.client.cache.UserReposCache;
+import com.github.api.client.cache.shared.SharedResultsStore;
+import com.github.api.client.cache.snapshot.CacheSnapshotStore;
+import com.github.api.client.client.GithubApiClient;
+import com.github.api.client.client.GithubGraphQlClient;
+import com.github.api.client.concurrent.FanOutExecutor;
+import com.github.api.client.config.ReposDataFetcherConfig;
+import com.github.api.client.model.dto.RepositoryDTO;
+import com.github.api.client.ratelimit.RateLimitTracker;
+import com.github.api.client.ratelimit.TokenPool;
+import com.github.api.client.resilience.UpstreamResilience;
+import com.github.api.client.stub.StubGithubServer;
+import com.github.api.client.stub.StubGithubServer.StubResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Whole REST path, from listing repositories to mapped results, against a local stub of Github API.
+// With resultsCacheTtlMs set to 0 every call goes to the stub, otherwise results cache hits are measured.
+// With incremental set to true only the listing is requested, as no repository changes between calls.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReposDataFetcherServiceBenchmark {
+    private static final String USER_NAME = "userName";
+    private static final Map<String, String> JSON_HEADERS = Map.of("Content-Type", "application/json");
+
+    @Param({"100"})
+    public int repositoriesCount;
+
+    @Param({"10"})
+    public int branchesCount;
+
+    @Param({"0", "60000"})
+    public long resultsCacheTtlMs;
+
+    @Param({"false", "true"})
+    public boolean incremental;
+
+    private StubGithubServer server;
+    private ReposDataFetcherService service;
+
+    @Setup
+    public void setup() throws IOException {
+        this.server = new StubGithubServer();
+        byte[] repositoriesPage = GithubPayloads.repositoriesPage(USER_NAME, this.repositoriesCount);
+        this.server.route("GET", "/users/" + USER_NAME + "/repos",
+                request -> new StubResponse(200, JSON_HEADERS, repositoriesPage));
+        for (int i = 0; i < this.repositoriesCount; i++) {
+            String repositoryName = "repository-" + i;
+            byte[] branchesPage = GithubPayloads.branchesPage(USER_NAME, repositoryName, this.branchesCount);
+            this.server.route("GET", "/repos/" + USER_NAME + "/" + repositoryName + "/branches",
+                    request -> new StubResponse(200, JSON_HEADERS, branchesPage));
+        }
+
+        PropertiesValues propertiesValues = BenchmarkProperties.create(this.server.baseUrl());
+        propertiesValues.resultsCacheTtlMs = this.resultsCacheTtlMs;
+        propertiesValues.incrementalEnabled = this.incremental;
+        ReposDataFetcherConfig config = new ReposDataFetcherConfig(propertiesValues);
+        RateLimitTracker rateLimitTracker = new RateLimitTracker(propertiesValues, new SimpleMeterRegistry());
+        TokenPool tokenPool = new TokenPool(propertiesValues, rateLimitTracker, new SimpleMeterRegistry());
+        RestTemplate restTemplate = config.restTemplate(
+                config.githubHttpClient(),
+                rateLimitTracker,
+                Jackson2ObjectMapperBuilder.json().build(),
+                ObservationRegistry.NOOP,
+                new SimpleMeterRegistry()
+        );
+        FanOutExecutor fanOutExecutor = new FanOutExecutor(propertiesValues, new SimpleMeterRegistry());
+
+        this.service = new ReposDataFetcherService(
+                propertiesValues,
+                new GithubApiClient(restTemplate, propertiesValues, fanOutExecutor,
+                        new ConditionalRequestCache(propertiesValues, new CacheSnapshotStore(propertiesValues)), tokenPool,
+                        new UpstreamResilience(propertiesValues, new SimpleMeterRegistry()), rateLimitTracker),
+                new GithubGraphQlClient(restTemplate, propertiesValues, fanOutExecutor, rateLimitTracker),
+                fanOutExecutor,
+                new UserReposCache(propertiesValues, new CacheSnapshotStore(propertiesValues), SharedResultsStore.NONE),
+                new RepositoryStateCache(propertiesValues, new CacheSnapshotStore(propertiesValues))
+        );
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.server.close();
+    }
+
+    @Benchmark
+    public List<RepositoryDTO> getUserRepos() {
+        return this.service.getUserRepos(USER_NAME, null, null, null);
+    }
+}
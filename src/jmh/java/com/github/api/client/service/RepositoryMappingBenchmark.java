@@ -0,0 +1,40 @@
+package com.github.api.client.service;
+
+import com.github.api.client.GithubPayloads;
+import com.github.api.client.model.Branch;
+import com.github.api.client.model.Commit;
+import com.github.api.client.model.Owner;
+import com.github.api.client.model.Repository;
+import com.github.api.client.model.dto.RepositoryDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositoryMappingBenchmark {
+    @Param({"1", "100"})
+    public int branchesCount;
+
+    private Repository repository;
+    private List<Branch> branches;
+
+    @Setup
+    public void setup() {
+        this.repository = new Repository("repositoryName", new Owner("userName"), false);
+        this.branches = IntStream.range(0, this.branchesCount)
+                .mapToObj(i -> new Branch("branch-" + i, new Commit(GithubPayloads.sha(i))))
+                .toList();
+    }
+
+    @Benchmark
+    public RepositoryDTO mapToRepositoryDTO() {
+        return ReposDataFetcherService.mapToRepositoryDTO(this.repository, this.branches);
+    }
+}
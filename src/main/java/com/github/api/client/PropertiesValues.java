@@ -13,19 +13,146 @@ public class PropertiesValues {
     public String githubApiUserReposUrl;
     @Value("${github.api.url.user-repo-branches}")
     public String githubApiUserRepoBranchesUrl;
+    @Value("${github.api.url.graphql}")
+    public String githubApiGraphQlUrl;
+    @Value("${github.api.backend}")
+    public String githubApiBackend;
+    @Value("${github.api.client}")
+    public String githubApiClient;
     @Value("${github.api.header.accept}")
     public String githubApiAcceptHeader;
     @Value("${github.api.version}")
     public String githubApiVersion;
+    @Value("${github.api.page-size}")
+    public int githubApiPageSize;
+    @Value("${github.api.http.connect-timeout-ms}")
+    public long httpConnectTimeoutMs;
+    @Value("${github.api.http.read-timeout-ms}")
+    public long httpReadTimeoutMs;
+    @Value("${github.api.http.max-connections}")
+    public int httpMaxConnections;
+    @Value("${github.api.http.keep-alive-timeout-s}")
+    public long httpKeepAliveTimeoutS;
+    @Value("${github.api.http.compression-enabled}")
+    public boolean httpCompressionEnabled;
+    @Value("${github.api.http.max-response-bytes}")
+    public long httpMaxResponseBytes;
+    @Value("${github.api.cache.conditional.max-entries}")
+    public int conditionalCacheMaxEntries;
+    @Value("#{'${github.api.token-pool.tokens}'.split(',')}")
+    public List<String> tokenPoolTokens;
+    @Value("${github.api.rate-limit.low-watermark}")
+    public long rateLimitLowWatermark;
+    @Value("${github.api.rate-limit.max-wait-ms}")
+    public long rateLimitMaxWaitMs;
+    @Value("${github.api.rate-limit.max-retries}")
+    public int rateLimitMaxRetries;
+    @Value("${github.api.rate-limit.secondary-backoff-ms}")
+    public long rateLimitSecondaryBackoffMs;
+    @Value("${github.api.rate-limit.max-tracked-tokens}")
+    public int rateLimitMaxTrackedTokens;
+    @Value("${github.api.circuit-breaker.window-size}")
+    public int circuitBreakerWindowSize;
+    @Value("${github.api.circuit-breaker.min-calls}")
+    public int circuitBreakerMinCalls;
+    @Value("${github.api.circuit-breaker.failure-rate-threshold}")
+    public int circuitBreakerFailureRateThreshold;
+    @Value("${github.api.circuit-breaker.open-ms}")
+    public long circuitBreakerOpenMs;
+    @Value("${github.api.bulkhead.user-repos.max-concurrent}")
+    public int bulkheadUserReposMaxConcurrent;
+    @Value("${github.api.bulkhead.branches.max-concurrent}")
+    public int bulkheadBranchesMaxConcurrent;
+    @Value("${github.api.bulkhead.max-wait-ms}")
+    public long bulkheadMaxWaitMs;
+    @Value("${github.api.retry.max-retries}")
+    public int retryMaxRetries;
+    @Value("${github.api.retry.base-backoff-ms}")
+    public long retryBaseBackoffMs;
+    @Value("${github.api.retry.max-backoff-ms}")
+    public long retryMaxBackoffMs;
+    @Value("${github.api.hedging.enabled}")
+    public boolean hedgingEnabled;
+    @Value("${github.api.hedging.min-samples}")
+    public int hedgingMinSamples;
+    @Value("${github.api.hedging.max-ratio}")
+    public double hedgingMaxRatio;
+    @Value("${github.webhook.secret}")
+    public String webhookSecret;
     @Value("#{'${github.api.sorts}'.split(', ')}")
     public List<String> allowedSorts;
     @Value("#{'${github.api.directions}'.split(', ')}")
     public List<String> allowedDirections;
 
+    @Value("${fetcher.fan-out.max-parallelism}")
+    public int fanOutMaxParallelism;
+    @Value("${fetcher.fan-out.deadline-ms}")
+    public long fanOutDeadlineMs;
+    @Value("${fetcher.batch.max-parallelism}")
+    public int batchMaxParallelism;
+    @Value("${fetcher.batch.max-users}")
+    public int batchMaxUsers;
+    @Value("${fetcher.cache.results.ttl-ms}")
+    public long resultsCacheTtlMs;
+    @Value("${fetcher.cache.results.max-entries}")
+    public int resultsCacheMaxEntries;
+    @Value("${fetcher.cache.results.max-weight}")
+    public long resultsCacheMaxWeight;
+    @Value("${fetcher.cache.results.stale-ms}")
+    public long resultsCacheStaleMs;
+    @Value("${fetcher.refresh.enabled}")
+    public boolean refreshEnabled;
+    @Value("${fetcher.refresh.interval-ms}")
+    public long refreshIntervalMs;
+    @Value("${fetcher.refresh.ahead-ms}")
+    public long refreshAheadMs;
+    @Value("${fetcher.refresh.min-accesses}")
+    public long refreshMinAccesses;
+    @Value("${fetcher.refresh.max-users-per-run}")
+    public int refreshMaxUsersPerRun;
+    @Value("${fetcher.refresh.max-tracked-users}")
+    public int refreshMaxTrackedUsers;
+    @Value("${fetcher.incremental.enabled}")
+    public boolean incrementalEnabled;
+    @Value("${fetcher.incremental.max-entries}")
+    public int incrementalMaxEntries;
+    @Value("${fetcher.incremental.max-age-ms}")
+    public long incrementalMaxAgeMs;
+    @Value("${fetcher.partial-results.enabled}")
+    public boolean partialResultsEnabled;
+    @Value("${fetcher.filter.max-pattern-length}")
+    public int filterMaxPatternLength;
+    @Value("${fetcher.cache.snapshot.path}")
+    public String cacheSnapshotPath;
+    @Value("${fetcher.cache.snapshot.max-bytes}")
+    public long cacheSnapshotMaxBytes;
+    @Value("${fetcher.cache.snapshot.queue-capacity}")
+    public int cacheSnapshotQueueCapacity;
+    @Value("${fetcher.cache.shared.store}")
+    public String sharedCacheStore;
+    @Value("${fetcher.cache.shared.redis-uri}")
+    public String sharedCacheRedisUri;
+    @Value("${fetcher.cache.shared.timeout-ms}")
+    public long sharedCacheTimeoutMs;
+    @Value("${fetcher.cache.shared.key-prefix}")
+    public String sharedCacheKeyPrefix;
+    @Value("${fetcher.cache.shared.lease-ms}")
+    public long sharedCacheLeaseMs;
+    @Value("${fetcher.cache.shared.lease-wait-ms}")
+    public long sharedCacheLeaseWaitMs;
+    @Value("${fetcher.cache.shared.lease-poll-ms}")
+    public long sharedCacheLeasePollMs;
+    @Value("${fetcher.cache.shared.near-ttl-ms}")
+    public long sharedCacheNearTtlMs;
+
     @Value("${exception.message.wrong-param.sort}")
     public String wrongSortParamMessage;
     @Value("${exception.message.wrong-param.direction}")
     public String wrongDirectionParamMessage;
+    @Value("${exception.message.wrong-param.users}")
+    public String wrongUsersParamMessage;
+    @Value("${exception.message.wrong-param.filter}")
+    public String wrongFilterParamMessage;
     @Value("${exception.message.user-not-found}")
     public String userNotFoundMessage;
     @Value("${exception.message.not-acceptable}")
@@ -34,4 +161,16 @@ public class PropertiesValues {
     public String missingHeader;
     @Value("${exception.message.unexpected-error}")
     public String unexpectedErrorMessage;
+    @Value("${exception.message.fetch-timeout}")
+    public String fetchTimeoutMessage;
+    @Value("${exception.message.rate-limit-exceeded}")
+    public String rateLimitExceededMessage;
+    @Value("${exception.message.github-unavailable}")
+    public String githubUnavailableMessage;
+    @Value("${exception.message.response-too-large}")
+    public String responseTooLargeMessage;
+    @Value("${exception.message.invalid-webhook-signature}")
+    public String invalidWebhookSignatureMessage;
+    @Value("${exception.message.invalid-webhook-payload}")
+    public String invalidWebhookPayloadMessage;
 }
@@ -0,0 +1,114 @@
+package com.github.api.client.cache;
+
+import com.github.api.client.model.dto.BranchDTO;
+
+import java.util.*;
+
+// Branches of a cached repository. Names are interned, as the same few of them (main, master, develop)
+// repeat across thousands of repositories, and hexadecimal SHAs are packed into 20 bytes each.
+// Names come from Github API, so they are interned in a fixed table of this class instead of the JVM string pool,
+// a name in a taken slot replaces the previous one, which is still kept by the lists using it.
+// BranchDTOs are created only when the list is read, e.g. while the response is written.
+final class CompactBranchList extends AbstractList<BranchDTO> implements RandomAccess {
+    private static final CompactBranchList EMPTY = new CompactBranchList(new String[0], new byte[0], null, null);
+    private static final HexFormat HEX_FORMAT = HexFormat.of();
+    private static final int SHA_BYTES = 20;
+    private static final int INTERNED_SLOTS = 1024;
+    // Strings are immutable, so slots may be read and replaced concurrently without locking
+    private static final String[] INTERNED = new String[INTERNED_SLOTS];
+    private final String[] names;
+    private final byte[] packedShas;
+    // Only for branches whose SHA is missing or not hexadecimal, both are null when there are none of them
+    private final BitSet textShaIndexes;
+    private final String[] textShas;
+
+    private CompactBranchList(String[] names, byte[] packedShas, BitSet textShaIndexes, String[] textShas) {
+        this.names = names;
+        this.packedShas = packedShas;
+        this.textShaIndexes = textShaIndexes;
+        this.textShas = textShas;
+    }
+
+    static CompactBranchList of(List<BranchDTO> branches) {
+        if (branches instanceof CompactBranchList compactBranches) {
+            return compactBranches;
+        }
+        if (branches.isEmpty()) {
+            return EMPTY;
+        }
+
+        int size = branches.size();
+        String[] names = new String[size];
+        byte[] packedShas = new byte[size * SHA_BYTES];
+        BitSet textShaIndexes = null;
+        String[] textShas = null;
+
+        for (int i = 0; i < size; i++) {
+            BranchDTO branch = branches.get(i);
+            names[i] = intern(branch.branchName());
+
+            if (isPackable(branch.sha())) {
+                byte[] sha = HEX_FORMAT.parseHex(branch.sha());
+                System.arraycopy(sha, 0, packedShas, i * SHA_BYTES, SHA_BYTES);
+            } else {
+                textShaIndexes = Objects.nonNull(textShaIndexes) ? textShaIndexes : new BitSet(size);
+                textShas = Objects.nonNull(textShas) ? textShas : new String[size];
+                textShaIndexes.set(i);
+                textShas[i] = branch.sha();
+            }
+        }
+
+        return new CompactBranchList(names, packedShas, textShaIndexes, textShas);
+    }
+
+    // Lowercase only, so formatting the packed bytes gives back the same text
+    private static boolean isPackable(String sha) {
+        if (Objects.isNull(sha) || sha.length() != SHA_BYTES * 2) {
+            return false;
+        }
+
+        for (int i = 0; i < sha.length(); i++) {
+            char character = sha.charAt(i);
+            if ((character < '0' || character > '9') && (character < 'a' || character > 'f')) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    static String intern(String value) {
+        if (Objects.isNull(value)) {
+            return null;
+        }
+
+        int slot = (value.hashCode() ^ (value.hashCode() >>> 16)) & (INTERNED_SLOTS - 1);
+        String interned = INTERNED[slot];
+        if (value.equals(interned)) {
+            return interned;
+        }
+
+        INTERNED[slot] = value;
+        return value;
+    }
+
+    @Override
+    public BranchDTO get(int index) {
+        Objects.checkIndex(index, this.names.length);
+
+        return new BranchDTO(this.names[index], sha(index));
+    }
+
+    @Override
+    public int size() {
+        return this.names.length;
+    }
+
+    private String sha(int index) {
+        if (Objects.nonNull(this.textShaIndexes) && this.textShaIndexes.get(index)) {
+            return this.textShas[index];
+        }
+
+        return HEX_FORMAT.formatHex(this.packedShas, index * SHA_BYTES, (index + 1) * SHA_BYTES);
+    }
+}
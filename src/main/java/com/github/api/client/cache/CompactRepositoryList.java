@@ -0,0 +1,55 @@
+package com.github.api.client.cache;
+
+import com.github.api.client.model.dto.RepositoryDTO;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+// Cached result of a user. Owner logins are interned, so all repositories of the user share one instance,
+// and branches are kept as CompactBranchList, or null when they were not requested.
+// RepositoryDTOs are created only when the list is read.
+final class CompactRepositoryList extends AbstractList<RepositoryDTO> implements RandomAccess {
+    private final String[] names;
+    private final String[] ownerLogins;
+    private final CompactBranchList[] branches;
+
+    private CompactRepositoryList(String[] names, String[] ownerLogins, CompactBranchList[] branches) {
+        this.names = names;
+        this.ownerLogins = ownerLogins;
+        this.branches = branches;
+    }
+
+    static CompactRepositoryList of(List<RepositoryDTO> repositories) {
+        if (repositories instanceof CompactRepositoryList compactRepositories) {
+            return compactRepositories;
+        }
+
+        int size = repositories.size();
+        String[] names = new String[size];
+        String[] ownerLogins = new String[size];
+        CompactBranchList[] branches = new CompactBranchList[size];
+
+        for (int i = 0; i < size; i++) {
+            RepositoryDTO repository = Objects.requireNonNull(repositories.get(i));
+            names[i] = repository.repositoryName();
+            ownerLogins[i] = CompactBranchList.intern(repository.ownerLogin());
+            branches[i] = Objects.nonNull(repository.branches()) ? CompactBranchList.of(repository.branches()) : null;
+        }
+
+        return new CompactRepositoryList(names, ownerLogins, branches);
+    }
+
+    @Override
+    public RepositoryDTO get(int index) {
+        Objects.checkIndex(index, this.names.length);
+
+        return new RepositoryDTO(this.names[index], this.ownerLogins[index], this.branches[index]);
+    }
+
+    @Override
+    public int size() {
+        return this.names.length;
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.api.client.cache;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.snapshot.CacheSnapshotRecord;
+import com.github.api.client.cache.snapshot.CacheSnapshotStore;
+import com.github.api.client.client.GithubPage;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Keeps ETags of Github API responses together with their decoded pages, so requests can be sent with
+// If-None-Match header. Github does not count 304 responses against the rate limit.
+// Entries are also written to the snapshot store, so they can be revalidated instead of fetched again after a restart.
+// More info here: https://docs.github.com/en/rest/using-the-rest-api/best-practices-for-using-the-rest-api#use-conditional-requests-if-appropriate
+@Component
+public class ConditionalRequestCache {
+    private final Map<Key, Entry<?>> entries;
+    private final CacheSnapshotStore snapshotStore;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+
+    public ConditionalRequestCache(PropertiesValues propertiesValues, CacheSnapshotStore snapshotStore) {
+        this.snapshotStore = snapshotStore;
+        int maxEntries = propertiesValues.conditionalCacheMaxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry<?>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Entry<T> get(String url, String accessToken) {
+        Entry<T> entry;
+
+        synchronized (this.entries) {
+            entry = (Entry<T>) this.entries.get(new Key(url, TokenIdentity.of(accessToken)));
+        }
+
+        (entry != null ? this.hits : this.misses).incrementAndGet();
+        return entry;
+    }
+
+    public <T> void put(String url, String accessToken, String etag, GithubPage<T> page) {
+        Key key = new Key(url, TokenIdentity.of(accessToken));
+        Entry<T> entry = new Entry<>(etag, page);
+
+        synchronized (this.entries) {
+            this.entries.put(key, entry);
+        }
+
+        this.snapshotStore.append(new CacheSnapshotRecord.ConditionalEntry(key, entry));
+    }
+
+    // Entries put after a restart are newer than the restored ones, so they are not replaced
+    public void restore(Key key, Entry<?> entry) {
+        synchronized (this.entries) {
+            this.entries.putIfAbsent(key, entry);
+        }
+    }
+
+    // Entries from least to most recently used, so restoring them keeps their order
+    public List<CacheSnapshotRecord> snapshot() {
+        synchronized (this.entries) {
+            return this.entries.entrySet().stream()
+                    .<CacheSnapshotRecord>map(entry -> new CacheSnapshotRecord.ConditionalEntry(entry.getKey(), entry.getValue()))
+                    .toList();
+        }
+    }
+
+    public void recordNotModified() {
+        this.notModified.incrementAndGet();
+    }
+
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    public long hits() {
+        return this.hits.get();
+    }
+
+    public long misses() {
+        return this.misses.get();
+    }
+
+    public long notModified() {
+        return this.notModified.get();
+    }
+
+    public record Key(String url, String tokenIdentity) {}
+
+    public record Entry<T>(String etag, GithubPage<T> page) {}
+}
@@ -0,0 +1,145 @@
+package com.github.api.client.cache;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.snapshot.CacheSnapshotRecord;
+import com.github.api.client.cache.snapshot.CacheSnapshotStore;
+import com.github.api.client.model.Repository;
+import com.github.api.client.model.dto.BranchDTO;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Remembers branches of every fetched repository together with its pushed_at and updated_at timestamps.
+// Pushing to any branch, creating or deleting one changes pushed_at, so while both timestamps in the repositories
+// listing are the same as remembered ones, the branches are reused instead of requested again.
+// Branches are requested anyway after fetcher.incremental.max-age-ms, in case a change was not reflected in timestamps.
+// Entries are also written to the snapshot store, so they are used after a restart as well.
+// Branches are kept as CompactBranchList, with shared names and packed SHAs.
+@Component
+public class RepositoryStateCache {
+    private final PropertiesValues propertiesValues;
+    private final CacheSnapshotStore snapshotStore;
+    private final Map<Key, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public RepositoryStateCache(PropertiesValues propertiesValues, CacheSnapshotStore snapshotStore) {
+        this.propertiesValues = propertiesValues;
+        this.snapshotStore = snapshotStore;
+        int maxEntries = propertiesValues.incrementalMaxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return this.propertiesValues.incrementalEnabled;
+    }
+
+    // Returns null when the repository has changed since its branches were remembered, or its state is unknown
+    public List<BranchDTO> getUnchangedBranches(Repository repository, String accessToken) {
+        if (!isEnabled() || !hasTimestamps(repository)) {
+            return null;
+        }
+
+        Key key = Key.of(repository, accessToken);
+        Entry entry;
+
+        synchronized (this.entries) {
+            entry = this.entries.get(key);
+        }
+
+        boolean unchanged = Objects.nonNull(entry)
+                && repository.pushedAt().equals(entry.pushedAt())
+                && repository.updatedAt().equals(entry.updatedAt())
+                && System.currentTimeMillis() - entry.fetchedAtEpochMs() < this.propertiesValues.incrementalMaxAgeMs;
+
+        (unchanged ? this.hits : this.misses).incrementAndGet();
+        return unchanged ? entry.branches() : null;
+    }
+
+    public void put(Repository repository, String accessToken, List<BranchDTO> branches) {
+        if (!isEnabled() || !hasTimestamps(repository)) {
+            return;
+        }
+
+        Key key = Key.of(repository, accessToken);
+        Entry entry = new Entry(
+                repository.pushedAt(),
+                repository.updatedAt(),
+                CompactBranchList.of(branches),
+                System.currentTimeMillis()
+        );
+
+        synchronized (this.entries) {
+            this.entries.put(key, entry);
+        }
+
+        this.snapshotStore.append(new CacheSnapshotRecord.RepositoryStateEntry(key, entry));
+    }
+
+    // Entries put after a restart are newer than the restored ones, so they are not replaced
+    public void restore(Key key, Entry entry) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        Entry compactEntry = new Entry(
+                entry.pushedAt(),
+                entry.updatedAt(),
+                CompactBranchList.of(entry.branches()),
+                entry.fetchedAtEpochMs()
+        );
+
+        synchronized (this.entries) {
+            this.entries.putIfAbsent(key, compactEntry);
+        }
+    }
+
+    // Entries from least to most recently used, so restoring them keeps their order
+    public List<CacheSnapshotRecord> snapshot() {
+        synchronized (this.entries) {
+            return this.entries.entrySet().stream()
+                    .<CacheSnapshotRecord>map(entry -> new CacheSnapshotRecord.RepositoryStateEntry(entry.getKey(), entry.getValue()))
+                    .toList();
+        }
+    }
+
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    public long hits() {
+        return this.hits.get();
+    }
+
+    public long misses() {
+        return this.misses.get();
+    }
+
+    private boolean hasTimestamps(Repository repository) {
+        return Objects.nonNull(repository.pushedAt()) && Objects.nonNull(repository.updatedAt())
+                && Objects.nonNull(repository.owner());
+    }
+
+    public record Key(String ownerLogin, String repositoryName, String tokenIdentity) {
+        // Github usernames and repository names are case-insensitive
+        public static Key of(Repository repository, String accessToken) {
+            return new Key(
+                    repository.owner().login().toLowerCase(Locale.ROOT),
+                    repository.name().toLowerCase(Locale.ROOT),
+                    TokenIdentity.of(accessToken)
+            );
+        }
+    }
+
+    // Wall clock time is kept, as the age of an entry has to survive a restart
+    public record Entry(Instant pushedAt, Instant updatedAt, List<BranchDTO> branches, long fetchedAtEpochMs) {}
+}
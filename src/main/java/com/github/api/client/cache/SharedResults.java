@@ -0,0 +1,206 @@
+package com.github.api.client.cache;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.shared.SharedResultsStore;
+import com.github.api.client.cache.snapshot.CacheSnapshotCodec;
+import com.github.api.client.cache.snapshot.CacheSnapshotRecord;
+import com.github.api.client.exception.FetchTimeoutException;
+import com.github.api.client.model.dto.RepositoryDTO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Second level of UserReposCache, kept in a SharedResultsStore by all replicas. Results are encoded like snapshot
+// records, with the time they were stored, so every replica expires them at the same time.
+// A result missing everywhere is loaded by the replica which acquires the lease of its key, the other ones wait
+// for its result, and load it themselves only when it doesn't come within lease-wait-ms. Revalidation and refresh
+// go through the lease as well, so a result is loaded again by one replica and taken by the other ones.
+// Failures of the store are logged and the result is loaded as if there was no store.
+@Slf4j
+final class SharedResults {
+    private static final String RESULTS_KEY = "results:";
+    private static final String LEASE_KEY = "lease:";
+    private final PropertiesValues propertiesValues;
+    private final SharedResultsStore store;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong leaseWaits = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    SharedResults(PropertiesValues propertiesValues, SharedResultsStore store) {
+        this.propertiesValues = propertiesValues;
+        this.store = store;
+    }
+
+    boolean isEnabled() {
+        return this.store.isEnabled();
+    }
+
+    // Result stored by another replica, or the one returned by loader, which stores it before the lease is released.
+    // Stored result is taken only when it doesn't expire within freshForMs, so results about to expire are loaded again.
+    Stored getOrLoad(UserReposCache.Key key, Supplier<List<RepositoryDTO>> loader, long freshForMs) {
+        if (!this.store.isEnabled()) {
+            return load(loader);
+        }
+
+        Stored stored = get(key, freshForMs);
+        if (Objects.nonNull(stored)) {
+            return stored;
+        }
+
+        String leaseKey = this.propertiesValues.sharedCacheKeyPrefix + LEASE_KEY + keySuffix(key);
+        String owner = UUID.randomUUID().toString();
+        long waitUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.propertiesValues.sharedCacheLeaseWaitMs);
+
+        while (!tryAcquireLease(leaseKey, owner)) {
+            if (System.nanoTime() - waitUntil >= 0) {
+                log.info("Result for user: {} has not been stored by another replica in time", key.userName());
+                return load(loader);
+            }
+
+            this.leaseWaits.incrementAndGet();
+            sleep(this.propertiesValues.sharedCacheLeasePollMs);
+
+            stored = get(key, freshForMs);
+            if (Objects.nonNull(stored)) {
+                return stored;
+            }
+        }
+
+        try {
+            // Result may have been stored by a replica which has released the lease just before it was acquired
+            stored = get(key, freshForMs);
+            return Objects.nonNull(stored) ? stored : load(loader);
+        } finally {
+            releaseLease(leaseKey, owner);
+        }
+    }
+
+    // Result is stored for the rest of its time to live
+    void put(UserReposCache.Key key, List<RepositoryDTO> repositories, long storedAtEpochMs) {
+        long remainingTtlMs = storedAtEpochMs + this.propertiesValues.resultsCacheTtlMs - System.currentTimeMillis();
+        if (!this.store.isEnabled() || remainingTtlMs <= 0) {
+            return;
+        }
+
+        try {
+            byte[] value = CacheSnapshotCodec.encode(new CacheSnapshotRecord.UserReposEntry(key, repositories, storedAtEpochMs));
+            this.store.put(resultsKey(key), value, remainingTtlMs);
+        } catch (RuntimeException exception) {
+            failed("storing", key, exception);
+        }
+    }
+
+    void delete(UserReposCache.Key key) {
+        if (!this.store.isEnabled()) {
+            return;
+        }
+
+        try {
+            this.store.delete(resultsKey(key));
+        } catch (RuntimeException exception) {
+            failed("deleting", key, exception);
+        }
+    }
+
+    long hits() {
+        return this.hits.get();
+    }
+
+    long loads() {
+        return this.loads.get();
+    }
+
+    long leaseWaits() {
+        return this.leaseWaits.get();
+    }
+
+    long failures() {
+        return this.failures.get();
+    }
+
+    private Stored get(UserReposCache.Key key, long freshForMs) {
+        try {
+            byte[] value = this.store.get(resultsKey(key));
+            CacheSnapshotRecord record = Objects.nonNull(value) ? CacheSnapshotCodec.decode(value) : null;
+
+            if (record instanceof CacheSnapshotRecord.UserReposEntry entry && entry.key().equals(key)
+                    && entry.storedAtEpochMs() + this.propertiesValues.resultsCacheTtlMs - System.currentTimeMillis() > freshForMs) {
+                this.hits.incrementAndGet();
+                return new Stored(entry.repositories(), entry.storedAtEpochMs(), false);
+            }
+        } catch (RuntimeException exception) {
+            failed("reading", key, exception);
+        }
+
+        return null;
+    }
+
+    private Stored load(Supplier<List<RepositoryDTO>> loader) {
+        this.loads.incrementAndGet();
+
+        return new Stored(loader.get(), System.currentTimeMillis(), true);
+    }
+
+    // Lease of an unavailable store is treated as acquired, the result is loaded right away
+    private boolean tryAcquireLease(String leaseKey, String owner) {
+        try {
+            return this.store.tryAcquireLease(leaseKey, owner, this.propertiesValues.sharedCacheLeaseMs);
+        } catch (RuntimeException exception) {
+            this.failures.incrementAndGet();
+            log.warn("Acquiring lease: {} has failed: {}", leaseKey, exception.getMessage());
+            return true;
+        }
+    }
+
+    private void releaseLease(String leaseKey, String owner) {
+        try {
+            this.store.releaseLease(leaseKey, owner);
+        } catch (RuntimeException exception) {
+            this.failures.incrementAndGet();
+            log.warn("Releasing lease: {} has failed: {}", leaseKey, exception.getMessage());
+        }
+    }
+
+    private void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new FetchTimeoutException(this.propertiesValues.fetchTimeoutMessage);
+        }
+    }
+
+    private void failed(String operation, UserReposCache.Key key, RuntimeException exception) {
+        this.failures.incrementAndGet();
+        log.warn("{} shared result for user: {} has failed: {}", operation, key.userName(), exception.getMessage());
+    }
+
+    private String resultsKey(UserReposCache.Key key) {
+        return this.propertiesValues.sharedCacheKeyPrefix + RESULTS_KEY + keySuffix(key);
+    }
+
+    // Username stays readable, the other parts are hashed, so keys have the same length whatever parameters are sent
+    private static String keySuffix(UserReposCache.Key key) {
+        String parts = String.join("\n", key.tokenIdentity(), String.valueOf(key.sort()), String.valueOf(key.direction()));
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return key.userName() + ":" + HexFormat.of().formatHex(digest.digest(parts.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    // Loaded is false for results stored by another replica
+    record Stored(List<RepositoryDTO> repositories, long storedAtEpochMs, boolean loaded) {}
+}
@@ -0,0 +1,28 @@
+package com.github.api.client.cache;
+
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// Cached data is scoped by the token used to fetch it, but raw tokens are never kept in cache keys
+public final class TokenIdentity {
+    public static final String ANONYMOUS = "anonymous";
+
+    private TokenIdentity() {}
+
+    public static String of(String accessToken) {
+        if (!StringUtils.hasText(accessToken)) {
+            return ANONYMOUS;
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(accessToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
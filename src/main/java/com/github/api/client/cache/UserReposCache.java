@@ -0,0 +1,545 @@
+package com.github.api.client.cache;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.shared.SharedResultsStore;
+import com.github.api.client.cache.snapshot.CacheSnapshotRecord;
+import com.github.api.client.cache.snapshot.CacheSnapshotStore;
+import com.github.api.client.model.dto.RepositoryDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+// Caches results of fetching user's repositories for fetcher.cache.results.ttl-ms. For fetcher.cache.results.stale-ms
+// after that, an expired result is still served while it is loaded again in the background.
+// Concurrent requests for the same key wait for a single computation instead of starting their own.
+// Entries are evicted in least recently used order when there is more of them than max-entries
+// or when their summed weight (number of repositories and branches) exceeds max-weight.
+// Entries are also written to the snapshot store and restored after a restart for the rest of their time to live.
+// Results are kept as CompactRepositoryList, with shared owner and branch names and packed SHAs.
+// With a SharedResultsStore configured, this cache is the near cache of results shared by all replicas:
+// a missing result is taken from the store, or loaded by a single replica and stored for the other ones.
+// Cached copies are checked against the store every near-ttl-ms, so changes made by other replicas are taken.
+@Slf4j
+@Component
+public class UserReposCache {
+    private final PropertiesValues propertiesValues;
+    private final CacheSnapshotStore snapshotStore;
+    private final SharedResults sharedResults;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Key, CompletableFuture<List<RepositoryDTO>>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final Map<Key, Access> accesses = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private long totalWeight;
+
+    public UserReposCache(
+            PropertiesValues propertiesValues,
+            CacheSnapshotStore snapshotStore,
+            SharedResultsStore sharedResultsStore
+    ) {
+        this.propertiesValues = propertiesValues;
+        this.snapshotStore = snapshotStore;
+        this.sharedResults = new SharedResults(propertiesValues, sharedResultsStore);
+    }
+
+    public List<RepositoryDTO> getOrCompute(Key key, Supplier<List<RepositoryDTO>> loader) {
+        if (this.propertiesValues.resultsCacheTtlMs <= 0) {
+            return loader.get();
+        }
+
+        List<RepositoryDTO> cached = getAllowingStale(key, loader);
+        if (Objects.nonNull(cached)) {
+            return cached;
+        }
+
+        CompletableFuture<List<RepositoryDTO>> computation = new CompletableFuture<>();
+        CompletableFuture<List<RepositoryDTO>> runningComputation = this.inFlight.putIfAbsent(key, computation);
+
+        if (Objects.nonNull(runningComputation)) {
+            this.coalesced.incrementAndGet();
+            return await(runningComputation);
+        }
+
+        this.misses.incrementAndGet();
+        long generation = generation(key.userName());
+        return load(key, () -> loadShared(key, loader, generation, 0), computation);
+    }
+
+    // Returns a fresh result, or a stale one while it is revalidated in the background with loader.
+    // Returns null when there is neither of them. The access is counted for the refresher of hot users.
+    public List<RepositoryDTO> getAllowingStale(Key key, Supplier<List<RepositoryDTO>> loader) {
+        if (this.propertiesValues.resultsCacheTtlMs <= 0) {
+            return null;
+        }
+
+        recordAccess(key, loader);
+        long now = System.nanoTime();
+        Entry entry;
+
+        synchronized (this.entries) {
+            entry = lookup(key, now);
+        }
+
+        if (Objects.isNull(entry)) {
+            return null;
+        }
+
+        this.hits.incrementAndGet();
+        if (entry.expiresAt() - now <= 0) {
+            this.staleHits.incrementAndGet();
+            revalidateInBackground(key, loader);
+        } else if (entry.sharedCheckAt() - now <= 0) {
+            revalidateInBackground(key, loader);
+        }
+
+        return entry.repositories();
+    }
+
+    // Returns only results which have not expired yet
+    public List<RepositoryDTO> get(Key key) {
+        long now = System.nanoTime();
+
+        synchronized (this.entries) {
+            Entry entry = lookup(key, now);
+
+            return Objects.nonNull(entry) && entry.expiresAt() - now > 0 ? entry.repositories() : null;
+        }
+    }
+
+    // Loads the result again unless it is already being loaded. Exceptions of loader are rethrown.
+    // Result refreshed by another replica is taken instead, when it doesn't expire within refreshAheadMs.
+    public void refresh(Key key, Supplier<List<RepositoryDTO>> loader, long refreshAheadMs) {
+        CompletableFuture<List<RepositoryDTO>> computation = new CompletableFuture<>();
+
+        if (Objects.isNull(this.inFlight.putIfAbsent(key, computation))) {
+            long generation = generation(key.userName());
+            load(key, () -> loadShared(key, loader, generation, refreshAheadMs), computation);
+        }
+    }
+
+    // Frequently accessed keys whose result is missing or expires within refreshAheadMs, most accessed first.
+    // Keys whose result has never been cached are skipped, the cost of their refresh is unknown.
+    public List<RefreshCandidate> refreshCandidates(long refreshAheadMs, long minAccesses) {
+        long refreshBefore = System.nanoTime() + refreshAheadMs * 1_000_000;
+        List<RefreshCandidate> candidates = new ArrayList<>();
+
+        synchronized (this.entries) {
+            this.accesses.forEach((key, access) -> {
+                long count = access.count.get();
+                Entry entry = this.entries.get(key);
+
+                int repositoriesCount = Objects.nonNull(entry) ? entry.repositories().size() : access.repositoriesCount;
+
+                if (count >= minAccesses && repositoriesCount >= 0 && !this.inFlight.containsKey(key)
+                        && (Objects.isNull(entry) || entry.expiresAt() - refreshBefore <= 0)) {
+                    candidates.add(new RefreshCandidate(key, access.loader, count, repositoriesCount));
+                }
+            });
+        }
+
+        candidates.sort(Comparator.comparingLong(RefreshCandidate::accesses).reversed());
+        return candidates;
+    }
+
+    // Halves access counts, so keys which are not accessed anymore stop being refreshed and are forgotten
+    public void decayAccesses() {
+        this.accesses.values().removeIf(access -> access.count.updateAndGet(count -> count / 2) == 0);
+    }
+
+    // Partial results are not cached, the next request tries to fetch the missing branches again.
+    // Cached results are also stored for the other replicas.
+    public void put(Key key, List<RepositoryDTO> repositories) {
+        put(key, repositories, generation(key.userName()));
+    }
+
+    // Generation is taken before fetching the repositories. Results fetched before an update of the user
+    // may miss its changes, so they are returned without being cached.
+    public void put(Key key, List<RepositoryDTO> repositories, long generation) {
+        long storedAtEpochMs = System.currentTimeMillis();
+        List<RepositoryDTO> copiedRepositories = putLocal(key, repositories, storedAtEpochMs, generation);
+
+        if (Objects.nonNull(copiedRepositories)) {
+            this.sharedResults.put(key, copiedRepositories, storedAtEpochMs);
+        }
+    }
+
+    // Changes cached results of the user in place, e.g. when a webhook reports a change of its repositories.
+    // Updater gets every result of the user and returns its new repositories, the same list to keep it unchanged,
+    // or null to drop it. Results keep their expiry. Dropped results are written to the snapshot as expired,
+    // so they are not restored after a restart. Returns the number of changed or dropped results.
+    // Generation of the user is bumped, so results which are being fetched are not cached when they are put.
+    public int update(String userName, BiFunction<Key, List<RepositoryDTO>, List<RepositoryDTO>> updater) {
+        String normalizedUserName = userName.toLowerCase(Locale.ROOT);
+        List<CacheSnapshotRecord.UserReposEntry> changedRecords = new ArrayList<>();
+
+        synchronized (this.entries) {
+            this.generations.computeIfAbsent(normalizedUserName, generationUserName -> new AtomicLong()).incrementAndGet();
+            Iterator<Map.Entry<Key, Entry>> userEntries = this.entries.entrySet().iterator();
+
+            while (userEntries.hasNext()) {
+                Map.Entry<Key, Entry> userEntry = userEntries.next();
+                Key key = userEntry.getKey();
+                Entry entry = userEntry.getValue();
+                if (!key.userName().equals(normalizedUserName)) {
+                    continue;
+                }
+
+                List<RepositoryDTO> repositories = updater.apply(key, entry.repositories());
+                if (repositories == entry.repositories()) {
+                    continue;
+                }
+
+                this.totalWeight -= entry.weight();
+                if (Objects.isNull(repositories)) {
+                    userEntries.remove();
+                    changedRecords.add(new CacheSnapshotRecord.UserReposEntry(key, List.of(), 0));
+                    continue;
+                }
+
+                List<RepositoryDTO> copiedRepositories = CompactRepositoryList.of(repositories);
+                long weight = weightOf(copiedRepositories);
+                // Setting the value doesn't change the order of least recently used entries
+                userEntry.setValue(new Entry(
+                        copiedRepositories, weight, entry.expiresAt(), entry.sharedCheckAt(), entry.storedAtEpochMs()
+                ));
+                this.totalWeight += weight;
+                changedRecords.add(new CacheSnapshotRecord.UserReposEntry(key, copiedRepositories, entry.storedAtEpochMs()));
+            }
+
+            evict();
+        }
+
+        changedRecords.forEach(record -> {
+            this.snapshotStore.append(record);
+
+            if (record.storedAtEpochMs() == 0) {
+                this.sharedResults.delete(record.key());
+            } else {
+                this.sharedResults.put(record.key(), record.repositories(), record.storedAtEpochMs());
+            }
+        });
+        return changedRecords.size();
+    }
+
+    // Counts updates of the user, only users updated by webhooks are tracked
+    public long generation(String userName) {
+        AtomicLong generation = this.generations.get(userName.toLowerCase(Locale.ROOT));
+
+        return Objects.nonNull(generation) ? generation.get() : 0;
+    }
+
+    // Restored entry expires when it would have expired without the restart. Entries past their stale period are skipped,
+    // their data is fetched again, but mostly with conditional requests answered with 304.
+    public void restore(Key key, List<RepositoryDTO> repositories, long storedAtEpochMs) {
+        long remainingTtlMs = storedAtEpochMs + this.propertiesValues.resultsCacheTtlMs - System.currentTimeMillis();
+        long weight = weightOf(repositories);
+
+        if (this.propertiesValues.resultsCacheTtlMs <= 0
+                || remainingTtlMs + this.propertiesValues.resultsCacheStaleMs <= 0
+                || weight > this.propertiesValues.resultsCacheMaxWeight) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        long expiresAt = now + remainingTtlMs * 1_000_000;
+
+        synchronized (this.entries) {
+            if (!this.entries.containsKey(key)) {
+                insert(key, new Entry(
+                        CompactRepositoryList.of(repositories), weight, expiresAt, sharedCheckAt(now, expiresAt), storedAtEpochMs
+                ));
+            }
+        }
+    }
+
+    // Entries which can still be served, from least to most recently used
+    public List<CacheSnapshotRecord> snapshot() {
+        long now = System.nanoTime();
+
+        synchronized (this.entries) {
+            return this.entries.entrySet().stream()
+                    .filter(entry -> staleUntil(entry.getValue()) - now > 0)
+                    .<CacheSnapshotRecord>map(entry -> new CacheSnapshotRecord.UserReposEntry(
+                            entry.getKey(),
+                            entry.getValue().repositories(),
+                            entry.getValue().storedAtEpochMs()
+                    ))
+                    .toList();
+        }
+    }
+
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    public long totalWeight() {
+        synchronized (this.entries) {
+            return this.totalWeight;
+        }
+    }
+
+    public long hits() {
+        return this.hits.get();
+    }
+
+    public long misses() {
+        return this.misses.get();
+    }
+
+    public long coalesced() {
+        return this.coalesced.get();
+    }
+
+    public long staleHits() {
+        return this.staleHits.get();
+    }
+
+    public long sharedHits() {
+        return this.sharedResults.hits();
+    }
+
+    public long sharedLeaseWaits() {
+        return this.sharedResults.leaseWaits();
+    }
+
+    public long sharedFailures() {
+        return this.sharedResults.failures();
+    }
+
+    // Entries past their stale period are removed, expired ones within it are returned
+    private Entry lookup(Key key, long now) {
+        Entry entry = this.entries.get(key);
+
+        if (Objects.nonNull(entry) && staleUntil(entry) - now <= 0) {
+            remove(key);
+            return null;
+        }
+
+        return entry;
+    }
+
+    // Copies of shared results are checked against the store after near-ttl-ms, other ones only when they expire
+    private long sharedCheckAt(long now, long expiresAt) {
+        if (!this.sharedResults.isEnabled() || this.propertiesValues.sharedCacheNearTtlMs <= 0) {
+            return expiresAt;
+        }
+
+        long checkAt = now + this.propertiesValues.sharedCacheNearTtlMs * 1_000_000;
+        return checkAt - expiresAt < 0 ? checkAt : expiresAt;
+    }
+
+    private long staleUntil(Entry entry) {
+        return entry.expiresAt() + this.propertiesValues.resultsCacheStaleMs * 1_000_000;
+    }
+
+    // Caching loader puts the result into the cache itself
+    private List<RepositoryDTO> load(
+            Key key,
+            Supplier<List<RepositoryDTO>> cachingLoader,
+            CompletableFuture<List<RepositoryDTO>> computation
+    ) {
+        try {
+            List<RepositoryDTO> repositories = cachingLoader.get();
+            computation.complete(repositories);
+
+            return repositories;
+        } catch (RuntimeException | Error exception) {
+            computation.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            this.inFlight.remove(key, computation);
+        }
+    }
+
+    // Refreshed result replaces the shared one as well, which would otherwise expire with the cached one
+    private List<RepositoryDTO> loadFresh(Key key, Supplier<List<RepositoryDTO>> loader, long generation) {
+        List<RepositoryDTO> repositories = loader.get();
+        put(key, repositories, generation);
+
+        return repositories;
+    }
+
+    // Loaded result is stored while the lease is held, so the waiting replicas find it when it is released.
+    // Result taken from the shared store is cached until it expires for the replica which has loaded it.
+    // Shared results which expire within freshForMs are loaded again.
+    private List<RepositoryDTO> loadShared(Key key, Supplier<List<RepositoryDTO>> loader, long generation, long freshForMs) {
+        SharedResults.Stored stored = this.sharedResults.getOrLoad(
+                key,
+                () -> loadFresh(key, loader, generation),
+                freshForMs
+        );
+
+        if (stored.loaded()) {
+            return stored.repositories();
+        }
+
+        List<RepositoryDTO> copiedRepositories = putLocal(key, stored.repositories(), stored.storedAtEpochMs(), generation);
+        return Objects.nonNull(copiedRepositories) ? copiedRepositories : stored.repositories();
+    }
+
+    // Returns the cached copy of repositories, or null when they are not cached.
+    // Generation is checked while the entries are locked, so an update either changes the result or drops it.
+    private List<RepositoryDTO> putLocal(Key key, List<RepositoryDTO> repositories, long storedAtEpochMs, long generation) {
+        long remainingTtlMs = storedAtEpochMs + this.propertiesValues.resultsCacheTtlMs - System.currentTimeMillis();
+        if (this.propertiesValues.resultsCacheTtlMs <= 0 || remainingTtlMs <= 0
+                || RepositoryDTO.isPartial(repositories)) {
+            return null;
+        }
+
+        long weight = weightOf(repositories);
+
+        if (weight > this.propertiesValues.resultsCacheMaxWeight) {
+            log.info("Result for user: {} is too large to be cached", key.userName());
+            return null;
+        }
+
+        List<RepositoryDTO> copiedRepositories = CompactRepositoryList.of(repositories);
+        long now = System.nanoTime();
+        long expiresAt = now + remainingTtlMs * 1_000_000;
+
+        synchronized (this.entries) {
+            if (generation(key.userName()) != generation) {
+                log.info("Result for user: {} was fetched before its update and is not cached", key.userName());
+                return null;
+            }
+
+            remove(key);
+            insert(key, new Entry(copiedRepositories, weight, expiresAt, sharedCheckAt(now, expiresAt), storedAtEpochMs));
+        }
+
+        // Size of the last result is kept for the refresher, also after the result is evicted
+        Access access = this.accesses.get(key);
+        if (Objects.nonNull(access)) {
+            access.repositoriesCount = copiedRepositories.size();
+        }
+
+        this.snapshotStore.append(new CacheSnapshotRecord.UserReposEntry(key, copiedRepositories, storedAtEpochMs));
+        return copiedRepositories;
+    }
+
+    // Stale result stays in the cache when revalidation fails, until its stale period ends.
+    // Revalidation takes the shared result when another replica has already loaded it again.
+    private void revalidateInBackground(Key key, Supplier<List<RepositoryDTO>> loader) {
+        CompletableFuture<List<RepositoryDTO>> computation = new CompletableFuture<>();
+
+        if (Objects.nonNull(this.inFlight.putIfAbsent(key, computation))) {
+            return;
+        }
+
+        long generation = generation(key.userName());
+        Thread.ofVirtual().name("results-revalidation").start(() -> {
+            try {
+                load(key, () -> loadShared(key, loader, generation, 0), computation);
+            } catch (RuntimeException exception) {
+                log.warn("Revalidation of result for user: {} has failed", key.userName(), exception);
+            }
+        });
+    }
+
+    // Loader of the latest access is kept, so the refresher fetches data the same way as the user does.
+    // Only anonymous keys are tracked: their loaders hold no access token and are refreshed with pool tokens.
+    // Loaders of callers' keys would keep callers' tokens after their requests have ended.
+    // Number of tracked keys is limited, new keys are not tracked until decaying frees some space.
+    private void recordAccess(Key key, Supplier<List<RepositoryDTO>> loader) {
+        if (!key.tokenIdentity().equals(TokenIdentity.ANONYMOUS)) {
+            return;
+        }
+
+        Access access = this.accesses.get(key);
+
+        if (Objects.isNull(access)) {
+            if (this.accesses.size() >= this.propertiesValues.refreshMaxTrackedUsers) {
+                return;
+            }
+            access = this.accesses.computeIfAbsent(key, trackedKey -> new Access());
+        }
+
+        access.loader = loader;
+        access.count.incrementAndGet();
+    }
+
+    private void insert(Key key, Entry entry) {
+        this.entries.put(key, entry);
+        this.totalWeight += entry.weight();
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Key, Entry>> eldestEntries = this.entries.entrySet().iterator();
+
+        while (eldestEntries.hasNext() && (this.entries.size() > this.propertiesValues.resultsCacheMaxEntries
+                || this.totalWeight > this.propertiesValues.resultsCacheMaxWeight)) {
+            this.totalWeight -= eldestEntries.next().getValue().weight();
+            eldestEntries.remove();
+        }
+    }
+
+    private void remove(Key key) {
+        Entry removed = this.entries.remove(key);
+
+        if (Objects.nonNull(removed)) {
+            this.totalWeight -= removed.weight();
+        }
+    }
+
+    private long weightOf(List<RepositoryDTO> repositories) {
+        return repositories.size() + repositories.stream()
+                .filter(repository -> Objects.nonNull(repository.branches()))
+                .mapToLong(repository -> repository.branches().size())
+                .sum();
+    }
+
+    private List<RepositoryDTO> await(CompletableFuture<List<RepositoryDTO>> computation) {
+        try {
+            return computation.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+
+            throw exception;
+        }
+    }
+
+    // Filters are applied to the cached whole result of the user, so they are not part of the key
+    public record Key(String userName, String tokenIdentity, String sort, String direction) {
+        // Github usernames are case-insensitive
+        public static Key of(String userName, String accessToken, String sort, String direction) {
+            return new Key(userName.toLowerCase(Locale.ROOT), TokenIdentity.of(accessToken), sort, direction);
+        }
+    }
+
+    // Repositories count is the size of the last cached result
+    public record RefreshCandidate(
+            Key key,
+            Supplier<List<RepositoryDTO>> loader,
+            long accesses,
+            int repositoriesCount
+    ) {}
+
+    private record Entry(
+            List<RepositoryDTO> repositories,
+            long weight,
+            long expiresAt,
+            long sharedCheckAt,
+            long storedAtEpochMs
+    ) {}
+
+    private static final class Access {
+        private final AtomicLong count = new AtomicLong();
+        private volatile Supplier<List<RepositoryDTO>> loader;
+        private volatile int repositoriesCount = -1;
+    }
+}
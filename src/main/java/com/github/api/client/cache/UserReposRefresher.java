@@ -0,0 +1,136 @@
+package com.github.api.client.cache;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.ratelimit.RateLimitBudget;
+import com.github.api.client.ratelimit.RateLimitTracker;
+import com.github.api.client.ratelimit.TokenPool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Every fetcher.refresh.interval-ms loads again results of the most accessed users which expire soon,
+// so their requests are served from the cache instead of waiting for the whole fan-out.
+// Refreshing never spends rate limit of an access token below github.api.rate-limit.low-watermark,
+// requests of users always have priority over it. Only results requested without an access token are refreshed,
+// callers' tokens are not kept after their requests, so results of authenticated users are fetched again only
+// when they are requested after expiring.
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class UserReposRefresher {
+    public static final String REFRESHES_METRIC = "fetcher.results.refreshes";
+    private static final String OUTCOME_TAG = "outcome";
+    private final PropertiesValues propertiesValues;
+    private final UserReposCache userReposCache;
+    private final TokenPool tokenPool;
+    private final RateLimitTracker rateLimitTracker;
+    private final MeterRegistry meterRegistry;
+    private ScheduledExecutorService scheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!this.propertiesValues.refreshEnabled || this.propertiesValues.resultsCacheTtlMs <= 0
+                || Objects.nonNull(this.scheduler)) {
+            return;
+        }
+
+        long intervalMs = this.propertiesValues.refreshIntervalMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("results-refresher").factory());
+        this.scheduler.scheduleWithFixedDelay(this::refreshHotUsers, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (Objects.nonNull(this.scheduler)) {
+            this.scheduler.shutdownNow();
+            this.scheduler = null;
+        }
+    }
+
+    // Refreshes of one run are started together on virtual threads, their cost is counted up front
+    // for every access token, so they don't overspend its budget together
+    public void refreshHotUsers() {
+        try {
+            List<UserReposCache.RefreshCandidate> candidates = this.userReposCache.refreshCandidates(
+                    this.propertiesValues.refreshAheadMs,
+                    this.propertiesValues.refreshMinAccesses
+            );
+            Map<String, Long> plannedCalls = new HashMap<>();
+            int started = 0;
+
+            for (UserReposCache.RefreshCandidate candidate : candidates) {
+                if (started >= this.propertiesValues.refreshMaxUsersPerRun) {
+                    break;
+                }
+
+                String tokenIdentity = candidate.key().tokenIdentity();
+                long calls = plannedCalls.getOrDefault(tokenIdentity, 0L) + estimatedCalls(candidate);
+                if (!hasBudget(tokenIdentity, calls)) {
+                    count("skipped");
+                    continue;
+                }
+
+                plannedCalls.put(tokenIdentity, calls);
+                started++;
+                Thread.ofVirtual().name("results-refresh").start(() -> refresh(candidate));
+            }
+        } catch (RuntimeException exception) {
+            log.warn("Refreshing results of hot users has failed", exception);
+        } finally {
+            this.userReposCache.decayAccesses();
+        }
+    }
+
+    private void refresh(UserReposCache.RefreshCandidate candidate) {
+        try {
+            this.userReposCache.refresh(candidate.key(), candidate.loader(), this.propertiesValues.refreshAheadMs);
+            count("refreshed");
+        } catch (RuntimeException exception) {
+            log.info("Refreshing result for user: {} has failed: {}", candidate.key().userName(), exception.getMessage());
+            count("failed");
+        }
+    }
+
+    // Listing and branches of every repository, at most. Unchanged repositories and responses answered
+    // with 304 usually make it much cheaper.
+    private long estimatedCalls(UserReposCache.RefreshCandidate candidate) {
+        return 1L + candidate.repositoriesCount();
+    }
+
+    // Budget is unknown until the first response for the token, so nothing is refreshed before it.
+    // Anonymous results are refreshed with pool tokens, when there are any, otherwise with the anonymous budget.
+    // Anonymous limit is lower than the default low watermark, so at most half of a limit is kept for users.
+    private boolean hasBudget(String tokenIdentity, long calls) {
+        if (this.tokenPool.isEnabled()) {
+            return this.tokenPool.headroom(tokenIdentity, this.propertiesValues.rateLimitLowWatermark) >= calls;
+        }
+
+        RateLimitBudget budget = this.rateLimitTracker.budget(tokenIdentity);
+        long lowWatermark = budget.limit() < 0
+                ? this.propertiesValues.rateLimitLowWatermark
+                : Math.min(this.propertiesValues.rateLimitLowWatermark, budget.limit() / 2);
+
+        return budget.remaining() >= 0 && budget.remaining() - lowWatermark >= calls;
+    }
+
+    private void count(String outcome) {
+        Counter.builder(REFRESHES_METRIC)
+                .description("Background refreshes of cached results of frequently requested users")
+                .tag(OUTCOME_TAG, outcome)
+                .register(this.meterRegistry)
+                .increment();
+    }
+}
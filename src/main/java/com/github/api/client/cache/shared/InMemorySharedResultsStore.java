@@ -0,0 +1,60 @@
+package com.github.api.client.cache.shared;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Store shared only by caches of this process, for tests and a single replica. Expired values are removed
+// when they are read, so it is not meant for a long-running process with many users.
+public class InMemorySharedResultsStore implements SharedResultsStore {
+    private final Map<String, Value> values = new ConcurrentHashMap<>();
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    @Override
+    public byte[] get(String key) {
+        Value value = this.values.get(key);
+
+        if (Objects.nonNull(value) && isExpired(value.expiresAt())) {
+            this.values.remove(key, value);
+            return null;
+        }
+
+        return Objects.nonNull(value) ? value.bytes() : null;
+    }
+
+    @Override
+    public void put(String key, byte[] value, long ttlMs) {
+        this.values.put(key, new Value(value.clone(), expiresAt(ttlMs)));
+    }
+
+    @Override
+    public void delete(String key) {
+        this.values.remove(key);
+    }
+
+    @Override
+    public boolean tryAcquireLease(String key, String owner, long leaseMs) {
+        Lease lease = this.leases.compute(key, (leaseKey, current) ->
+                Objects.isNull(current) || isExpired(current.expiresAt()) ? new Lease(owner, expiresAt(leaseMs)) : current);
+
+        return lease.owner().equals(owner);
+    }
+
+    @Override
+    public void releaseLease(String key, String owner) {
+        this.leases.computeIfPresent(key, (leaseKey, current) -> current.owner().equals(owner) ? null : current);
+    }
+
+    private long expiresAt(long ttlMs) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    }
+
+    private boolean isExpired(long expiresAt) {
+        return expiresAt - System.nanoTime() <= 0;
+    }
+
+    private record Value(byte[] bytes, long expiresAt) {}
+
+    private record Lease(String owner, long expiresAt) {}
+}
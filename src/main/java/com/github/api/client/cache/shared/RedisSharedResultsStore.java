@@ -0,0 +1,83 @@
+package com.github.api.client.cache.shared;
+
+import io.lettuce.core.*;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Objects;
+
+// Store in Redis, used through a single Lettuce connection shared by all threads. The connection is opened
+// on first use, so the application starts while Redis is unavailable, and Lettuce reconnects it when it is lost.
+// Every command fails after timeout-ms. Leases are keys set with NX and PX, released with a script
+// which deletes the key only while it still holds the owner.
+public class RedisSharedResultsStore implements SharedResultsStore {
+    private static final String RELEASE_LEASE_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
+    private static final String OK = "OK";
+    private final RedisClient redisClient;
+    private volatile StatefulRedisConnection<String, byte[]> connection;
+
+    public RedisSharedResultsStore(String uri, long timeoutMs) {
+        RedisURI redisUri = RedisURI.create(uri);
+        redisUri.setTimeout(Duration.ofMillis(timeoutMs));
+
+        this.redisClient = RedisClient.create(redisUri);
+        this.redisClient.setOptions(ClientOptions.builder()
+                .socketOptions(SocketOptions.builder().connectTimeout(Duration.ofMillis(timeoutMs)).build())
+                .timeoutOptions(TimeoutOptions.enabled(Duration.ofMillis(timeoutMs)))
+                .build());
+    }
+
+    @Override
+    public byte[] get(String key) {
+        return commands().get(key);
+    }
+
+    @Override
+    public void put(String key, byte[] value, long ttlMs) {
+        commands().set(key, value, SetArgs.Builder.px(ttlMs));
+    }
+
+    @Override
+    public void delete(String key) {
+        commands().del(key);
+    }
+
+    @Override
+    public boolean tryAcquireLease(String key, String owner, long leaseMs) {
+        return OK.equals(commands().set(key, owner.getBytes(StandardCharsets.UTF_8), SetArgs.Builder.nx().px(leaseMs)));
+    }
+
+    @Override
+    public void releaseLease(String key, String owner) {
+        commands().eval(RELEASE_LEASE_SCRIPT, ScriptOutputType.INTEGER, new String[]{key}, owner.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (Objects.nonNull(this.connection)) {
+            this.connection.close();
+        }
+        this.redisClient.shutdown();
+    }
+
+    private RedisCommands<String, byte[]> commands() {
+        StatefulRedisConnection<String, byte[]> currentConnection = this.connection;
+
+        if (Objects.isNull(currentConnection)) {
+            synchronized (this) {
+                if (Objects.isNull(this.connection)) {
+                    this.connection = this.redisClient.connect(RedisCodec.of(StringCodec.UTF8, ByteArrayCodec.INSTANCE));
+                }
+                currentConnection = this.connection;
+            }
+        }
+
+        return currentConnection.sync();
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.api.client.cache.shared;
+
+// Storage of the second level results cache, shared by all replicas of the application.
+// Values are opaque bytes which expire after their time to live. A lease is a lock of a key held by a single owner
+// until it is released or expires, so only one replica fetches a result which is missing everywhere.
+// Failures are thrown as RuntimeExceptions, callers treat them as a missing value and go on without the store.
+// Implementation is chosen with fetcher.cache.shared.store property.
+public interface SharedResultsStore extends AutoCloseable {
+    String IN_MEMORY = "in-memory";
+    String REDIS = "redis";
+    SharedResultsStore NONE = new SharedResultsStore() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public byte[] get(String key) {
+            return null;
+        }
+
+        @Override
+        public void put(String key, byte[] value, long ttlMs) {}
+
+        @Override
+        public void delete(String key) {}
+
+        @Override
+        public boolean tryAcquireLease(String key, String owner, long leaseMs) {
+            return true;
+        }
+
+        @Override
+        public void releaseLease(String key, String owner) {}
+    };
+
+    default boolean isEnabled() {
+        return true;
+    }
+
+    // Returns null when there is no value or it has expired
+    byte[] get(String key);
+
+    void put(String key, byte[] value, long ttlMs);
+
+    void delete(String key);
+
+    boolean tryAcquireLease(String key, String owner, long leaseMs);
+
+    // Lease is released only by its owner, a lease which has expired and was acquired by someone else is kept
+    void releaseLease(String key, String owner);
+
+    @Override
+    default void close() {}
+}
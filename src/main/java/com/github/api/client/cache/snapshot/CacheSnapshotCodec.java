@@ -0,0 +1,279 @@
+package com.github.api.client.cache.snapshot;
+
+import com.github.api.client.cache.ConditionalRequestCache;
+import com.github.api.client.cache.RepositoryStateCache;
+import com.github.api.client.cache.UserReposCache;
+import com.github.api.client.client.GithubPage;
+import com.github.api.client.model.Branch;
+import com.github.api.client.model.Commit;
+import com.github.api.client.model.Owner;
+import com.github.api.client.model.Repository;
+import com.github.api.client.model.dto.BranchDTO;
+import com.github.api.client.model.dto.RepositoryDTO;
+
+import java.io.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+// Binary encoding of snapshot records. Strings are written as modified UTF-8 with a presence flag,
+// commit SHAs as their 20 raw bytes and timestamps as epoch milliseconds with a presence flag.
+// Single records are also encoded with their own header, e.g. as values of the shared results cache.
+public final class CacheSnapshotCodec {
+    static final int MAGIC = 0x47485343;
+    static final short VERSION = 4;
+    private static final byte CONDITIONAL_ENTRY = 1;
+    private static final byte USER_REPOS_ENTRY = 2;
+    private static final byte REPOSITORY_STATE_ENTRY = 3;
+    private static final byte EMPTY_PAGE = 0;
+    private static final byte REPOSITORIES_PAGE = 1;
+    private static final byte BRANCHES_PAGE = 2;
+    private static final byte PACKED_SHA = 1;
+    private static final byte TEXT_SHA = 2;
+    private static final int SHA_BYTES = 20;
+    private static final Pattern SHA_PATTERN = Pattern.compile("[0-9a-f]{40}");
+    private static final HexFormat HEX_FORMAT = HexFormat.of();
+
+    private CacheSnapshotCodec() {}
+
+    static void writeHeader(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+    }
+
+    // Returns false for files written by other versions, their content is dropped
+    static boolean readHeader(DataInput in) throws IOException {
+        return in.readInt() == MAGIC && in.readShort() == VERSION;
+    }
+
+    public static byte[] encode(CacheSnapshotRecord record) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeHeader(out);
+            write(out, record);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    // Returns null for records encoded by other versions or malformed ones
+    public static CacheSnapshotRecord decode(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return readHeader(in) ? read(in) : null;
+        } catch (IOException exception) {
+            return null;
+        }
+    }
+
+    static void write(DataOutput out, CacheSnapshotRecord record) throws IOException {
+        switch (record) {
+            case CacheSnapshotRecord.ConditionalEntry conditionalEntry -> {
+                out.writeByte(CONDITIONAL_ENTRY);
+                writeString(out, conditionalEntry.key().url());
+                writeString(out, conditionalEntry.key().tokenIdentity());
+                writeString(out, conditionalEntry.entry().etag());
+                writePage(out, conditionalEntry.entry().page());
+            }
+            case CacheSnapshotRecord.UserReposEntry userReposEntry -> {
+                out.writeByte(USER_REPOS_ENTRY);
+                writeString(out, userReposEntry.key().userName());
+                writeString(out, userReposEntry.key().tokenIdentity());
+                writeString(out, userReposEntry.key().sort());
+                writeString(out, userReposEntry.key().direction());
+                out.writeLong(userReposEntry.storedAtEpochMs());
+                writeRepositoryDTOs(out, userReposEntry.repositories());
+            }
+            case CacheSnapshotRecord.RepositoryStateEntry repositoryStateEntry -> {
+                out.writeByte(REPOSITORY_STATE_ENTRY);
+                writeString(out, repositoryStateEntry.key().ownerLogin());
+                writeString(out, repositoryStateEntry.key().repositoryName());
+                writeString(out, repositoryStateEntry.key().tokenIdentity());
+                writeInstant(out, repositoryStateEntry.entry().pushedAt());
+                writeInstant(out, repositoryStateEntry.entry().updatedAt());
+                out.writeLong(repositoryStateEntry.entry().fetchedAtEpochMs());
+                writeBranchDTOs(out, repositoryStateEntry.entry().branches());
+            }
+        }
+    }
+
+    // Throws EOFException when there are no more records
+    static CacheSnapshotRecord read(DataInput in) throws IOException {
+        byte type = in.readByte();
+
+        return switch (type) {
+            case CONDITIONAL_ENTRY -> new CacheSnapshotRecord.ConditionalEntry(
+                    new ConditionalRequestCache.Key(readString(in), readString(in)),
+                    new ConditionalRequestCache.Entry<>(readString(in), readPage(in))
+            );
+            case USER_REPOS_ENTRY -> {
+                UserReposCache.Key key = new UserReposCache.Key(readString(in), readString(in), readString(in), readString(in));
+                long storedAtEpochMs = in.readLong();
+
+                yield new CacheSnapshotRecord.UserReposEntry(key, readRepositoryDTOs(in), storedAtEpochMs);
+            }
+            case REPOSITORY_STATE_ENTRY -> {
+                RepositoryStateCache.Key key = new RepositoryStateCache.Key(readString(in), readString(in), readString(in));
+                Instant pushedAt = readInstant(in);
+                Instant updatedAt = readInstant(in);
+                long fetchedAtEpochMs = in.readLong();
+
+                yield new CacheSnapshotRecord.RepositoryStateEntry(
+                        key,
+                        new RepositoryStateCache.Entry(pushedAt, updatedAt, readBranchDTOs(in), fetchedAtEpochMs)
+                );
+            }
+            default -> throw new IOException("Unknown snapshot record type: " + type);
+        };
+    }
+
+    private static void writePage(DataOutput out, GithubPage<?> page) throws IOException {
+        List<?> items = page.items();
+        Object first = items.isEmpty() ? null : items.get(0);
+
+        if (first instanceof Repository) {
+            out.writeByte(REPOSITORIES_PAGE);
+        } else if (first instanceof Branch) {
+            out.writeByte(BRANCHES_PAGE);
+        } else if (Objects.isNull(first)) {
+            out.writeByte(EMPTY_PAGE);
+        } else {
+            throw new IOException("Unsupported page item type: " + first.getClass());
+        }
+
+        out.writeInt(page.lastPage());
+        out.writeInt(items.size());
+        for (Object item : items) {
+            if (item instanceof Repository repository) {
+                writeString(out, repository.name());
+                writeString(out, Objects.nonNull(repository.owner()) ? repository.owner().login() : null);
+                out.writeBoolean(repository.fork());
+                writeInstant(out, repository.pushedAt());
+                writeInstant(out, repository.updatedAt());
+            } else if (item instanceof Branch branch) {
+                writeString(out, branch.name());
+                writeSha(out, Objects.nonNull(branch.commit()) ? branch.commit().sha() : null);
+            }
+        }
+    }
+
+    private static GithubPage<?> readPage(DataInput in) throws IOException {
+        byte type = in.readByte();
+        int lastPage = in.readInt();
+        int size = in.readInt();
+
+        List<Object> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            switch (type) {
+                case REPOSITORIES_PAGE -> {
+                    String name = readString(in);
+                    String ownerLogin = readString(in);
+                    items.add(new Repository(
+                            name,
+                            Objects.nonNull(ownerLogin) ? new Owner(ownerLogin) : null,
+                            in.readBoolean(),
+                            readInstant(in),
+                            readInstant(in)
+                    ));
+                }
+                case BRANCHES_PAGE -> items.add(new Branch(readString(in), new Commit(readSha(in))));
+                default -> throw new IOException("Unknown page type: " + type);
+            }
+        }
+
+        return new GithubPage<>(items, lastPage);
+    }
+
+    private static void writeRepositoryDTOs(DataOutput out, List<RepositoryDTO> repositories) throws IOException {
+        out.writeInt(repositories.size());
+        for (RepositoryDTO repository : repositories) {
+            writeString(out, repository.repositoryName());
+            writeString(out, repository.ownerLogin());
+            out.writeBoolean(Objects.nonNull(repository.branches()));
+            if (Objects.nonNull(repository.branches())) {
+                writeBranchDTOs(out, repository.branches());
+            }
+        }
+    }
+
+    private static void writeBranchDTOs(DataOutput out, List<BranchDTO> branches) throws IOException {
+        out.writeInt(branches.size());
+        for (BranchDTO branch : branches) {
+            writeString(out, branch.branchName());
+            writeSha(out, branch.sha());
+        }
+    }
+
+    private static List<BranchDTO> readBranchDTOs(DataInput in) throws IOException {
+        int branchesCount = in.readInt();
+        List<BranchDTO> branches = new ArrayList<>(branchesCount);
+
+        for (int i = 0; i < branchesCount; i++) {
+            branches.add(new BranchDTO(readString(in), readSha(in)));
+        }
+
+        return List.copyOf(branches);
+    }
+
+    private static List<RepositoryDTO> readRepositoryDTOs(DataInput in) throws IOException {
+        int repositoriesCount = in.readInt();
+        List<RepositoryDTO> repositories = new ArrayList<>(repositoriesCount);
+
+        for (int i = 0; i < repositoriesCount; i++) {
+            String repositoryName = readString(in);
+            String ownerLogin = readString(in);
+
+            repositories.add(new RepositoryDTO(repositoryName, ownerLogin, in.readBoolean() ? readBranchDTOs(in) : null));
+        }
+
+        return List.copyOf(repositories);
+    }
+
+    private static void writeSha(DataOutput out, String sha) throws IOException {
+        if (Objects.nonNull(sha) && SHA_PATTERN.matcher(sha).matches()) {
+            out.writeByte(PACKED_SHA);
+            out.write(HEX_FORMAT.parseHex(sha));
+        } else {
+            out.writeByte(TEXT_SHA);
+            writeString(out, sha);
+        }
+    }
+
+    private static String readSha(DataInput in) throws IOException {
+        if (in.readByte() == PACKED_SHA) {
+            byte[] sha = new byte[SHA_BYTES];
+            in.readFully(sha);
+
+            return HEX_FORMAT.formatHex(sha);
+        }
+
+        return readString(in);
+    }
+
+    private static void writeInstant(DataOutput out, Instant value) throws IOException {
+        out.writeBoolean(Objects.nonNull(value));
+        if (Objects.nonNull(value)) {
+            out.writeLong(value.toEpochMilli());
+        }
+    }
+
+    private static Instant readInstant(DataInput in) throws IOException {
+        return in.readBoolean() ? Instant.ofEpochMilli(in.readLong()) : null;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(Objects.nonNull(value));
+        if (Objects.nonNull(value)) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.api.client.cache.snapshot;
+
+import com.github.api.client.cache.ConditionalRequestCache;
+import com.github.api.client.cache.RepositoryStateCache;
+import com.github.api.client.cache.UserReposCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Restores caches from the snapshot in the background once the application is ready, so startup doesn't wait for it.
+// Requests handled before restoring has finished simply miss the caches. Afterwards the log is compacted
+// to the restored entries and the store is allowed to compact it again from the caches when it grows.
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class CacheSnapshotLoader {
+    private final CacheSnapshotStore snapshotStore;
+    private final ConditionalRequestCache conditionalRequestCache;
+    private final UserReposCache userReposCache;
+    private final RepositoryStateCache repositoryStateCache;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        if (this.snapshotStore.isEnabled()) {
+            Thread.ofVirtual().name("cache-snapshot-loader").start(this::load);
+        }
+    }
+
+    public void load() {
+        // Later records of the same key replace earlier ones, but keep the position of the first one
+        Map<ConditionalRequestCache.Key, CacheSnapshotRecord.ConditionalEntry> conditionalEntries = new LinkedHashMap<>();
+        Map<UserReposCache.Key, CacheSnapshotRecord.UserReposEntry> userReposEntries = new LinkedHashMap<>();
+        Map<RepositoryStateCache.Key, CacheSnapshotRecord.RepositoryStateEntry> repositoryStateEntries = new LinkedHashMap<>();
+
+        for (CacheSnapshotRecord record : this.snapshotStore.readAll()) {
+            switch (record) {
+                case CacheSnapshotRecord.ConditionalEntry entry -> conditionalEntries.put(entry.key(), entry);
+                case CacheSnapshotRecord.UserReposEntry entry -> userReposEntries.put(entry.key(), entry);
+                case CacheSnapshotRecord.RepositoryStateEntry entry -> repositoryStateEntries.put(entry.key(), entry);
+            }
+        }
+
+        conditionalEntries.values().forEach(entry -> this.conditionalRequestCache.restore(entry.key(), entry.entry()));
+        userReposEntries.values().forEach(entry -> this.userReposCache.restore(entry.key(), entry.repositories(), entry.storedAtEpochMs()));
+        repositoryStateEntries.values().forEach(entry -> this.repositoryStateCache.restore(entry.key(), entry.entry()));
+        log.info("Restored {} conditional request entries, {} results and {} repository states from cache snapshot",
+                conditionalEntries.size(), userReposEntries.size(), repositoryStateEntries.size());
+
+        this.snapshotStore.rewrite(snapshot());
+        this.snapshotStore.setCompactionSource(this::snapshot);
+    }
+
+    private List<CacheSnapshotRecord> snapshot() {
+        List<CacheSnapshotRecord> records = new ArrayList<>(this.conditionalRequestCache.snapshot());
+        records.addAll(this.userReposCache.snapshot());
+        records.addAll(this.repositoryStateCache.snapshot());
+
+        return records;
+    }
+}
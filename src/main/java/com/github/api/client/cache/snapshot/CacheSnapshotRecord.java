@@ -0,0 +1,37 @@
+package com.github.api.client.cache.snapshot;
+
+import com.github.api.client.cache.ConditionalRequestCache;
+import com.github.api.client.cache.RepositoryStateCache;
+import com.github.api.client.cache.UserReposCache;
+import com.github.api.client.model.dto.RepositoryDTO;
+
+import java.util.List;
+
+// Single entry of one of the caches, as written to the snapshot file
+public sealed interface CacheSnapshotRecord {
+
+    default String tokenIdentity() {
+        return switch (this) {
+            case ConditionalEntry entry -> entry.key().tokenIdentity();
+            case UserReposEntry entry -> entry.key().tokenIdentity();
+            case RepositoryStateEntry entry -> entry.key().tokenIdentity();
+        };
+    }
+
+    record ConditionalEntry(
+            ConditionalRequestCache.Key key,
+            ConditionalRequestCache.Entry<?> entry
+    ) implements CacheSnapshotRecord {}
+
+    // Wall clock time is kept, as remaining time to live has to survive a restart
+    record UserReposEntry(
+            UserReposCache.Key key,
+            List<RepositoryDTO> repositories,
+            long storedAtEpochMs
+    ) implements CacheSnapshotRecord {}
+
+    record RepositoryStateEntry(
+            RepositoryStateCache.Key key,
+            RepositoryStateCache.Entry entry
+    ) implements CacheSnapshotRecord {}
+}
@@ -0,0 +1,339 @@
+package com.github.api.client.cache.snapshot;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.TokenIdentity;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Append-only log of cache entries kept on disk, so caches don't start empty after a restart.
+// Every entry put into a cache is appended, later records of the same key replace earlier ones when the log is read.
+// Records are written by a single background writer, so callers never wait for the disk. It writes all records
+// waiting in the queue at once and flushes them together. When the queue of fetcher.cache.snapshot.queue-capacity
+// records is full, records are dropped and the log is compacted with current content of the caches instead.
+// When the log grows over fetcher.cache.snapshot.max-bytes, the writer rewrites it with current content of the caches.
+// Failures are only logged, caches keep working without the snapshot.
+// Only entries fetched without an access token are kept, so results visible to a token never get to the disk.
+@Slf4j
+@Component
+public class CacheSnapshotStore {
+    private final Path path;
+    private final long maxBytes;
+    private final BlockingQueue<Task> tasks;
+    private final AtomicBoolean writerStarted = new AtomicBoolean();
+    private final AtomicBoolean compactionRequested = new AtomicBoolean();
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private volatile Supplier<List<CacheSnapshotRecord>> compactionSource;
+    private volatile long fileBytes;
+    private volatile boolean failed;
+    private volatile boolean closed;
+    // Used only by the writer
+    private DataOutputStream out;
+
+    public CacheSnapshotStore(PropertiesValues propertiesValues) {
+        this.path = StringUtils.hasText(propertiesValues.cacheSnapshotPath)
+                ? Path.of(propertiesValues.cacheSnapshotPath)
+                : null;
+        this.maxBytes = propertiesValues.cacheSnapshotMaxBytes;
+        this.tasks = isEnabled() ? new ArrayBlockingQueue<>(propertiesValues.cacheSnapshotQueueCapacity) : null;
+    }
+
+    public boolean isEnabled() {
+        return Objects.nonNull(this.path);
+    }
+
+    public void append(CacheSnapshotRecord record) {
+        if (!isEnabled() || this.failed || this.closed || !isAnonymous(record)) {
+            return;
+        }
+
+        startWriter();
+        if (!this.tasks.offer(new Append(record))) {
+            // The caches still hold the entry, it gets to the log with the next compaction
+            this.droppedRecords.incrementAndGet();
+            this.compactionRequested.set(true);
+        }
+    }
+
+    // Records are returned in order of writing. A truncated record at the end of the log, left by a crash, is skipped.
+    // Records appended before are written first.
+    public List<CacheSnapshotRecord> readAll() {
+        List<CacheSnapshotRecord> records = new ArrayList<>();
+
+        if (!isEnabled()) {
+            return records;
+        }
+        flush();
+        if (!Files.exists(this.path)) {
+            return records;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.path)))) {
+            if (!CacheSnapshotCodec.readHeader(in)) {
+                log.warn("Cache snapshot: {} has been written by a different version, it is ignored", this.path);
+                return records;
+            }
+
+            while (true) {
+                CacheSnapshotRecord record = CacheSnapshotCodec.read(in);
+                // Snapshots written by earlier versions may hold entries of access tokens
+                if (isAnonymous(record)) {
+                    records.add(record);
+                }
+            }
+        } catch (EOFException exception) {
+            return records;
+        } catch (IOException exception) {
+            log.warn("Reading cache snapshot: {} has stopped after {} records", this.path, records.size(), exception);
+            return records;
+        }
+    }
+
+    // Replaces the log with given records once the records appended before are written
+    public void rewrite(List<CacheSnapshotRecord> records) {
+        if (isEnabled() && !this.failed && !this.closed) {
+            submitAndAwait(new Rewrite(records, new CompletableFuture<>()));
+        }
+    }
+
+    // Waits until the records appended before are written and flushed
+    public void flush() {
+        if (isEnabled() && !this.closed) {
+            submitAndAwait(new Flush(new CompletableFuture<>()));
+        }
+    }
+
+    public void setCompactionSource(Supplier<List<CacheSnapshotRecord>> compactionSource) {
+        this.compactionSource = compactionSource;
+    }
+
+    public long fileBytes() {
+        return this.fileBytes;
+    }
+
+    public long droppedRecords() {
+        return this.droppedRecords.get();
+    }
+
+    // Records appended before are written, the later ones are ignored
+    @PreDestroy
+    public void close() {
+        if (!isEnabled() || this.closed) {
+            return;
+        }
+
+        this.closed = true;
+        submitAndAwait(new Close(new CompletableFuture<>()));
+    }
+
+    private void startWriter() {
+        if (this.writerStarted.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("cache-snapshot-writer").start(this::write);
+        }
+    }
+
+    private void submitAndAwait(Task task) {
+        startWriter();
+        try {
+            this.tasks.put(task);
+            task.done().join();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write() {
+        List<Task> batch = new ArrayList<>();
+        List<Task> written = new ArrayList<>();
+
+        while (true) {
+            if (batch.isEmpty()) {
+                try {
+                    batch.add(this.tasks.take());
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            this.tasks.drainTo(batch);
+
+            for (Task task : batch) {
+                written.add(task);
+                switch (task) {
+                    case Append append -> writeRecord(append.record());
+                    case Rewrite rewrite -> writeAll(rewrite.records());
+                    case Flush flush -> {}
+                    case Close close -> {
+                        flushOutput();
+                        closeOutput();
+                        complete(batch);
+                        return;
+                    }
+                }
+            }
+
+            batch.clear();
+            flushOutput();
+            if (isCompactionNeeded()) {
+                // Records still waiting are older than the content of the caches, so they are not written after it
+                this.tasks.drainTo(batch);
+                int firstOtherTask = 0;
+                while (firstOtherTask < batch.size() && batch.get(firstOtherTask) instanceof Append) {
+                    firstOtherTask++;
+                }
+                batch.subList(0, firstOtherTask).clear();
+
+                this.compactionRequested.set(false);
+                writeAll(this.compactionSource.get());
+            }
+
+            complete(written);
+            written.clear();
+        }
+    }
+
+    private void complete(List<Task> completedTasks) {
+        for (Task task : completedTasks) {
+            if (Objects.nonNull(task.done())) {
+                task.done().complete(null);
+            }
+        }
+    }
+
+    private void writeRecord(CacheSnapshotRecord record) {
+        if (this.failed) {
+            return;
+        }
+
+        try {
+            if (Objects.isNull(this.out)) {
+                open();
+            }
+
+            int sizeBefore = this.out.size();
+            CacheSnapshotCodec.write(this.out, record);
+            this.fileBytes += this.out.size() - sizeBefore;
+        } catch (IOException exception) {
+            fail("append to", exception);
+        }
+    }
+
+    private boolean isCompactionNeeded() {
+        boolean tooLarge = this.maxBytes > 0 && this.fileBytes > this.maxBytes;
+
+        return Objects.nonNull(this.compactionSource) && (tooLarge || this.compactionRequested.get());
+    }
+
+    // Replaces the log with given records, written to a temporary file first so the log is never left half written
+    private void writeAll(List<CacheSnapshotRecord> records) {
+        if (this.failed) {
+            return;
+        }
+
+        Path temporaryPath = this.path.resolveSibling(this.path.getFileName() + ".tmp");
+        int writtenRecords = 0;
+        try {
+            closeOutput();
+            createParentDirectories();
+
+            try (DataOutputStream temporaryOut = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+                CacheSnapshotCodec.writeHeader(temporaryOut);
+                for (CacheSnapshotRecord record : records) {
+                    if (isAnonymous(record)) {
+                        CacheSnapshotCodec.write(temporaryOut, record);
+                        writtenRecords++;
+                    }
+                }
+            }
+
+            Files.move(temporaryPath, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            open();
+            log.info("Cache snapshot: {} has been rewritten with {} records, {} bytes", this.path, writtenRecords, this.fileBytes);
+        } catch (IOException exception) {
+            fail("rewrite", exception);
+        }
+    }
+
+    private static boolean isAnonymous(CacheSnapshotRecord record) {
+        return TokenIdentity.ANONYMOUS.equals(record.tokenIdentity());
+    }
+
+    private void open() throws IOException {
+        createParentDirectories();
+        boolean newFile = !Files.exists(this.path) || Files.size(this.path) == 0;
+
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(this.path.toFile(), true)));
+        if (newFile) {
+            CacheSnapshotCodec.writeHeader(this.out);
+            this.out.flush();
+        }
+        this.fileBytes = Files.size(this.path);
+    }
+
+    private void flushOutput() {
+        try {
+            if (Objects.nonNull(this.out)) {
+                this.out.flush();
+            }
+        } catch (IOException exception) {
+            fail("flush", exception);
+        }
+    }
+
+    private void closeOutput() {
+        if (Objects.nonNull(this.out)) {
+            DataOutputStream closedOut = this.out;
+            this.out = null;
+            try {
+                closedOut.close();
+            } catch (IOException exception) {
+                log.warn("Closing cache snapshot: {} has failed", this.path, exception);
+            }
+        }
+    }
+
+    private void createParentDirectories() throws IOException {
+        if (Objects.nonNull(this.path.toAbsolutePath().getParent())) {
+            Files.createDirectories(this.path.toAbsolutePath().getParent());
+        }
+    }
+
+    private void fail(String operation, IOException exception) {
+        log.warn("Failed to {} cache snapshot: {}, snapshots are disabled until restart", operation, this.path, exception);
+        this.failed = true;
+        closeOutput();
+    }
+
+    private sealed interface Task permits Append, Rewrite, Flush, Close {
+        CompletableFuture<Void> done();
+    }
+
+    private record Append(CacheSnapshotRecord record) implements Task {
+        @Override
+        public CompletableFuture<Void> done() {
+            return null;
+        }
+    }
+
+    private record Rewrite(List<CacheSnapshotRecord> records, CompletableFuture<Void> done) implements Task {}
+
+    private record Flush(CompletableFuture<Void> done) implements Task {}
+
+    private record Close(CompletableFuture<Void> done) implements Task {}
+}
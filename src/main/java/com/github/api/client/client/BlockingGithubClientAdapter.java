@@ -0,0 +1,30 @@
+package com.github.api.client.client;
+
+import com.github.api.client.model.Branch;
+import com.github.api.client.model.Repository;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+// Runs calls of GithubApiClient on virtual threads, so the reactive service can use RestTemplate stack as well.
+// Pages of a single call are still fetched by FanOutExecutor.
+@RequiredArgsConstructor
+public class BlockingGithubClientAdapter implements ReactiveGithubClient {
+    private final GithubApiClient githubApiClient;
+    private final Scheduler blockingCallsScheduler;
+
+    @Override
+    public Flux<Repository> getUserRepos(String userName, String accessToken, String sort, String direction) {
+        return Mono.fromCallable(() -> this.githubApiClient.getUserRepos(userName, accessToken, sort, direction))
+                .subscribeOn(this.blockingCallsScheduler)
+                .flatMapIterable(repositories -> repositories);
+    }
+
+    @Override
+    public Flux<Branch> getBranchesForUserRepo(String userName, String repoName, String accessToken) {
+        return Mono.fromCallable(() -> this.githubApiClient.getBranchesForUserRepo(userName, repoName, accessToken))
+                .subscribeOn(this.blockingCallsScheduler)
+                .flatMapIterable(branches -> branches);
+    }
+}
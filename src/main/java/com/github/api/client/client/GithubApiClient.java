@@ -1,10 +1,20 @@
 package com.github.api.client.client;
 
 import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.ConditionalRequestCache;
+import com.github.api.client.client.interceptor.DecodedBodyInputStream;
+import com.github.api.client.concurrent.FanOutExecutor;
+import com.github.api.client.exception.FetchTimeoutException;
+import com.github.api.client.exception.GithubRateLimitExceededException;
+import com.github.api.client.exception.GithubResponseTooLargeException;
+import com.github.api.client.exception.GithubUnavailableException;
 import com.github.api.client.exception.GithubUserNotFoundException;
-import com.github.api.client.exception.WrongParamValueException;
+import com.github.api.client.metrics.GithubEndpoint;
 import com.github.api.client.model.Branch;
 import com.github.api.client.model.Repository;
+import com.github.api.client.ratelimit.RateLimitTracker;
+import com.github.api.client.ratelimit.TokenPool;
+import com.github.api.client.resilience.UpstreamResilience;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,10 +23,13 @@ import org.springframework.http.*;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponents;
-import org.springframework.web.util.UriComponentsBuilder;
 
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
@@ -27,44 +40,104 @@ import java.util.Objects;
 public final class GithubApiClient {
     public static final String API_VERSION_HEADER_KEY = "X-GitHub-Api-Version";
     private static final String USER_AGENT_HEADER_KEY = "User-Agent";
-    private static final String SORT_PARAM_KEY = "sort";
-    private static final String DIRECTION_PARAM_KEY = "direction";
     private final RestTemplate restTemplate;
     private final PropertiesValues propertiesValues;
+    private final FanOutExecutor fanOutExecutor;
+    private final ConditionalRequestCache conditionalRequestCache;
+    private final TokenPool tokenPool;
+    private final UpstreamResilience resilience;
+    private final RateLimitTracker rateLimitTracker;
 
     public List<Repository> getUserRepos(String userName, String accessToken, String sort, String direction) {
-        String userReposUrl =  this.propertiesValues.githubApiBaseUrl +
-                String.format(this.propertiesValues.githubApiUserReposUrl, userName);
+        String userReposUrl = GithubApiUrls.userRepos(this.propertiesValues, userName, sort, direction);
         ParameterizedTypeReference<List<Repository>> responseType = new ParameterizedTypeReference<>(){};
-        userReposUrl = buildUrlWithParameters(userReposUrl, sort, direction).toUriString();
 
-        return performRequest(userReposUrl, userName, accessToken, responseType);
+        return performPaginatedRequest(userReposUrl, userName, accessToken, responseType);
     }
 
     public List<Branch> getBranchesForUserRepo(String userName, String repoName, String accessToken) {
-        String repoBranchesUrl = this.propertiesValues.githubApiBaseUrl +
-                String.format(this.propertiesValues.githubApiUserRepoBranchesUrl, userName, repoName);
+        String repoBranchesUrl = GithubApiUrls.repoBranches(this.propertiesValues, userName, repoName);
         ParameterizedTypeReference<List<Branch>> responseType = new ParameterizedTypeReference<>(){};
 
-        return performRequest(repoBranchesUrl, userName, accessToken, responseType);
+        return performPaginatedRequest(repoBranchesUrl, userName, accessToken, responseType);
     }
 
-    private <T> List<T> performRequest(
+    // First page tells how many pages there are (rel="last" of Link header), so the rest of them is fetched in parallel
+    // More info here: https://docs.github.com/en/rest/using-the-rest-api/using-pagination-in-the-rest-api
+    private <T> List<T> performPaginatedRequest(
             String url,
             String userName,
             String accessToken,
             ParameterizedTypeReference<List<T>> responseType
     ) {
+        GithubPage<T> firstPage = performHedgedRequest(url, userName, accessToken, responseType);
+
+        if (firstPage.lastPage() <= 1) {
+            return firstPage.items();
+        }
+
+        List<String> remainingPagesUrls = GithubApiUrls.remainingPages(url, firstPage.lastPage());
+        List<GithubPage<T>> remainingPages = this.fanOutExecutor.mapInOrder(
+                remainingPagesUrls,
+                pageUrl -> performHedgedRequest(pageUrl, userName, accessToken, responseType)
+        );
+
+        List<T> items = new ArrayList<>(firstPage.items());
+        remainingPages.forEach(page -> items.addAll(page.items()));
+
+        return items;
+    }
+
+    // Branches requests slower than usual are sent once more, a single slow one would hold up the whole response
+    private <T> GithubPage<T> performHedgedRequest(
+            String url,
+            String userName,
+            String accessToken,
+            ParameterizedTypeReference<List<T>> responseType
+    ) {
+        GithubEndpoint endpoint = GithubEndpoint.of(URI.create(url));
+
+        if (endpoint != GithubEndpoint.BRANCHES) {
+            return performRequest(url, userName, accessToken, responseType);
+        }
+
+        return this.resilience.hedged(endpoint, () -> performRequest(url, userName, accessToken, responseType));
+    }
+
+    private <T> GithubPage<T> performRequest(
+            String url,
+            String userName,
+            String accessToken,
+            ParameterizedTypeReference<List<T>> responseType
+    ) {
+        ConditionalRequestCache.Entry<T> cachedEntry = this.conditionalRequestCache.get(url, accessToken);
+
         try {
-            ResponseEntity<List<T>> apiResponse = this.restTemplate.exchange(
+            ResponseEntity<List<T>> apiResponse = exchange(
                     url,
-                    HttpMethod.GET,
-                    buildRequestEntity(url, userName, accessToken),
+                    buildRequestEntity(url, userName, accessToken, cachedEntry),
                     responseType
             );
+
+            if (apiResponse.getStatusCode().equals(HttpStatus.NOT_MODIFIED) && Objects.nonNull(cachedEntry)) {
+                log.info("Data from: {} has not been modified", url);
+                this.conditionalRequestCache.recordNotModified();
+
+                return cachedEntry.page();
+            }
+
             log.info("Fetching data from: {} succeded", url);
+            GithubPage<T> page = new GithubPage<>(
+                    Objects.nonNull(apiResponse.getBody()) ? apiResponse.getBody() : Collections.emptyList(),
+                    GithubApiUrls.parseLastPage(apiResponse.getHeaders())
+            );
 
-            return Objects.nonNull(apiResponse.getBody()) ? apiResponse.getBody() : Collections.emptyList();
+            String etag = apiResponse.getHeaders().getETag();
+            if (StringUtils.hasText(etag)) {
+                this.conditionalRequestCache.put(url, accessToken, etag, page);
+            }
+
+            return page;
         } catch (HttpClientErrorException exception) {
             if (exception.getStatusCode().equals(HttpStatus.NOT_FOUND)) {
                 log.warn("User or repository has not been found during request: {}", url);
@@ -76,11 +149,77 @@ public final class GithubApiClient {
         }
     }
 
-    private RequestEntity<Void> buildRequestEntity(String url, String userName, String accessToken) {
+    // Requests rejected by secondary rate limit are sent again, once their budget allows it after the backoff.
+    // Requests failed with 5xx are sent again after a jittered backoff, up to github.api.retry.max-retries times.
+    // Every attempt waits for its rate limit budget first, and only then goes through circuit breaker and bulkhead
+    // of its endpoint, so requests waiting for the budget don't hold bulkhead permits.
+    private <T> ResponseEntity<List<T>> exchange(
+            String url,
+            RequestEntity<Void> requestEntity,
+            ParameterizedTypeReference<List<T>> responseType
+    ) {
+        GithubEndpoint endpoint = GithubEndpoint.of(URI.create(url));
+
+        for (int attempt = 0, serverErrorRetries = 0; ; attempt++) {
+            try {
+                this.rateLimitTracker.awaitBudget(URI.create(url), requestEntity.getHeaders());
+                return this.resilience.call(
+                        endpoint,
+                        () -> this.restTemplate.exchange(url, HttpMethod.GET, requestEntity, responseType)
+                );
+            } catch (GithubRateLimitExceededException exception) {
+                if (!exception.isRetryable() || attempt >= this.propertiesValues.rateLimitMaxRetries) {
+                    throw exception;
+                }
+
+                log.info("Retrying request to: {} rejected by rate limit", url);
+            } catch (HttpServerErrorException exception) {
+                if (serverErrorRetries >= this.propertiesValues.retryMaxRetries) {
+                    log.warn("Request to: {} has failed with status: {}", url, exception.getStatusCode());
+                    throw new GithubUnavailableException(this.propertiesValues.githubUnavailableMessage, exception);
+                }
+
+                long delayMs = this.resilience.retryDelayMs(endpoint, serverErrorRetries++);
+                log.info("Retrying request to: {} failed with status: {} in {} ms", url, exception.getStatusCode(), delayMs);
+                sleep(delayMs);
+            } catch (ResourceAccessException exception) {
+                log.warn("Request to: {} has failed: {}", url, exception.getMessage());
+                throw new GithubUnavailableException(this.propertiesValues.githubUnavailableMessage, exception);
+            } catch (RestClientException exception) {
+                if (DecodedBodyInputStream.isLimitExceeded(exception)) {
+                    log.warn("Response from: {} is too large: {}", url, exception.getMessage());
+                    throw new GithubResponseTooLargeException(this.propertiesValues.responseTooLargeMessage, exception);
+                }
+
+                throw exception;
+            }
+        }
+    }
+
+    private void sleep(long delayMs) {
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new FetchTimeoutException(this.propertiesValues.fetchTimeoutMessage);
+        }
+    }
+
+    private RequestEntity<Void> buildRequestEntity(
+            String url,
+            String userName,
+            String accessToken,
+            ConditionalRequestCache.Entry<?> cachedEntry
+    ) {
         HttpHeaders httpHeaders = new HttpHeaders();
+        String requestToken = this.tokenPool.resolve(accessToken);
 
-        if (StringUtils.hasText(accessToken)) {
-            httpHeaders.setBearerAuth(accessToken);
+        if (StringUtils.hasText(requestToken)) {
+            httpHeaders.setBearerAuth(requestToken);
+        }
+
+        if (Objects.nonNull(cachedEntry)) {
+            httpHeaders.setIfNoneMatch(cachedEntry.etag());
         }
 
         // Github API's documentation recommends to set this headers
@@ -96,27 +235,7 @@ public final class GithubApiClient {
                 .build();
     }
 
-    // This method adds optional parameters for sorting repositories
-    // More info here: https://docs.github.com/en/rest/repos/repos?apiVersion=2022-11-28#list-repositories-for-a-user
-    private UriComponents buildUrlWithParameters(String url, String sort, String direction) {
-        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(url);
-
-        if (StringUtils.hasText(sort)) {
-            if (!this.propertiesValues.allowedSorts.contains(sort)) {
-                throw new WrongParamValueException(this.propertiesValues.wrongSortParamMessage);
-            }
-
-            builder.queryParam(SORT_PARAM_KEY, sort);
-        }
-
-        if (StringUtils.hasText(direction)) {
-            if (!this.propertiesValues.allowedDirections.contains(direction)) {
-                throw new WrongParamValueException(this.propertiesValues.wrongDirectionParamMessage);
-            }
-
-            builder.queryParam(DIRECTION_PARAM_KEY, direction);
-        }
-
-        return builder.build(true);
+    public void checkParameters(String sort, String direction) {
+        GithubApiUrls.checkParameters(this.propertiesValues, sort, direction);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+package com.github.api.client.client;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.exception.WrongParamValueException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Urls of Github API endpoints and pagination, shared by the blocking and the reactive client
+final class GithubApiUrls {
+    private static final String SORT_PARAM_KEY = "sort";
+    private static final String DIRECTION_PARAM_KEY = "direction";
+    private static final String PER_PAGE_PARAM_KEY = "per_page";
+    private static final String PAGE_PARAM_KEY = "page";
+    private static final String LAST_PAGE_LINK_RELATION = "rel=\"last\"";
+
+    private GithubApiUrls() {}
+
+    static String userRepos(PropertiesValues propertiesValues, String userName, String sort, String direction) {
+        String userReposUrl = propertiesValues.githubApiBaseUrl +
+                String.format(propertiesValues.githubApiUserReposUrl, userName);
+
+        return withParameters(propertiesValues, userReposUrl, sort, direction).toUriString();
+    }
+
+    static String repoBranches(PropertiesValues propertiesValues, String userName, String repoName) {
+        String repoBranchesUrl = propertiesValues.githubApiBaseUrl +
+                String.format(propertiesValues.githubApiUserRepoBranchesUrl, userName, repoName);
+
+        return UriComponentsBuilder.fromHttpUrl(repoBranchesUrl)
+                .queryParam(PER_PAGE_PARAM_KEY, propertiesValues.githubApiPageSize)
+                .build(true)
+                .toUriString();
+    }
+
+    static void checkParameters(PropertiesValues propertiesValues, String sort, String direction) {
+        if (StringUtils.hasText(sort) && !propertiesValues.allowedSorts.contains(sort)) {
+            throw new WrongParamValueException(propertiesValues.wrongSortParamMessage);
+        }
+
+        if (StringUtils.hasText(direction) && !propertiesValues.allowedDirections.contains(direction)) {
+            throw new WrongParamValueException(propertiesValues.wrongDirectionParamMessage);
+        }
+    }
+
+    // This method adds optional parameters for sorting repositories and the page size
+    // More info here: https://docs.github.com/en/rest/repos/repos?apiVersion=2022-11-28#list-repositories-for-a-user
+    static UriComponents withParameters(PropertiesValues propertiesValues, String url, String sort, String direction) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(url);
+        checkParameters(propertiesValues, sort, direction);
+
+        if (StringUtils.hasText(sort)) {
+            builder.queryParam(SORT_PARAM_KEY, sort);
+        }
+
+        if (StringUtils.hasText(direction)) {
+            builder.queryParam(DIRECTION_PARAM_KEY, direction);
+        }
+
+        builder.queryParam(PER_PAGE_PARAM_KEY, propertiesValues.githubApiPageSize);
+
+        return builder.build(true);
+    }
+
+    // Urls of pages from the second to the last one
+    static List<String> remainingPages(String url, int lastPage) {
+        return IntStream.rangeClosed(2, lastPage)
+                .mapToObj(page -> UriComponentsBuilder.fromHttpUrl(url)
+                        .replaceQueryParam(PAGE_PARAM_KEY, page)
+                        .build(true)
+                        .toUriString())
+                .toList();
+    }
+
+    // Link header has a form of: <https://api.github.com/...&page=2>; rel="next", <https://api.github.com/...&page=5>; rel="last"
+    static int parseLastPage(HttpHeaders headers) {
+        String linkHeader = headers.getFirst(HttpHeaders.LINK);
+
+        if (!StringUtils.hasText(linkHeader)) {
+            return 1;
+        }
+
+        for (String link : linkHeader.split(",")) {
+            String[] linkParts = link.split(";");
+
+            if (linkParts.length > 1 && linkParts[1].trim().equals(LAST_PAGE_LINK_RELATION)) {
+                String lastPageUrl = linkParts[0].trim().replaceAll("^<|>$", "");
+                String lastPage = UriComponentsBuilder.fromUriString(lastPageUrl)
+                        .build()
+                        .getQueryParams()
+                        .getFirst(PAGE_PARAM_KEY);
+
+                return StringUtils.hasText(lastPage) ? Integer.parseInt(lastPage) : 1;
+            }
+        }
+
+        return 1;
+    }
+}
@@ -0,0 +1,224 @@
+package com.github.api.client.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.client.interceptor.DecodedBodyInputStream;
+import com.github.api.client.concurrent.FanOutExecutor;
+import com.github.api.client.exception.GithubGraphQlException;
+import com.github.api.client.exception.GithubResponseTooLargeException;
+import com.github.api.client.exception.GithubUserNotFoundException;
+import com.github.api.client.exception.WrongParamValueException;
+import com.github.api.client.model.dto.BranchDTO;
+import com.github.api.client.model.dto.RepositoryDTO;
+import com.github.api.client.ratelimit.RateLimitTracker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.*;
+
+// Fetches repositories together with heads of their branches using Github GraphQL API, so a user with N repositories
+// costs one request per 100 repositories instead of 1 + N requests of REST API.
+// GraphQL API can't be used without an access token.
+// More info here: https://docs.github.com/en/graphql/guides/forming-calls-with-graphql
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class GithubGraphQlClient {
+    private static final String USER_AGENT_HEADER_KEY = "User-Agent";
+    private static final String NOT_FOUND_ERROR_TYPE = "NOT_FOUND";
+    private static final Map<String, String> ORDER_FIELDS = Map.of(
+            "created", "CREATED_AT",
+            "updated", "UPDATED_AT",
+            "pushed", "PUSHED_AT",
+            "full_name", "NAME"
+    );
+    private static final String DEFAULT_SORT = "full_name";
+    private static final String REFS_FIELD = """
+            refs(refPrefix: "refs/heads/", first: $pageSize, after: $refsCursor, orderBy: {field: ALPHABETICAL, direction: ASC}) {
+              pageInfo { hasNextPage endCursor }
+              nodes { name target { oid } }
+            }
+            """;
+    // Same repositories as listed by REST API: public ones, owned by the user, forks are skipped right away
+    private static final String USER_REPOS_QUERY = """
+            query($login: String!, $cursor: String, $refsCursor: String, $orderBy: RepositoryOrder, $pageSize: Int!) {
+              repositoryOwner(login: $login) {
+                repositories(first: $pageSize, after: $cursor, privacy: PUBLIC, ownerAffiliations: [OWNER], isFork: false, orderBy: $orderBy) {
+                  pageInfo { hasNextPage endCursor }
+                  nodes {
+                    name
+                    owner { login }
+            """ + REFS_FIELD + """
+                  }
+                }
+              }
+            }
+            """;
+    private static final String REPO_BRANCHES_QUERY = """
+            query($owner: String!, $name: String!, $refsCursor: String, $pageSize: Int!) {
+              repository(owner: $owner, name: $name) {
+            """ + REFS_FIELD + """
+              }
+            }
+            """;
+    private final RestTemplate restTemplate;
+    private final PropertiesValues propertiesValues;
+    private final FanOutExecutor fanOutExecutor;
+    private final RateLimitTracker rateLimitTracker;
+
+    public List<RepositoryDTO> getUserReposWithBranches(
+            String userName,
+            String accessToken,
+            String sort,
+            String direction
+    ) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("login", userName);
+        variables.put("orderBy", buildOrder(sort, direction));
+        variables.put("pageSize", this.propertiesValues.githubApiPageSize);
+
+        List<RepositoryNode> repositories = new ArrayList<>();
+        String cursor = null;
+        do {
+            variables.put("cursor", cursor);
+            JsonNode owner = performQuery(USER_REPOS_QUERY, variables, userName, accessToken).path("repositoryOwner");
+
+            if (owner.isMissingNode() || owner.isNull()) {
+                log.warn("User {} has not been found by GraphQL query", userName);
+                throw new GithubUserNotFoundException(this.propertiesValues.userNotFoundMessage);
+            }
+
+            JsonNode repositoriesConnection = owner.path("repositories");
+            repositoriesConnection.path("nodes").forEach(node -> repositories.add(new RepositoryNode(node)));
+            cursor = nextCursor(repositoriesConnection);
+        } while (Objects.nonNull(cursor));
+
+        // Only repositories with more branches than a single page need additional queries
+        return this.fanOutExecutor.mapInOrder(repositories, repository -> {
+            List<BranchDTO> branches = new ArrayList<>(repository.branches());
+            String refsCursor = repository.refsCursor();
+
+            while (Objects.nonNull(refsCursor)) {
+                JsonNode refs = fetchBranchesPage(repository.ownerLogin(), repository.name(), refsCursor, userName, accessToken);
+                branches.addAll(mapBranches(refs));
+                refsCursor = nextCursor(refs);
+            }
+
+            return new RepositoryDTO(repository.name(), repository.ownerLogin(), branches);
+        });
+    }
+
+    private JsonNode fetchBranchesPage(
+            String ownerLogin,
+            String repositoryName,
+            String refsCursor,
+            String userName,
+            String accessToken
+    ) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("owner", ownerLogin);
+        variables.put("name", repositoryName);
+        variables.put("refsCursor", refsCursor);
+        variables.put("pageSize", this.propertiesValues.githubApiPageSize);
+
+        return performQuery(REPO_BRANCHES_QUERY, variables, userName, accessToken).path("repository").path("refs");
+    }
+
+    private JsonNode performQuery(String query, Map<String, Object> variables, String userName, String accessToken) {
+        String graphQlUrl = this.propertiesValues.githubApiBaseUrl + this.propertiesValues.githubApiGraphQlUrl;
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.setBearerAuth(accessToken);
+        httpHeaders.setContentType(MediaType.APPLICATION_JSON);
+        httpHeaders.setAccept(List.of(MediaType.APPLICATION_JSON));
+        httpHeaders.set(USER_AGENT_HEADER_KEY, userName);
+        RequestEntity<Map<String, Object>> requestEntity = RequestEntity
+                .post(graphQlUrl)
+                .headers(httpHeaders)
+                .body(Map.of("query", query, "variables", variables));
+
+        JsonNode response;
+        this.rateLimitTracker.awaitBudget(URI.create(graphQlUrl), httpHeaders);
+        try {
+            response = this.restTemplate.exchange(requestEntity, JsonNode.class).getBody();
+        } catch (RestClientException exception) {
+            if (DecodedBodyInputStream.isLimitExceeded(exception)) {
+                log.warn("GraphQL response for user: {} is too large: {}", userName, exception.getMessage());
+                throw new GithubResponseTooLargeException(this.propertiesValues.responseTooLargeMessage, exception);
+            }
+
+            throw exception;
+        }
+        if (Objects.isNull(response)) {
+            throw new GithubGraphQlException(this.propertiesValues.unexpectedErrorMessage);
+        }
+
+        JsonNode errors = response.path("errors");
+        if (!errors.isEmpty()) {
+            for (JsonNode error : errors) {
+                if (NOT_FOUND_ERROR_TYPE.equals(error.path("type").asText())) {
+                    log.warn("User or repository has not been found during GraphQL query for user: {}", userName);
+                    throw new GithubUserNotFoundException(this.propertiesValues.userNotFoundMessage);
+                }
+            }
+
+            log.warn("GraphQL query for user: {} has failed with errors: {}", userName, errors);
+            throw new GithubGraphQlException(errors.path(0).path("message").asText());
+        }
+
+        log.info("GraphQL query for user: {} succeded", userName);
+        return response.path("data");
+    }
+
+    private Map<String, String> buildOrder(String sort, String direction) {
+        String orderSort = StringUtils.hasText(sort) ? sort : DEFAULT_SORT;
+
+        if (!this.propertiesValues.allowedSorts.contains(orderSort)) {
+            throw new WrongParamValueException(this.propertiesValues.wrongSortParamMessage);
+        }
+
+        if (StringUtils.hasText(direction) && !this.propertiesValues.allowedDirections.contains(direction)) {
+            throw new WrongParamValueException(this.propertiesValues.wrongDirectionParamMessage);
+        }
+
+        // REST API sorts by full_name ascending and by other fields descending when direction is not given
+        String orderDirection = StringUtils.hasText(direction)
+                ? direction
+                : DEFAULT_SORT.equals(orderSort) ? "asc" : "desc";
+
+        return Map.of("field", ORDER_FIELDS.get(orderSort), "direction", orderDirection.toUpperCase(Locale.ROOT));
+    }
+
+    private static String nextCursor(JsonNode connection) {
+        JsonNode pageInfo = connection.path("pageInfo");
+
+        return pageInfo.path("hasNextPage").asBoolean() ? pageInfo.path("endCursor").asText() : null;
+    }
+
+    private static List<BranchDTO> mapBranches(JsonNode refs) {
+        List<BranchDTO> branches = new ArrayList<>();
+        refs.path("nodes").forEach(ref -> branches.add(
+                new BranchDTO(ref.path("name").asText(), ref.path("target").path("oid").asText())
+        ));
+
+        return branches;
+    }
+
+    private record RepositoryNode(String name, String ownerLogin, List<BranchDTO> branches, String refsCursor) {
+        private RepositoryNode(JsonNode node) {
+            this(
+                    node.path("name").asText(),
+                    node.path("owner").path("login").asText(),
+                    mapBranches(node.path("refs")),
+                    nextCursor(node.path("refs"))
+            );
+        }
+    }
+}
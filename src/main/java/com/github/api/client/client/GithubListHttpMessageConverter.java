@@ -0,0 +1,94 @@
+package com.github.api.client.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.github.api.client.model.Branch;
+import com.github.api.client.model.Repository;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+// Reads lists of repositories and branches with GithubResponseDecoder instead of binding whole objects.
+// Has to be registered before the Jackson converter, any other type is left to the remaining converters.
+// Only reading is supported, responses of this application are written by the Jackson converters.
+public class GithubListHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<?>> {
+    private static final ResolvableType REPOSITORIES_TYPE = ResolvableType.forClassWithGenerics(List.class, Repository.class);
+    private static final ResolvableType BRANCHES_TYPE = ResolvableType.forClassWithGenerics(List.class, Branch.class);
+    private final GithubResponseDecoder decoder;
+
+    public GithubListHttpMessageConverter(JsonFactory jsonFactory) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.decoder = new GithubResponseDecoder(jsonFactory);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return resolveDecodedType(type) != null && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public List<?> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        ResolvableType decodedType = resolveDecodedType(type);
+
+        if (REPOSITORIES_TYPE.equals(decodedType)) {
+            return this.decoder.decodeNonForkRepositories(inputMessage.getBody());
+        }
+        if (BRANCHES_TYPE.equals(decodedType)) {
+            return this.decoder.decodeBranches(inputMessage.getBody());
+        }
+
+        throw new HttpMessageNotReadableException("Unsupported type: " + type, inputMessage);
+    }
+
+    // Raw lists have no element type to decode, canRead doesn't accept them, so they end with the unsupported type error
+    @Override
+    protected List<?> readInternal(Class<? extends List<?>> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    // Converter is read-only, canWrite never accepts any type
+    @Override
+    protected void writeInternal(List<?> list, Type type, HttpOutputMessage outputMessage) {
+        throw new HttpMessageNotWritableException("Github API lists are only read, type: " + type);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    private static ResolvableType resolveDecodedType(Type type) {
+        ResolvableType resolvableType = ResolvableType.forType(type);
+
+        if (REPOSITORIES_TYPE.isAssignableFrom(resolvableType) && resolvableType.resolve() == List.class) {
+            return REPOSITORIES_TYPE;
+        }
+        if (BRANCHES_TYPE.isAssignableFrom(resolvableType) && resolvableType.resolve() == List.class) {
+            return BRANCHES_TYPE;
+        }
+
+        return null;
+    }
+}
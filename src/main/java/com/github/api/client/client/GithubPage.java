@@ -0,0 +1,5 @@
+package com.github.api.client.client;
+
+import java.util.List;
+
+public record GithubPage<T>(List<T> items, int lastPage) {}
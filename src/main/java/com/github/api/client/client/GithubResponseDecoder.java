@@ -0,0 +1,157 @@
+package com.github.api.client.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.github.api.client.model.Branch;
+import com.github.api.client.model.Commit;
+import com.github.api.client.model.Owner;
+import com.github.api.client.model.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Github returns around a hundred fields for every repository, while only a few of them are used.
+// Decoder reads JSON token by token, skips unused fields together with their nested objects
+// and drops forks as soon as they are parsed, without binding whole objects.
+public class GithubResponseDecoder {
+    private final JsonFactory jsonFactory;
+
+    public GithubResponseDecoder(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    public List<Repository> decodeNonForkRepositories(InputStream inputStream) throws IOException {
+        List<Repository> repositories = new ArrayList<>();
+
+        try (JsonParser parser = this.jsonFactory.createParser(inputStream)) {
+            readArray(parser, () -> {
+                Repository repository = readRepository(parser);
+
+                if (!repository.fork()) {
+                    repositories.add(repository);
+                }
+            });
+        }
+
+        return repositories;
+    }
+
+    public List<Branch> decodeBranches(InputStream inputStream) throws IOException {
+        List<Branch> branches = new ArrayList<>();
+
+        try (JsonParser parser = this.jsonFactory.createParser(inputStream)) {
+            readArray(parser, () -> branches.add(readBranch(parser)));
+        }
+
+        return branches;
+    }
+
+    private void readArray(JsonParser parser, ElementReader elementReader) throws IOException {
+        JsonToken token = parser.nextToken();
+
+        if (token == null || token == JsonToken.VALUE_NULL) {
+            return;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw new IOException("Expected JSON array but got: " + token);
+        }
+
+        // Any other element is an error, so a malformed page isn't taken for a shorter complete one
+        for (token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+            if (token != JsonToken.START_OBJECT) {
+                throw new IOException("Expected JSON object in array but got: " + token);
+            }
+
+            elementReader.read();
+        }
+    }
+
+    private Repository readRepository(JsonParser parser) throws IOException {
+        String name = null;
+        Owner owner = null;
+        boolean fork = false;
+        Instant pushedAt = null;
+        Instant updatedAt = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            JsonToken token = parser.nextToken();
+
+            switch (fieldName) {
+                case "name" -> name = parser.getValueAsString();
+                case "fork" -> fork = token == JsonToken.VALUE_TRUE;
+                case "owner" -> owner = new Owner(readStringField(parser, "login"));
+                case "pushed_at" -> pushedAt = readInstant(parser);
+                case "updated_at" -> updatedAt = readInstant(parser);
+                default -> parser.skipChildren();
+            }
+        }
+
+        return new Repository(name, owner, fork, pushedAt, updatedAt);
+    }
+
+    private Branch readBranch(JsonParser parser) throws IOException {
+        String name = null;
+        Commit commit = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+
+            switch (fieldName) {
+                case "name" -> name = parser.getValueAsString();
+                case "commit" -> commit = new Commit(readStringField(parser, "sha"));
+                default -> parser.skipChildren();
+            }
+        }
+
+        return new Branch(name, commit);
+    }
+
+    // Reads a single string field of a nested object, parser has to be positioned at the start of that object
+    private String readStringField(JsonParser parser, String wantedFieldName) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+
+        String value = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            parser.nextToken();
+
+            if (wantedFieldName.equals(fieldName)) {
+                value = parser.getValueAsString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        return value;
+    }
+
+    // Timestamps are in ISO 8601 format, e.g. 2011-01-26T19:06:43Z. Unexpected values are read as missing ones,
+    // so the repository is treated as changed rather than failing the whole page.
+    private Instant readInstant(JsonParser parser) throws IOException {
+        String value = parser.getValueAsString();
+
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException exception) {
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ElementReader {
+        void read() throws IOException;
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.api.client.client;
+
+import com.github.api.client.model.Branch;
+import com.github.api.client.model.Repository;
+import reactor.core.publisher.Flux;
+
+// Common interface of the blocking and the non-blocking REST API client, chosen with github.api.client property.
+// Errors are the same for both of them: GithubUserNotFoundException, WrongParamValueException
+// and GithubRateLimitExceededException are signalled instead of thrown.
+public interface ReactiveGithubClient {
+    String REST_TEMPLATE = "rest-template";
+    String WEB_CLIENT = "web-client";
+
+    // Non-fork repositories in order of the listing, pages are requested when subscribed
+    Flux<Repository> getUserRepos(String userName, String accessToken, String sort, String direction);
+
+    Flux<Branch> getBranchesForUserRepo(String userName, String repoName, String accessToken);
+}
@@ -0,0 +1,263 @@
+package com.github.api.client.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.ConditionalRequestCache;
+import com.github.api.client.client.interceptor.DecodedBodyInputStream;
+import com.github.api.client.client.interceptor.ReceivedBytesInterceptor;
+import com.github.api.client.client.interceptor.ResponseDecodingInterceptor;
+import com.github.api.client.exception.GithubRateLimitExceededException;
+import com.github.api.client.exception.GithubResponseTooLargeException;
+import com.github.api.client.exception.GithubUnavailableException;
+import com.github.api.client.exception.GithubUserNotFoundException;
+import com.github.api.client.metrics.GithubClientRequestObservationConvention;
+import com.github.api.client.metrics.GithubEndpoint;
+import com.github.api.client.model.Branch;
+import com.github.api.client.model.Repository;
+import com.github.api.client.ratelimit.TokenPool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+// Non-blocking REST API client built on WebClient and Reactor Netty. Requests the same urls with the same headers
+// as GithubApiClient and shares its ETag cache and rate limit budgets, so both of them can be load-tested against
+// each other with the same upstream cost.
+@Slf4j
+public class WebClientGithubClient implements ReactiveGithubClient {
+    private final WebClient webClient;
+    private final PropertiesValues propertiesValues;
+    private final ConditionalRequestCache conditionalRequestCache;
+    private final GithubResponseDecoder responseDecoder;
+    private final MeterRegistry meterRegistry;
+    private final TokenPool tokenPool;
+
+    public WebClientGithubClient(
+            WebClient webClient,
+            PropertiesValues propertiesValues,
+            ConditionalRequestCache conditionalRequestCache,
+            JsonFactory jsonFactory,
+            MeterRegistry meterRegistry,
+            TokenPool tokenPool
+    ) {
+        this.webClient = webClient;
+        this.propertiesValues = propertiesValues;
+        this.conditionalRequestCache = conditionalRequestCache;
+        this.responseDecoder = new GithubResponseDecoder(jsonFactory);
+        this.meterRegistry = meterRegistry;
+        this.tokenPool = tokenPool;
+    }
+
+    @Override
+    public Flux<Repository> getUserRepos(String userName, String accessToken, String sort, String direction) {
+        return Flux.defer(() -> performPaginatedRequest(
+                GithubApiUrls.userRepos(this.propertiesValues, userName, sort, direction),
+                userName,
+                accessToken,
+                this.responseDecoder::decodeNonForkRepositories
+        ));
+    }
+
+    @Override
+    public Flux<Branch> getBranchesForUserRepo(String userName, String repoName, String accessToken) {
+        return Flux.defer(() -> performPaginatedRequest(
+                GithubApiUrls.repoBranches(this.propertiesValues, userName, repoName),
+                userName,
+                accessToken,
+                this.responseDecoder::decodeBranches
+        ));
+    }
+
+    // First page tells how many pages there are, the rest of them is requested concurrently,
+    // but their items are emitted in order of pages
+    private <T> Flux<T> performPaginatedRequest(String url, String userName, String accessToken, BodyDecoder<T> decoder) {
+        return performRequest(url, userName, accessToken, decoder)
+                .flatMapMany(firstPage -> Flux.fromIterable(GithubApiUrls.remainingPages(url, firstPage.lastPage()))
+                        .flatMapSequential(pageUrl -> performRequest(pageUrl, userName, accessToken, decoder), maxParallelism())
+                        .startWith(firstPage))
+                .concatMapIterable(GithubPage::items);
+    }
+
+    // Requests rejected by secondary rate limit are sent again, RateLimitExchangeFilter delays them until backoff passes.
+    // Requests failed with 5xx are sent again after a jittered backoff, up to github.api.retry.max-retries times.
+    private <T> Mono<GithubPage<T>> performRequest(String url, String userName, String accessToken, BodyDecoder<T> decoder) {
+        return Mono.defer(() -> {
+                    ConditionalRequestCache.Entry<T> cachedEntry = this.conditionalRequestCache.get(url, accessToken);
+
+                    return this.webClient.get()
+                            .uri(URI.create(url))
+                            .headers(headers -> setHeaders(headers, userName, accessToken, cachedEntry))
+                            .exchangeToMono(response -> readPage(url, accessToken, response, cachedEntry, decoder))
+                            .onErrorMap(WebClientRequestException.class, exception -> {
+                                log.warn("Request to: {} has failed: {}", url, exception.getMessage());
+                                return new GithubUnavailableException(this.propertiesValues.githubUnavailableMessage, exception);
+                            });
+                })
+                .retryWhen(serverErrorRetry(url))
+                .retryWhen(Retry.max(this.propertiesValues.rateLimitMaxRetries)
+                        .filter(exception -> exception instanceof GithubRateLimitExceededException rateLimitException
+                                && rateLimitException.isRetryable())
+                        .doBeforeRetry(signal -> log.info("Retrying request to: {} rejected by rate limit", url))
+                        .onRetryExhaustedThrow((retrySpec, signal) -> signal.failure()));
+    }
+
+    private <T> Mono<GithubPage<T>> readPage(
+            String url,
+            String accessToken,
+            ClientResponse response,
+            ConditionalRequestCache.Entry<T> cachedEntry,
+            BodyDecoder<T> decoder
+    ) {
+        if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && Objects.nonNull(cachedEntry)) {
+            log.info("Data from: {} has not been modified", url);
+            this.conditionalRequestCache.recordNotModified();
+
+            return response.releaseBody().thenReturn(cachedEntry.page());
+        }
+
+        if (response.statusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
+            log.warn("User or repository has not been found during request: {}", url);
+            return response.releaseBody()
+                    .then(Mono.error(new GithubUserNotFoundException(this.propertiesValues.userNotFoundMessage)));
+        }
+
+        if (response.statusCode().is5xxServerError()) {
+            log.warn("Request to: {} has failed with status: {}", url, response.statusCode());
+            return response.releaseBody()
+                    .then(Mono.error(new ServerErrorException(this.propertiesValues.githubUnavailableMessage)));
+        }
+
+        if (response.statusCode().isError()) {
+            log.warn("Unexpected error occurred during request");
+            return response.createError();
+        }
+
+        int lastPage = GithubApiUrls.parseLastPage(response.headers().asHttpHeaders());
+        String etag = response.headers().asHttpHeaders().getETag();
+
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        Flux<DataBuffer> body = response.bodyToFlux(DataBuffer.class);
+        long maxBytes = this.propertiesValues.httpMaxResponseBytes;
+
+        // Body is joined as it was sent, compressed or not, so the limit applies to it as well as to the decoded body.
+        // Compressed body over the limit would decode to more bytes anyway, so both fail the same way.
+        return (maxBytes > 0 ? DataBufferUtils.join(body, (int) Math.min(maxBytes, Integer.MAX_VALUE)) : DataBufferUtils.join(body))
+                .onErrorMap(DataBufferLimitException.class, exception -> responseTooLarge(url, exception))
+                .map(joinedBody -> decode(url, headers, joinedBody, decoder))
+                .defaultIfEmpty(List.of())
+                .map(items -> {
+                    log.info("Fetching data from: {} succeded", url);
+                    GithubPage<T> page = new GithubPage<>(items, lastPage);
+
+                    if (StringUtils.hasText(etag)) {
+                        this.conditionalRequestCache.put(url, accessToken, etag, page);
+                    }
+
+                    return page;
+                });
+    }
+
+    private Retry serverErrorRetry(String url) {
+        long baseBackoffMs = Math.max(1, this.propertiesValues.retryBaseBackoffMs);
+
+        return Retry.backoff(this.propertiesValues.retryMaxRetries, Duration.ofMillis(baseBackoffMs))
+                .maxBackoff(Duration.ofMillis(Math.max(baseBackoffMs, this.propertiesValues.retryMaxBackoffMs)))
+                .jitter(1.0)
+                .filter(ServerErrorException.class::isInstance)
+                .doBeforeRetry(signal -> log.info("Retrying request to: {} failed with 5xx status", url))
+                .onRetryExhaustedThrow((retrySpec, signal) -> signal.failure());
+    }
+
+    // Body is joined into a single buffer, so the decoder can read it as a blocking stream without waiting for data.
+    // Reactor Netty is not asked to decompress responses, so the joined body is the one sent on the wire:
+    // it is counted as received, and gzip is decompressed here while it is decoded, with the limit of decoded bytes.
+    private <T> List<T> decode(String url, HttpHeaders headers, DataBuffer body, BodyDecoder<T> decoder) {
+        GithubEndpoint endpoint = GithubEndpoint.of(URI.create(url));
+        receivedBytesCounter(endpoint).increment(body.readableByteCount());
+
+        try (DecodedBodyInputStream inputStream = DecodedBodyInputStream.of(
+                body.asInputStream(true), headers, this.propertiesValues.httpMaxResponseBytes)) {
+            List<T> items = decoder.decode(inputStream);
+            ResponseDecodingInterceptor.decodedBytesCounter(this.meterRegistry, endpoint).increment(inputStream.count());
+
+            return items;
+        } catch (DecodedBodyInputStream.LimitExceededException exception) {
+            throw responseTooLarge(url, exception);
+        } catch (IOException exception) {
+            throw new DecodingException("Response from: " + url + " could not be decoded", exception);
+        }
+    }
+
+    private GithubResponseTooLargeException responseTooLarge(String url, Exception exception) {
+        log.warn("Response from: {} is too large: {}", url, exception.getMessage());
+        return new GithubResponseTooLargeException(this.propertiesValues.responseTooLargeMessage, exception);
+    }
+
+    private void setHeaders(
+            HttpHeaders httpHeaders,
+            String userName,
+            String accessToken,
+            ConditionalRequestCache.Entry<?> cachedEntry
+    ) {
+        String requestToken = this.tokenPool.resolve(accessToken);
+
+        if (StringUtils.hasText(requestToken)) {
+            httpHeaders.setBearerAuth(requestToken);
+        }
+
+        if (Objects.nonNull(cachedEntry)) {
+            httpHeaders.setIfNoneMatch(cachedEntry.etag());
+        }
+
+        httpHeaders.setAccept(List.of(MediaType.valueOf(this.propertiesValues.githubApiAcceptHeader)));
+        if (this.propertiesValues.httpCompressionEnabled) {
+            httpHeaders.set(HttpHeaders.ACCEPT_ENCODING, DecodedBodyInputStream.GZIP_ENCODING);
+        }
+        httpHeaders.set(GithubApiClient.API_VERSION_HEADER_KEY, this.propertiesValues.githubApiVersion);
+        httpHeaders.set(HttpHeaders.USER_AGENT, userName);
+    }
+
+    private Counter receivedBytesCounter(GithubEndpoint endpoint) {
+        return Counter.builder(ReceivedBytesInterceptor.RECEIVED_BYTES_METRIC)
+                .description("Bytes of response bodies received from Github API")
+                .baseUnit("bytes")
+                .tag(GithubClientRequestObservationConvention.ENDPOINT_TAG, endpoint.tagValue())
+                .register(this.meterRegistry);
+    }
+
+    private int maxParallelism() {
+        return this.propertiesValues.fanOutMaxParallelism > 0 ? this.propertiesValues.fanOutMaxParallelism : Integer.MAX_VALUE;
+    }
+
+    @FunctionalInterface
+    private interface BodyDecoder<T> {
+        List<T> decode(InputStream inputStream) throws IOException;
+    }
+
+    // Only responses with 5xx status are retried, not I/O errors which may have taken the whole timeout
+    private static class ServerErrorException extends GithubUnavailableException {
+        ServerErrorException(String message) {
+            super(message);
+        }
+    }
+}
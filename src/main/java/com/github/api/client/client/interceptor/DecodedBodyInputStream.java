@@ -0,0 +1,102 @@
+package com.github.api.client.client.interceptor;
+
+import org.springframework.http.HttpHeaders;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+
+// Body of a Github API response as it is decoded: gzip-compressed bodies are decompressed while they are read,
+// so the whole compressed body is never kept in memory. Reading more than maxBytes decoded bytes fails,
+// so a response which inflates to a huge size can't exhaust the heap. maxBytes of 0 or less disables the limit.
+public class DecodedBodyInputStream extends FilterInputStream {
+    public static final String GZIP_ENCODING = "gzip";
+    private final long maxBytes;
+    private long count;
+
+    private DecodedBodyInputStream(InputStream inputStream, long maxBytes) {
+        super(inputStream);
+        this.maxBytes = maxBytes;
+    }
+
+    public static DecodedBodyInputStream of(InputStream body, HttpHeaders headers, long maxBytes) throws IOException {
+        return new DecodedBodyInputStream(isGzip(headers) ? gzip(body) : body, maxBytes);
+    }
+
+    // Clients wrap the exception thrown while the body is read, e.g. RestTemplate in RestClientException
+    public static boolean isLimitExceeded(Throwable exception) {
+        for (Throwable cause = exception; Objects.nonNull(cause); cause = cause.getCause()) {
+            if (cause instanceof LimitExceededException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public static boolean isGzip(HttpHeaders headers) {
+        return GZIP_ENCODING.equalsIgnoreCase(headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    public long count() {
+        return this.count;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int value = super.read();
+        if (value >= 0) {
+            record(1);
+        }
+
+        return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        if (read > 0) {
+            record(read);
+        }
+
+        return read;
+    }
+
+    @Override
+    public long skip(long length) throws IOException {
+        long skipped = super.skip(length);
+        record(skipped);
+
+        return skipped;
+    }
+
+    // Gzip header is read right away, so an empty body (e.g. of a 304 response) stays empty instead of failing
+    private static InputStream gzip(InputStream body) throws IOException {
+        PushbackInputStream pushbackBody = new PushbackInputStream(body);
+        int first = pushbackBody.read();
+
+        if (first < 0) {
+            return pushbackBody;
+        }
+
+        pushbackBody.unread(first);
+        return new GZIPInputStream(pushbackBody);
+    }
+
+    private void record(long bytes) throws IOException {
+        this.count += bytes;
+
+        if (this.maxBytes > 0 && this.count > this.maxBytes) {
+            throw new LimitExceededException("Github API response exceeds " + this.maxBytes + " decoded bytes");
+        }
+    }
+
+    public static class LimitExceededException extends IOException {
+        public LimitExceededException(String message) {
+            super(message);
+        }
+    }
+}
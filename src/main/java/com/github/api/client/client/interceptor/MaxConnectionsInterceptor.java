@@ -0,0 +1,90 @@
+package com.github.api.client.client.interceptor;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// JDK HttpClient opens a new HTTP/1.1 connection for every request running in parallel and has no setting for
+// the pool size, so the number of connections is limited by the number of requests in progress.
+// A request is in progress until its response is closed, because the body is read after this interceptor returns.
+public class MaxConnectionsInterceptor implements ClientHttpRequestInterceptor {
+    private final Semaphore connections;
+
+    public MaxConnectionsInterceptor(int maxConnections) {
+        this.connections = new Semaphore(maxConnections);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(
+            HttpRequest request,
+            byte[] body,
+            ClientHttpRequestExecution execution
+    ) throws IOException {
+        try {
+            this.connections.acquire();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a free connection");
+        }
+
+        try {
+            return new ConnectionReleasingResponse(execution.execute(request, body));
+        } catch (IOException | RuntimeException exception) {
+            this.connections.release();
+            throw exception;
+        }
+    }
+
+    public int availableConnections() {
+        return this.connections.availablePermits();
+    }
+
+    private class ConnectionReleasingResponse implements ClientHttpResponse {
+        private final ClientHttpResponse response;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ConnectionReleasingResponse(ClientHttpResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return this.response.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return this.response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return this.response.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return this.response.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                this.response.close();
+            } finally {
+                if (this.released.compareAndSet(false, true)) {
+                    connections.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.api.client.client.interceptor;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.exception.GithubRateLimitExceededException;
+import com.github.api.client.ratelimit.RateLimitBudget;
+import com.github.api.client.ratelimit.RateLimitTracker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// Reactive counterpart of RateLimitTracker.awaitBudget and RateLimitInterceptor, sharing the same budgets.
+// Requests wait for their budget with a timer instead of a sleeping thread, so no thread is held while they are queued.
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitExchangeFilter implements ExchangeFilterFunction {
+    private final RateLimitTracker rateLimitTracker;
+    private final PropertiesValues propertiesValues;
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            String tokenIdentity = this.rateLimitTracker.tokenIdentity(request.headers());
+            String resource = this.rateLimitTracker.resource(request.url());
+            Duration wait = this.rateLimitTracker.reserve(request.url(), request.headers());
+
+            Mono<ClientResponse> exchange = Mono.defer(() -> next.exchange(request));
+            Mono<ClientResponse> delayedExchange = wait.isZero() || wait.isNegative()
+                    ? exchange
+                    : Mono.delay(wait).then(exchange);
+
+            return delayedExchange.flatMap(response -> checkResponse(request, response, tokenIdentity, resource));
+        });
+    }
+
+    private Mono<ClientResponse> checkResponse(
+            ClientRequest request,
+            ClientResponse response,
+            String tokenIdentity,
+            String resource
+    ) {
+        Instant now = Instant.now();
+        String responseResource = this.rateLimitTracker.resource(response.headers().asHttpHeaders(), resource);
+        RateLimitBudget budget = this.rateLimitTracker.budget(tokenIdentity, responseResource);
+        boolean rateLimited = budget.update(
+                response.statusCode(),
+                response.headers().asHttpHeaders(),
+                now,
+                Duration.ofMillis(this.propertiesValues.rateLimitSecondaryBackoffMs)
+        );
+
+        if (!rateLimited) {
+            return Mono.just(response);
+        }
+
+        long retryAfterSeconds = budget.retryAfterSeconds(now);
+        boolean retryable = this.rateLimitTracker.isRetryable(retryAfterSeconds);
+        log.warn("Request to: {} has been rejected by Github API rate limit, retry after {} s{}", request.url(),
+                retryAfterSeconds, retryable ? "" : " is longer than max-wait-ms, it won't be retried");
+        this.rateLimitTracker.recordRejection(tokenIdentity, responseResource);
+        return response.releaseBody().then(Mono.error(new GithubRateLimitExceededException(
+                this.propertiesValues.rateLimitExceededMessage,
+                retryAfterSeconds,
+                retryable
+        )));
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.api.client.client.interceptor;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.exception.GithubRateLimitExceededException;
+import com.github.api.client.ratelimit.RateLimitBudget;
+import com.github.api.client.ratelimit.RateLimitTracker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+
+// Updates rate limit budget of the request's access token from every response of Github API and rejects
+// responses of exceeded rate limit. Requests wait for their budget before they are sent, in RateLimitTracker.awaitBudget,
+// so waiting doesn't hold a bulkhead permit or a connection.
+// REST requests and GraphQL queries use separate budgets, as Github limits them separately.
+@Slf4j
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements ClientHttpRequestInterceptor {
+    private final RateLimitTracker rateLimitTracker;
+    private final PropertiesValues propertiesValues;
+
+    @Override
+    public ClientHttpResponse intercept(
+            HttpRequest request,
+            byte[] body,
+            ClientHttpRequestExecution execution
+    ) throws IOException {
+        String tokenIdentity = this.rateLimitTracker.tokenIdentity(request.getHeaders());
+        String resource = this.rateLimitTracker.resource(request.getURI());
+
+        ClientHttpResponse response = execution.execute(request, body);
+        Instant now = Instant.now();
+        String responseResource = this.rateLimitTracker.resource(response.getHeaders(), resource);
+        RateLimitBudget responseBudget = this.rateLimitTracker.budget(tokenIdentity, responseResource);
+        boolean rateLimited = responseBudget.update(
+                response.getStatusCode(),
+                response.getHeaders(),
+                now,
+                Duration.ofMillis(this.propertiesValues.rateLimitSecondaryBackoffMs)
+        );
+
+        if (rateLimited) {
+            response.close();
+            long retryAfterSeconds = responseBudget.retryAfterSeconds(now);
+            boolean retryable = this.rateLimitTracker.isRetryable(retryAfterSeconds);
+            log.warn("Request to: {} has been rejected by Github API rate limit, retry after {} s{}", request.getURI(),
+                    retryAfterSeconds, retryable ? "" : " is longer than max-wait-ms, it won't be retried");
+            this.rateLimitTracker.recordRejection(tokenIdentity, responseResource);
+            throw new GithubRateLimitExceededException(
+                    this.propertiesValues.rateLimitExceededMessage,
+                    retryAfterSeconds,
+                    retryable
+            );
+        }
+
+        return response;
+    }
+}
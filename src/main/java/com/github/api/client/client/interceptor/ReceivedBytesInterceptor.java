@@ -0,0 +1,127 @@
+package com.github.api.client.client.interceptor;
+
+import com.github.api.client.metrics.GithubClientRequestObservationConvention;
+import com.github.api.client.metrics.GithubEndpoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Counts bytes of response bodies actually read from Github API. Content-Length is not used,
+// as it is missing from chunked responses.
+public class ReceivedBytesInterceptor implements ClientHttpRequestInterceptor {
+    public static final String RECEIVED_BYTES_METRIC = "github.api.received.bytes";
+    private final MeterRegistry meterRegistry;
+
+    public ReceivedBytesInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(
+            HttpRequest request,
+            byte[] body,
+            ClientHttpRequestExecution execution
+    ) throws IOException {
+        Counter counter = Counter.builder(RECEIVED_BYTES_METRIC)
+                .description("Bytes of response bodies received from Github API")
+                .baseUnit("bytes")
+                .tag(GithubClientRequestObservationConvention.ENDPOINT_TAG, GithubEndpoint.of(request.getURI()).tagValue())
+                .register(this.meterRegistry);
+
+        return new CountingResponse(execution.execute(request, body), counter);
+    }
+
+    private static class CountingResponse implements ClientHttpResponse {
+        private final ClientHttpResponse response;
+        private final Counter counter;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+        private CountingInputStream body;
+
+        private CountingResponse(ClientHttpResponse response, Counter counter) {
+            this.response = response;
+            this.counter = counter;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return this.response.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return this.response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return this.response.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (Objects.isNull(this.body)) {
+                this.body = new CountingInputStream(this.response.getBody());
+            }
+
+            return this.body;
+        }
+
+        @Override
+        public void close() {
+            try {
+                this.response.close();
+            } finally {
+                if (Objects.nonNull(this.body) && this.recorded.compareAndSet(false, true)) {
+                    this.counter.increment(this.body.count);
+                }
+            }
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                this.count++;
+            }
+
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                this.count += read;
+            }
+
+            return read;
+        }
+
+        @Override
+        public long skip(long length) throws IOException {
+            long skipped = super.skip(length);
+            this.count += skipped;
+
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.api.client.client.interceptor;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.metrics.GithubClientRequestObservationConvention;
+import com.github.api.client.metrics.GithubEndpoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Asks Github API for gzip-compressed responses and decompresses them while converters read the body.
+// Has to be registered before ReceivedBytesInterceptor, so that one counts bytes on the wire and this one
+// decoded bytes. The size limit applies to uncompressed responses as well.
+public class ResponseDecodingInterceptor implements ClientHttpRequestInterceptor {
+    public static final String DECODED_BYTES_METRIC = "github.api.decoded.bytes";
+    private final PropertiesValues propertiesValues;
+    private final MeterRegistry meterRegistry;
+
+    public ResponseDecodingInterceptor(PropertiesValues propertiesValues, MeterRegistry meterRegistry) {
+        this.propertiesValues = propertiesValues;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(
+            HttpRequest request,
+            byte[] body,
+            ClientHttpRequestExecution execution
+    ) throws IOException {
+        if (this.propertiesValues.httpCompressionEnabled) {
+            request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, DecodedBodyInputStream.GZIP_ENCODING);
+        }
+
+        Counter counter = decodedBytesCounter(this.meterRegistry, GithubEndpoint.of(request.getURI()));
+
+        return new DecodingResponse(execution.execute(request, body), this.propertiesValues.httpMaxResponseBytes, counter);
+    }
+
+    public static Counter decodedBytesCounter(MeterRegistry meterRegistry, GithubEndpoint endpoint) {
+        return Counter.builder(DECODED_BYTES_METRIC)
+                .description("Bytes of response bodies received from Github API after decompression")
+                .baseUnit("bytes")
+                .tag(GithubClientRequestObservationConvention.ENDPOINT_TAG, endpoint.tagValue())
+                .register(meterRegistry);
+    }
+
+    private static class DecodingResponse implements ClientHttpResponse {
+        private final ClientHttpResponse response;
+        private final long maxBytes;
+        private final Counter counter;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+        private HttpHeaders headers;
+        private DecodedBodyInputStream body;
+
+        private DecodingResponse(ClientHttpResponse response, long maxBytes, Counter counter) {
+            this.response = response;
+            this.maxBytes = maxBytes;
+            this.counter = counter;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return this.response.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return this.response.getStatusText();
+        }
+
+        // Length and encoding of the compressed body don't describe the decoded one
+        @Override
+        public HttpHeaders getHeaders() {
+            if (Objects.isNull(this.headers)) {
+                HttpHeaders responseHeaders = this.response.getHeaders();
+
+                if (DecodedBodyInputStream.isGzip(responseHeaders)) {
+                    HttpHeaders decodedHeaders = new HttpHeaders();
+                    decodedHeaders.putAll(responseHeaders);
+                    decodedHeaders.remove(HttpHeaders.CONTENT_ENCODING);
+                    decodedHeaders.remove(HttpHeaders.CONTENT_LENGTH);
+                    this.headers = HttpHeaders.readOnlyHttpHeaders(decodedHeaders);
+                } else {
+                    this.headers = responseHeaders;
+                }
+            }
+
+            return this.headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (Objects.isNull(this.body)) {
+                this.body = DecodedBodyInputStream.of(this.response.getBody(), this.response.getHeaders(), this.maxBytes);
+            }
+
+            return this.body;
+        }
+
+        @Override
+        public void close() {
+            try {
+                this.response.close();
+            } finally {
+                if (Objects.nonNull(this.body) && this.recorded.compareAndSet(false, true)) {
+                    this.counter.increment(this.body.count());
+                }
+            }
+        }
+    }
+}
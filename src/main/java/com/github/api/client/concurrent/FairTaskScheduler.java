@@ -0,0 +1,103 @@
+package com.github.api.client.concurrent;
+
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+// Runs tasks of many lanes (e.g. users of a batch request) with shared maximum parallelism, on virtual threads.
+// Lanes with pending tasks take turns, so a lane with hundreds of tasks doesn't hold back lanes with a few of them.
+// Tasks must not wait for other tasks of the same scheduler, as they would keep a slot occupied while waiting.
+public class FairTaskScheduler implements AutoCloseable {
+    private static final ContextSnapshotFactory CONTEXT_SNAPSHOT_FACTORY = ContextSnapshotFactory.builder().build();
+    private final int maxParallelism;
+    private final Map<String, Deque<ScheduledTask<?>>> lanes = new HashMap<>();
+    private final Deque<String> lanesInTurn = new ArrayDeque<>();
+    private final Set<Thread> runningThreads = new HashSet<>();
+    private boolean closed;
+
+    public FairTaskScheduler(int maxParallelism) {
+        this.maxParallelism = Math.max(1, maxParallelism);
+    }
+
+    // Current observation and other thread locals of the submitting thread are passed to the task.
+    // Tasks submitted after closing are rejected with RejectedExecutionException.
+    public <T> CompletableFuture<T> submit(String lane, Supplier<T> task) {
+        ScheduledTask<T> scheduledTask = new ScheduledTask<>(task, CONTEXT_SNAPSHOT_FACTORY.captureAll());
+
+        synchronized (this) {
+            if (this.closed) {
+                throw new RejectedExecutionException("Scheduler has been closed");
+            }
+
+            Deque<ScheduledTask<?>> laneTasks = this.lanes.computeIfAbsent(lane, key -> new ArrayDeque<>());
+            if (laneTasks.isEmpty()) {
+                this.lanesInTurn.addLast(lane);
+            }
+            laneTasks.addLast(scheduledTask);
+            dispatch();
+        }
+
+        return scheduledTask.result;
+    }
+
+    // Pending tasks are cancelled and running ones interrupted
+    @Override
+    public synchronized void close() {
+        this.closed = true;
+        this.lanes.values().forEach(laneTasks -> laneTasks.forEach(task -> task.result.cancel(false)));
+        this.lanes.clear();
+        this.lanesInTurn.clear();
+        this.runningThreads.forEach(Thread::interrupt);
+    }
+
+    private synchronized void dispatch() {
+        while (this.runningThreads.size() < this.maxParallelism && !this.lanesInTurn.isEmpty()) {
+            String lane = this.lanesInTurn.pollFirst();
+            Deque<ScheduledTask<?>> laneTasks = this.lanes.get(lane);
+            ScheduledTask<?> task = laneTasks.pollFirst();
+
+            // Lane goes to the end of the queue, so every other lane with pending tasks gets its turn first
+            if (laneTasks.isEmpty()) {
+                this.lanes.remove(lane);
+            } else {
+                this.lanesInTurn.addLast(lane);
+            }
+
+            this.runningThreads.add(Thread.ofVirtual().start(() -> run(task)));
+        }
+    }
+
+    private void run(ScheduledTask<?> task) {
+        try {
+            task.run();
+        } finally {
+            synchronized (this) {
+                this.runningThreads.remove(Thread.currentThread());
+                dispatch();
+            }
+        }
+    }
+
+    private record ScheduledTask<T>(Supplier<T> task, ContextSnapshot contextSnapshot, CompletableFuture<T> result) {
+        ScheduledTask(Supplier<T> task, ContextSnapshot contextSnapshot) {
+            this(task, contextSnapshot, new CompletableFuture<>());
+        }
+
+        // Tasks cancelled while waiting for their turn are skipped
+        void run() {
+            if (this.result.isDone()) {
+                return;
+            }
+
+            try (ContextSnapshot.Scope scope = this.contextSnapshot.setThreadLocals()) {
+                this.result.complete(this.task.get());
+            } catch (RuntimeException | Error exception) {
+                this.result.completeExceptionally(exception);
+            }
+        }
+    }
+}
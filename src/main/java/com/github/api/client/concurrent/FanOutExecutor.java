@@ -0,0 +1,195 @@
+package com.github.api.client.concurrent;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.exception.FetchTimeoutException;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class FanOutExecutor {
+    public static final String FAN_OUT_WIDTH_METRIC = "fetcher.fan.out.width";
+    private static final ContextSnapshotFactory CONTEXT_SNAPSHOT_FACTORY = ContextSnapshotFactory.builder().build();
+    private static final ThreadLocal<Scope> CURRENT_SCOPE = new ThreadLocal<>();
+    private final PropertiesValues propertiesValues;
+    private final MeterRegistry meterRegistry;
+
+    // Budget of a single request: at most fanOutMaxParallelism mappers of all its fan-outs run at the same time
+    // and all of them have to finish within fanOutDeadlineMs from now
+    public Budget newBudget() {
+        int maxParallelism = this.propertiesValues.fanOutMaxParallelism > 0
+                ? this.propertiesValues.fanOutMaxParallelism
+                : Integer.MAX_VALUE;
+        long deadlineMs = this.propertiesValues.fanOutDeadlineMs;
+        Long deadline = deadlineMs > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs) : null;
+
+        return new Budget(new Semaphore(maxParallelism), deadline);
+    }
+
+    // Fan-outs of action, and fan-outs nested in their mappers (e.g. pages of branches of every repository),
+    // share budget instead of getting one each
+    public <T> T withinBudget(Budget budget, Supplier<T> action) {
+        Scope previousScope = CURRENT_SCOPE.get();
+        CURRENT_SCOPE.set(new Scope(budget, false));
+
+        try {
+            return action.get();
+        } finally {
+            CURRENT_SCOPE.set(previousScope);
+        }
+    }
+
+    public <T> T withinBudget(Supplier<T> action) {
+        return withinBudget(newBudget(), action);
+    }
+
+    // Applies mapper to every item on its own virtual thread and returns results in the order of items.
+    // Outside of withinBudget, every call gets a budget of its own.
+    // The first failing mapper cancels the remaining ones and its exception is rethrown to the caller.
+    public <T, R> List<R> mapInOrder(List<T> items, Function<T, R> mapper) {
+        return execute(items, mapper, result -> {})
+                .stream()
+                .map(Future::resultNow)
+                .toList();
+    }
+
+    // Same as mapInOrder, but every result is passed to consumer as soon as it is ready, in order of completion.
+    // Consumer is always called on the calling thread.
+    public <T, R> void forEachCompleted(List<T> items, Function<T, R> mapper, Consumer<R> consumer) {
+        execute(items, mapper, consumer);
+    }
+
+    private <T, R> List<Future<R>> execute(List<T> items, Function<T, R> mapper, Consumer<R> consumer) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Scope scope = CURRENT_SCOPE.get();
+        Budget budget = Objects.nonNull(scope) ? scope.budget() : newBudget();
+        DistributionSummary.builder(FAN_OUT_WIDTH_METRIC)
+                .description("Number of tasks started by a single fan-out")
+                .register(this.meterRegistry)
+                .record(items.size());
+
+        // Current observation and other thread locals are passed to the tasks, so their Github API calls
+        // are linked to the request being handled
+        ContextSnapshot contextSnapshot = CONTEXT_SNAPSHOT_FACTORY.captureAll();
+        // Mapper which fans out itself gives its permit back while it waits, so nested fan-outs can't deadlock
+        boolean holdsPermit = Objects.nonNull(scope) && scope.holdsPermit();
+        if (holdsPermit) {
+            budget.permits().release();
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletionService<R> completionService = new ExecutorCompletionService<>(executor);
+            List<Future<R>> futures = items.stream()
+                    .map(item -> completionService.submit(() -> {
+                        budget.permits().acquire();
+                        try (ContextSnapshot.Scope contextScope = contextSnapshot.setThreadLocals()) {
+                            CURRENT_SCOPE.set(new Scope(budget, true));
+                            return mapper.apply(item);
+                        } finally {
+                            CURRENT_SCOPE.remove();
+                            budget.permits().release();
+                        }
+                    }))
+                    .toList();
+
+            try {
+                awaitAll(completionService, futures.size(), budget.deadline(), consumer);
+            } finally {
+                futures.forEach(future -> future.cancel(true));
+            }
+
+            return futures;
+        } finally {
+            if (holdsPermit) {
+                budget.permits().acquireUninterruptibly();
+            }
+        }
+    }
+
+    private <R> void awaitAll(CompletionService<R> completionService, int tasksCount, Long deadline, Consumer<R> consumer) {
+        try {
+            for (int i = 0; i < tasksCount; i++) {
+                Future<R> completed = Objects.nonNull(deadline)
+                        ? completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)
+                        : completionService.take();
+
+                if (completed == null) {
+                    log.warn("Fan-out of {} tasks has not finished before the deadline of the request", tasksCount);
+                    throw new FetchTimeoutException(this.propertiesValues.fetchTimeoutMessage);
+                }
+
+                consumer.accept(completed.get());
+            }
+        } catch (ExecutionException exception) {
+            throw unwrap(exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new FetchTimeoutException(this.propertiesValues.fetchTimeoutMessage);
+        }
+    }
+
+    // Waits for a task started outside of fan-outs, its failure is rethrown like a failure of a fan-out mapper
+    public <T> T await(Future<T> future) {
+        return await(future, null);
+    }
+
+    // Deadline is a System.nanoTime() value, null to wait without a deadline
+    public <T> T await(Future<T> future, Long deadline) {
+        try {
+            return Objects.nonNull(deadline) ? future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS) : future.get();
+        } catch (ExecutionException exception) {
+            throw unwrap(exception);
+        } catch (TimeoutException exception) {
+            log.warn("Task has not finished before the deadline of the request");
+            throw new FetchTimeoutException(this.propertiesValues.fetchTimeoutMessage);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new FetchTimeoutException(this.propertiesValues.fetchTimeoutMessage);
+        }
+    }
+
+    // Errors are rethrown as they are, checked exceptions are wrapped
+    public static RuntimeException unwrap(ExecutionException exception) {
+        if (exception.getCause() instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (exception.getCause() instanceof Error error) {
+            throw error;
+        }
+
+        return new IllegalStateException(exception.getCause());
+    }
+
+    // Runs action on its own virtual thread, with thread locals of the caller like the tasks of fan-outs
+    public void runInBackground(String threadName, Runnable action) {
+        ContextSnapshot contextSnapshot = CONTEXT_SNAPSHOT_FACTORY.captureAll();
+
+        Thread.ofVirtual().name(threadName).start(() -> {
+            try (ContextSnapshot.Scope contextScope = contextSnapshot.setThreadLocals()) {
+                action.run();
+            }
+        });
+    }
+
+    // Deadline is a System.nanoTime() value, null when fan-outs are not bounded in time
+    public record Budget(Semaphore permits, Long deadline) {}
+
+    private record Scope(Budget budget, boolean holdsPermit) {}
+}
@@ -0,0 +1,34 @@
+package com.github.api.client.config;
+
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+// Connection pool of JDK HttpClient reads its keep-alive timeouts from system properties once, when the class
+// is initialized, so they are set from github.api.http.keep-alive-timeout-s before the application context starts.
+// Timeouts passed as JVM flags (-Djdk.httpclient.keepalive.timeout=...) are kept.
+// Registered in META-INF/spring.factories, so it also runs for tests and deployments which don't start from main.
+public class HttpClientSystemProperties implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+    static final String KEEP_ALIVE_TIMEOUT_PROPERTY = "jdk.httpclient.keepalive.timeout";
+    static final String H2_KEEP_ALIVE_TIMEOUT_PROPERTY = "jdk.httpclient.keepalive.timeout.h2";
+    private static final String KEEP_ALIVE_TIMEOUT_S = "github.api.http.keep-alive-timeout-s";
+
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        ConfigurableEnvironment environment = event.getEnvironment();
+        String keepAliveTimeout = environment.getProperty(KEEP_ALIVE_TIMEOUT_S);
+
+        if (keepAliveTimeout == null) {
+            return;
+        }
+
+        setIfAbsent(KEEP_ALIVE_TIMEOUT_PROPERTY, keepAliveTimeout.trim());
+        setIfAbsent(H2_KEEP_ALIVE_TIMEOUT_PROPERTY, keepAliveTimeout.trim());
+    }
+
+    private static void setIfAbsent(String property, String value) {
+        if (System.getProperty(property) == null) {
+            System.setProperty(property, value);
+        }
+    }
+}
@@ -1,13 +1,161 @@
 package com.github.api.client.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.ConditionalRequestCache;
+import com.github.api.client.cache.shared.InMemorySharedResultsStore;
+import com.github.api.client.cache.shared.RedisSharedResultsStore;
+import com.github.api.client.cache.shared.SharedResultsStore;
+import com.github.api.client.client.BlockingGithubClientAdapter;
+import com.github.api.client.client.GithubApiClient;
+import com.github.api.client.client.GithubListHttpMessageConverter;
+import com.github.api.client.client.ReactiveGithubClient;
+import com.github.api.client.client.WebClientGithubClient;
+import com.github.api.client.client.interceptor.MaxConnectionsInterceptor;
+import com.github.api.client.client.interceptor.RateLimitExchangeFilter;
+import com.github.api.client.client.interceptor.RateLimitInterceptor;
+import com.github.api.client.client.interceptor.ReceivedBytesInterceptor;
+import com.github.api.client.client.interceptor.ResponseDecodingInterceptor;
+import com.github.api.client.metrics.GithubClientRequestObservationConvention;
+import com.github.api.client.metrics.GithubWebClientObservationConvention;
+import com.github.api.client.ratelimit.RateLimitTracker;
+import com.github.api.client.ratelimit.TokenPool;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.netty.channel.ChannelOption;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.resources.ConnectionProvider;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+@RequiredArgsConstructor
 @Configuration
 public class ReposDataFetcherConfig {
+    private final PropertiesValues propertiesValues;
+
+    // JDK HttpClient keeps idle connections in its own pool and multiplexes requests over a single
+    // connection when server supports HTTP/2, which api.github.com does
+    @Bean
+    public HttpClient githubHttpClient() {
+        // Keep-alive timeouts of the pool are set by HttpClientSystemProperties before the context starts
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(this.propertiesValues.httpConnectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(
+            HttpClient githubHttpClient,
+            RateLimitTracker rateLimitTracker,
+            ObjectMapper objectMapper,
+            ObservationRegistry observationRegistry,
+            MeterRegistry meterRegistry
+    ) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(githubHttpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(this.propertiesValues.httpReadTimeoutMs));
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        // Lists of repositories and branches are decoded in a streaming way, before Jackson converter gets to bind them
+        restTemplate.getMessageConverters().add(0, new GithubListHttpMessageConverter(objectMapper.getFactory()));
+        // Rate limit goes first, so responses of exceeded rate limit are rejected before their bodies are read.
+        // Requests wait for their budget before they are sent, without holding connections.
+        restTemplate.getInterceptors().add(new RateLimitInterceptor(rateLimitTracker, this.propertiesValues));
+        restTemplate.getInterceptors().add(new MaxConnectionsInterceptor(this.propertiesValues.httpMaxConnections));
+        // Decoding wraps the counted response, so bytes on the wire and decoded bytes are both counted
+        restTemplate.getInterceptors().add(new ResponseDecodingInterceptor(this.propertiesValues, meterRegistry));
+        restTemplate.getInterceptors().add(new ReceivedBytesInterceptor(meterRegistry));
+        // Every call is timed and traced as a child span of the request being handled
+        restTemplate.setObservationRegistry(observationRegistry);
+        restTemplate.setObservationConvention(new GithubClientRequestObservationConvention());
+
+        return restTemplate;
+    }
+
+    // Reactor Netty keeps its own pool of connections, limited the same way as the one of RestTemplate.
+    // Requests waiting for a connection are queued without a limit, like in MaxConnectionsInterceptor.
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider githubConnectionProvider() {
+        return ConnectionProvider.builder("github")
+                .maxConnections(this.propertiesValues.httpMaxConnections)
+                .pendingAcquireMaxCount(-1)
+                .maxIdleTime(Duration.ofSeconds(this.propertiesValues.httpKeepAliveTimeoutS))
+                .build();
+    }
+
+    @Bean
+    public WebClient githubWebClient(
+            WebClient.Builder webClientBuilder,
+            ConnectionProvider githubConnectionProvider,
+            RateLimitTracker rateLimitTracker
+    ) {
+        reactor.netty.http.client.HttpClient httpClient = reactor.netty.http.client.HttpClient.create(githubConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) this.propertiesValues.httpConnectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(this.propertiesValues.httpReadTimeoutMs))
+                .followRedirect(true);
+
+        // Builder of Spring Boot already has the observation registry, so calls are timed and traced like RestTemplate's
+        return webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(new RateLimitExchangeFilter(rateLimitTracker, this.propertiesValues))
+                .observationConvention(new GithubWebClientObservationConvention())
+                .build();
+    }
+
+    // Blocking calls made by the reactive stack, e.g. to GraphQL API, run on virtual threads instead of event loops
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingCallsScheduler() {
+        return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "blocking-calls");
+    }
+
+    // github.api.client chooses the stack used by the reactive endpoints, so both of them can be load-tested
+    // against each other. Endpoints of ReposDataFetcherController always use GithubApiClient.
+    @Bean
+    public ReactiveGithubClient reactiveGithubClient(
+            GithubApiClient githubApiClient,
+            WebClient githubWebClient,
+            Scheduler blockingCallsScheduler,
+            ConditionalRequestCache conditionalRequestCache,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            TokenPool tokenPool
+    ) {
+        if (ReactiveGithubClient.WEB_CLIENT.equals(this.propertiesValues.githubApiClient)) {
+            return new WebClientGithubClient(
+                    githubWebClient,
+                    this.propertiesValues,
+                    conditionalRequestCache,
+                    objectMapper.getFactory(),
+                    meterRegistry,
+                    tokenPool
+            );
+        }
+
+        return new BlockingGithubClientAdapter(githubApiClient, blockingCallsScheduler);
+    }
+
+    // In-memory store is shared only by caches of this instance, it is meant for tests and single instance setups
+    @Bean(destroyMethod = "close")
+    public SharedResultsStore sharedResultsStore() {
+        return switch (this.propertiesValues.sharedCacheStore) {
+            case SharedResultsStore.REDIS -> new RedisSharedResultsStore(
+                    this.propertiesValues.sharedCacheRedisUri,
+                    this.propertiesValues.sharedCacheTimeoutMs
+            );
+            case SharedResultsStore.IN_MEMORY -> new InMemorySharedResultsStore();
+            default -> SharedResultsStore.NONE;
+        };
     }
 }
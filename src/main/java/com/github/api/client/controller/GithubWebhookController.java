@@ -0,0 +1,35 @@
+package com.github.api.client.controller;
+
+import com.github.api.client.webhook.GithubWebhookService;
+import com.github.api.client.webhook.WebhookSignatureVerifier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Receives Github webhook deliveries with content type application/json. Body is read as bytes,
+// as the signature is computed over the exact payload.
+@RequiredArgsConstructor
+@Slf4j
+@RequestMapping("/api")
+@RestController
+public class GithubWebhookController {
+    public static final String GITHUB_WEBHOOK_URL = "webhooks/github";
+    public static final String EVENT_HEADER = "X-GitHub-Event";
+    public static final String DELIVERY_HEADER = "X-GitHub-Delivery";
+    private final GithubWebhookService githubWebhookService;
+
+    @PostMapping(value = GITHUB_WEBHOOK_URL, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Void> receiveGithubWebhook(
+            @RequestHeader(value = EVENT_HEADER) String event,
+            @RequestHeader(value = DELIVERY_HEADER, required = false) String delivery,
+            @RequestHeader(value = WebhookSignatureVerifier.SIGNATURE_HEADER, required = false) String signature,
+            @RequestBody byte[] body
+    ) {
+        log.info("Received Github webhook event: {}, delivery: {}", event, delivery);
+        this.githubWebhookService.handle(event, body, signature);
+
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.api.client.controller;
+
+import com.github.api.client.model.RepositoryFilter;
+import com.github.api.client.model.dto.RepositoryDTO;
+import com.github.api.client.model.response.GetUserRepositoriesResponse;
+import com.github.api.client.service.ReactiveReposDataFetcherService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Same endpoints as ReposDataFetcherController, served by ReactiveReposDataFetcherService.
+// Handlers return without waiting for Github API, so no request thread is held during the fan-out.
+// Current observation is captured into Reactor context, so Github API calls are linked to the request being handled.
+@RequiredArgsConstructor
+@Slf4j
+@RequestMapping("/api/reactive")
+@RestController
+public class ReactiveReposDataFetcherController {
+    private final ReactiveReposDataFetcherService reactiveReposDataFetcherService;
+
+    @GetMapping(value = ReposDataFetcherController.GET_USER_REPOS_URL, produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<GetUserRepositoriesResponse> getUserRepos(
+            @PathVariable(value = "user") String userName,
+            @RequestHeader(value = HttpHeaders.ACCEPT) String accept,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String accessToken,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @ModelAttribute RepositoryFilter filter
+    ) throws HttpMediaTypeNotAcceptableException {
+        checkAcceptHeader(accept);
+
+        log.info("Performing reactive repositories data fetching for username: {}", userName);
+        return this.reactiveReposDataFetcherService.getUserRepos(userName, accessToken, sort, direction, filter)
+                .map(repositories -> new GetUserRepositoriesResponse(
+                        repositories,
+                        ReposDataFetcherController.partial(repositories, filter)
+                ))
+                .contextCapture();
+    }
+
+    // Every repository is written as a separate JSON line as soon as its branches are fetched
+    @GetMapping(value = ReposDataFetcherController.GET_USER_REPOS_URL, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<RepositoryDTO> streamUserRepos(
+            @PathVariable(value = "user") String userName,
+            @RequestHeader(value = HttpHeaders.ACCEPT) String accept,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String accessToken,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @ModelAttribute RepositoryFilter filter
+    ) throws HttpMediaTypeNotAcceptableException {
+        checkAcceptHeader(accept);
+
+        log.info("Performing reactive repositories data streaming for username: {}", userName);
+        return this.reactiveReposDataFetcherService.streamUserRepos(userName, accessToken, sort, direction, filter)
+                .contextCapture();
+    }
+
+    private void checkAcceptHeader(String accept) throws HttpMediaTypeNotAcceptableException {
+        if (accept.isEmpty()) {
+            log.info("Value of accept request header was not provided");
+            throw new HttpMediaTypeNotAcceptableException("");
+        }
+    }
+}
@@ -1,14 +1,36 @@
 package com.github.api.client.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.exception.FetchTimeoutException;
+import com.github.api.client.exception.GithubRateLimitExceededException;
+import com.github.api.client.exception.GithubUnavailableException;
+import com.github.api.client.exception.GithubUserNotFoundException;
+import com.github.api.client.exception.WrongParamValueException;
+import com.github.api.client.model.RepositoryFilter;
+import com.github.api.client.model.dto.RepositoryDTO;
+import com.github.api.client.model.response.BatchUserReposResponse;
+import com.github.api.client.model.response.CompactUserRepositoriesResponse;
 import com.github.api.client.model.response.GetUserRepositoriesResponse;
 import com.github.api.client.service.ReposDataFetcherService;
+import com.github.api.client.service.RepositoryStream;
+import com.github.api.client.service.UserReposResult;
+import com.github.api.client.service.UserReposResultStream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Objects;
 
 @RequiredArgsConstructor
 @Slf4j
@@ -16,7 +38,13 @@ import org.springframework.web.bind.annotation.*;
 @RestController
 public class ReposDataFetcherController {
     public static final String GET_USER_REPOS_URL = "{user}/repos";
+    public static final String BATCH_USER_REPOS_URL = "repos:batch";
+    public static final String STREAM_PARAM = "stream=true";
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    private static final byte[] LINE_SEPARATOR = {'\n'};
     private final ReposDataFetcherService githubApiClientService;
+    private final ObjectMapper objectMapper;
+    private final PropertiesValues propertiesValues;
 
     @GetMapping(value = GET_USER_REPOS_URL, produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<GetUserRepositoriesResponse> getUserRepos(
@@ -24,18 +52,178 @@ public class ReposDataFetcherController {
             @RequestHeader(value = HttpHeaders.ACCEPT) String accept,
             @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String accessToken,
             @RequestParam(required = false) String sort,
-            @RequestParam(required = false) String direction
+            @RequestParam(required = false) String direction,
+            @ModelAttribute RepositoryFilter filter
+    ) throws HttpMediaTypeNotAcceptableException {
+        checkAcceptHeader(accept);
+
+        log.info("Performing repositories data fetching for username: {}", userName);
+        List<RepositoryDTO> repositories = this.githubApiClientService
+                .getUserRepos(userName, accessToken, sort, direction, filter);
+        GetUserRepositoriesResponse response = new GetUserRepositoriesResponse(repositories, partial(repositories, filter));
+
+        return ResponseEntity.ok().body(response);
+    }
+
+    // Binary formats for clients which can decode them, JSON response stays unchanged
+    @GetMapping(value = GET_USER_REPOS_URL, produces = {MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<CompactUserRepositoriesResponse> getCompactUserRepos(
+            @PathVariable(value = "user") String userName,
+            @RequestHeader(value = HttpHeaders.ACCEPT) String accept,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String accessToken,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @ModelAttribute RepositoryFilter filter
+    ) throws HttpMediaTypeNotAcceptableException {
+        checkAcceptHeader(accept);
+
+        log.info("Performing repositories data fetching in compact format for username: {}", userName);
+        List<RepositoryDTO> repositories = this.githubApiClientService
+                .getUserRepos(userName, accessToken, sort, direction, filter);
+        CompactUserRepositoriesResponse response = CompactUserRepositoriesResponse.of(
+                repositories,
+                partial(repositories, filter)
+        );
+
+        return ResponseEntity.ok().body(response);
+    }
+
+    // Every repository is written as a separate JSON line as soon as its branches are fetched
+    @GetMapping(value = GET_USER_REPOS_URL, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUserRepos(
+            @PathVariable(value = "user") String userName,
+            @RequestHeader(value = HttpHeaders.ACCEPT) String accept,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String accessToken,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @ModelAttribute RepositoryFilter filter
+    ) throws HttpMediaTypeNotAcceptableException {
+        checkAcceptHeader(accept);
+
+        log.info("Performing repositories data streaming for username: {}", userName);
+        RepositoryStream repositories = this.githubApiClientService.streamUserRepos(
+                userName,
+                accessToken,
+                sort,
+                direction,
+                filter
+        );
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> writeRepositories(repositories, outputStream));
+    }
+
+    // Streaming can also be requested by clients which can't set Accept header to application/x-ndjson
+    @GetMapping(
+            value = GET_USER_REPOS_URL,
+            params = STREAM_PARAM,
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    public ResponseEntity<StreamingResponseBody> streamUserReposByParam(
+            @PathVariable(value = "user") String userName,
+            @RequestHeader(value = HttpHeaders.ACCEPT) String accept,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String accessToken,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @ModelAttribute RepositoryFilter filter
     ) throws HttpMediaTypeNotAcceptableException {
+        return streamUserRepos(userName, accept, accessToken, sort, direction, filter);
+    }
+
+    // Body is a JSON array of usernames. Every user is written as a separate JSON line as soon as all its repositories
+    // are fetched, in order of completion. Users which couldn't be fetched get a line with status and message
+    // of their error instead, the rest of the batch is not affected.
+    @PostMapping(
+            value = BATCH_USER_REPOS_URL,
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE}
+    )
+    public ResponseEntity<StreamingResponseBody> streamBatchUserRepos(
+            @RequestBody List<String> userNames,
+            @RequestHeader(value = HttpHeaders.ACCEPT) String accept,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String accessToken,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @ModelAttribute RepositoryFilter filter
+    ) throws HttpMediaTypeNotAcceptableException {
+        checkAcceptHeader(accept);
+
+        log.info("Performing repositories data streaming for batch of {} usernames", userNames.size());
+        UserReposResultStream results = this.githubApiClientService
+                .streamBatchUserRepos(userNames, accessToken, sort, direction, filter);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> writeResults(results, filter, outputStream));
+    }
+
+    private void checkAcceptHeader(String accept) throws HttpMediaTypeNotAcceptableException {
         if (accept.isEmpty()) {
             log.info("Value of accept request header was not provided");
             throw new HttpMediaTypeNotAcceptableException("");
         }
+    }
 
-        log.info("Performing repositories data fetching for username: {}", userName);
-        GetUserRepositoriesResponse response = new GetUserRepositoriesResponse(
-                this.githubApiClientService.getUserRepos(userName, accessToken, sort, direction)
-        );
+    private void writeRepositories(RepositoryStream repositories, OutputStream outputStream) throws IOException {
+        try {
+            repositories.forEachRepository(repository -> writeLine(repository, outputStream));
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+    }
 
-        return ResponseEntity.ok().body(response);
+    private void writeResults(
+            UserReposResultStream results,
+            RepositoryFilter filter,
+            OutputStream outputStream
+    ) throws IOException {
+        try {
+            results.forEachResult(result -> writeLine(toBatchResponse(result, filter), outputStream));
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+    }
+
+    // Statuses match the ones returned by ResponseExceptionHandler for a single user
+    private BatchUserReposResponse toBatchResponse(UserReposResult result, RepositoryFilter filter) {
+        if (Objects.isNull(result.failure())) {
+            return new BatchUserReposResponse(
+                    result.userName(),
+                    HttpStatus.OK.value(),
+                    null,
+                    result.repositories(),
+                    partial(result.repositories(), filter)
+            );
+        }
+
+        HttpStatus status = switch (result.failure()) {
+            case GithubUserNotFoundException exception -> HttpStatus.NOT_FOUND;
+            case WrongParamValueException exception -> HttpStatus.BAD_REQUEST;
+            case GithubRateLimitExceededException exception -> HttpStatus.TOO_MANY_REQUESTS;
+            case FetchTimeoutException exception -> HttpStatus.GATEWAY_TIMEOUT;
+            case GithubUnavailableException exception -> HttpStatus.SERVICE_UNAVAILABLE;
+            default -> HttpStatus.INTERNAL_SERVER_ERROR;
+        };
+        String message = status.equals(HttpStatus.INTERNAL_SERVER_ERROR)
+                ? this.propertiesValues.unexpectedErrorMessage + " " + result.failure().getMessage()
+                : result.failure().getMessage();
+
+        return new BatchUserReposResponse(result.userName(), status.value(), message, null);
+    }
+
+    // Repositories have no branches also when they were not requested, which doesn't make the result partial
+    static Boolean partial(List<RepositoryDTO> repositories, RepositoryFilter filter) {
+        return filter.branches() && RepositoryDTO.isPartial(repositories) ? Boolean.TRUE : null;
+    }
+
+    private void writeLine(Object line, OutputStream outputStream) {
+        try {
+            outputStream.write(this.objectMapper.writeValueAsBytes(line));
+            outputStream.write(LINE_SEPARATOR);
+            outputStream.flush();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
     }
 }
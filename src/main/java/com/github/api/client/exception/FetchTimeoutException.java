@@ -0,0 +1,7 @@
+package com.github.api.client.exception;
+
+public class FetchTimeoutException extends RuntimeException {
+    public FetchTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.github.api.client.exception;
+
+public class GithubGraphQlException extends RuntimeException {
+    public GithubGraphQlException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.github.api.client.exception;
+
+import lombok.Getter;
+
+@Getter
+public class GithubRateLimitExceededException extends RuntimeException {
+    private final long retryAfterSeconds;
+    // Rejected responses may be retried once the backoff passes, requests rejected before sending may not
+    private final boolean retryable;
+
+    public GithubRateLimitExceededException(String message, long retryAfterSeconds, boolean retryable) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.retryable = retryable;
+    }
+}
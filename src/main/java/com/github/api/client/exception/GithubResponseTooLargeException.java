@@ -0,0 +1,8 @@
+package com.github.api.client.exception;
+
+// Github API response is larger than github.api.http.max-response-bytes after decompression
+public class GithubResponseTooLargeException extends RuntimeException {
+    public GithubResponseTooLargeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package com.github.api.client.exception;
+
+// Github API keeps failing with 5xx responses or I/O errors, or calls to it are rejected by its circuit breaker or bulkhead
+public class GithubUnavailableException extends RuntimeException {
+    public GithubUnavailableException(String message) {
+        super(message);
+    }
+
+    public GithubUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
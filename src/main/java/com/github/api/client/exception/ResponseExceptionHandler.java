@@ -17,15 +17,53 @@ public class ResponseExceptionHandler {
     @ExceptionHandler(GithubUserNotFoundException.class)
     public ResponseEntity<ExceptionMessage> githubUserNotFoundException(GithubUserNotFoundException exception) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
                 .body(new ExceptionMessage(HttpStatus.NOT_FOUND.value(), exception.getMessage()));
     }
 
     @ExceptionHandler(WrongParamValueException.class)
     public ResponseEntity<ExceptionMessage> wrongParamValueException(WrongParamValueException exception) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .contentType(MediaType.APPLICATION_JSON)
                 .body(new ExceptionMessage(HttpStatus.BAD_REQUEST.value(), exception.getMessage()));
     }
 
+    @ExceptionHandler(FetchTimeoutException.class)
+    public ResponseEntity<ExceptionMessage> fetchTimeoutException(FetchTimeoutException exception) {
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ExceptionMessage(HttpStatus.GATEWAY_TIMEOUT.value(), exception.getMessage()));
+    }
+
+    @ExceptionHandler(GithubRateLimitExceededException.class)
+    public ResponseEntity<ExceptionMessage> githubRateLimitExceededException(GithubRateLimitExceededException exception) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ExceptionMessage(HttpStatus.TOO_MANY_REQUESTS.value(), exception.getMessage()));
+    }
+
+    @ExceptionHandler(GithubUnavailableException.class)
+    public ResponseEntity<ExceptionMessage> githubUnavailableException(GithubUnavailableException exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ExceptionMessage(HttpStatus.SERVICE_UNAVAILABLE.value(), exception.getMessage()));
+    }
+
+    @ExceptionHandler(GithubResponseTooLargeException.class)
+    public ResponseEntity<ExceptionMessage> githubResponseTooLargeException(GithubResponseTooLargeException exception) {
+        return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ExceptionMessage(HttpStatus.BAD_GATEWAY.value(), exception.getMessage()));
+    }
+
+    @ExceptionHandler(WebhookSignatureException.class)
+    public ResponseEntity<ExceptionMessage> webhookSignatureException(WebhookSignatureException exception) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ExceptionMessage(HttpStatus.UNAUTHORIZED.value(), exception.getMessage()));
+    }
+
     @ExceptionHandler(HttpMediaTypeNotAcceptableException.class)
     public ResponseEntity<ExceptionMessage> handleHttpMediaTypeNotAcceptableException(
             HttpMediaTypeNotAcceptableException exception
@@ -45,10 +83,22 @@ public class ResponseExceptionHandler {
     @ExceptionHandler(HttpClientErrorException.class)
     public ResponseEntity<ExceptionMessage> httpClientErrorException(HttpClientErrorException exception) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_JSON)
                 .body(new ExceptionMessage(
                             HttpStatus.INTERNAL_SERVER_ERROR.value(),
                             this.propertiesValues.unexpectedErrorMessage + " " +exception.getMessage()
                         )
                 );
     }
+
+    @ExceptionHandler(GithubGraphQlException.class)
+    public ResponseEntity<ExceptionMessage> githubGraphQlException(GithubGraphQlException exception) {
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ExceptionMessage(
+                            HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                            this.propertiesValues.unexpectedErrorMessage + " " + exception.getMessage()
+                        )
+                );
+    }
 }
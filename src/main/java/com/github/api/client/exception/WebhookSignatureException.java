@@ -0,0 +1,8 @@
+package com.github.api.client.exception;
+
+// Webhook delivery is not signed with the configured secret, or no secret is configured
+public class WebhookSignatureException extends RuntimeException {
+    public WebhookSignatureException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.api.client.metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.client.observation.ClientRequestObservationContext;
+import org.springframework.http.client.observation.DefaultClientRequestObservationConvention;
+
+import java.util.Objects;
+
+// Calls to Github API are recorded as github.api.requests timer and as child spans of the current request.
+// Urls are replaced with endpoint kind, so every user doesn't create a new time series.
+public class GithubClientRequestObservationConvention extends DefaultClientRequestObservationConvention {
+    public static final String REQUESTS_METRIC = "github.api.requests";
+    public static final String ENDPOINT_TAG = "endpoint";
+
+    public GithubClientRequestObservationConvention() {
+        super(REQUESTS_METRIC);
+    }
+
+    @Override
+    public String getContextualName(ClientRequestObservationContext context) {
+        return "github " + endpoint(context).tagValue();
+    }
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ClientRequestObservationContext context) {
+        return KeyValues.of(
+                KeyValue.of(ENDPOINT_TAG, endpoint(context).tagValue()),
+                method(context),
+                status(context),
+                outcome(context),
+                exception(context)
+        );
+    }
+
+    public static GithubEndpoint endpoint(ClientRequestObservationContext context) {
+        return Objects.nonNull(context.getCarrier())
+                ? GithubEndpoint.of(context.getCarrier().getURI())
+                : GithubEndpoint.OTHER;
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.api.client.metrics;
+
+import java.net.URI;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+// Kind of Github API endpoint, used as a metric tag instead of urls which contain user and repository names
+public enum GithubEndpoint {
+    USER_REPOS("user-repos", Pattern.compile(".*/users/[^/]+/repos/?")),
+    BRANCHES("branches", Pattern.compile(".*/repos/[^/]+/[^/]+/branches/?")),
+    GRAPHQL("graphql", Pattern.compile(".*/graphql/?")),
+    OTHER("other", null);
+
+    private final String tagValue;
+    private final Pattern pathPattern;
+
+    GithubEndpoint(String tagValue, Pattern pathPattern) {
+        this.tagValue = tagValue;
+        this.pathPattern = pathPattern;
+    }
+
+    public String tagValue() {
+        return this.tagValue;
+    }
+
+    public static GithubEndpoint of(URI uri) {
+        String path = Objects.nonNull(uri) ? uri.getPath() : null;
+
+        if (Objects.isNull(path)) {
+            return OTHER;
+        }
+
+        for (GithubEndpoint endpoint : values()) {
+            if (Objects.nonNull(endpoint.pathPattern) && endpoint.pathPattern.matcher(path).matches()) {
+                return endpoint;
+            }
+        }
+
+        return OTHER;
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.api.client.metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.web.reactive.function.client.ClientRequestObservationContext;
+import org.springframework.web.reactive.function.client.DefaultClientRequestObservationConvention;
+
+import java.util.Objects;
+
+// Same github.api.requests timer and tags as GithubClientRequestObservationConvention, for calls made with WebClient
+public class GithubWebClientObservationConvention extends DefaultClientRequestObservationConvention {
+
+    public GithubWebClientObservationConvention() {
+        super(GithubClientRequestObservationConvention.REQUESTS_METRIC);
+    }
+
+    @Override
+    public String getContextualName(ClientRequestObservationContext context) {
+        return "github " + endpoint(context).tagValue();
+    }
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ClientRequestObservationContext context) {
+        return KeyValues.of(
+                KeyValue.of(GithubClientRequestObservationConvention.ENDPOINT_TAG, endpoint(context).tagValue()),
+                method(context),
+                status(context),
+                outcome(context),
+                exception(context)
+        );
+    }
+
+    // Request is set on the context once it passes the filters
+    public static GithubEndpoint endpoint(ClientRequestObservationContext context) {
+        return Objects.nonNull(context.getRequest())
+                ? GithubEndpoint.of(context.getRequest().url())
+                : GithubEndpoint.OTHER;
+    }
+}
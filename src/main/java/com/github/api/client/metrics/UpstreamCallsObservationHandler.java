@@ -0,0 +1,105 @@
+package com.github.api.client.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.observation.ClientRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Counts calls to Github API made while handling a single request of this application.
+// Calls made by fan-out threads are counted as well, as FanOutExecutor propagates the current observation to them.
+// Calls made with WebClient get the current observation from Reactor context.
+@RequiredArgsConstructor
+@Component
+public class UpstreamCallsObservationHandler implements ObservationHandler<Observation.Context> {
+    public static final String UPSTREAM_CALLS_METRIC = "fetcher.upstream.calls";
+    public static final String NOT_FOUND_METRIC = "github.api.not.found";
+    private static final String UPSTREAM_CALLS_KEY = UpstreamCallsObservationHandler.class.getName() + ".calls";
+    private static final String URI_TAG = "uri";
+    private static final String UNKNOWN_URI = "UNKNOWN";
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return isClientContext(context) || context instanceof ServerRequestObservationContext;
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        if (isClientContext(context)) {
+            ServerRequestObservationContext serverContext = findServerContext(context);
+
+            if (Objects.nonNull(serverContext)) {
+                serverContext.computeIfAbsent(UPSTREAM_CALLS_KEY, key -> new AtomicInteger()).incrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        if (context instanceof ClientRequestObservationContext clientContext) {
+            recordNotFound(clientContext);
+        } else if (context instanceof org.springframework.web.reactive.function.client.ClientRequestObservationContext clientContext) {
+            if (Objects.nonNull(clientContext.getResponse())
+                    && clientContext.getResponse().statusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
+                countNotFound(GithubWebClientObservationConvention.endpoint(clientContext));
+            }
+        } else if (context instanceof ServerRequestObservationContext serverContext) {
+            AtomicInteger calls = serverContext.getOrDefault(UPSTREAM_CALLS_KEY, new AtomicInteger());
+
+            DistributionSummary.builder(UPSTREAM_CALLS_METRIC)
+                    .description("Github API calls made to handle a single request")
+                    .tag(URI_TAG, Objects.nonNull(serverContext.getPathPattern()) ? serverContext.getPathPattern() : UNKNOWN_URI)
+                    .register(this.meterRegistry)
+                    .record(calls.get());
+        }
+    }
+
+    private void recordNotFound(ClientRequestObservationContext context) {
+        try {
+            if (Objects.nonNull(context.getResponse()) && context.getResponse().getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
+                countNotFound(GithubClientRequestObservationConvention.endpoint(context));
+            }
+        } catch (IOException exception) {
+            // Status of a broken response is reported by the timer as CLIENT_ERROR outcome
+        }
+    }
+
+    private void countNotFound(GithubEndpoint endpoint) {
+        Counter.builder(NOT_FOUND_METRIC)
+                .description("Github API responses with 404 status")
+                .tag(GithubClientRequestObservationConvention.ENDPOINT_TAG, endpoint.tagValue())
+                .register(this.meterRegistry)
+                .increment();
+    }
+
+    // RestTemplate and WebClient have their own context classes of the same name
+    private static boolean isClientContext(Observation.Context context) {
+        return context instanceof ClientRequestObservationContext
+                || context instanceof org.springframework.web.reactive.function.client.ClientRequestObservationContext;
+    }
+
+    private static ServerRequestObservationContext findServerContext(Observation.Context context) {
+        ObservationView parent = context.getParentObservation();
+
+        while (Objects.nonNull(parent)) {
+            if (parent.getContextView() instanceof ServerRequestObservationContext serverContext) {
+                return serverContext;
+            }
+
+            parent = parent.getContextView().getParentObservation();
+        }
+
+        return null;
+    }
+}
@@ -1,3 +1,18 @@
 package com.github.api.client.model;
 
-public record Repository(String name, Owner owner, boolean fork) {}
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+
+// pushedAt and updatedAt are null when Github didn't send them, e.g. in responses restored from older data
+public record Repository(
+        String name,
+        Owner owner,
+        boolean fork,
+        @JsonProperty("pushed_at") Instant pushedAt,
+        @JsonProperty("updated_at") Instant updatedAt
+) {
+    public Repository(String name, Owner owner, boolean fork) {
+        this(name, owner, fork, null, null);
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.api.client.model;
+
+import com.github.api.client.model.dto.RepositoryDTO;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+// Selects repositories of a user before their branches are fetched, so repositories which are not returned
+// don't cost any Github API call. When the whole result of the user is already cached, it is selected from instead.
+// Name is a glob (* and ?) matching the whole repository name, ignoring case. It is matched without regular
+// expressions, so no pattern can make it backtrack for long. Offset and limit are applied to the matching
+// non-fork repositories, in order of the repositories listing. With branches set to false, branches are not fetched.
+// Missing parameters get their default values, so filters bound from request parameters equal NONE when none is set.
+public record RepositoryFilter(String name, Boolean branches, Integer offset, Integer limit) {
+    public static final RepositoryFilter NONE = new RepositoryFilter(null, true, 0, null);
+
+    public RepositoryFilter {
+        branches = Objects.requireNonNullElse(branches, true);
+        offset = Objects.requireNonNullElse(offset, 0);
+    }
+
+    public boolean isNone() {
+        return NONE.equals(this);
+    }
+
+    public <T> List<T> select(List<T> items, Function<T, String> nameOf) {
+        if (isNone()) {
+            return items;
+        }
+
+        return items.stream()
+                .filter(item -> Objects.isNull(this.name) || globMatches(this.name, nameOf.apply(item)))
+                .skip(this.offset)
+                .limit(Objects.nonNull(this.limit) ? this.limit : Long.MAX_VALUE)
+                .toList();
+    }
+
+    // Selects from an already fetched result, repositories keep their branches only when they are requested
+    public List<RepositoryDTO> apply(List<RepositoryDTO> repositories) {
+        List<RepositoryDTO> selected = select(repositories, RepositoryDTO::repositoryName);
+
+        return this.branches ? selected : selected.stream().map(RepositoryDTO::withoutBranches).toList();
+    }
+
+    // After a mismatch only the last * takes one more character, so matching takes at most
+    // the length of the glob times the length of the name steps
+    static boolean globMatches(String glob, String name) {
+        int globIndex = 0;
+        int nameIndex = 0;
+        int starIndex = -1;
+        int starNameIndex = 0;
+
+        while (nameIndex < name.length()) {
+            if (globIndex < glob.length() && glob.charAt(globIndex) == '*') {
+                starIndex = globIndex++;
+                starNameIndex = nameIndex;
+            } else if (globIndex < glob.length() && (glob.charAt(globIndex) == '?'
+                    || glob.regionMatches(true, globIndex, name, nameIndex, 1))) {
+                globIndex++;
+                nameIndex++;
+            } else if (starIndex >= 0) {
+                globIndex = starIndex + 1;
+                nameIndex = ++starNameIndex;
+            } else {
+                return false;
+            }
+        }
+
+        while (globIndex < glob.length() && glob.charAt(globIndex) == '*') {
+            globIndex++;
+        }
+
+        return globIndex == glob.length();
+    }
+}
@@ -1,5 +1,22 @@
 package com.github.api.client.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
+import java.util.Objects;
+
+// Branches are null when they couldn't be fetched because Github API was unavailable, or when they were not requested.
+// Null branches are left out of JSON.
+public record RepositoryDTO(
+        String repositoryName,
+        String ownerLogin,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<BranchDTO> branches
+) {
+    public RepositoryDTO withoutBranches() {
+        return new RepositoryDTO(this.repositoryName, this.ownerLogin, null);
+    }
 
-public record RepositoryDTO(String repositoryName, String ownerLogin, List<BranchDTO> branches) {}
\ No newline at end of file
+    public static boolean isPartial(List<RepositoryDTO> repositories) {
+        return repositories.stream().anyMatch(repository -> Objects.isNull(repository.branches()));
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.api.client.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.github.api.client.model.dto.RepositoryDTO;
+
+import java.util.List;
+
+// Single line of a batch response, message is set only for failed users and repositories only for successful ones.
+// Partial is set only when branches of some repositories are missing.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchUserReposResponse(String user, int status, String message, List<RepositoryDTO> repositories, Boolean partial) {
+    public BatchUserReposResponse(String user, int status, String message, List<RepositoryDTO> repositories) {
+        this(user, status, message, repositories, repositories != null && RepositoryDTO.isPartial(repositories) ? Boolean.TRUE : null);
+    }
+}
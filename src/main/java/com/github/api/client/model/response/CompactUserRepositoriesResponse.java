@@ -0,0 +1,57 @@
+package com.github.api.client.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.github.api.client.model.dto.BranchDTO;
+import com.github.api.client.model.dto.RepositoryDTO;
+
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+// Response written for binary formats (CBOR, Smile). Owner login is written once for the whole response
+// and repeated only by repositories of other owners. Repositories without an owner are marked with noOwner,
+// so they are not taken for repositories of the response owner. Hexadecimal SHAs are written as raw bytes,
+// any other value is kept as text in shaText. Partial is set only when branches of some repositories are missing.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CompactUserRepositoriesResponse(String ownerLogin, List<Repository> repositories, Boolean partial) {
+    private static final Pattern SHA_PATTERN = Pattern.compile("[0-9a-f]{40}|[0-9a-f]{64}");
+    private static final HexFormat HEX_FORMAT = HexFormat.of();
+
+    public static CompactUserRepositoriesResponse of(List<RepositoryDTO> repositories) {
+        return of(repositories, RepositoryDTO.isPartial(repositories) ? Boolean.TRUE : null);
+    }
+
+    public static CompactUserRepositoriesResponse of(List<RepositoryDTO> repositories, Boolean partial) {
+        String ownerLogin = repositories.isEmpty() ? null : repositories.get(0).ownerLogin();
+
+        return new CompactUserRepositoriesResponse(
+                ownerLogin,
+                repositories.stream()
+                        .map(repository -> new Repository(
+                                repository.repositoryName(),
+                                Objects.equals(ownerLogin, repository.ownerLogin()) ? null : repository.ownerLogin(),
+                                Objects.isNull(repository.ownerLogin()) && Objects.nonNull(ownerLogin) ? Boolean.TRUE : null,
+                                Objects.nonNull(repository.branches())
+                                        ? repository.branches().stream().map(Branch::of).toList()
+                                        : null
+                        ))
+                        .toList(),
+                partial
+        );
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Repository(String repositoryName, String ownerLogin, Boolean noOwner, List<Branch> branches) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Branch(String branchName, byte[] sha, String shaText) {
+        static Branch of(BranchDTO branch) {
+            if (Objects.nonNull(branch.sha()) && SHA_PATTERN.matcher(branch.sha()).matches()) {
+                return new Branch(branch.branchName(), HEX_FORMAT.parseHex(branch.sha()), null);
+            }
+
+            return new Branch(branch.branchName(), null, branch.sha());
+        }
+    }
+}
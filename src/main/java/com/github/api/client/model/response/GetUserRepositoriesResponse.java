@@ -1,7 +1,16 @@
 package com.github.api.client.model.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.github.api.client.model.dto.RepositoryDTO;
 
 import java.util.List;
 
-public record GetUserRepositoriesResponse(List<RepositoryDTO> repositories) {}
\ No newline at end of file
+// Partial is set only when branches of some repositories are missing
+public record GetUserRepositoriesResponse(
+        List<RepositoryDTO> repositories,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Boolean partial
+) {
+    public GetUserRepositoriesResponse(List<RepositoryDTO> repositories) {
+        this(repositories, RepositoryDTO.isPartial(repositories) ? Boolean.TRUE : null);
+    }
+}
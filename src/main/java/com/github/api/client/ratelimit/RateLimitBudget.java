@@ -0,0 +1,144 @@
+package com.github.api.client.ratelimit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+
+// Rate limit state of a single access token, built from headers of Github API responses.
+// Remaining requests are also decremented locally when a request is sent, so concurrent requests
+// don't see the same budget before any of their responses arrive.
+// More info here: https://docs.github.com/en/rest/using-the-rest-api/rate-limits-for-the-rest-api
+public class RateLimitBudget {
+    public static final String LIMIT_HEADER_KEY = "X-RateLimit-Limit";
+    public static final String REMAINING_HEADER_KEY = "X-RateLimit-Remaining";
+    public static final String RESET_HEADER_KEY = "X-RateLimit-Reset";
+    private static final int UNKNOWN = -1;
+
+    private long limit = UNKNOWN;
+    private long remaining = UNKNOWN;
+    private Instant resetAt;
+    private Instant blockedUntil;
+    private Instant nextSlotAt;
+    private int secondaryLimitHits;
+
+    // Returns how long a request has to wait before it is sent. When the wait is not longer than maxWait,
+    // a slot for the request is reserved, otherwise the budget is left unchanged.
+    public synchronized Duration reserve(Instant now, Duration maxWait, long lowWatermark) {
+        Instant start = now;
+
+        if (Objects.nonNull(this.blockedUntil) && this.blockedUntil.isAfter(start)) {
+            start = this.blockedUntil;
+        }
+
+        boolean windowActive = Objects.nonNull(this.resetAt) && this.resetAt.isAfter(now);
+        if (windowActive && this.remaining == 0 && this.resetAt.isAfter(start)) {
+            start = this.resetAt;
+        }
+
+        // When the budget runs low, requests are queued and spread evenly until the limit window resets
+        Duration interval = Duration.ZERO;
+        if (windowActive && this.remaining > 0 && this.remaining < lowWatermark) {
+            interval = Duration.between(now, this.resetAt).dividedBy(this.remaining);
+
+            if (Objects.nonNull(this.nextSlotAt) && this.nextSlotAt.isAfter(start)) {
+                start = this.nextSlotAt;
+            }
+        }
+
+        Duration wait = Duration.between(now, start);
+        if (wait.compareTo(maxWait) > 0) {
+            return wait;
+        }
+
+        if (!interval.isZero()) {
+            this.nextSlotAt = start.plus(interval);
+        }
+        if (this.remaining > 0) {
+            this.remaining--;
+        }
+
+        return wait;
+    }
+
+    // Returns true when the response was rejected because of primary or secondary rate limit
+    public synchronized boolean update(HttpStatusCode statusCode, HttpHeaders headers, Instant now, Duration secondaryBackoff) {
+        Long headerRemaining = parseLong(headers.getFirst(REMAINING_HEADER_KEY));
+        Long headerReset = parseLong(headers.getFirst(RESET_HEADER_KEY));
+        Long headerLimit = parseLong(headers.getFirst(LIMIT_HEADER_KEY));
+
+        if (Objects.nonNull(headerRemaining) && Objects.nonNull(headerReset)) {
+            Instant reset = Instant.ofEpochSecond(headerReset);
+
+            if (Objects.isNull(this.resetAt) || reset.isAfter(this.resetAt)) {
+                this.resetAt = reset;
+                this.remaining = headerRemaining;
+                this.nextSlotAt = null;
+            } else {
+                this.remaining = this.remaining == UNKNOWN ? headerRemaining : Math.min(this.remaining, headerRemaining);
+            }
+        }
+        if (Objects.nonNull(headerLimit)) {
+            this.limit = headerLimit;
+        }
+
+        if (!isRateLimited(statusCode, headers)) {
+            if (statusCode.is2xxSuccessful() || statusCode.isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                this.secondaryLimitHits = 0;
+            }
+
+            return false;
+        }
+
+        Long retryAfter = parseLong(headers.getFirst(HttpHeaders.RETRY_AFTER));
+        if (Objects.nonNull(retryAfter)) {
+            this.blockedUntil = now.plusSeconds(retryAfter);
+        } else if (Objects.nonNull(headerRemaining) && headerRemaining == 0 && Objects.nonNull(this.resetAt)) {
+            this.blockedUntil = this.resetAt;
+        } else {
+            // Secondary rate limit without Retry-After, wait time grows exponentially
+            this.blockedUntil = now.plus(secondaryBackoff.multipliedBy(1L << Math.min(this.secondaryLimitHits, 6)));
+            this.secondaryLimitHits++;
+        }
+
+        return true;
+    }
+
+    public synchronized long retryAfterSeconds(Instant now) {
+        Instant until = Objects.nonNull(this.blockedUntil) && this.blockedUntil.isAfter(now) ? this.blockedUntil : now;
+
+        if (this.remaining == 0 && Objects.nonNull(this.resetAt) && this.resetAt.isAfter(until)) {
+            until = this.resetAt;
+        }
+
+        return (long) Math.ceil(Duration.between(now, until).toMillis() / 1000.0);
+    }
+
+    public synchronized long remaining() {
+        return this.remaining;
+    }
+
+    public synchronized long limit() {
+        return this.limit;
+    }
+
+    public static boolean isRateLimited(HttpStatusCode statusCode, HttpHeaders headers) {
+        if (statusCode.isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
+            return true;
+        }
+
+        return statusCode.isSameCodeAs(HttpStatus.FORBIDDEN) && (headers.containsKey(HttpHeaders.RETRY_AFTER)
+                || "0".equals(headers.getFirst(REMAINING_HEADER_KEY)));
+    }
+
+    private static Long parseLong(String value) {
+        try {
+            return Objects.nonNull(value) ? Long.parseLong(value.trim()) : null;
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.github.api.client.ratelimit;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.TokenIdentity;
+import com.github.api.client.exception.FetchTimeoutException;
+import com.github.api.client.exception.GithubRateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps rate limit budget of every access token used to call Github API. Every token has a separate budget for
+// every rate limit resource, e.g. REST API requests count against "core" and GraphQL queries against "graphql" points.
+// Budgets of anonymous requests and pool tokens are pinned, they are kept all the time and published as metrics.
+// Budgets of callers' own tokens are kept only for github.api.rate-limit.max-tracked-tokens least recently used
+// tokens and their rejections are counted together, so neither memory nor metrics grow with every token callers send.
+@Slf4j
+@Component
+public class RateLimitTracker {
+    public static final String REMAINING_METRIC = "github.rate.limit.remaining";
+    public static final String REJECTIONS_METRIC = "github.rate.limit.rejections";
+    public static final String RESOURCE_HEADER_KEY = "X-RateLimit-Resource";
+    public static final String CORE_RESOURCE = "core";
+    public static final String GRAPHQL_RESOURCE = "graphql";
+    static final String TOKEN_TAG = "token";
+    static final String RESOURCE_TAG = "resource";
+    static final String CALLER_TOKENS_TAG = "caller";
+    private static final int TOKEN_TAG_LENGTH = 8;
+    private static final String BEARER_PREFIX = "Bearer ";
+    private final PropertiesValues propertiesValues;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> pinnedIdentities = ConcurrentHashMap.newKeySet();
+    private final Map<Key, RateLimitBudget> pinnedBudgets = new ConcurrentHashMap<>();
+    private final Map<Key, RateLimitBudget> callerBudgets;
+
+    public RateLimitTracker(PropertiesValues propertiesValues, MeterRegistry meterRegistry) {
+        this.propertiesValues = propertiesValues;
+        this.meterRegistry = meterRegistry;
+        this.callerBudgets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, RateLimitBudget> eldest) {
+                return size() > propertiesValues.rateLimitMaxTrackedTokens;
+            }
+        };
+        this.pinnedIdentities.add(TokenIdentity.ANONYMOUS);
+    }
+
+    // Budget of REST API requests
+    public RateLimitBudget budget(String tokenIdentity) {
+        return budget(tokenIdentity, CORE_RESOURCE);
+    }
+
+    public RateLimitBudget budget(String tokenIdentity, String resource) {
+        Key key = new Key(tokenIdentity, resource);
+        RateLimitBudget budget = this.pinnedBudgets.get(key);
+
+        if (Objects.nonNull(budget)) {
+            return budget;
+        }
+        if (this.pinnedIdentities.contains(tokenIdentity)) {
+            return this.pinnedBudgets.computeIfAbsent(key, this::newPinnedBudget);
+        }
+
+        synchronized (this.callerBudgets) {
+            return this.callerBudgets.computeIfAbsent(key, budgetKey -> new RateLimitBudget());
+        }
+    }
+
+    // Blocking requests wait here before they take a bulkhead permit or a connection, so waiting for the budget
+    // doesn't hold either of them. Requests which would wait longer than github.api.rate-limit.max-wait-ms are rejected.
+    public void awaitBudget(URI uri, HttpHeaders requestHeaders) {
+        Duration wait = reserve(uri, requestHeaders);
+        if (wait.isZero() || wait.isNegative()) {
+            return;
+        }
+
+        try {
+            Thread.sleep(wait);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new FetchTimeoutException(this.propertiesValues.fetchTimeoutMessage);
+        }
+    }
+
+    // Reserves a slot in the budget of the request's token and returns how long the request has to wait for it
+    public Duration reserve(URI uri, HttpHeaders requestHeaders) {
+        String tokenIdentity = tokenIdentity(requestHeaders);
+        String resource = resource(uri);
+        Duration maxWait = Duration.ofMillis(this.propertiesValues.rateLimitMaxWaitMs);
+
+        Duration wait = budget(tokenIdentity, resource).reserve(Instant.now(), maxWait, this.propertiesValues.rateLimitLowWatermark);
+        if (wait.compareTo(maxWait) > 0) {
+            log.warn("Request to: {} rejected, rate limit allows to send it in {} s", uri, wait.toSeconds());
+            recordRejection(tokenIdentity, resource);
+            throw new GithubRateLimitExceededException(
+                    this.propertiesValues.rateLimitExceededMessage,
+                    (long) Math.ceil(wait.toMillis() / 1000.0),
+                    false
+            );
+        }
+
+        return wait;
+    }
+
+    public String tokenIdentity(HttpHeaders requestHeaders) {
+        String authorization = requestHeaders.getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (Objects.nonNull(authorization) && authorization.startsWith(BEARER_PREFIX)) {
+            authorization = authorization.substring(BEARER_PREFIX.length());
+        }
+
+        return TokenIdentity.of(authorization);
+    }
+
+    // Used for tokens of the application, their budgets are never evicted and get their own gauges
+    public void pin(String tokenIdentity) {
+        this.pinnedIdentities.add(tokenIdentity);
+        budget(tokenIdentity, CORE_RESOURCE);
+    }
+
+    public void recordRejection(String tokenIdentity, String resource) {
+        String tag = this.pinnedIdentities.contains(tokenIdentity) ? tokenTag(tokenIdentity) : CALLER_TOKENS_TAG;
+
+        Counter.builder(REJECTIONS_METRIC)
+                .description("Github API requests rejected because of rate limit")
+                .tag(TOKEN_TAG, tag)
+                .tag(RESOURCE_TAG, resource)
+                .register(this.meterRegistry)
+                .increment();
+    }
+
+    // Resource of a request is known from its endpoint before it is sent
+    public String resource(URI uri) {
+        String path = Objects.requireNonNullElse(uri.getPath(), "");
+
+        return path.endsWith("/" + this.propertiesValues.githubApiGraphQlUrl) ? GRAPHQL_RESOURCE : CORE_RESOURCE;
+    }
+
+    // Github names the resource in every response, it's used when present
+    public String resource(HttpHeaders responseHeaders, String requestResource) {
+        return Objects.requireNonNullElse(responseHeaders.getFirst(RESOURCE_HEADER_KEY), requestResource);
+    }
+
+    // Retry would be rejected before sending when its wait exceeds max-wait-ms, so it is not made at all
+    public boolean isRetryable(long retryAfterSeconds) {
+        return retryAfterSeconds * 1000 <= this.propertiesValues.rateLimitMaxWaitMs;
+    }
+
+    int trackedCallerBudgets() {
+        synchronized (this.callerBudgets) {
+            return this.callerBudgets.size();
+        }
+    }
+
+    private RateLimitBudget newPinnedBudget(Key key) {
+        RateLimitBudget budget;
+
+        // Budget used before the token was pinned keeps its state
+        synchronized (this.callerBudgets) {
+            budget = Objects.requireNonNullElseGet(this.callerBudgets.remove(key), RateLimitBudget::new);
+        }
+
+        Gauge.builder(REMAINING_METRIC, budget, RateLimitBudget::remaining)
+                .description("Remaining Github API requests of an access token, -1 until first response")
+                .tag(TOKEN_TAG, tokenTag(key.tokenIdentity()))
+                .tag(RESOURCE_TAG, key.resource())
+                .register(this.meterRegistry);
+
+        return budget;
+    }
+
+    // Only a prefix of token's hash is published, it's enough to tell tokens apart
+    static String tokenTag(String tokenIdentity) {
+        return tokenIdentity.equals(TokenIdentity.ANONYMOUS)
+                ? tokenIdentity
+                : tokenIdentity.substring(0, TOKEN_TAG_LENGTH);
+    }
+
+    private record Key(String tokenIdentity, String resource) {}
+}
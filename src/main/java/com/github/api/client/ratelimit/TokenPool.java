@@ -0,0 +1,131 @@
+package com.github.api.client.ratelimit;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.TokenIdentity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Access tokens of this application, configured with github.api.token-pool.tokens. Requests sent without
+// caller's own token are sent with the pool token which has the most requests left, so every added token
+// adds its whole rate limit to the throughput of anonymous and batch requests.
+// Budgets are the ones of RateLimitTracker, updated from headers of every response.
+@Component
+public class TokenPool {
+    public static final String SELECTIONS_METRIC = "github.token.pool.selections";
+    public static final String REMAINING_METRIC = "github.token.pool.remaining";
+    private final RateLimitTracker rateLimitTracker;
+    private final MeterRegistry meterRegistry;
+    private final List<PooledToken> tokens;
+    private final AtomicInteger nextStart = new AtomicInteger();
+
+    public TokenPool(PropertiesValues propertiesValues, RateLimitTracker rateLimitTracker, MeterRegistry meterRegistry) {
+        this.rateLimitTracker = rateLimitTracker;
+        this.meterRegistry = meterRegistry;
+        this.tokens = Objects.requireNonNullElse(propertiesValues.tokenPoolTokens, List.<String>of()).stream()
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .distinct()
+                .map(token -> new PooledToken(token, TokenIdentity.of(token)))
+                .toList();
+        this.tokens.forEach(pooledToken -> rateLimitTracker.pin(pooledToken.identity()));
+    }
+
+    // Registered once the pool is fully constructed, as the gauge reads its tokens
+    @PostConstruct
+    public void registerMetrics() {
+        if (isEnabled()) {
+            Gauge.builder(REMAINING_METRIC, this, pool -> pool.headroom(TokenIdentity.ANONYMOUS, 0))
+                    .description("Remaining Github API requests of all pool tokens, -1 until first response")
+                    .register(this.meterRegistry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return !this.tokens.isEmpty();
+    }
+
+    public int size() {
+        return this.tokens.size();
+    }
+
+    // Caller's own token is always used as it is, requests without one get a pool token, when there is any
+    public String resolve(String accessToken) {
+        if (StringUtils.hasText(accessToken) || !isEnabled()) {
+            return accessToken;
+        }
+
+        PooledToken selected = select();
+        Counter.builder(SELECTIONS_METRIC)
+                .description("Github API requests sent with a pool token")
+                .tag(RateLimitTracker.TOKEN_TAG, RateLimitTracker.tokenTag(selected.identity()))
+                .register(this.meterRegistry)
+                .increment();
+
+        return selected.token();
+    }
+
+    // Requests which can be sent with the token before reaching lowWatermark, -1 when its budget is unknown.
+    // For anonymous requests served by the pool, requests left of all pool tokens with known budgets are summed up.
+    public long headroom(String tokenIdentity, long lowWatermark) {
+        if (!TokenIdentity.ANONYMOUS.equals(tokenIdentity) || !isEnabled()) {
+            return headroom(this.rateLimitTracker.budget(tokenIdentity), lowWatermark);
+        }
+
+        long total = -1;
+        for (PooledToken pooledToken : this.tokens) {
+            long tokenHeadroom = headroom(this.rateLimitTracker.budget(pooledToken.identity()), lowWatermark);
+
+            if (tokenHeadroom >= 0) {
+                total = Math.max(total, 0) + tokenHeadroom;
+            }
+        }
+
+        return total;
+    }
+
+    // Tokens without any response yet are tried first, so all of them get known budgets. Tokens blocked
+    // by secondary rate limit go last. Search starts at a different token every time, so ties are spread evenly.
+    private PooledToken select() {
+        Instant now = Instant.now();
+        int start = Math.floorMod(this.nextStart.getAndIncrement(), this.tokens.size());
+        PooledToken selected = null;
+        long selectedScore = Long.MIN_VALUE;
+
+        for (int i = 0; i < this.tokens.size(); i++) {
+            PooledToken pooledToken = this.tokens.get((start + i) % this.tokens.size());
+            RateLimitBudget budget = this.rateLimitTracker.budget(pooledToken.identity());
+            long remaining = budget.remaining();
+            long score = budget.retryAfterSeconds(now) > 0 ? -1 : remaining < 0 ? Long.MAX_VALUE : remaining;
+
+            if (score > selectedScore) {
+                selected = pooledToken;
+                selectedScore = score;
+            }
+        }
+
+        return selected;
+    }
+
+    private static long headroom(RateLimitBudget budget, long lowWatermark) {
+        long remaining = budget.remaining();
+
+        return remaining < 0 ? -1 : Math.max(0, remaining - lowWatermark);
+    }
+
+    // Raw token is kept only here, to set it on requests
+    private record PooledToken(String token, String identity) {
+        @Override
+        public String toString() {
+            return "PooledToken[identity=" + this.identity + "]";
+        }
+    }
+}
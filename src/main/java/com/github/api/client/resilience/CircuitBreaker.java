@@ -0,0 +1,129 @@
+package com.github.api.client.resilience;
+
+// Count-based circuit breaker. Opens when at least failureRateThreshold percent of the last windowSize calls
+// (but no fewer than minCalls) have failed, and rejects calls for openNanos. After that a single probe call
+// is let through: its success closes the breaker, its failure opens it again. Calls started before the breaker
+// has opened may still finish while the probe runs, only the result of the probe changes the state then.
+// windowSize of 0 or less disables the breaker.
+public class CircuitBreaker {
+    private final int windowSize;
+    private final int minCalls;
+    private final int failureRateThreshold;
+    private final long openNanos;
+    private final boolean[] failures;
+    private int nextIndex;
+    private int recordedCalls;
+    private int failedCalls;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInProgress;
+
+    public CircuitBreaker(int windowSize, int minCalls, int failureRateThreshold, long openNanos) {
+        this.windowSize = windowSize;
+        this.minCalls = Math.max(1, minCalls);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openNanos;
+        this.failures = new boolean[Math.max(0, windowSize)];
+    }
+
+    public synchronized Permit tryAcquire(long now) {
+        if (this.windowSize <= 0) {
+            return Permit.CALL;
+        }
+
+        return switch (this.state) {
+            case CLOSED -> Permit.CALL;
+            case OPEN -> {
+                if (now - this.openedAt < this.openNanos) {
+                    yield Permit.REJECTED;
+                }
+
+                this.state = State.HALF_OPEN;
+                this.probeInProgress = true;
+                yield Permit.PROBE;
+            }
+            case HALF_OPEN -> {
+                if (this.probeInProgress) {
+                    yield Permit.REJECTED;
+                }
+
+                this.probeInProgress = true;
+                yield Permit.PROBE;
+            }
+        };
+    }
+
+    // Every acquired call has to be recorded with its permit, ignored outcomes of probes only let the next one through
+    public synchronized void record(Permit permit, Outcome outcome, long now) {
+        if (this.windowSize <= 0 || permit == Permit.REJECTED) {
+            return;
+        }
+
+        if (this.state == State.HALF_OPEN) {
+            if (permit != Permit.PROBE) {
+                return;
+            }
+
+            this.probeInProgress = false;
+            if (outcome == Outcome.FAILURE) {
+                open(now);
+            } else if (outcome == Outcome.SUCCESS) {
+                close();
+            }
+            return;
+        }
+
+        // Calls started before the breaker has opened don't change anything
+        if (this.state == State.OPEN || outcome == Outcome.IGNORED) {
+            return;
+        }
+
+        boolean failure = outcome == Outcome.FAILURE;
+        if (this.recordedCalls == this.windowSize) {
+            this.failedCalls -= this.failures[this.nextIndex] ? 1 : 0;
+        } else {
+            this.recordedCalls++;
+        }
+        this.failures[this.nextIndex] = failure;
+        this.failedCalls += failure ? 1 : 0;
+        this.nextIndex = (this.nextIndex + 1) % this.windowSize;
+
+        if (this.recordedCalls >= this.minCalls && this.failedCalls * 100L >= (long) this.failureRateThreshold * this.recordedCalls) {
+            open(now);
+        }
+    }
+
+    public synchronized boolean isOpen() {
+        return this.state != State.CLOSED;
+    }
+
+    private void open(long now) {
+        this.state = State.OPEN;
+        this.openedAt = now;
+    }
+
+    private void close() {
+        this.state = State.CLOSED;
+        this.nextIndex = 0;
+        this.recordedCalls = 0;
+        this.failedCalls = 0;
+    }
+
+    public enum Permit {
+        REJECTED,
+        CALL,
+        PROBE
+    }
+
+    public enum Outcome {
+        SUCCESS,
+        FAILURE,
+        IGNORED
+    }
+
+    private enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.api.client.resilience;
+
+import java.util.Arrays;
+
+// Latencies of the last successful calls of one endpoint, used to decide when a call is slow enough to be hedged
+class LatencyTracker {
+    private final long[] samples;
+    private int nextIndex;
+    private int recordedSamples;
+
+    LatencyTracker(int windowSize) {
+        this.samples = new long[Math.max(1, windowSize)];
+    }
+
+    synchronized void record(long latencyNanos) {
+        this.samples[this.nextIndex] = latencyNanos;
+        this.nextIndex = (this.nextIndex + 1) % this.samples.length;
+        this.recordedSamples = Math.min(this.recordedSamples + 1, this.samples.length);
+    }
+
+    // Returns -1 until there are at least minSamples samples
+    long percentile(double percentile, int minSamples) {
+        long[] recorded;
+
+        synchronized (this) {
+            if (this.recordedSamples < Math.max(1, minSamples)) {
+                return -1;
+            }
+            recorded = Arrays.copyOf(this.samples, this.recordedSamples);
+        }
+
+        Arrays.sort(recorded);
+        int index = (int) Math.ceil(percentile / 100 * recorded.length) - 1;
+
+        return recorded[Math.max(0, Math.min(index, recorded.length - 1))];
+    }
+}
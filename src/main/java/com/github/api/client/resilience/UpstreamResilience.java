@@ -0,0 +1,255 @@
+package com.github.api.client.resilience;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.concurrent.FanOutExecutor;
+import com.github.api.client.exception.FetchTimeoutException;
+import com.github.api.client.exception.GithubRateLimitExceededException;
+import com.github.api.client.exception.GithubUnavailableException;
+import com.github.api.client.metrics.GithubClientRequestObservationConvention;
+import com.github.api.client.metrics.GithubEndpoint;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Protects this application from a slow or failing Github API, separately for every kind of endpoint:
+// - circuit breaker rejects calls right away while most of the recent ones have failed with 5xx or I/O errors,
+// - bulkhead limits concurrent calls, so slow branches requests don't take all connections from repositories listings,
+// - hedging sends a duplicate of a call which takes longer than p95 of recent calls and uses the first response.
+// Rejected calls fail with GithubUnavailableException. Every feature is disabled by setting its limit to 0.
+@Slf4j
+@Component
+public class UpstreamResilience {
+    public static final String REJECTIONS_METRIC = "github.api.resilience.rejections";
+    public static final String RETRIES_METRIC = "github.api.resilience.retries";
+    public static final String HEDGES_METRIC = "github.api.resilience.hedges";
+    public static final String CIRCUIT_OPEN_METRIC = "github.api.resilience.circuit.open";
+    public static final String CIRCUIT_OPEN_REASON = "circuit-open";
+    public static final String BULKHEAD_FULL_REASON = "bulkhead-full";
+    private static final String REASON_TAG = "reason";
+    private static final double HEDGE_PERCENTILE = 95;
+    private static final int LATENCY_WINDOW_SIZE = 200;
+    private static final ContextSnapshotFactory CONTEXT_SNAPSHOT_FACTORY = ContextSnapshotFactory.builder().build();
+    private final PropertiesValues propertiesValues;
+    private final MeterRegistry meterRegistry;
+    private final Map<GithubEndpoint, EndpointState> endpoints = new EnumMap<>(GithubEndpoint.class);
+
+    public UpstreamResilience(PropertiesValues propertiesValues, MeterRegistry meterRegistry) {
+        this.propertiesValues = propertiesValues;
+        this.meterRegistry = meterRegistry;
+
+        for (GithubEndpoint endpoint : GithubEndpoint.values()) {
+            EndpointState state = new EndpointState(
+                    new CircuitBreaker(
+                            propertiesValues.circuitBreakerWindowSize,
+                            propertiesValues.circuitBreakerMinCalls,
+                            propertiesValues.circuitBreakerFailureRateThreshold,
+                            TimeUnit.MILLISECONDS.toNanos(propertiesValues.circuitBreakerOpenMs)
+                    ),
+                    bulkhead(endpoint),
+                    new LatencyTracker(LATENCY_WINDOW_SIZE)
+            );
+            this.endpoints.put(endpoint, state);
+
+            Gauge.builder(CIRCUIT_OPEN_METRIC, state.circuitBreaker(), circuitBreaker -> circuitBreaker.isOpen() ? 1 : 0)
+                    .description("Whether calls to the Github API endpoint are rejected by its circuit breaker")
+                    .tag(GithubClientRequestObservationConvention.ENDPOINT_TAG, endpoint.tagValue())
+                    .register(meterRegistry);
+        }
+    }
+
+    // Runs a single call to the endpoint. 5xx responses and I/O errors are failures of the endpoint,
+    // other error responses mean it works. Rate limit rejections and interrupted calls are not counted at all.
+    public <T> T call(GithubEndpoint endpoint, Supplier<T> call) {
+        EndpointState state = this.endpoints.get(endpoint);
+
+        acquireBulkhead(endpoint, state.bulkhead());
+        try {
+            CircuitBreaker.Permit permit = state.circuitBreaker().tryAcquire(System.nanoTime());
+            if (permit == CircuitBreaker.Permit.REJECTED) {
+                throw reject(endpoint, CIRCUIT_OPEN_REASON);
+            }
+
+            CircuitBreaker.Outcome outcome = CircuitBreaker.Outcome.IGNORED;
+            long startedAt = System.nanoTime();
+            try {
+                T result = call.get();
+                outcome = CircuitBreaker.Outcome.SUCCESS;
+                state.latencyTracker().record(System.nanoTime() - startedAt);
+
+                return result;
+            } catch (HttpServerErrorException | ResourceAccessException exception) {
+                outcome = Thread.currentThread().isInterrupted() ? CircuitBreaker.Outcome.IGNORED : CircuitBreaker.Outcome.FAILURE;
+                throw exception;
+            } catch (GithubRateLimitExceededException exception) {
+                throw exception;
+            } catch (RuntimeException exception) {
+                outcome = CircuitBreaker.Outcome.SUCCESS;
+                throw exception;
+            } finally {
+                state.circuitBreaker().record(permit, outcome, System.nanoTime());
+            }
+        } finally {
+            if (Objects.nonNull(state.bulkhead())) {
+                state.bulkhead().release();
+            }
+        }
+    }
+
+    // Delay before the given retry (counted from 0) of a failed call, random between 0 and the exponential backoff
+    // (full jitter), so calls failed at the same time are not retried at the same time
+    public long retryDelayMs(GithubEndpoint endpoint, int retry) {
+        Counter.builder(RETRIES_METRIC)
+                .description("Github API calls retried after a 5xx response")
+                .tag(GithubClientRequestObservationConvention.ENDPOINT_TAG, endpoint.tagValue())
+                .register(this.meterRegistry)
+                .increment();
+
+        long baseBackoffMs = this.propertiesValues.retryBaseBackoffMs;
+        if (baseBackoffMs <= 0) {
+            return 0;
+        }
+
+        long backoffMs = Math.min(this.propertiesValues.retryMaxBackoffMs, baseBackoffMs << Math.min(retry, 20));
+        return ThreadLocalRandom.current().nextLong(Math.max(0, backoffMs) + 1);
+    }
+
+    // Runs the call on a virtual thread and, when it doesn't finish within p95 latency of the endpoint, starts
+    // the same call once more. The first successful result is returned and the other call is interrupted.
+    // Hedges are limited to github.api.hedging.max-ratio of calls, so a slow Github API doesn't get twice the load.
+    // Calls must be idempotent.
+    public <T> T hedged(GithubEndpoint endpoint, Supplier<T> call) {
+        if (!this.propertiesValues.hedgingEnabled) {
+            return call.get();
+        }
+
+        EndpointState state = this.endpoints.get(endpoint);
+        long hedgeAfterNanos = state.latencyTracker().percentile(HEDGE_PERCENTILE, this.propertiesValues.hedgingMinSamples);
+        if (hedgeAfterNanos < 0) {
+            return call.get();
+        }
+
+        state.hedgeableCalls().incrementAndGet();
+        ContextSnapshot contextSnapshot = CONTEXT_SNAPSHOT_FACTORY.captureAll();
+        Callable<T> task = () -> {
+            try (ContextSnapshot.Scope scope = contextSnapshot.setThreadLocals()) {
+                return call.get();
+            }
+        };
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        try {
+            CompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+            completionService.submit(task);
+            int runningCalls = 1;
+
+            Future<T> completed = completionService.poll(hedgeAfterNanos, TimeUnit.NANOSECONDS);
+            if (Objects.isNull(completed) && tryStartHedge(endpoint, state)) {
+                completionService.submit(task);
+                runningCalls++;
+            }
+
+            // When both calls fail, exception of the one which failed last is rethrown
+            for (; ; runningCalls--) {
+                if (Objects.isNull(completed)) {
+                    completed = completionService.take();
+                }
+
+                try {
+                    return completed.get();
+                } catch (ExecutionException exception) {
+                    if (runningCalls <= 1) {
+                        throw FanOutExecutor.unwrap(exception);
+                    }
+                    completed = null;
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new FetchTimeoutException(this.propertiesValues.fetchTimeoutMessage);
+        } finally {
+            // Slower call is not awaited, it stops at its next blocking operation
+            executor.shutdownNow();
+        }
+    }
+
+    private boolean tryStartHedge(GithubEndpoint endpoint, EndpointState state) {
+        long maxHedges = (long) Math.ceil(state.hedgeableCalls().get() * this.propertiesValues.hedgingMaxRatio);
+
+        if (state.hedges().incrementAndGet() > maxHedges) {
+            state.hedges().decrementAndGet();
+            return false;
+        }
+
+        log.info("Sending hedged request to {} endpoint", endpoint.tagValue());
+        Counter.builder(HEDGES_METRIC)
+                .description("Duplicate Github API calls sent because the first one was slower than usual")
+                .tag(GithubClientRequestObservationConvention.ENDPOINT_TAG, endpoint.tagValue())
+                .register(this.meterRegistry)
+                .increment();
+
+        return true;
+    }
+
+    private void acquireBulkhead(GithubEndpoint endpoint, Semaphore bulkhead) {
+        if (Objects.isNull(bulkhead)) {
+            return;
+        }
+
+        try {
+            if (!bulkhead.tryAcquire(this.propertiesValues.bulkheadMaxWaitMs, TimeUnit.MILLISECONDS)) {
+                throw reject(endpoint, BULKHEAD_FULL_REASON);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new FetchTimeoutException(this.propertiesValues.fetchTimeoutMessage);
+        }
+    }
+
+    private GithubUnavailableException reject(GithubEndpoint endpoint, String reason) {
+        log.warn("Call to {} endpoint has been rejected: {}", endpoint.tagValue(), reason);
+        Counter.builder(REJECTIONS_METRIC)
+                .description("Github API calls rejected without being sent")
+                .tag(GithubClientRequestObservationConvention.ENDPOINT_TAG, endpoint.tagValue())
+                .tag(REASON_TAG, reason)
+                .register(this.meterRegistry)
+                .increment();
+
+        return new GithubUnavailableException(this.propertiesValues.githubUnavailableMessage);
+    }
+
+    // Repositories listings and branches have separate limits, other endpoints are not limited
+    private Semaphore bulkhead(GithubEndpoint endpoint) {
+        int maxConcurrent = switch (endpoint) {
+            case USER_REPOS -> this.propertiesValues.bulkheadUserReposMaxConcurrent;
+            case BRANCHES -> this.propertiesValues.bulkheadBranchesMaxConcurrent;
+            default -> 0;
+        };
+
+        return maxConcurrent > 0 ? new Semaphore(maxConcurrent, true) : null;
+    }
+
+    private record EndpointState(
+            CircuitBreaker circuitBreaker,
+            Semaphore bulkhead,
+            LatencyTracker latencyTracker,
+            AtomicLong hedgeableCalls,
+            AtomicLong hedges
+    ) {
+        EndpointState(CircuitBreaker circuitBreaker, Semaphore bulkhead, LatencyTracker latencyTracker) {
+            this(circuitBreaker, bulkhead, latencyTracker, new AtomicLong(), new AtomicLong());
+        }
+    }
+}
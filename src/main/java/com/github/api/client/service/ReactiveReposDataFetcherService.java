@@ -0,0 +1,256 @@
+package com.github.api.client.service;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.RepositoryStateCache;
+import com.github.api.client.cache.UserReposCache;
+import com.github.api.client.client.GithubGraphQlClient;
+import com.github.api.client.client.ReactiveGithubClient;
+import com.github.api.client.exception.FetchTimeoutException;
+import com.github.api.client.exception.GithubUnavailableException;
+import com.github.api.client.model.Repository;
+import com.github.api.client.model.RepositoryFilter;
+import com.github.api.client.model.dto.BranchDTO;
+import com.github.api.client.model.dto.RepositoryDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+// Reactive counterpart of ReposDataFetcherService, sharing its caches. Branches are fetched with at most
+// fetcher.fan-out.max-parallelism concurrent calls and the whole fetch is bounded by fetcher.fan-out.deadline-ms.
+// Concurrent misses of the same user are not coalesced, as single-flight of UserReposCache blocks waiting threads.
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class ReactiveReposDataFetcherService {
+    private final PropertiesValues propertiesValues;
+    private final ReactiveGithubClient reactiveGithubClient;
+    private final GithubGraphQlClient githubGraphQlClient;
+    private final UserReposCache userReposCache;
+    private final RepositoryStateCache repositoryStateCache;
+    private final Scheduler blockingCallsScheduler;
+
+    public Mono<List<RepositoryDTO>> getUserRepos(String userName, String accessToken, String sort, String direction) {
+        return Mono.defer(() -> {
+            UserReposCache.Key cacheKey = UserReposCache.Key.of(userName, accessToken, sort, direction);
+            long generation = this.userReposCache.generation(userName);
+            List<RepositoryDTO> cachedRepositories = getCached(cacheKey, userName, accessToken, sort, direction);
+
+            if (Objects.nonNull(cachedRepositories)) {
+                return Mono.just(cachedRepositories);
+            }
+
+            return fetchUserRepos(userName, accessToken, sort, direction, RepositoryFilter.NONE)
+                    .doOnNext(repositories -> this.userReposCache.put(cacheKey, repositories, generation));
+        });
+    }
+
+    // Filtered results are selected from the cached whole result or fetched without it and not cached,
+    // like in ReposDataFetcherService
+    public Mono<List<RepositoryDTO>> getUserRepos(
+            String userName,
+            String accessToken,
+            String sort,
+            String direction,
+            RepositoryFilter filter
+    ) {
+        return Mono.defer(() -> {
+            ReposDataFetcherService.checkFilter(this.propertiesValues, filter);
+
+            if (filter.isNone()) {
+                return getUserRepos(userName, accessToken, sort, direction);
+            }
+
+            List<RepositoryDTO> wholeRepositories = getCachedWholeRepos(userName, accessToken, sort, direction);
+            return Objects.nonNull(wholeRepositories)
+                    ? Mono.just(filter.apply(wholeRepositories))
+                    : fetchUserRepos(userName, accessToken, sort, direction, filter);
+        });
+    }
+
+    // Selected repositories are emitted as soon as their branches are fetched, like the whole result
+    public Flux<RepositoryDTO> streamUserRepos(
+            String userName,
+            String accessToken,
+            String sort,
+            String direction,
+            RepositoryFilter filter
+    ) {
+        return Flux.defer(() -> {
+            ReposDataFetcherService.checkFilter(this.propertiesValues, filter);
+
+            if (filter.isNone()) {
+                return streamUserRepos(userName, accessToken, sort, direction);
+            }
+
+            List<RepositoryDTO> wholeRepositories = getCachedWholeRepos(userName, accessToken, sort, direction);
+            if (Objects.nonNull(wholeRepositories)) {
+                return Flux.fromIterable(filter.apply(wholeRepositories));
+            }
+
+            if (!filter.branches() || usesGraphQl(accessToken)) {
+                return fetchUserRepos(userName, accessToken, sort, direction, filter)
+                        .flatMapIterable(repositories -> repositories);
+            }
+
+            return withDeadline(getNonForkRepos(userName, accessToken, sort, direction, filter)
+                    .flatMap(repository -> fetchBranches(userName, accessToken, repository), maxParallelism()));
+        });
+    }
+
+    // Repositories are emitted as soon as their branches are fetched, in order of completion.
+    // Results are cached like the ones of getUserRepos, in order of the repositories listing.
+    public Flux<RepositoryDTO> streamUserRepos(String userName, String accessToken, String sort, String direction) {
+        return Flux.defer(() -> {
+            UserReposCache.Key cacheKey = UserReposCache.Key.of(userName, accessToken, sort, direction);
+            long generation = this.userReposCache.generation(userName);
+            List<RepositoryDTO> cachedRepositories = getCached(cacheKey, userName, accessToken, sort, direction);
+
+            if (Objects.nonNull(cachedRepositories)) {
+                return Flux.fromIterable(cachedRepositories);
+            }
+
+            if (usesGraphQl(accessToken)) {
+                return fetchUserRepos(userName, accessToken, sort, direction, RepositoryFilter.NONE)
+                        .doOnNext(repositories -> this.userReposCache.put(cacheKey, repositories, generation))
+                        .flatMapIterable(repositories -> repositories);
+            }
+
+            Map<String, RepositoryDTO> fetchedRepositories = new ConcurrentHashMap<>();
+
+            return withDeadline(this.reactiveGithubClient.getUserRepos(userName, accessToken, sort, direction)
+                    .collectList()
+                    .flatMapMany(repositories -> Flux.fromIterable(repositories)
+                            .flatMap(repository -> fetchBranches(userName, accessToken, repository), maxParallelism())
+                            .doOnNext(repositoryDTO -> fetchedRepositories.put(repositoryDTO.repositoryName(), repositoryDTO))
+                            .doOnComplete(() -> this.userReposCache.put(cacheKey, repositories.stream()
+                                    .map(repository -> fetchedRepositories.get(repository.name()))
+                                    .toList(), generation))));
+        });
+    }
+
+    // Stale result is revalidated on a virtual thread of UserReposCache, so its loader may block
+    private List<RepositoryDTO> getCached(
+            UserReposCache.Key cacheKey,
+            String userName,
+            String accessToken,
+            String sort,
+            String direction
+    ) {
+        return this.userReposCache.getAllowingStale(
+                cacheKey,
+                () -> fetchUserRepos(userName, accessToken, sort, direction, RepositoryFilter.NONE).block()
+        );
+    }
+
+    // Whole result of the user which hasn't expired yet, filtered requests select from it instead of fetching
+    private List<RepositoryDTO> getCachedWholeRepos(String userName, String accessToken, String sort, String direction) {
+        if (this.propertiesValues.resultsCacheTtlMs <= 0) {
+            return null;
+        }
+
+        return this.userReposCache.get(UserReposCache.Key.of(userName, accessToken, sort, direction));
+    }
+
+    // Repositories are filtered before their branches are fetched, GraphQL results are filtered afterwards
+    private Mono<List<RepositoryDTO>> fetchUserRepos(
+            String userName,
+            String accessToken,
+            String sort,
+            String direction,
+            RepositoryFilter filter
+    ) {
+        if (filter.branches() && usesGraphQl(accessToken)) {
+            return Mono.fromCallable(() -> filter.apply(this.githubGraphQlClient
+                            .getUserReposWithBranches(userName, accessToken, sort, direction)))
+                    .subscribeOn(this.blockingCallsScheduler);
+        }
+
+        if (!filter.branches()) {
+            return withDeadline(getNonForkRepos(userName, accessToken, sort, direction, filter)
+                    .map(ReposDataFetcherService::withoutBranches))
+                    .collectList();
+        }
+
+        // Branches are fetched concurrently, but results keep the order of the repositories listing
+        return withDeadline(getNonForkRepos(userName, accessToken, sort, direction, filter)
+                .flatMapSequential(repository -> fetchBranches(userName, accessToken, repository), maxParallelism()))
+                .collectList();
+    }
+
+    // Listing is collected before selecting, as offset and limit count repositories in order of the listing
+    private Flux<Repository> getNonForkRepos(
+            String userName,
+            String accessToken,
+            String sort,
+            String direction,
+            RepositoryFilter filter
+    ) {
+        Flux<Repository> repositories = this.reactiveGithubClient.getUserRepos(userName, accessToken, sort, direction);
+
+        if (filter.isNone()) {
+            return repositories;
+        }
+
+        return repositories.collectList()
+                .flatMapIterable(listedRepositories -> filter.select(listedRepositories, Repository::name));
+    }
+
+    // Branches of repositories which haven't been pushed to since they were last fetched are not requested again.
+    // When Github API is unavailable, the repository is returned without branches instead of failing the whole result.
+    private Mono<RepositoryDTO> fetchBranches(String userName, String accessToken, Repository repository) {
+        List<BranchDTO> unchangedBranches = this.repositoryStateCache.getUnchangedBranches(repository, accessToken);
+
+        if (Objects.nonNull(unchangedBranches)) {
+            return Mono.just(new RepositoryDTO(repository.name(), repository.owner().login(), unchangedBranches));
+        }
+
+        return this.reactiveGithubClient.getBranchesForUserRepo(userName, repository.name(), accessToken)
+                .collectList()
+                .map(branches -> ReposDataFetcherService.mapToRepositoryDTO(repository, branches))
+                .doOnNext(repositoryDTO -> this.repositoryStateCache.put(repository, accessToken, repositoryDTO.branches()))
+                .onErrorResume(
+                        exception -> exception instanceof GithubUnavailableException && this.propertiesValues.partialResultsEnabled,
+                        exception -> {
+                            log.info("Returning repository: {} of user: {} without branches", repository.name(), userName);
+                            return Mono.just(ReposDataFetcherService.withoutBranches(repository));
+                        }
+                );
+    }
+
+    // Deadline counts from the subscription, not from the last emitted item
+    private <T> Flux<T> withDeadline(Flux<T> flux) {
+        return Flux.defer(() -> {
+            long deadlineAt = System.nanoTime() + this.propertiesValues.fanOutDeadlineMs * 1_000_000;
+
+            return flux.timeout(
+                            Mono.delay(Duration.ofMillis(this.propertiesValues.fanOutDeadlineMs)),
+                            item -> Mono.delay(Duration.ofNanos(Math.max(0, deadlineAt - System.nanoTime())))
+                    )
+                    .onErrorMap(TimeoutException.class, exception -> {
+                        log.warn("Fetching repositories data has not finished in {} ms", this.propertiesValues.fanOutDeadlineMs);
+                        return new FetchTimeoutException(this.propertiesValues.fetchTimeoutMessage);
+                    });
+        });
+    }
+
+    // GraphQL API requires an access token, anonymous requests always use REST API
+    private boolean usesGraphQl(String accessToken) {
+        return ReposDataFetcherService.GRAPHQL_BACKEND.equals(this.propertiesValues.githubApiBackend)
+                && StringUtils.hasText(accessToken);
+    }
+
+    private int maxParallelism() {
+        return this.propertiesValues.fanOutMaxParallelism > 0 ? this.propertiesValues.fanOutMaxParallelism : Integer.MAX_VALUE;
+    }
+}
@@ -1,37 +1,390 @@
 package com.github.api.client.service;
 
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.RepositoryStateCache;
+import com.github.api.client.cache.UserReposCache;
 import com.github.api.client.client.GithubApiClient;
+import com.github.api.client.client.GithubGraphQlClient;
+import com.github.api.client.concurrent.FairTaskScheduler;
+import com.github.api.client.concurrent.FanOutExecutor;
+import com.github.api.client.exception.FetchTimeoutException;
+import com.github.api.client.exception.GithubUnavailableException;
+import com.github.api.client.exception.WrongParamValueException;
 import com.github.api.client.model.Branch;
 import com.github.api.client.model.dto.BranchDTO;
 import com.github.api.client.model.Repository;
+import com.github.api.client.model.RepositoryFilter;
 import com.github.api.client.model.dto.RepositoryDTO;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
 
+@Slf4j
 @RequiredArgsConstructor
 @Service
 public class ReposDataFetcherService {
+    public static final String GRAPHQL_BACKEND = "graphql";
+    private final PropertiesValues propertiesValues;
     private final GithubApiClient githubApiClient;
+    private final GithubGraphQlClient githubGraphQlClient;
+    private final FanOutExecutor fanOutExecutor;
+    private final UserReposCache userReposCache;
+    private final RepositoryStateCache repositoryStateCache;
 
     public List<RepositoryDTO> getUserRepos(String userName, String accessToken, String sort, String direction) {
-        return this.githubApiClient.getUserRepos(userName, accessToken, sort, direction)
+        return getUserRepos(userName, accessToken, sort, direction, RepositoryFilter.NONE);
+    }
+
+    // Filtered results are selected from the whole result of the user when it is cached, otherwise only
+    // the selected repositories are fetched. They are not cached, so filters don't multiply cached results.
+    public List<RepositoryDTO> getUserRepos(
+            String userName,
+            String accessToken,
+            String sort,
+            String direction,
+            RepositoryFilter filter
+    ) {
+        checkFilter(this.propertiesValues, filter);
+
+        if (filter.isNone()) {
+            return this.userReposCache.getOrCompute(
+                    UserReposCache.Key.of(userName, accessToken, sort, direction),
+                    () -> fetchUserRepos(userName, accessToken, sort, direction, filter)
+            );
+        }
+
+        List<RepositoryDTO> wholeRepositories = getCachedWholeRepos(userName, accessToken, sort, direction);
+        return Objects.nonNull(wholeRepositories)
+                ? filter.apply(wholeRepositories)
+                : fetchUserRepos(userName, accessToken, sort, direction, filter);
+    }
+
+    public RepositoryStream streamUserRepos(String userName, String accessToken, String sort, String direction) {
+        return streamUserRepos(userName, accessToken, sort, direction, RepositoryFilter.NONE);
+    }
+
+    // Repositories listing is fetched right away, so its errors are reported before streaming starts.
+    // Fetching runs on its own thread and hands repositories over as soon as their branches are fetched, so the
+    // deadline of the fan-out covers only Github API calls and not writing to a slow client. It goes through
+    // the single computation of the result like getUserRepos, so concurrent requests for the same user don't
+    // start their own fetches. Results are cached in order of the repositories listing.
+    // Filtered streams are fetched like filtered results of getUserRepos, but streamed as well.
+    public RepositoryStream streamUserRepos(
+            String userName,
+            String accessToken,
+            String sort,
+            String direction,
+            RepositoryFilter filter
+    ) {
+        checkFilter(this.propertiesValues, filter);
+
+        if (!filter.isNone()) {
+            List<RepositoryDTO> wholeRepositories = getCachedWholeRepos(userName, accessToken, sort, direction);
+
+            if (Objects.nonNull(wholeRepositories)) {
+                return filter.apply(wholeRepositories)::forEach;
+            }
+        }
+
+        UserReposCache.Key cacheKey = UserReposCache.Key.of(userName, accessToken, sort, direction);
+        RepositoryHandoff handoff = new RepositoryHandoff(this.propertiesValues.fetchTimeoutMessage);
+        Supplier<List<RepositoryDTO>> loader = () -> this.fanOutExecutor.withinBudget(
+                () -> fetchUserReposWithinBudget(userName, accessToken, sort, direction, filter, handoff)
+        );
+        this.fanOutExecutor.runInBackground("repositories-stream", () -> {
+            handoff.bindToCurrentThread();
+
+            try {
+                handoff.finish(filter.isNone() ? this.userReposCache.getOrCompute(cacheKey, loader) : loader.get());
+            } catch (RuntimeException | Error exception) {
+                handoff.fail(exception);
+            }
+        });
+
+        handoff.awaitStart();
+        return handoff;
+    }
+
+    // Repositories of all users are fetched with one FairTaskScheduler, so at most fetcher.batch.max-parallelism
+    // tasks of the whole batch run at a time and users with many repositories don't hold back the others.
+    // A task is the listing of a user or branches of a repository, further pages and hedged calls run within it.
+    // Users and parameters are checked right away, so their errors are reported before streaming starts.
+    // Failure of one user is passed as its result and doesn't stop fetching of the other ones.
+    // Batches sent without caller's token are fetched with pool tokens, like anonymous requests.
+    public UserReposResultStream streamBatchUserRepos(
+            List<String> userNames,
+            String accessToken,
+            String sort,
+            String direction
+    ) {
+        return streamBatchUserRepos(userNames, accessToken, sort, direction, RepositoryFilter.NONE);
+    }
+
+    // The same filter is applied to repositories of every user
+    public UserReposResultStream streamBatchUserRepos(
+            List<String> userNames,
+            String accessToken,
+            String sort,
+            String direction,
+            RepositoryFilter filter
+    ) {
+        List<String> distinctUserNames = userNames.stream()
+                .filter(StringUtils::hasText)
+                .distinct()
+                .toList();
+
+        if (distinctUserNames.isEmpty() || distinctUserNames.size() > this.propertiesValues.batchMaxUsers) {
+            throw new WrongParamValueException(this.propertiesValues.wrongUsersParamMessage);
+        }
+        this.githubApiClient.checkParameters(sort, direction);
+        checkFilter(this.propertiesValues, filter);
+
+        return consumer -> {
+            // Scheduler is closed before the executor, so when the consumer fails, e.g. because the client
+            // has disconnected, pending calls are cancelled instead of awaited
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+                 FairTaskScheduler scheduler = new FairTaskScheduler(this.propertiesValues.batchMaxParallelism)) {
+                CompletionService<UserReposResult> completionService = new ExecutorCompletionService<>(executor);
+                distinctUserNames.forEach(userName -> completionService.submit(
+                        () -> fetchBatchUserRepos(userName, accessToken, sort, direction, filter, scheduler)
+                ));
+
+                try {
+                    for (int i = 0; i < distinctUserNames.size(); i++) {
+                        consumer.accept(this.fanOutExecutor.await(completionService.take()));
+                    }
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    throw new FetchTimeoutException(this.propertiesValues.fetchTimeoutMessage);
+                } finally {
+                    executor.shutdownNow();
+                }
+            }
+        };
+    }
+
+    private UserReposResult fetchBatchUserRepos(
+            String userName,
+            String accessToken,
+            String sort,
+            String direction,
+            RepositoryFilter filter,
+            FairTaskScheduler scheduler
+    ) {
+        try {
+            List<RepositoryDTO> repositories;
+
+            if (filter.isNone()) {
+                repositories = this.userReposCache.getOrCompute(
+                        UserReposCache.Key.of(userName, accessToken, sort, direction),
+                        () -> fetchUserRepos(userName, accessToken, sort, direction, filter, scheduler)
+                );
+            } else {
+                List<RepositoryDTO> wholeRepositories = getCachedWholeRepos(userName, accessToken, sort, direction);
+                repositories = Objects.nonNull(wholeRepositories)
+                        ? filter.apply(wholeRepositories)
+                        : fetchUserRepos(userName, accessToken, sort, direction, filter, scheduler);
+            }
+
+            return new UserReposResult(userName, repositories, null);
+        } catch (RuntimeException exception) {
+            log.info("Fetching repositories of user: {} in batch failed: {}", userName, exception.getMessage());
+            return new UserReposResult(userName, null, exception);
+        }
+    }
+
+    // Every Github API call of the user is a separate task, so scheduler can interleave them with calls of other users.
+    // Tasks run within the fan-out budget of the user, so pages which they fetch share its parallelism and deadline,
+    // and a slow user ends with FetchTimeoutException instead of holding the batch open.
+    // Loader may also be called after the batch has finished, to revalidate or refresh the result. Its scheduler
+    // is closed then and the loader fails with RejectedExecutionException, the result is fetched again by the next
+    // request for the user.
+    private List<RepositoryDTO> fetchUserRepos(
+            String userName,
+            String accessToken,
+            String sort,
+            String direction,
+            RepositoryFilter filter,
+            FairTaskScheduler scheduler
+    ) {
+        FanOutExecutor.Budget budget = this.fanOutExecutor.newBudget();
+
+        if (filter.branches() && usesGraphQl(accessToken)) {
+            return filter.apply(this.fanOutExecutor.await(
+                    submit(scheduler, userName, budget, () -> this.githubGraphQlClient
+                            .getUserReposWithBranches(userName, accessToken, sort, direction)),
+                    budget.deadline()
+            ));
+        }
+
+        List<Repository> repositories = this.fanOutExecutor.await(
+                submit(scheduler, userName, budget, () -> getNonForkRepos(userName, accessToken, sort, direction, filter)),
+                budget.deadline()
+        );
+        if (!filter.branches()) {
+            return repositories.stream().map(ReposDataFetcherService::withoutBranches).toList();
+        }
+
+        List<CompletableFuture<RepositoryDTO>> fetchedRepositories = repositories.stream()
+                .map(repository -> submit(scheduler, userName, budget, () -> fetchBranches(userName, accessToken, repository)))
+                .toList();
+
+        try {
+            return fetchedRepositories.stream()
+                    .map(future -> this.fanOutExecutor.await(future, budget.deadline()))
+                    .toList();
+        } finally {
+            fetchedRepositories.forEach(future -> future.cancel(false));
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(
+            FairTaskScheduler scheduler,
+            String userName,
+            FanOutExecutor.Budget budget,
+            Supplier<T> task
+    ) {
+        return scheduler.submit(userName, () -> this.fanOutExecutor.withinBudget(budget, task));
+    }
+
+    // Pages of the listing, branches of the repositories and their pages share one fan-out budget, so a request
+    // makes at most fetcher.fan-out.max-parallelism Github API calls at a time and ends within its deadline.
+    private List<RepositoryDTO> fetchUserRepos(
+            String userName,
+            String accessToken,
+            String sort,
+            String direction,
+            RepositoryFilter filter
+    ) {
+        return this.fanOutExecutor.withinBudget(
+                () -> fetchUserReposWithinBudget(userName, accessToken, sort, direction, filter, null)
+        );
+    }
+
+    // Repositories are filtered before their branches are fetched. GraphQL API returns branches together
+    // with repositories, so it is used only when branches are requested and its result is filtered afterwards.
+    // With a handoff, repositories are also published to it as soon as their branches are fetched.
+    private List<RepositoryDTO> fetchUserReposWithinBudget(
+            String userName,
+            String accessToken,
+            String sort,
+            String direction,
+            RepositoryFilter filter,
+            RepositoryHandoff handoff
+    ) {
+        if (filter.branches() && usesGraphQl(accessToken)) {
+            return filter.apply(this.githubGraphQlClient.getUserReposWithBranches(userName, accessToken, sort, direction));
+        }
+
+        List<Repository> repositories = getNonForkRepos(userName, accessToken, sort, direction, filter);
+        if (!filter.branches()) {
+            return repositories.stream().map(ReposDataFetcherService::withoutBranches).toList();
+        }
+
+        // Branches are fetched concurrently, but results keep the order of the repositories listing
+        if (Objects.isNull(handoff)) {
+            return this.fanOutExecutor.mapInOrder(
+                    repositories,
+                    repository -> fetchBranches(userName, accessToken, repository)
+            );
+        }
+
+        handoff.start();
+        Map<String, RepositoryDTO> fetchedRepositories = new HashMap<>();
+        this.fanOutExecutor.forEachCompleted(
+                repositories,
+                repository -> fetchBranches(userName, accessToken, repository),
+                repositoryDTO -> {
+                    handoff.publish(repositoryDTO);
+                    fetchedRepositories.put(repositoryDTO.repositoryName(), repositoryDTO);
+                }
+        );
+
+        return repositories.stream()
+                .map(repository -> fetchedRepositories.get(repository.name()))
+                .toList();
+    }
+
+    // GraphQL API requires an access token, anonymous requests always use REST API
+    private boolean usesGraphQl(String accessToken) {
+        return GRAPHQL_BACKEND.equals(this.propertiesValues.githubApiBackend) && StringUtils.hasText(accessToken);
+    }
+
+    private List<Repository> getNonForkRepos(
+            String userName,
+            String accessToken,
+            String sort,
+            String direction,
+            RepositoryFilter filter
+    ) {
+        List<Repository> repositories = this.githubApiClient.getUserRepos(userName, accessToken, sort, direction)
                 .stream()
                 .filter(repository -> !repository.fork())
-                .map(repository -> {
-                    List<Branch> branches = this.githubApiClient.getBranchesForUserRepo(
-                            userName,
-                            repository.name(),
-                            accessToken
-                    );
-
-                    return mapToRepositoryDTO(repository, branches);
-                })
                 .toList();
+
+        return filter.select(repositories, Repository::name);
+    }
+
+    // Whole result of the user which hasn't expired yet, filtered requests select from it instead of fetching
+    private List<RepositoryDTO> getCachedWholeRepos(String userName, String accessToken, String sort, String direction) {
+        if (this.propertiesValues.resultsCacheTtlMs <= 0) {
+            return null;
+        }
+
+        return this.userReposCache.get(UserReposCache.Key.of(userName, accessToken, sort, direction));
+    }
+
+    // Patterns are limited in length, as they are matched against names of all repositories of the user
+    static void checkFilter(PropertiesValues propertiesValues, RepositoryFilter filter) {
+        boolean valid = filter.offset() >= 0
+                && (Objects.isNull(filter.limit()) || filter.limit() >= 0)
+                && (Objects.isNull(filter.name()) || filter.name().length() <= propertiesValues.filterMaxPatternLength);
+
+        if (!valid) {
+            throw new WrongParamValueException(propertiesValues.wrongFilterParamMessage);
+        }
+    }
+
+    // Branches of repositories which haven't been pushed to since they were last fetched are not requested again.
+    // When Github API is unavailable, the repository is returned without branches instead of failing the whole result.
+    private RepositoryDTO fetchBranches(String userName, String accessToken, Repository repository) {
+        List<BranchDTO> unchangedBranches = this.repositoryStateCache.getUnchangedBranches(repository, accessToken);
+
+        if (Objects.nonNull(unchangedBranches)) {
+            return new RepositoryDTO(repository.name(), repository.owner().login(), unchangedBranches);
+        }
+
+        List<Branch> branches;
+        try {
+            branches = this.githubApiClient.getBranchesForUserRepo(userName, repository.name(), accessToken);
+        } catch (GithubUnavailableException exception) {
+            if (!this.propertiesValues.partialResultsEnabled) {
+                throw exception;
+            }
+
+            log.info("Returning repository: {} of user: {} without branches", repository.name(), userName);
+            return withoutBranches(repository);
+        }
+
+        RepositoryDTO repositoryDTO = mapToRepositoryDTO(repository, branches);
+        this.repositoryStateCache.put(repository, accessToken, repositoryDTO.branches());
+
+        return repositoryDTO;
+    }
+
+    static RepositoryDTO withoutBranches(Repository repository) {
+        return new RepositoryDTO(repository.name(), repository.owner().login(), null);
     }
 
-    private RepositoryDTO mapToRepositoryDTO(Repository repository, List<Branch> branches) {
+    static RepositoryDTO mapToRepositoryDTO(Repository repository, List<Branch> branches) {
         return new RepositoryDTO(
                 repository.name(),
                 repository.owner().login(),
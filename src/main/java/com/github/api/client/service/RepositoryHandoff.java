@@ -0,0 +1,120 @@
+package com.github.api.client.service;
+
+import com.github.api.client.exception.FetchTimeoutException;
+import com.github.api.client.model.dto.RepositoryDTO;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+// Passes repositories from the thread fetching them to the thread writing them to the client, so the fetching thread
+// never waits for a slow client. It holds at most all repositories of the user, which are kept for caching anyway.
+// Only the thread which has created the handoff publishes to it. The same loader may also be called later
+// to revalidate the cached result, its repositories are not passed to this stream then.
+final class RepositoryHandoff implements RepositoryStream {
+    private static final Object END = new Object();
+    private final CompletableFuture<Void> started = new CompletableFuture<>();
+    private final BlockingQueue<Object> items = new LinkedBlockingQueue<>();
+    private final String fetchTimeoutMessage;
+    private volatile Thread owner;
+    private volatile boolean published;
+    private volatile boolean finished;
+
+    RepositoryHandoff(String fetchTimeoutMessage) {
+        this.fetchTimeoutMessage = fetchTimeoutMessage;
+    }
+
+    void bindToCurrentThread() {
+        this.owner = Thread.currentThread();
+    }
+
+    // Called once the repositories listing is fetched, so its errors are reported before streaming starts
+    void start() {
+        if (isOwner()) {
+            this.started.complete(null);
+        }
+    }
+
+    void publish(RepositoryDTO repository) {
+        if (isOwner()) {
+            this.published = true;
+            this.items.add(repository);
+        }
+    }
+
+    // Repositories which haven't been published one by one, e.g. cached ones or fetched by another request,
+    // are passed all at once
+    void finish(List<RepositoryDTO> repositories) {
+        if (!isOwner()) {
+            return;
+        }
+        if (!this.published) {
+            this.items.addAll(repositories);
+        }
+
+        this.finished = true;
+        this.items.add(END);
+        this.started.complete(null);
+    }
+
+    void fail(Throwable failure) {
+        if (!isOwner()) {
+            return;
+        }
+
+        this.finished = true;
+        if (!this.started.completeExceptionally(failure)) {
+            this.items.add(new Failure(failure));
+        }
+    }
+
+    // Rethrows failures which happened before streaming could start
+    void awaitStart() {
+        try {
+            this.started.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (exception.getCause() instanceof Error error) {
+                throw error;
+            }
+
+            throw exception;
+        }
+    }
+
+    @Override
+    public void forEachRepository(Consumer<RepositoryDTO> consumer) {
+        while (true) {
+            Object item;
+            try {
+                item = this.items.take();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new FetchTimeoutException(this.fetchTimeoutMessage);
+            }
+
+            if (item == END) {
+                return;
+            }
+            if (item instanceof Failure failure) {
+                if (failure.cause() instanceof Error error) {
+                    throw error;
+                }
+                throw (RuntimeException) failure.cause();
+            }
+
+            consumer.accept((RepositoryDTO) item);
+        }
+    }
+
+    private boolean isOwner() {
+        return !this.finished && this.owner == Thread.currentThread();
+    }
+
+    private record Failure(Throwable cause) {}
+}
@@ -0,0 +1,11 @@
+package com.github.api.client.service;
+
+import com.github.api.client.model.dto.RepositoryDTO;
+
+import java.util.function.Consumer;
+
+// Repositories passed one by one, as soon as their branches are fetched
+@FunctionalInterface
+public interface RepositoryStream {
+    void forEachRepository(Consumer<RepositoryDTO> consumer);
+}
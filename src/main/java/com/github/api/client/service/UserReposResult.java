@@ -0,0 +1,8 @@
+package com.github.api.client.service;
+
+import com.github.api.client.model.dto.RepositoryDTO;
+
+import java.util.List;
+
+// Repositories of one user of a batch, or the failure which stopped fetching them
+public record UserReposResult(String userName, List<RepositoryDTO> repositories, RuntimeException failure) {}
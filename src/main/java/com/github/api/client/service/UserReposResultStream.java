@@ -0,0 +1,9 @@
+package com.github.api.client.service;
+
+import java.util.function.Consumer;
+
+// Results of a batch passed one by one, as soon as all repositories of a user are fetched
+@FunctionalInterface
+public interface UserReposResultStream {
+    void forEachResult(Consumer<UserReposResult> consumer);
+}
@@ -0,0 +1,230 @@
+package com.github.api.client.webhook;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.UserReposCache;
+import com.github.api.client.exception.WrongParamValueException;
+import com.github.api.client.model.dto.BranchDTO;
+import com.github.api.client.model.dto.RepositoryDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// Keeps cached results up to date with Github webhook events, so they don't have to be fetched again:
+// - push changes the SHA of a branch, adds a created branch or removes a deleted one,
+// - delete removes the branch, create of a branch drops results which don't have it yet (its SHA is sent
+//   only by the push event of the new branch),
+// - repository removes a deleted or transferred repository, and drops results of the owner for actions which change
+//   its listing (created, renamed, publicized, privatized).
+// Results sorted by pushed or updated timestamps are dropped instead of changed, as the change moves the repository.
+// Tags, forks and repositories which are not in a result don't change it.
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class GithubWebhookService {
+    public static final String EVENTS_METRIC = "github.webhooks.events";
+    public static final String PUSH_EVENT = "push";
+    public static final String CREATE_EVENT = "create";
+    public static final String DELETE_EVENT = "delete";
+    public static final String REPOSITORY_EVENT = "repository";
+    private static final String BRANCH_REF_PREFIX = "refs/heads/";
+    private static final String BRANCH_REF_TYPE = "branch";
+    private static final Set<String> REMOVING_ACTIONS = Set.of("deleted", "transferred");
+    private static final Set<String> LISTING_ACTIONS = Set.of("created", "renamed", "publicized", "privatized");
+    private static final Set<String> TIMESTAMP_SORTS = Set.of("pushed", "updated");
+    private static final String EVENT_TAG = "event";
+    private static final String OUTCOME_TAG = "outcome";
+    private final PropertiesValues propertiesValues;
+    private final WebhookSignatureVerifier signatureVerifier;
+    private final UserReposCache userReposCache;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    // Returns the number of cached results which were changed or dropped
+    public int handle(String event, byte[] body, String signature) {
+        this.signatureVerifier.verify(body, signature);
+        WebhookPayload payload = parse(body);
+
+        if (Objects.isNull(payload) || Objects.isNull(payload.repository())
+                || Objects.isNull(payload.repository().owner()) || payload.repository().fork()) {
+            count(event, "ignored");
+            return 0;
+        }
+
+        int changedResults = switch (event) {
+            case PUSH_EVENT -> push(payload);
+            case CREATE_EVENT -> create(payload);
+            case DELETE_EVENT -> delete(payload);
+            case REPOSITORY_EVENT -> repository(payload);
+            default -> 0;
+        };
+
+        log.info("Webhook event: {} for repository: {}/{} has changed {} cached results", event,
+                payload.repository().owner().login(), payload.repository().name(), changedResults);
+        count(event, changedResults > 0 ? "applied" : "ignored");
+        return changedResults;
+    }
+
+    private int push(WebhookPayload payload) {
+        if (Objects.isNull(payload.ref()) || !payload.ref().startsWith(BRANCH_REF_PREFIX)) {
+            return 0;
+        }
+
+        String branchName = payload.ref().substring(BRANCH_REF_PREFIX.length());
+        String repositoryName = payload.repository().name();
+
+        return updateBranches(payload, (key, repositories) -> payload.deleted()
+                ? withoutBranch(repositories, repositoryName, branchName)
+                : withBranch(repositories, repositoryName, new BranchDTO(branchName, payload.after())));
+    }
+
+    private int create(WebhookPayload payload) {
+        if (!BRANCH_REF_TYPE.equals(payload.refType())) {
+            return 0;
+        }
+
+        String repositoryName = payload.repository().name();
+
+        return updateBranches(payload, (key, repositories) -> {
+            RepositoryDTO repository = find(repositories, repositoryName);
+            boolean hasBranch = Objects.isNull(repository) || Objects.isNull(repository.branches())
+                    || repository.branches().stream().anyMatch(branch -> branch.branchName().equals(payload.ref()));
+
+            return hasBranch ? repositories : null;
+        });
+    }
+
+    private int delete(WebhookPayload payload) {
+        if (!BRANCH_REF_TYPE.equals(payload.refType())) {
+            return 0;
+        }
+
+        String repositoryName = payload.repository().name();
+
+        return updateBranches(payload, (key, repositories) -> withoutBranch(repositories, repositoryName, payload.ref()));
+    }
+
+    private int repository(WebhookPayload payload) {
+        String repositoryName = payload.repository().name();
+        if (Objects.isNull(payload.action())) {
+            return 0;
+        }
+
+        if (REMOVING_ACTIONS.contains(payload.action())) {
+            return update(payload, (key, repositories) -> {
+                RepositoryDTO repository = find(repositories, repositoryName);
+                if (Objects.isNull(repository)) {
+                    return repositories;
+                }
+
+                return repositories.stream()
+                        .filter(other -> !other.repositoryName().equals(repository.repositoryName()))
+                        .toList();
+            });
+        }
+
+        if (LISTING_ACTIONS.contains(payload.action())) {
+            return update(payload, (key, repositories) -> null);
+        }
+
+        return 0;
+    }
+
+    // Results sorted by timestamps are dropped when they have the repository
+    private int updateBranches(
+            WebhookPayload payload,
+            BiFunction<UserReposCache.Key, List<RepositoryDTO>, List<RepositoryDTO>> updater
+    ) {
+        String repositoryName = payload.repository().name();
+
+        return update(payload, (key, repositories) -> {
+            if (Objects.isNull(find(repositories, repositoryName))) {
+                return repositories;
+            }
+            if (Objects.nonNull(key.sort()) && TIMESTAMP_SORTS.contains(key.sort())) {
+                return null;
+            }
+
+            return updater.apply(key, repositories);
+        });
+    }
+
+    private int update(
+            WebhookPayload payload,
+            BiFunction<UserReposCache.Key, List<RepositoryDTO>, List<RepositoryDTO>> updater
+    ) {
+        return this.userReposCache.update(payload.repository().owner().login(), updater);
+    }
+
+    // Branch is replaced or added in order of names, like Github API lists them
+    static List<RepositoryDTO> withBranch(List<RepositoryDTO> repositories, String repositoryName, BranchDTO branch) {
+        return mapRepository(repositories, repositoryName, repository -> {
+            List<BranchDTO> branches = new ArrayList<>(repository.branches());
+            branches.removeIf(other -> other.branchName().equals(branch.branchName()));
+            branches.add(branch);
+            branches.sort(Comparator.comparing(BranchDTO::branchName));
+
+            return branches;
+        });
+    }
+
+    static List<RepositoryDTO> withoutBranch(List<RepositoryDTO> repositories, String repositoryName, String branchName) {
+        return mapRepository(repositories, repositoryName, repository -> repository.branches().stream()
+                .filter(branch -> !branch.branchName().equals(branchName))
+                .toList());
+    }
+
+    private static List<RepositoryDTO> mapRepository(
+            List<RepositoryDTO> repositories,
+            String repositoryName,
+            Function<RepositoryDTO, List<BranchDTO>> branchesMapper
+    ) {
+        RepositoryDTO repository = find(repositories, repositoryName);
+        if (Objects.isNull(repository) || Objects.isNull(repository.branches())) {
+            return repositories;
+        }
+
+        RepositoryDTO updated = new RepositoryDTO(repository.repositoryName(), repository.ownerLogin(),
+                branchesMapper.apply(repository));
+
+        return repositories.stream()
+                .map(other -> other.repositoryName().equals(repository.repositoryName()) ? updated : other)
+                .toList();
+    }
+
+    // Github repository names are case-insensitive
+    private static RepositoryDTO find(List<RepositoryDTO> repositories, String repositoryName) {
+        return repositories.stream()
+                .filter(repository -> repository.repositoryName().equalsIgnoreCase(repositoryName))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private WebhookPayload parse(byte[] body) {
+        try {
+            return this.objectMapper.readValue(body, WebhookPayload.class);
+        } catch (IOException exception) {
+            throw new WrongParamValueException(this.propertiesValues.invalidWebhookPayloadMessage);
+        }
+    }
+
+    private void count(String event, String outcome) {
+        Counter.builder(EVENTS_METRIC)
+                .description("Github webhook events received, by whether they changed cached results")
+                .tag(EVENT_TAG, event)
+                .tag(OUTCOME_TAG, outcome)
+                .register(this.meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.api.client.webhook;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Fields of push, create, delete and repository events which are used to update cached results.
+// Push events have a full ref (refs/heads/main) and the new head SHA in after,
+// create and delete events a short ref with its ref_type (branch or tag), repository events an action.
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record WebhookPayload(
+        String ref,
+        @JsonProperty("ref_type") String refType,
+        String after,
+        boolean created,
+        boolean deleted,
+        String action,
+        Repository repository
+) {
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Repository(String name, Owner owner, boolean fork) {}
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Owner(String login) {}
+}
@@ -0,0 +1,52 @@
+package com.github.api.client.webhook;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.exception.WebhookSignatureException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Objects;
+
+// Checks X-Hub-Signature-256 header of a webhook delivery: HMAC-SHA256 of the raw body with github.webhook.secret.
+// Signatures are compared in constant time. Without a configured secret every delivery is rejected.
+@RequiredArgsConstructor
+@Component
+public class WebhookSignatureVerifier {
+    public static final String SIGNATURE_HEADER = "X-Hub-Signature-256";
+    private static final String SIGNATURE_PREFIX = "sha256=";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private final PropertiesValues propertiesValues;
+
+    public void verify(byte[] body, String signature) {
+        if (!StringUtils.hasText(this.propertiesValues.webhookSecret) || Objects.isNull(signature)
+                || !signature.startsWith(SIGNATURE_PREFIX)) {
+            throw new WebhookSignatureException(this.propertiesValues.invalidWebhookSignatureMessage);
+        }
+
+        byte[] expected = sign(body).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = signature.getBytes(StandardCharsets.US_ASCII);
+
+        if (!MessageDigest.isEqual(expected, actual)) {
+            throw new WebhookSignatureException(this.propertiesValues.invalidWebhookSignatureMessage);
+        }
+    }
+
+    // Value of the signature header for the body
+    public String sign(byte[] body) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(this.propertiesValues.webhookSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+
+            return SIGNATURE_PREFIX + HexFormat.of().formatHex(mac.doFinal(body));
+        } catch (GeneralSecurityException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
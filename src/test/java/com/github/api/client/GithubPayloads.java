@@ -0,0 +1,111 @@
+package com.github.api.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+
+// Github-like response bodies with all the fields the real API returns, used as benchmark and load test input
+public final class GithubPayloads {
+    private static final String API = "https://api.github.com";
+
+    private GithubPayloads() {
+    }
+
+    // Every fifth repository is a fork
+    public static byte[] repositoriesPage(String userName, int size) {
+        return repositoriesPage(userName, 0, size);
+    }
+
+    // Repositories from fromIndex (inclusive) to toIndex (exclusive) of the same listing
+    public static byte[] repositoriesPage(String userName, int fromIndex, int toIndex) {
+        StringJoiner page = new StringJoiner(",", "[", "]");
+        for (int i = fromIndex; i < toIndex; i++) {
+            page.add(repository(userName, "repository-" + i, i, i % 5 == 4));
+        }
+
+        return page.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static byte[] branchesPage(String userName, String repositoryName, int size) {
+        return branchesPage(userName, repositoryName, 0, size);
+    }
+
+    public static byte[] branchesPage(String userName, String repositoryName, int fromIndex, int toIndex) {
+        StringJoiner page = new StringJoiner(",", "[", "]");
+        for (int i = fromIndex; i < toIndex; i++) {
+            String sha = sha(repositoryName.hashCode() * 31L + i);
+            page.add("""
+                    {"name":"branch-%d","commit":{"sha":"%s","url":"%s/repos/%s/%s/commits/%s"},
+                     "protected":%b,"protection":{"enabled":false,"required_status_checks":
+                     {"enforcement_level":"off","contexts":[],"checks":[]}},
+                     "protection_url":"%s/repos/%s/%s/branches/branch-%d/protection"}"""
+                    .formatted(i, sha, API, userName, repositoryName, sha, i == 0,
+                            API, userName, repositoryName, i));
+        }
+
+        return page.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static String sha(long seed) {
+        StringBuilder sha = new StringBuilder(40);
+        long value = seed * 0x9E3779B97F4A7C15L;
+        while (sha.length() < 40) {
+            value = value * 6364136223846793005L + 1442695040888963407L;
+            sha.append(Long.toHexString(value >>> 4));
+        }
+
+        return sha.substring(0, 40);
+    }
+
+    private static String repository(String userName, String name, int id, boolean fork) {
+        return """
+                {"id":{id},"node_id":"R_kgDO{id}","name":"{name}","full_name":"{user}/{name}","private":false,
+                 "owner":{owner},
+                 "html_url":"https://github.com/{user}/{name}","description":"Description of {name}, a project with a fairly long text",
+                 "fork":{fork},"url":"{repo}","forks_url":"{repo}/forks","keys_url":"{repo}/keys{/key_id}",
+                 "collaborators_url":"{repo}/collaborators{/collaborator}","teams_url":"{repo}/teams","hooks_url":"{repo}/hooks",
+                 "issue_events_url":"{repo}/issues/events{/number}","events_url":"{repo}/events",
+                 "assignees_url":"{repo}/assignees{/user}","branches_url":"{repo}/branches{/branch}","tags_url":"{repo}/tags",
+                 "blobs_url":"{repo}/git/blobs{/sha}","git_tags_url":"{repo}/git/tags{/sha}","git_refs_url":"{repo}/git/refs{/sha}",
+                 "trees_url":"{repo}/git/trees{/sha}","statuses_url":"{repo}/statuses/{sha}","languages_url":"{repo}/languages",
+                 "stargazers_url":"{repo}/stargazers","contributors_url":"{repo}/contributors",
+                 "subscribers_url":"{repo}/subscribers","subscription_url":"{repo}/subscription",
+                 "commits_url":"{repo}/commits{/sha}","git_commits_url":"{repo}/git/commits{/sha}",
+                 "comments_url":"{repo}/comments{/number}","issue_comment_url":"{repo}/issues/comments{/number}",
+                 "contents_url":"{repo}/contents/{+path}","compare_url":"{repo}/compare/{base}...{head}",
+                 "merges_url":"{repo}/merges","archive_url":"{repo}/{archive_format}{/ref}","downloads_url":"{repo}/downloads",
+                 "issues_url":"{repo}/issues{/number}","pulls_url":"{repo}/pulls{/number}",
+                 "milestones_url":"{repo}/milestones{/number}","notifications_url":"{repo}/notifications{?since,all,participating}",
+                 "labels_url":"{repo}/labels{/name}","releases_url":"{repo}/releases{/id}","deployments_url":"{repo}/deployments",
+                 "created_at":"2020-01-01T10:00:00Z","updated_at":"2024-01-01T10:00:00Z","pushed_at":"2024-01-02T10:00:00Z",
+                 "git_url":"git://github.com/{user}/{name}.git","ssh_url":"git@github.com:{user}/{name}.git",
+                 "clone_url":"https://github.com/{user}/{name}.git","svn_url":"https://github.com/{user}/{name}",
+                 "homepage":null,"size":{size},"stargazers_count":{id},"watchers_count":{id},"language":"Java",
+                 "has_issues":true,"has_projects":true,"has_downloads":true,"has_wiki":true,"has_pages":false,
+                 "has_discussions":false,"forks_count":2,"mirror_url":null,"archived":false,"disabled":false,
+                 "open_issues_count":1,
+                 "license":{"key":"mit","name":"MIT License","spdx_id":"MIT","url":"{api}/licenses/mit","node_id":"MDc6TGljZW5zZTEz"},
+                 "allow_forking":true,"is_template":false,"web_commit_signoff_required":false,
+                 "topics":["java","spring","github-api"],"visibility":"public","forks":2,"open_issues":1,"watchers":{id},
+                 "default_branch":"main","permissions":{"admin":false,"maintain":false,"push":false,"triage":false,"pull":true}}"""
+                .replace("{owner}", owner(userName))
+                .replace("{repo}", API + "/repos/" + userName + "/" + name)
+                .replace("{api}", API)
+                .replace("{user}", userName)
+                .replace("{name}", name)
+                .replace("{id}", String.valueOf(id))
+                .replace("{size}", String.valueOf(id * 100))
+                .replace("{fork}", String.valueOf(fork));
+    }
+
+    private static String owner(String userName) {
+        return """
+                {"login":"{user}","id":1000,"node_id":"MDQ6VXNlcjEwMDA=","avatar_url":"https://avatars.githubusercontent.com/u/1000?v=4",
+                 "gravatar_id":"","url":"{userUrl}","html_url":"https://github.com/{user}","followers_url":"{userUrl}/followers",
+                 "following_url":"{userUrl}/following{/other_user}","gists_url":"{userUrl}/gists{/gist_id}",
+                 "starred_url":"{userUrl}/starred{/owner}{/repo}","subscriptions_url":"{userUrl}/subscriptions",
+                 "organizations_url":"{userUrl}/orgs","repos_url":"{userUrl}/repos","events_url":"{userUrl}/events{/privacy}",
+                 "received_events_url":"{userUrl}/received_events","type":"User","site_admin":false}"""
+                .replace("{userUrl}", API + "/users/" + userName)
+                .replace("{user}", userName);
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.api.client.cache;
+
+import com.github.api.client.model.dto.BranchDTO;
+import com.github.api.client.model.dto.RepositoryDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactRepositoryListTest {
+    private static final String SHA = "95f9a55fb1d4be8386771107c4d64c5c9045d7be";
+
+    @Test
+    void test_ofShouldKeepRepositoriesAndBranchesEqualToOriginalOnes() {
+        List<RepositoryDTO> repositories = List.of(
+                new RepositoryDTO("repositoryName", "userName", List.of(
+                        new BranchDTO("main", SHA),
+                        new BranchDTO("develop", "notHexSha"),
+                        new BranchDTO("feature", null),
+                        new BranchDTO("zeros", "0".repeat(40))
+                )),
+                new RepositoryDTO("emptyRepositoryName", "userName", List.of())
+        );
+
+        CompactRepositoryList compactRepositories = CompactRepositoryList.of(repositories);
+
+        assertEquals(repositories, compactRepositories);
+        assertEquals(repositories.hashCode(), compactRepositories.hashCode());
+        assertSame(compactRepositories, CompactRepositoryList.of(compactRepositories));
+        assertThrows(UnsupportedOperationException.class, () -> compactRepositories.add(repositories.get(0)));
+    }
+
+    @Test
+    void test_ofShouldShareOwnerLoginsAndBranchNamesOfDifferentResults() {
+        List<RepositoryDTO> firstResult = new ArrayList<>();
+        List<RepositoryDTO> secondResult = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            firstResult.add(new RepositoryDTO("repository" + i, new String("userName"),
+                    List.of(new BranchDTO(new String("main"), SHA))));
+            secondResult.add(new RepositoryDTO("other" + i, new String("userName"),
+                    List.of(new BranchDTO(new String("main"), SHA))));
+        }
+
+        CompactRepositoryList first = CompactRepositoryList.of(firstResult);
+        CompactRepositoryList second = CompactRepositoryList.of(secondResult);
+
+        assertSame(first.get(0).ownerLogin(), first.get(1).ownerLogin());
+        assertSame(first.get(0).ownerLogin(), second.get(1).ownerLogin());
+        assertSame(first.get(0).branches().get(0).branchName(), second.get(1).branches().get(0).branchName());
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.api.client.cache;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.snapshot.CacheSnapshotStore;
+import com.github.api.client.client.GithubPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionalRequestCacheTest {
+    private final String accessToken = "accessToken";
+    private final GithubPage<String> page = new GithubPage<>(List.of("item"), 1);
+    private ConditionalRequestCache cache;
+
+    @BeforeEach
+    void init() {
+        PropertiesValues propertiesValues = new PropertiesValues();
+        propertiesValues.conditionalCacheMaxEntries = 2;
+        cache = new ConditionalRequestCache(propertiesValues, new CacheSnapshotStore(propertiesValues));
+    }
+
+    @Test
+    void test_getShouldReturnStoredEntryAndCountHitsAndMisses() {
+        assertNull(this.cache.get("url", this.accessToken));
+        this.cache.put("url", this.accessToken, "etag", this.page);
+        ConditionalRequestCache.Entry<String> entry = this.cache.get("url", this.accessToken);
+
+        assertEquals("etag", entry.etag());
+        assertEquals(this.page, entry.page());
+        assertEquals(1, this.cache.hits());
+        assertEquals(1, this.cache.misses());
+    }
+
+    @Test
+    void test_getShouldNotReturnEntryStoredForAnotherToken() {
+        this.cache.put("url", this.accessToken, "etag", this.page);
+
+        assertNull(this.cache.get("url", "anotherAccessToken"));
+        assertNull(this.cache.get("url", null));
+    }
+
+    @Test
+    void test_putShouldEvictLeastRecentlyUsedEntry() {
+        this.cache.put("url1", this.accessToken, "etag1", this.page);
+        this.cache.put("url2", this.accessToken, "etag2", this.page);
+        this.cache.get("url1", this.accessToken);
+        this.cache.put("url3", this.accessToken, "etag3", this.page);
+
+        assertEquals(2, this.cache.size());
+        assertNotNull(this.cache.get("url1", this.accessToken));
+        assertNull(this.cache.get("url2", this.accessToken));
+        assertNotNull(this.cache.get("url3", this.accessToken));
+    }
+}
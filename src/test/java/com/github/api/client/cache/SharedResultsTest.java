@@ -0,0 +1,235 @@
+package com.github.api.client.cache;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.shared.InMemorySharedResultsStore;
+import com.github.api.client.cache.shared.SharedResultsStore;
+import com.github.api.client.cache.snapshot.CacheSnapshotStore;
+import com.github.api.client.model.dto.BranchDTO;
+import com.github.api.client.model.dto.RepositoryDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two caches over one in-memory store stand for two replicas of the application
+class SharedResultsTest {
+    private final PropertiesValues propertiesValues = new PropertiesValues();
+    private final InMemorySharedResultsStore store = new InMemorySharedResultsStore();
+    private final UserReposCache firstReplica = replica(this.store);
+    private final UserReposCache secondReplica = replica(this.store);
+    private final UserReposCache.Key key = UserReposCache.Key.of("userName", "accessToken", null, null);
+    private final List<RepositoryDTO> repositories = List.of(
+            new RepositoryDTO("repositoryName", "userName", List.of(new BranchDTO("branchName", "sha")))
+    );
+
+    @BeforeEach
+    void init() {
+        propertiesValues.resultsCacheTtlMs = 60000;
+        propertiesValues.resultsCacheMaxEntries = 10;
+        propertiesValues.resultsCacheMaxWeight = 100;
+        propertiesValues.sharedCacheKeyPrefix = "test:";
+        propertiesValues.sharedCacheLeaseMs = 30000;
+        propertiesValues.sharedCacheLeaseWaitMs = 10000;
+        propertiesValues.sharedCacheLeasePollMs = 5;
+    }
+
+    @Test
+    void test_getOrComputeShouldTakeResultLoadedByAnotherReplica() {
+        final AtomicInteger loads = new AtomicInteger();
+
+        this.firstReplica.getOrCompute(this.key, () -> load(loads));
+        List<RepositoryDTO> shared = this.secondReplica.getOrCompute(this.key, () -> load(loads));
+
+        assertEquals(this.repositories, shared);
+        assertEquals(1, loads.get());
+        assertEquals(1, this.secondReplica.sharedHits());
+        assertEquals(this.repositories, this.secondReplica.get(this.key));
+    }
+
+    @Test
+    void test_getOrComputeShouldLoadOnceWhileAnotherReplicaHoldsLease() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch loadReleased = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<RepositoryDTO>> first = executor.submit(() -> this.firstReplica.getOrCompute(this.key, () -> {
+                loadStarted.countDown();
+                await(loadReleased);
+                return load(loads);
+            }));
+            loadStarted.await();
+            Future<List<RepositoryDTO>> second = executor.submit(
+                    () -> this.secondReplica.getOrCompute(this.key, () -> load(loads))
+            );
+            while (this.secondReplica.sharedLeaseWaits() == 0) {
+                Thread.onSpinWait();
+            }
+            loadReleased.countDown();
+
+            assertEquals(this.repositories, first.get());
+            assertEquals(this.repositories, second.get());
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1, this.secondReplica.sharedHits());
+    }
+
+    @Test
+    void test_getOrComputeShouldLoadItselfWhenLeaseIsNotReleasedInTime() {
+        final AtomicInteger loads = new AtomicInteger();
+        propertiesValues.sharedCacheLeaseWaitMs = 20;
+        // Lease is held by a replica which has stopped before storing the result
+        UserReposCache replica = replica(new InMemorySharedResultsStore() {
+            @Override
+            public boolean tryAcquireLease(String key, String owner, long leaseMs) {
+                return false;
+            }
+        });
+
+        assertEquals(this.repositories, replica.getOrCompute(this.key, () -> load(loads)));
+        assertEquals(1, loads.get());
+        assertTrue(replica.sharedLeaseWaits() > 0);
+    }
+
+    @Test
+    void test_getOrComputeShouldLoadWhenStoreFails() {
+        final AtomicInteger loads = new AtomicInteger();
+        UserReposCache replica = replica(new FailingSharedResultsStore());
+
+        assertEquals(this.repositories, replica.getOrCompute(this.key, () -> load(loads)));
+        assertEquals(this.repositories, replica.get(this.key));
+        assertEquals(1, loads.get());
+        assertTrue(replica.sharedFailures() > 0);
+    }
+
+    @Test
+    void test_updateShouldReplaceAndDropSharedResults() {
+        final AtomicInteger loads = new AtomicInteger();
+        final List<RepositoryDTO> updated = List.of(new RepositoryDTO("repositoryName", "userName", List.of()));
+        UserReposCache.Key otherKey = UserReposCache.Key.of("userName", "accessToken", "pushed", null);
+        this.firstReplica.put(this.key, this.repositories);
+        this.firstReplica.put(otherKey, this.repositories);
+
+        this.firstReplica.update("userName", (key, repositories) -> key.equals(this.key) ? updated : null);
+
+        assertEquals(updated, this.secondReplica.getOrCompute(this.key, () -> load(loads)));
+        assertEquals(this.repositories, this.secondReplica.getOrCompute(otherKey, () -> load(loads)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void test_getAllowingStaleShouldRevalidateOnceForAllReplicas() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch loadReleased = new CountDownLatch(1);
+        propertiesValues.resultsCacheTtlMs = 500;
+        propertiesValues.resultsCacheStaleMs = 60000;
+        this.firstReplica.getOrCompute(this.key, () -> load(loads));
+        this.secondReplica.getOrCompute(this.key, () -> load(loads));
+        Thread.sleep(550);
+
+        this.firstReplica.getAllowingStale(this.key, () -> {
+            loadStarted.countDown();
+            await(loadReleased);
+            return load(loads);
+        });
+        loadStarted.await();
+        this.secondReplica.getAllowingStale(this.key, () -> load(loads));
+        while (this.secondReplica.sharedLeaseWaits() == 0) {
+            Thread.onSpinWait();
+        }
+        loadReleased.countDown();
+        while (Objects.isNull(this.secondReplica.get(this.key))) {
+            Thread.sleep(1);
+        }
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void test_refreshShouldTakeResultRefreshedByAnotherReplica() throws InterruptedException {
+        final AtomicInteger loads = new AtomicInteger();
+        propertiesValues.resultsCacheTtlMs = 1000;
+        this.firstReplica.put(this.key, this.repositories);
+        this.secondReplica.getOrCompute(this.key, () -> load(loads));
+        Thread.sleep(600);
+
+        this.firstReplica.refresh(this.key, () -> load(loads), 500);
+        this.secondReplica.refresh(this.key, () -> load(loads), 500);
+
+        assertEquals(1, loads.get());
+        assertEquals(2, this.secondReplica.sharedHits());
+    }
+
+    @Test
+    void test_getAllowingStaleShouldTakeSharedResultUpdatedByAnotherReplicaAfterNearTtl() throws InterruptedException {
+        final AtomicInteger loads = new AtomicInteger();
+        final List<RepositoryDTO> updated = List.of(new RepositoryDTO("repositoryName", "userName", List.of()));
+        propertiesValues.sharedCacheNearTtlMs = 1;
+        this.firstReplica.put(this.key, this.repositories);
+        this.secondReplica.getOrCompute(this.key, () -> load(loads));
+
+        this.firstReplica.update("userName", (key, repositories) -> updated);
+        Thread.sleep(5);
+        this.secondReplica.getAllowingStale(this.key, () -> load(loads));
+        while (!updated.equals(this.secondReplica.get(this.key))) {
+            Thread.sleep(1);
+        }
+
+        assertEquals(0, loads.get());
+    }
+
+    private UserReposCache replica(SharedResultsStore sharedResultsStore) {
+        return new UserReposCache(this.propertiesValues, new CacheSnapshotStore(this.propertiesValues), sharedResultsStore);
+    }
+
+    private List<RepositoryDTO> load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return this.repositories;
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static class FailingSharedResultsStore implements SharedResultsStore {
+        @Override
+        public byte[] get(String key) {
+            throw new IllegalStateException("Store is unavailable");
+        }
+
+        @Override
+        public void put(String key, byte[] value, long ttlMs) {
+            throw new IllegalStateException("Store is unavailable");
+        }
+
+        @Override
+        public void delete(String key) {
+            throw new IllegalStateException("Store is unavailable");
+        }
+
+        @Override
+        public boolean tryAcquireLease(String key, String owner, long leaseMs) {
+            throw new IllegalStateException("Store is unavailable");
+        }
+
+        @Override
+        public void releaseLease(String key, String owner) {
+            throw new IllegalStateException("Store is unavailable");
+        }
+    }
+}
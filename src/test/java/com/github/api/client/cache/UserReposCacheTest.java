@@ -0,0 +1,251 @@
+package com.github.api.client.cache;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.shared.SharedResultsStore;
+import com.github.api.client.cache.snapshot.CacheSnapshotStore;
+import com.github.api.client.exception.GithubUserNotFoundException;
+import com.github.api.client.model.dto.BranchDTO;
+import com.github.api.client.model.dto.RepositoryDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserReposCacheTest {
+    private final PropertiesValues propertiesValues = new PropertiesValues();
+    private final UserReposCache cache = new UserReposCache(
+            this.propertiesValues, new CacheSnapshotStore(this.propertiesValues), SharedResultsStore.NONE
+    );
+    private final UserReposCache.Key key = UserReposCache.Key.of("userName", "accessToken", null, null);
+    private final List<RepositoryDTO> repositories = List.of(
+            new RepositoryDTO("repositoryName", "userName", List.of(new BranchDTO("branchName", "sha")))
+    );
+
+    @BeforeEach
+    void init() {
+        propertiesValues.resultsCacheTtlMs = 60000;
+        propertiesValues.resultsCacheMaxEntries = 10;
+        propertiesValues.resultsCacheMaxWeight = 100;
+    }
+
+    @Test
+    void test_getOrComputeShouldReturnCachedResultWithinTtl() {
+        final AtomicInteger loads = new AtomicInteger();
+
+        this.cache.getOrCompute(this.key, () -> load(loads));
+        List<RepositoryDTO> cached = this.cache.getOrCompute(this.key, () -> load(loads));
+
+        assertEquals(this.repositories, cached);
+        assertEquals(1, loads.get());
+        assertEquals(1, this.cache.hits());
+        assertEquals(1, this.cache.misses());
+    }
+
+    @Test
+    void test_getOrComputeShouldLoadAgainAfterTtl() throws InterruptedException {
+        final AtomicInteger loads = new AtomicInteger();
+        propertiesValues.resultsCacheTtlMs = 10;
+
+        this.cache.getOrCompute(this.key, () -> load(loads));
+        Thread.sleep(20);
+        this.cache.getOrCompute(this.key, () -> load(loads));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void test_getOrComputeShouldShareComputationBetweenConcurrentRequests() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch loadReleased = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<RepositoryDTO>> first = executor.submit(() -> this.cache.getOrCompute(this.key, () -> {
+                loadStarted.countDown();
+                await(loadReleased);
+                return load(loads);
+            }));
+            loadStarted.await();
+            List<Future<List<RepositoryDTO>>> others = IntStream.range(0, 5)
+                    .mapToObj(i -> executor.submit(() -> this.cache.getOrCompute(this.key, () -> load(loads))))
+                    .toList();
+            while (this.cache.coalesced() < others.size()) {
+                Thread.sleep(1);
+            }
+            loadReleased.countDown();
+
+            assertEquals(this.repositories, first.get());
+            for (Future<List<RepositoryDTO>> other : others) {
+                assertEquals(this.repositories, other.get());
+            }
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void test_getOrComputeShouldNotCacheFailures() {
+        final AtomicInteger loads = new AtomicInteger();
+
+        assertThrows(GithubUserNotFoundException.class, () -> this.cache.getOrCompute(this.key, () -> {
+            throw new GithubUserNotFoundException("User with provided username has not been found.");
+        }));
+        this.cache.getOrCompute(this.key, () -> load(loads));
+
+        assertEquals(1, loads.get());
+        assertEquals(1, this.cache.size());
+    }
+
+    @Test
+    void test_getOrComputeShouldNotCacheResultFetchedBeforeUpdateOfUser() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch loadReleased = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<RepositoryDTO>> fetched = executor.submit(() -> this.cache.getOrCompute(this.key, () -> {
+                loadStarted.countDown();
+                await(loadReleased);
+                return load(loads);
+            }));
+            loadStarted.await();
+            this.cache.update("UserName", (key, repositories) -> repositories);
+            loadReleased.countDown();
+
+            assertEquals(this.repositories, fetched.get());
+        }
+
+        assertEquals(1, this.cache.generation("userName"));
+        assertNull(this.cache.get(this.key));
+        this.cache.put(this.key, this.repositories, this.cache.generation("userName"));
+        assertNotNull(this.cache.get(this.key));
+    }
+
+    @Test
+    void test_putShouldEvictLeastRecentlyUsedEntriesWhenWeightIsExceeded() {
+        propertiesValues.resultsCacheMaxWeight = 4;
+        final UserReposCache.Key secondKey = UserReposCache.Key.of("secondUserName", null, null, null);
+        final UserReposCache.Key thirdKey = UserReposCache.Key.of("thirdUserName", null, null, null);
+
+        this.cache.put(this.key, this.repositories);
+        this.cache.put(secondKey, this.repositories);
+        this.cache.put(thirdKey, this.repositories);
+
+        assertNull(this.cache.get(this.key));
+        assertNotNull(this.cache.get(secondKey));
+        assertNotNull(this.cache.get(thirdKey));
+        assertEquals(4, this.cache.totalWeight());
+    }
+
+    @Test
+    void test_putShouldSkipResultHeavierThanMaxWeight() {
+        propertiesValues.resultsCacheMaxWeight = 1;
+
+        this.cache.put(this.key, this.repositories);
+
+        assertNull(this.cache.get(this.key));
+        assertEquals(0, this.cache.totalWeight());
+    }
+
+    @Test
+    void test_getOrComputeShouldServeStaleResultWhileRevalidatingInBackground() throws Exception {
+        final List<RepositoryDTO> newRepositories = List.of(new RepositoryDTO("newRepositoryName", "userName", List.of()));
+        final CountDownLatch revalidated = new CountDownLatch(1);
+        propertiesValues.resultsCacheTtlMs = 10;
+        propertiesValues.resultsCacheStaleMs = 60000;
+
+        this.cache.getOrCompute(this.key, () -> this.repositories);
+        Thread.sleep(20);
+        List<RepositoryDTO> stale = this.cache.getOrCompute(this.key, () -> {
+            revalidated.countDown();
+            return newRepositories;
+        });
+        revalidated.await();
+        while (!newRepositories.equals(this.cache.get(this.key))) {
+            Thread.sleep(1);
+        }
+
+        assertEquals(this.repositories, stale);
+        assertEquals(1, this.cache.staleHits());
+    }
+
+    @Test
+    void test_refreshCandidatesShouldReturnFrequentlyAccessedKeysExpiringSoon() {
+        final UserReposCache.Key hotKey = UserReposCache.Key.of("hotUserName", null, null, null);
+        final UserReposCache.Key rareKey = UserReposCache.Key.of("rareUserName", null, null, null);
+        propertiesValues.refreshMaxTrackedUsers = 10;
+
+        IntStream.range(0, 4).forEach(i -> this.cache.getOrCompute(hotKey, () -> this.repositories));
+        this.cache.getOrCompute(rareKey, () -> this.repositories);
+
+        assertTrue(this.cache.refreshCandidates(0, 2).isEmpty());
+        List<UserReposCache.RefreshCandidate> candidates = this.cache.refreshCandidates(60000, 2);
+        assertEquals(1, candidates.size());
+        assertEquals(hotKey, candidates.get(0).key());
+        assertEquals(4, candidates.get(0).accesses());
+        assertEquals(1, candidates.get(0).repositoriesCount());
+
+        this.cache.decayAccesses();
+        this.cache.decayAccesses();
+        assertTrue(this.cache.refreshCandidates(60000, 2).isEmpty());
+    }
+
+    @Test
+    void test_refreshCandidatesShouldNotTrackKeysOfCallersTokens() {
+        propertiesValues.refreshMaxTrackedUsers = 10;
+
+        IntStream.range(0, 4).forEach(i -> this.cache.getOrCompute(this.key, () -> this.repositories));
+
+        assertTrue(this.cache.refreshCandidates(60000, 2).isEmpty());
+    }
+
+    @Test
+    void test_refreshCandidatesShouldKeepRepositoriesCountOfEvictedResult() {
+        final UserReposCache.Key hotKey = UserReposCache.Key.of("hotUserName", null, null, null);
+        final UserReposCache.Key otherKey = UserReposCache.Key.of("otherUserName", null, null, null);
+        propertiesValues.refreshMaxTrackedUsers = 10;
+        propertiesValues.resultsCacheMaxEntries = 1;
+
+        IntStream.range(0, 2).forEach(i -> this.cache.getOrCompute(hotKey, () -> this.repositories));
+        this.cache.put(otherKey, this.repositories);
+
+        assertNull(this.cache.get(hotKey));
+        List<UserReposCache.RefreshCandidate> candidates = this.cache.refreshCandidates(0, 2);
+        assertEquals(1, candidates.size());
+        assertEquals(1, candidates.get(0).repositoriesCount());
+    }
+
+    @Test
+    void test_refreshCandidatesShouldSkipKeysWithoutCachedResult() {
+        final UserReposCache.Key hotKey = UserReposCache.Key.of("hotUserName", null, null, null);
+        propertiesValues.refreshMaxTrackedUsers = 10;
+
+        IntStream.range(0, 2).forEach(i -> assertThrows(GithubUserNotFoundException.class,
+                () -> this.cache.getOrCompute(hotKey, () -> {
+                    throw new GithubUserNotFoundException("User not found");
+                })));
+
+        assertTrue(this.cache.refreshCandidates(60000, 2).isEmpty());
+    }
+
+    private List<RepositoryDTO> load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return this.repositories;
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.github.api.client.cache;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.shared.SharedResultsStore;
+import com.github.api.client.cache.snapshot.CacheSnapshotStore;
+import com.github.api.client.model.dto.RepositoryDTO;
+import com.github.api.client.ratelimit.RateLimitBudget;
+import com.github.api.client.ratelimit.RateLimitTracker;
+import com.github.api.client.ratelimit.TokenPool;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserReposRefresherTest {
+    private final PropertiesValues propertiesValues = new PropertiesValues();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitTracker rateLimitTracker = new RateLimitTracker(this.propertiesValues, this.meterRegistry);
+    private final UserReposCache cache = new UserReposCache(
+            this.propertiesValues, new CacheSnapshotStore(this.propertiesValues), SharedResultsStore.NONE
+    );
+    private final UserReposRefresher refresher = new UserReposRefresher(
+            this.propertiesValues,
+            this.cache,
+            new TokenPool(this.propertiesValues, this.rateLimitTracker, this.meterRegistry),
+            this.rateLimitTracker,
+            this.meterRegistry
+    );
+    private final List<RepositoryDTO> repositories = List.of(new RepositoryDTO("repositoryName", "userName", List.of()));
+
+    @BeforeEach
+    void init() {
+        propertiesValues.resultsCacheTtlMs = 60000;
+        propertiesValues.resultsCacheMaxEntries = 10;
+        propertiesValues.resultsCacheMaxWeight = 100;
+        propertiesValues.rateLimitLowWatermark = 10;
+        propertiesValues.rateLimitMaxTrackedTokens = 10;
+        propertiesValues.refreshAheadMs = 120000;
+        propertiesValues.refreshMinAccesses = 2;
+        propertiesValues.refreshMaxUsersPerRun = 10;
+        propertiesValues.refreshMaxTrackedUsers = 10;
+    }
+
+    @Test
+    void test_refreshHotUsersShouldRefreshOnlyWithinRemainingRateLimit() throws InterruptedException {
+        final AtomicInteger hotLoads = new AtomicInteger();
+        final AtomicInteger otherLoads = new AtomicInteger();
+        final UserReposCache.Key hotKey = UserReposCache.Key.of("hotUserName", null, null, null);
+        final UserReposCache.Key otherKey = UserReposCache.Key.of("otherUserName", null, null, null);
+        setRemaining(TokenIdentity.ANONYMOUS, 12);
+
+        IntStream.range(0, 3).forEach(i -> this.cache.getOrCompute(hotKey, () -> load(hotLoads)));
+        IntStream.range(0, 2).forEach(i -> this.cache.getOrCompute(otherKey, () -> load(otherLoads)));
+        this.refresher.refreshHotUsers();
+        while (refreshes("refreshed") < 1) {
+            Thread.sleep(1);
+        }
+
+        // Each refresh may cost two calls, only one of them fits above the low watermark
+        assertEquals(2, hotLoads.get());
+        assertEquals(1, otherLoads.get());
+        assertEquals(1, refreshes("skipped"));
+    }
+
+    @Test
+    void test_refreshHotUsersShouldNotRefreshBeforeBudgetIsKnown() {
+        final AtomicInteger loads = new AtomicInteger();
+        final UserReposCache.Key key = UserReposCache.Key.of("userName", null, null, null);
+
+        IntStream.range(0, 3).forEach(i -> this.cache.getOrCompute(key, () -> load(loads)));
+        this.refresher.refreshHotUsers();
+
+        assertEquals(1, loads.get());
+        assertEquals(1, refreshes("skipped"));
+    }
+
+    @Test
+    void test_refreshHotUsersShouldRefetchAnonymousHotUserBeforeExpiryWithDefaultProperties() throws Exception {
+        final AtomicInteger loads = new AtomicInteger();
+        final UserReposCache.Key key = UserReposCache.Key.of("userName", null, null, null);
+        Properties defaults = new Properties();
+        try (InputStream properties = getClass().getResourceAsStream("/application.properties")) {
+            defaults.load(properties);
+        }
+        propertiesValues.tokenPoolTokens = List.of(defaults.getProperty("github.api.token-pool.tokens").trim());
+        propertiesValues.rateLimitLowWatermark = Long.parseLong(defaults.getProperty("github.api.rate-limit.low-watermark").trim());
+        propertiesValues.refreshMinAccesses = Long.parseLong(defaults.getProperty("fetcher.refresh.min-accesses").trim());
+        propertiesValues.refreshAheadMs = Long.parseLong(defaults.getProperty("fetcher.refresh.ahead-ms").trim());
+        propertiesValues.resultsCacheTtlMs = propertiesValues.refreshAheadMs + 500;
+        UserReposRefresher defaultRefresher = new UserReposRefresher(
+                this.propertiesValues,
+                this.cache,
+                new TokenPool(this.propertiesValues, this.rateLimitTracker, this.meterRegistry),
+                this.rateLimitTracker,
+                this.meterRegistry
+        );
+        // Anonymous limit of Github API, below the default low watermark
+        setBudget(TokenIdentity.ANONYMOUS, 60, 50);
+
+        LongStream.range(0, propertiesValues.refreshMinAccesses)
+                .forEach(i -> this.cache.getOrCompute(key, () -> load(loads)));
+        Thread.sleep(600);
+        defaultRefresher.refreshHotUsers();
+        while (refreshes("refreshed") < 1) {
+            Thread.sleep(1);
+        }
+
+        assertEquals(2, loads.get());
+        assertNotNull(this.cache.get(key));
+    }
+
+    private List<RepositoryDTO> load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return this.repositories;
+    }
+
+    private void setRemaining(String tokenIdentity, long remaining) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(RateLimitBudget.REMAINING_HEADER_KEY, String.valueOf(remaining));
+        headers.set(RateLimitBudget.RESET_HEADER_KEY, String.valueOf(Instant.now().plusSeconds(3600).getEpochSecond()));
+
+        this.rateLimitTracker.budget(tokenIdentity).update(HttpStatus.OK, headers, Instant.now(), Duration.ofSeconds(60));
+    }
+
+    private void setBudget(String tokenIdentity, long limit, long remaining) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(RateLimitBudget.LIMIT_HEADER_KEY, String.valueOf(limit));
+        headers.set(RateLimitBudget.REMAINING_HEADER_KEY, String.valueOf(remaining));
+        headers.set(RateLimitBudget.RESET_HEADER_KEY, String.valueOf(Instant.now().plusSeconds(3600).getEpochSecond()));
+
+        this.rateLimitTracker.budget(tokenIdentity).update(HttpStatus.OK, headers, Instant.now(), Duration.ofSeconds(60));
+    }
+
+    private double refreshes(String outcome) {
+        return this.meterRegistry.find(UserReposRefresher.REFRESHES_METRIC).tag("outcome", outcome).counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+}
@@ -0,0 +1,33 @@
+package com.github.api.client.cache.shared;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemorySharedResultsStoreTest {
+    private final InMemorySharedResultsStore store = new InMemorySharedResultsStore();
+
+    @Test
+    void test_getShouldReturnValueUntilItExpires() throws InterruptedException {
+        this.store.put("key", new byte[]{1, 2}, 10);
+
+        assertArrayEquals(new byte[]{1, 2}, this.store.get("key"));
+        Thread.sleep(20);
+        assertNull(this.store.get("key"));
+    }
+
+    @Test
+    void test_leaseShouldBeHeldBySingleOwnerUntilReleasedOrExpired() throws InterruptedException {
+        assertTrue(this.store.tryAcquireLease("lease", "first", 30000));
+        assertFalse(this.store.tryAcquireLease("lease", "second", 30000));
+
+        this.store.releaseLease("lease", "second");
+        assertFalse(this.store.tryAcquireLease("lease", "second", 10));
+
+        this.store.releaseLease("lease", "first");
+        assertTrue(this.store.tryAcquireLease("lease", "second", 10));
+
+        Thread.sleep(20);
+        assertTrue(this.store.tryAcquireLease("lease", "third", 30000));
+    }
+}
@@ -0,0 +1,215 @@
+package com.github.api.client.cache.snapshot;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.ConditionalRequestCache;
+import com.github.api.client.cache.RepositoryStateCache;
+import com.github.api.client.cache.UserReposCache;
+import com.github.api.client.cache.shared.SharedResultsStore;
+import com.github.api.client.client.GithubPage;
+import com.github.api.client.model.Branch;
+import com.github.api.client.model.Commit;
+import com.github.api.client.model.Owner;
+import com.github.api.client.model.Repository;
+import com.github.api.client.model.dto.BranchDTO;
+import com.github.api.client.model.dto.RepositoryDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheSnapshotStoreTest {
+    private static final String SHA = "95f9a55fb1d4be8386771107c4d64c5c9045d7be";
+    private final String reposUrl = "https://api.github.com/users/userName/repos?per_page=100";
+    private final String branchesUrl = "https://api.github.com/repos/userName/repositoryName/branches?per_page=100";
+    private final GithubPage<Repository> reposPage = new GithubPage<>(
+            List.of(new Repository("repositoryName", new Owner("userName"), false,
+                    Instant.parse("2024-01-02T10:00:00Z"), Instant.parse("2024-01-01T10:00:00Z"))), 1);
+    private final GithubPage<Branch> branchesPage = new GithubPage<>(
+            List.of(new Branch("main", new Commit(SHA)), new Branch("develop", new Commit("notHexSha"))), 2);
+    private final List<RepositoryDTO> repositories = List.of(
+            new RepositoryDTO("repositoryName", "userName", List.of(new BranchDTO("main", SHA))));
+    private final UserReposCache.Key userReposKey = UserReposCache.Key.of("userName", null, null, null);
+    private final PropertiesValues propertiesValues = new PropertiesValues();
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void init() {
+        propertiesValues.cacheSnapshotPath = this.directory.resolve("snapshot/cache-snapshot.bin").toString();
+        propertiesValues.cacheSnapshotMaxBytes = 0;
+        propertiesValues.cacheSnapshotQueueCapacity = 100;
+        propertiesValues.conditionalCacheMaxEntries = 100;
+        propertiesValues.resultsCacheTtlMs = 60000;
+        propertiesValues.resultsCacheMaxEntries = 100;
+        propertiesValues.resultsCacheMaxWeight = 1000;
+        propertiesValues.incrementalEnabled = true;
+        propertiesValues.incrementalMaxEntries = 100;
+        propertiesValues.incrementalMaxAgeMs = 60000;
+    }
+
+    @Test
+    void test_readAllShouldReturnAppendedRecordsInOrder() {
+        CacheSnapshotStore store = new CacheSnapshotStore(this.propertiesValues);
+        List<CacheSnapshotRecord> records = List.of(
+                new CacheSnapshotRecord.ConditionalEntry(
+                        new ConditionalRequestCache.Key(this.reposUrl, "anonymous"),
+                        new ConditionalRequestCache.Entry<>("\"etag1\"", this.reposPage)),
+                new CacheSnapshotRecord.ConditionalEntry(
+                        new ConditionalRequestCache.Key(this.branchesUrl, "anonymous"),
+                        new ConditionalRequestCache.Entry<>("\"etag2\"", this.branchesPage)),
+                new CacheSnapshotRecord.ConditionalEntry(
+                        new ConditionalRequestCache.Key(this.reposUrl + "&page=2", "anonymous"),
+                        new ConditionalRequestCache.Entry<>("\"etag3\"", new GithubPage<>(
+                                List.of(new Repository("repositoryName", null, true, null, null)), 2))),
+                new CacheSnapshotRecord.ConditionalEntry(
+                        new ConditionalRequestCache.Key(this.branchesUrl + "&page=3", "anonymous"),
+                        new ConditionalRequestCache.Entry<>(null, new GithubPage<>(List.of(), 1))),
+                new CacheSnapshotRecord.UserReposEntry(this.userReposKey, this.repositories, 123L),
+                new CacheSnapshotRecord.UserReposEntry(
+                        UserReposCache.Key.of("userName", null, "pushed", null),
+                        List.of(new RepositoryDTO("repositoryName", "userName", null)),
+                        123L),
+                new CacheSnapshotRecord.RepositoryStateEntry(
+                        new RepositoryStateCache.Key("username", "repositoryname", "anonymous"),
+                        new RepositoryStateCache.Entry(Instant.parse("2024-01-02T10:00:00Z"), null, this.repositories.get(0).branches(), 123L))
+        );
+
+        records.forEach(store::append);
+        store.close();
+
+        assertEquals(records, new CacheSnapshotStore(this.propertiesValues).readAll());
+    }
+
+    @Test
+    void test_readAllShouldSkipTruncatedRecordAtTheEnd() throws IOException {
+        CacheSnapshotStore store = new CacheSnapshotStore(this.propertiesValues);
+        CacheSnapshotRecord record = new CacheSnapshotRecord.UserReposEntry(this.userReposKey, this.repositories, 123L);
+        store.append(record);
+        store.append(record);
+        store.close();
+
+        Path path = Path.of(this.propertiesValues.cacheSnapshotPath);
+        byte[] content = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(content, content.length - 5), StandardOpenOption.TRUNCATE_EXISTING);
+
+        assertEquals(List.of(record), new CacheSnapshotStore(this.propertiesValues).readAll());
+    }
+
+    @Test
+    void test_loadShouldRestoreCachesAndCompactSnapshot() {
+        CacheSnapshotStore store = new CacheSnapshotStore(this.propertiesValues);
+        ConditionalRequestCache conditionalRequestCache = new ConditionalRequestCache(this.propertiesValues, store);
+        UserReposCache userReposCache = new UserReposCache(this.propertiesValues, store, SharedResultsStore.NONE);
+        conditionalRequestCache.put(this.reposUrl, null, "\"etag1\"", this.reposPage);
+        conditionalRequestCache.put(this.reposUrl, null, "\"etag2\"", this.reposPage);
+        userReposCache.put(this.userReposKey, this.repositories);
+        store.append(new CacheSnapshotRecord.UserReposEntry(
+                UserReposCache.Key.of("expiredUserName", null, null, null),
+                this.repositories,
+                System.currentTimeMillis() - this.propertiesValues.resultsCacheTtlMs - 1
+        ));
+        store.close();
+
+        CacheSnapshotStore restartedStore = new CacheSnapshotStore(this.propertiesValues);
+        ConditionalRequestCache restoredConditionalCache = new ConditionalRequestCache(this.propertiesValues, restartedStore);
+        UserReposCache restoredUserReposCache = new UserReposCache(
+                this.propertiesValues, restartedStore, SharedResultsStore.NONE
+        );
+        new CacheSnapshotLoader(restartedStore, restoredConditionalCache, restoredUserReposCache,
+                new RepositoryStateCache(this.propertiesValues, restartedStore)).load();
+
+        ConditionalRequestCache.Entry<Repository> entry = restoredConditionalCache.get(this.reposUrl, null);
+        assertEquals("\"etag2\"", entry.etag());
+        assertEquals(this.reposPage, entry.page());
+        assertEquals(this.repositories, restoredUserReposCache.get(this.userReposKey));
+        assertNull(restoredUserReposCache.get(UserReposCache.Key.of("expiredUserName", null, null, null)));
+        assertEquals(2, restartedStore.readAll().size());
+    }
+
+    @Test
+    void test_restoreShouldNotReplaceNewerEntries() {
+        CacheSnapshotStore store = new CacheSnapshotStore(this.propertiesValues);
+        UserReposCache userReposCache = new UserReposCache(this.propertiesValues, store, SharedResultsStore.NONE);
+        List<RepositoryDTO> newerRepositories = List.of(new RepositoryDTO("newRepositoryName", "userName", List.of()));
+
+        userReposCache.put(this.userReposKey, newerRepositories);
+        userReposCache.restore(this.userReposKey, this.repositories, System.currentTimeMillis());
+
+        assertEquals(newerRepositories, userReposCache.get(this.userReposKey));
+    }
+
+    @Test
+    void test_appendShouldCompactSnapshotWhenItExceedsMaxBytes() {
+        propertiesValues.cacheSnapshotMaxBytes = 1000;
+        CacheSnapshotStore store = new CacheSnapshotStore(this.propertiesValues);
+        ConditionalRequestCache conditionalRequestCache = new ConditionalRequestCache(this.propertiesValues, store);
+        store.setCompactionSource(conditionalRequestCache::snapshot);
+
+        for (int i = 0; i < 50; i++) {
+            conditionalRequestCache.put(this.reposUrl, null, "\"etag" + i + "\"", this.reposPage);
+        }
+
+        // Records appended after the last compaction stay in the log until the next one
+        List<CacheSnapshotRecord> records = store.readAll();
+        assertTrue(store.fileBytes() <= 1000);
+        assertTrue(records.size() < 50);
+        assertEquals("\"etag49\"", ((CacheSnapshotRecord.ConditionalEntry) records.get(records.size() - 1)).entry().etag());
+    }
+
+    @Test
+    void test_appendShouldCompactSnapshotWhenQueueIsFull() {
+        propertiesValues.cacheSnapshotQueueCapacity = 1;
+        CacheSnapshotStore store = new CacheSnapshotStore(this.propertiesValues);
+        ConditionalRequestCache conditionalRequestCache = new ConditionalRequestCache(this.propertiesValues, store);
+        store.setCompactionSource(conditionalRequestCache::snapshot);
+
+        for (int i = 0; i < 50; i++) {
+            conditionalRequestCache.put(this.reposUrl, null, "\"etag" + i + "\"", this.reposPage);
+        }
+
+        // Dropped records are replaced by the compaction, the latest entry is in the log either way
+        List<CacheSnapshotRecord> records = store.readAll();
+        assertEquals("\"etag49\"", ((CacheSnapshotRecord.ConditionalEntry) records.get(records.size() - 1)).entry().etag());
+    }
+
+    @Test
+    void test_storeShouldKeepOnlyEntriesFetchedWithoutAccessToken() {
+        CacheSnapshotStore store = new CacheSnapshotStore(this.propertiesValues);
+        ConditionalRequestCache conditionalRequestCache = new ConditionalRequestCache(this.propertiesValues, store);
+        store.setCompactionSource(conditionalRequestCache::snapshot);
+
+        conditionalRequestCache.put(this.reposUrl, "accessToken", "\"etag1\"", this.reposPage);
+        conditionalRequestCache.put(this.branchesUrl, null, "\"etag2\"", this.branchesPage);
+        store.append(new CacheSnapshotRecord.UserReposEntry(
+                UserReposCache.Key.of("userName", "accessToken", null, null), this.repositories, 123L));
+
+        assertEquals(List.of(new ConditionalRequestCache.Key(this.branchesUrl, "anonymous")), store.readAll().stream()
+                .map(record -> ((CacheSnapshotRecord.ConditionalEntry) record).key())
+                .toList());
+
+        // Compaction leaves them out as well
+        store.rewrite(conditionalRequestCache.snapshot());
+        assertEquals(1, store.readAll().size());
+    }
+
+    @Test
+    void test_storeShouldDoNothingWhenPathIsNotSet() {
+        propertiesValues.cacheSnapshotPath = "";
+        CacheSnapshotStore store = new CacheSnapshotStore(this.propertiesValues);
+
+        store.append(new CacheSnapshotRecord.UserReposEntry(this.userReposKey, this.repositories, 123L));
+
+        assertFalse(store.isEnabled());
+        assertTrue(store.readAll().isEmpty());
+    }
+}
@@ -1,12 +1,25 @@
 package com.github.api.client.client;
 
 import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.ConditionalRequestCache;
+import com.github.api.client.cache.TokenIdentity;
+import com.github.api.client.cache.snapshot.CacheSnapshotStore;
+import com.github.api.client.client.interceptor.DecodedBodyInputStream;
+import com.github.api.client.concurrent.FanOutExecutor;
+import com.github.api.client.exception.GithubRateLimitExceededException;
+import com.github.api.client.exception.GithubResponseTooLargeException;
+import com.github.api.client.exception.GithubUnavailableException;
 import com.github.api.client.exception.GithubUserNotFoundException;
 import com.github.api.client.exception.WrongParamValueException;
 import com.github.api.client.model.Branch;
 import com.github.api.client.model.Commit;
 import com.github.api.client.model.Owner;
 import com.github.api.client.model.Repository;
+import com.github.api.client.ratelimit.RateLimitBudget;
+import com.github.api.client.ratelimit.RateLimitTracker;
+import com.github.api.client.ratelimit.TokenPool;
+import com.github.api.client.resilience.UpstreamResilience;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,10 +28,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponents;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,7 +53,8 @@ class GithubApiClientTest {
     RestTemplate restTemplate;
     @Mock
     PropertiesValues propertiesValues;
-    @InjectMocks
+    ConditionalRequestCache conditionalRequestCache;
+    RateLimitTracker rateLimitTracker;
     GithubApiClient client;
 
     @Captor
@@ -53,6 +71,22 @@ class GithubApiClientTest {
         propertiesValues.githubApiAcceptHeader = "application/vnd.github+json";
         propertiesValues.allowedSorts= List.of("created", "updated", "pushed", "full_name");
         propertiesValues.allowedDirections= List.of("asc", "desc");
+        propertiesValues.githubApiPageSize = 100;
+        propertiesValues.fanOutMaxParallelism = 4;
+        propertiesValues.fanOutDeadlineMs = 5000;
+        propertiesValues.conditionalCacheMaxEntries = 10;
+        propertiesValues.rateLimitMaxTrackedTokens = 10;
+        rateLimitTracker = new RateLimitTracker(this.propertiesValues, new SimpleMeterRegistry());
+        conditionalRequestCache = new ConditionalRequestCache(this.propertiesValues, new CacheSnapshotStore(this.propertiesValues));
+        client = new GithubApiClient(
+                this.restTemplate,
+                this.propertiesValues,
+                new FanOutExecutor(this.propertiesValues, new SimpleMeterRegistry()),
+                this.conditionalRequestCache,
+                new TokenPool(this.propertiesValues, this.rateLimitTracker, new SimpleMeterRegistry()),
+                new UpstreamResilience(this.propertiesValues, new SimpleMeterRegistry()),
+                this.rateLimitTracker
+        );
     }
 
     @Test
@@ -287,7 +321,239 @@ class GithubApiClientTest {
                 this.client.getBranchesForUserRepo(this.userName, this.repositoryName, this.accessToken));
     }
 
+    @Test
+    void test_getRepoBranchesShouldThrowResponseTooLargeException() {
+        final String expectedBranchesUrl = this.propertiesValues.githubApiBaseUrl +
+                String.format(this.propertiesValues.githubApiUserRepoBranchesUrl, this.userName, this.repositoryName);
+
+        Mockito.when(this.restTemplate.exchange(
+                eq(buildUriComponents(expectedBranchesUrl).toUriString()),
+                eq(HttpMethod.GET),
+                Mockito.any(RequestEntity.class),
+                Mockito.any(ParameterizedTypeReference.class)
+        )).thenThrow(new RestClientException("Error while extracting response",
+                new DecodedBodyInputStream.LimitExceededException("Decoded body exceeds 100 bytes")));
+
+        assertThrows(GithubResponseTooLargeException.class, () ->
+                this.client.getBranchesForUserRepo(this.userName, this.repositoryName, this.accessToken));
+    }
+
+    @Test
+    void test_getUserReposShouldFetchAllPagesListedInLinkHeader() {
+        final String userReposUrl = this.propertiesValues.githubApiBaseUrl +
+                String.format(this.propertiesValues.githubApiUserReposUrl, this.userName);
+        final String firstPageUrl = buildUriComponents(userReposUrl).toUriString();
+        final Repository repository2 = new Repository("repositoryName2", this.owner, false);
+        final Repository repository3 = new Repository("repositoryName3", this.owner, false);
+        final HttpHeaders linkHeaders = new HttpHeaders();
+        linkHeaders.set(HttpHeaders.LINK, "<" + firstPageUrl + "&page=2>; rel=\"next\", <" + firstPageUrl + "&page=3>; rel=\"last\"");
+
+        Mockito.when(this.restTemplate.exchange(
+                eq(firstPageUrl),
+                eq(HttpMethod.GET),
+                Mockito.any(RequestEntity.class),
+                Mockito.any(ParameterizedTypeReference.class)
+        )).thenReturn((ResponseEntity.ok().headers(linkHeaders).body(List.of(this.repository))));
+        Mockito.when(this.restTemplate.exchange(
+                eq(firstPageUrl + "&page=2"),
+                eq(HttpMethod.GET),
+                Mockito.any(RequestEntity.class),
+                Mockito.any(ParameterizedTypeReference.class)
+        )).thenReturn((ResponseEntity.ok().body(List.of(repository2))));
+        Mockito.when(this.restTemplate.exchange(
+                eq(firstPageUrl + "&page=3"),
+                eq(HttpMethod.GET),
+                Mockito.any(RequestEntity.class),
+                Mockito.any(ParameterizedTypeReference.class)
+        )).thenReturn((ResponseEntity.ok().body(List.of(repository3))));
+        List<Repository> repositories = this.client.getUserRepos(this.userName, this.accessToken, null, null);
+
+        assertEquals(List.of(this.repository, repository2, repository3), repositories);
+    }
+
+    @Test
+    void test_getRepoBranchesShouldFetchAllPagesListedInLinkHeader() {
+        final String expectedBranchesUrl = buildUriComponents(this.propertiesValues.githubApiBaseUrl +
+                String.format(this.propertiesValues.githubApiUserRepoBranchesUrl, this.userName, this.repositoryName))
+                .toUriString();
+        final Branch branch = new Branch("name", new Commit("sha"));
+        final Branch branch2 = new Branch("name2", new Commit("sha2"));
+        final HttpHeaders linkHeaders = new HttpHeaders();
+        linkHeaders.set(HttpHeaders.LINK, "<" + expectedBranchesUrl + "&page=2>; rel=\"next\", <" + expectedBranchesUrl + "&page=2>; rel=\"last\"");
+
+        Mockito.when(this.restTemplate.exchange(
+                eq(expectedBranchesUrl),
+                eq(HttpMethod.GET),
+                Mockito.any(RequestEntity.class),
+                Mockito.any(ParameterizedTypeReference.class)
+        )).thenReturn((ResponseEntity.ok().headers(linkHeaders).body(List.of(branch))));
+        Mockito.when(this.restTemplate.exchange(
+                eq(expectedBranchesUrl + "&page=2"),
+                eq(HttpMethod.GET),
+                Mockito.any(RequestEntity.class),
+                Mockito.any(ParameterizedTypeReference.class)
+        )).thenReturn((ResponseEntity.ok().body(List.of(branch2))));
+        List<Branch> branches = this.client.getBranchesForUserRepo(this.userName, this.repositoryName, this.accessToken);
+
+        assertEquals(List.of(branch, branch2), branches);
+    }
+
+    @Test
+    void test_getUserReposShouldSendConditionalRequestAndReturnCachedRepositoriesWhenNotModified() {
+        final String etag = "\"etag\"";
+        final String userReposUrl = buildUriComponents(this.propertiesValues.githubApiBaseUrl +
+                String.format(this.propertiesValues.githubApiUserReposUrl, this.userName)).toUriString();
+
+        Mockito.when(this.restTemplate.exchange(
+                eq(userReposUrl),
+                eq(HttpMethod.GET),
+                this.requestEntityArgumentCaptor.capture(),
+                Mockito.any(ParameterizedTypeReference.class)
+        )).thenReturn(
+                ResponseEntity.ok().eTag(etag).body(List.of(this.repository)),
+                ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build()
+        );
+        List<Repository> firstRepositories = this.client.getUserRepos(this.userName, this.accessToken, null, null);
+        List<Repository> secondRepositories = this.client.getUserRepos(this.userName, this.accessToken, null, null);
+        List<RequestEntity<Void>> requestEntities = this.requestEntityArgumentCaptor.getAllValues();
+
+        assertEquals(List.of(this.repository), firstRepositories);
+        assertEquals(firstRepositories, secondRepositories);
+        assertTrue(requestEntities.get(0).getHeaders().getIfNoneMatch().isEmpty());
+        assertEquals(List.of(etag), requestEntities.get(1).getHeaders().getIfNoneMatch());
+        assertEquals(1, this.conditionalRequestCache.notModified());
+    }
+
+    @Test
+    void test_getRepoBranchesShouldNotShareCachedEntriesBetweenTokens() {
+        final String etag = "\"etag\"";
+        final Branch branch = new Branch("name", new Commit("sha"));
+        final String expectedBranchesUrl = buildUriComponents(this.propertiesValues.githubApiBaseUrl +
+                String.format(this.propertiesValues.githubApiUserRepoBranchesUrl, this.userName, this.repositoryName))
+                .toUriString();
+
+        Mockito.when(this.restTemplate.exchange(
+                eq(expectedBranchesUrl),
+                eq(HttpMethod.GET),
+                this.requestEntityArgumentCaptor.capture(),
+                Mockito.any(ParameterizedTypeReference.class)
+        )).thenReturn(ResponseEntity.ok().eTag(etag).body(List.of(branch)));
+        this.client.getBranchesForUserRepo(this.userName, this.repositoryName, this.accessToken);
+        this.client.getBranchesForUserRepo(this.userName, this.repositoryName, null);
+        List<RequestEntity<Void>> requestEntities = this.requestEntityArgumentCaptor.getAllValues();
+
+        assertTrue(requestEntities.get(1).getHeaders().getIfNoneMatch().isEmpty());
+        assertEquals(2, this.conditionalRequestCache.size());
+    }
+
+    @Test
+    void test_getRepoBranchesShouldRetryRequestRejectedByRateLimit() {
+        final Branch branch = new Branch("name", new Commit("sha"));
+        final String expectedBranchesUrl = buildUriComponents(this.propertiesValues.githubApiBaseUrl +
+                String.format(this.propertiesValues.githubApiUserRepoBranchesUrl, this.userName, this.repositoryName))
+                .toUriString();
+        propertiesValues.rateLimitMaxRetries = 1;
+
+        Mockito.when(this.restTemplate.exchange(
+                eq(expectedBranchesUrl),
+                eq(HttpMethod.GET),
+                Mockito.any(RequestEntity.class),
+                Mockito.any(ParameterizedTypeReference.class)
+        )).thenThrow(new GithubRateLimitExceededException("message", 1, true))
+                .thenReturn(ResponseEntity.ok().body(List.of(branch)));
+        List<Branch> branches = this.client.getBranchesForUserRepo(this.userName, this.repositoryName, this.accessToken);
+
+        assertEquals(List.of(branch), branches);
+    }
+
+    @Test
+    void test_getRepoBranchesShouldNotRetryRequestRejectedBeforeSending() {
+        final String expectedBranchesUrl = buildUriComponents(this.propertiesValues.githubApiBaseUrl +
+                String.format(this.propertiesValues.githubApiUserRepoBranchesUrl, this.userName, this.repositoryName))
+                .toUriString();
+        propertiesValues.rateLimitMaxRetries = 1;
+
+        Mockito.when(this.restTemplate.exchange(
+                eq(expectedBranchesUrl),
+                eq(HttpMethod.GET),
+                Mockito.any(RequestEntity.class),
+                Mockito.any(ParameterizedTypeReference.class)
+        )).thenThrow(new GithubRateLimitExceededException("message", 60, false));
+
+        assertThrows(GithubRateLimitExceededException.class, () ->
+                this.client.getBranchesForUserRepo(this.userName, this.repositoryName, this.accessToken));
+        Mockito.verify(this.restTemplate, Mockito.times(1)).exchange(
+                eq(expectedBranchesUrl),
+                eq(HttpMethod.GET),
+                Mockito.any(RequestEntity.class),
+                Mockito.any(ParameterizedTypeReference.class)
+        );
+    }
+
+    @Test
+    void test_getRepoBranchesShouldRejectRequestBeforeSendingWhenRateLimitIsExhausted() {
+        HttpHeaders rateLimitHeaders = new HttpHeaders();
+        rateLimitHeaders.set(RateLimitBudget.LIMIT_HEADER_KEY, "5000");
+        rateLimitHeaders.set(RateLimitBudget.REMAINING_HEADER_KEY, "0");
+        rateLimitHeaders.set(RateLimitBudget.RESET_HEADER_KEY, String.valueOf(Instant.now().getEpochSecond() + 3600));
+        this.rateLimitTracker.budget(TokenIdentity.of(this.accessToken))
+                .update(HttpStatus.OK, rateLimitHeaders, Instant.now(), Duration.ZERO);
+
+        assertThrows(GithubRateLimitExceededException.class, () ->
+                this.client.getBranchesForUserRepo(this.userName, this.repositoryName, this.accessToken));
+        Mockito.verifyNoInteractions(this.restTemplate);
+    }
+
+    @Test
+    void test_getRepoBranchesShouldRetryRequestFailedWithServerError() {
+        final Branch branch = new Branch("name", new Commit("sha"));
+        final String expectedBranchesUrl = buildUriComponents(this.propertiesValues.githubApiBaseUrl +
+                String.format(this.propertiesValues.githubApiUserRepoBranchesUrl, this.userName, this.repositoryName))
+                .toUriString();
+        propertiesValues.retryMaxRetries = 2;
+        propertiesValues.retryBaseBackoffMs = 1;
+        propertiesValues.retryMaxBackoffMs = 2;
+
+        Mockito.when(this.restTemplate.exchange(
+                eq(expectedBranchesUrl),
+                eq(HttpMethod.GET),
+                Mockito.any(RequestEntity.class),
+                Mockito.any(ParameterizedTypeReference.class)
+        )).thenThrow(new HttpServerErrorException(HttpStatus.BAD_GATEWAY))
+                .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE))
+                .thenReturn(ResponseEntity.ok().body(List.of(branch)));
+        List<Branch> branches = this.client.getBranchesForUserRepo(this.userName, this.repositoryName, this.accessToken);
+
+        assertEquals(List.of(branch), branches);
+    }
+
+    @Test
+    void test_getRepoBranchesShouldThrowUnavailableExceptionWhenRetriesAreExhausted() {
+        final String expectedBranchesUrl = buildUriComponents(this.propertiesValues.githubApiBaseUrl +
+                String.format(this.propertiesValues.githubApiUserRepoBranchesUrl, this.userName, this.repositoryName))
+                .toUriString();
+        propertiesValues.retryMaxRetries = 1;
+
+        Mockito.when(this.restTemplate.exchange(
+                eq(expectedBranchesUrl),
+                eq(HttpMethod.GET),
+                Mockito.any(RequestEntity.class),
+                Mockito.any(ParameterizedTypeReference.class)
+        )).thenThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        assertThrows(GithubUnavailableException.class, () ->
+                this.client.getBranchesForUserRepo(this.userName, this.repositoryName, this.accessToken));
+        Mockito.verify(this.restTemplate, Mockito.times(2)).exchange(
+                eq(expectedBranchesUrl),
+                eq(HttpMethod.GET),
+                Mockito.any(RequestEntity.class),
+                Mockito.any(ParameterizedTypeReference.class)
+        );
+    }
+
     private UriComponents buildUriComponents(String expectedUrl) {
-        return UriComponentsBuilder.fromHttpUrl(expectedUrl).build(true);
+        return UriComponentsBuilder.fromHttpUrl(expectedUrl)
+                .queryParam("per_page", this.propertiesValues.githubApiPageSize)
+                .build(true);
     }
 }
@@ -0,0 +1,144 @@
+package com.github.api.client.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.concurrent.FanOutExecutor;
+import com.github.api.client.exception.GithubGraphQlException;
+import com.github.api.client.exception.GithubUserNotFoundException;
+import com.github.api.client.model.dto.BranchDTO;
+import com.github.api.client.model.dto.RepositoryDTO;
+import com.github.api.client.ratelimit.RateLimitTracker;
+import com.github.api.client.stub.StubGithubServer;
+import com.github.api.client.stub.StubGithubServer.StubRequest;
+import com.github.api.client.stub.StubGithubServer.StubResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GithubGraphQlClientTest {
+    private final String userName = "userName";
+    private final String accessToken = "accessToken";
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PropertiesValues propertiesValues = new PropertiesValues();
+    private StubGithubServer server;
+    private GithubGraphQlClient client;
+
+    @BeforeEach
+    void init() throws IOException {
+        server = new StubGithubServer().route("POST", "/graphql", this::respond);
+        propertiesValues.githubApiBaseUrl = this.server.baseUrl();
+        propertiesValues.githubApiGraphQlUrl = "graphql";
+        propertiesValues.githubApiPageSize = 100;
+        propertiesValues.fanOutMaxParallelism = 4;
+        propertiesValues.fanOutDeadlineMs = 5000;
+        propertiesValues.allowedSorts = List.of("created", "updated", "pushed", "full_name");
+        propertiesValues.allowedDirections = List.of("asc", "desc");
+        propertiesValues.userNotFoundMessage = "User with provided username has not been found.";
+        client = new GithubGraphQlClient(new RestTemplate(), this.propertiesValues, new FanOutExecutor(this.propertiesValues, new SimpleMeterRegistry()),
+                new RateLimitTracker(this.propertiesValues, new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void close() {
+        this.server.close();
+    }
+
+    @Test
+    void test_getUserReposWithBranchesShouldFollowRepositoriesAndBranchesCursors() {
+        List<RepositoryDTO> repositories = this.client
+                .getUserReposWithBranches(this.userName, this.accessToken, null, null);
+
+        assertEquals(List.of(
+                new RepositoryDTO("repositoryName", this.userName, List.of(
+                        new BranchDTO("main", "sha1"),
+                        new BranchDTO("develop", "sha2")
+                )),
+                new RepositoryDTO("repositoryName2", this.userName, List.of(new BranchDTO("main", "sha3")))
+        ), repositories);
+        assertEquals(3, this.server.requests().size());
+        assertEquals("Bearer " + this.accessToken, this.server.requests().get(0).header(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Test
+    void test_getUserReposWithBranchesShouldTranslateSortAndDirection() {
+        this.client.getUserReposWithBranches(this.userName, this.accessToken, "pushed", null);
+        JsonNode variables = readBody(this.server.requests().get(0)).path("variables");
+
+        assertEquals("PUSHED_AT", variables.path("orderBy").path("field").asText());
+        assertEquals("DESC", variables.path("orderBy").path("direction").asText());
+        assertEquals(this.userName, variables.path("login").asText());
+    }
+
+    @Test
+    void test_getUserReposWithBranchesShouldThrowUserNotFoundException() {
+        Exception exception = assertThrows(GithubUserNotFoundException.class, () -> this.client
+                .getUserReposWithBranches("missingUserName", this.accessToken, null, null));
+
+        assertEquals(this.propertiesValues.userNotFoundMessage, exception.getMessage());
+    }
+
+    @Test
+    void test_getUserReposWithBranchesShouldThrowGraphQlExceptionForOtherErrors() {
+        Exception exception = assertThrows(GithubGraphQlException.class, () -> this.client
+                .getUserReposWithBranches("brokenUserName", this.accessToken, null, null));
+
+        assertEquals("Something went wrong", exception.getMessage());
+    }
+
+    private StubResponse respond(StubRequest request) {
+        JsonNode body = readBody(request);
+        String query = body.path("query").asText();
+        JsonNode variables = body.path("variables");
+
+        if (query.contains("repository(owner:")) {
+            return StubResponse.json(200, """
+                    {"data":{"repository":{"refs":{
+                      "pageInfo":{"hasNextPage":false,"endCursor":"refs2"},
+                      "nodes":[{"name":"develop","target":{"oid":"sha2"}}]}}}}
+                    """);
+        }
+
+        return switch (variables.path("login").asText()) {
+            case "missingUserName" -> StubResponse.json(200, """
+                    {"data":{"repositoryOwner":null},
+                     "errors":[{"type":"NOT_FOUND","message":"Could not resolve to a User"}]}
+                    """);
+            case "brokenUserName" -> StubResponse.json(200, """
+                    {"errors":[{"message":"Something went wrong"}]}
+                    """);
+            default -> variables.path("cursor").isNull()
+                    ? StubResponse.json(200, """
+                    {"data":{"repositoryOwner":{"repositories":{
+                      "pageInfo":{"hasNextPage":true,"endCursor":"repos1"},
+                      "nodes":[{"name":"repositoryName","owner":{"login":"userName"},"refs":{
+                        "pageInfo":{"hasNextPage":true,"endCursor":"refs1"},
+                        "nodes":[{"name":"main","target":{"oid":"sha1"}}]}}]}}}}
+                    """)
+                    : StubResponse.json(200, """
+                    {"data":{"repositoryOwner":{"repositories":{
+                      "pageInfo":{"hasNextPage":false,"endCursor":"repos2"},
+                      "nodes":[{"name":"repositoryName2","owner":{"login":"userName"},"refs":{
+                        "pageInfo":{"hasNextPage":false,"endCursor":"refs3"},
+                        "nodes":[{"name":"main","target":{"oid":"sha3"}}]}}]}}}}
+                    """);
+        };
+    }
+
+    private JsonNode readBody(StubRequest request) {
+        try {
+            return this.objectMapper.readTree(request.body());
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
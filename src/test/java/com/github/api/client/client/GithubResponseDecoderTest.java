@@ -0,0 +1,109 @@
+package com.github.api.client.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.github.api.client.model.Branch;
+import com.github.api.client.model.Commit;
+import com.github.api.client.model.Owner;
+import com.github.api.client.model.Repository;
+import com.github.api.client.stub.StubGithubServer;
+import com.github.api.client.stub.StubGithubServer.StubResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GithubResponseDecoderTest {
+    private static final String REPOSITORIES_JSON = """
+            [
+              {"id":1,"name":"repositoryName","full_name":"userName/repositoryName",
+               "owner":{"login":"userName","id":10,"site_admin":false},
+               "topics":["java",{"nested":["value"]}],"license":{"key":"mit","name":"MIT License"},
+               "fork":false,"forks_count":3,"description":null,
+               "updated_at":"2024-01-01T10:00:00Z","pushed_at":"2024-01-02T10:00:00Z"},
+              {"id":2,"name":"forkedName","owner":{"login":"userName"},"fork":true},
+              {"fork":false,"permissions":{"admin":true},"name":"repositoryName2","owner":{"id":10,"login":"userName"},
+               "pushed_at":null,"updated_at":"not a timestamp"}
+            ]
+            """;
+    private static final String BRANCHES_JSON = """
+            [
+              {"name":"main","commit":{"sha":"sha1","url":"https://api.github.com/commits/sha1"},"protected":true},
+              {"protection":{"enabled":false,"required_status_checks":{"contexts":[]}},"commit":{"sha":"sha2"},"name":"develop"}
+            ]
+            """;
+    private final GithubResponseDecoder decoder = new GithubResponseDecoder(new JsonFactory());
+
+    @Test
+    void test_decodeNonForkRepositoriesShouldSkipForksAndUnusedFields() throws IOException {
+        List<Repository> repositories = this.decoder.decodeNonForkRepositories(toStream(REPOSITORIES_JSON));
+
+        assertEquals(List.of(
+                new Repository("repositoryName", new Owner("userName"), false,
+                        Instant.parse("2024-01-02T10:00:00Z"), Instant.parse("2024-01-01T10:00:00Z")),
+                new Repository("repositoryName2", new Owner("userName"), false)
+        ), repositories);
+    }
+
+    @Test
+    void test_decodeBranchesShouldReadNameAndCommitSha() throws IOException {
+        List<Branch> branches = this.decoder.decodeBranches(toStream(BRANCHES_JSON));
+
+        assertEquals(List.of(
+                new Branch("main", new Commit("sha1")),
+                new Branch("develop", new Commit("sha2"))
+        ), branches);
+    }
+
+    @Test
+    void test_decodeShouldReturnEmptyListForEmptyArray() throws IOException {
+        assertTrue(this.decoder.decodeNonForkRepositories(toStream("[]")).isEmpty());
+        assertTrue(this.decoder.decodeBranches(toStream("")).isEmpty());
+    }
+
+    @Test
+    void test_decodeShouldFailForNonArrayResponse() {
+        assertThrows(IOException.class, () -> this.decoder
+                .decodeNonForkRepositories(toStream("{\"message\":\"Not Found\"}")));
+    }
+
+    @Test
+    void test_decodeShouldFailForElementWhichIsNotObjectInsteadOfTruncatingList() {
+        assertThrows(IOException.class, () -> this.decoder
+                .decodeBranches(toStream("[{\"name\":\"main\",\"commit\":{\"sha\":\"sha1\"}},null,{\"name\":\"develop\"}]")));
+        assertThrows(IOException.class, () -> this.decoder
+                .decodeBranches(toStream("[{\"name\":\"main\",\"commit\":{\"sha\":\"sha1\"}}")));
+    }
+
+    @Test
+    void test_converterShouldDecodeListsReturnedThroughRestTemplate() throws IOException {
+        try (StubGithubServer server = new StubGithubServer()
+                .route("GET", "/repos", request -> StubResponse.json(200, REPOSITORIES_JSON))) {
+            RestTemplate restTemplate = new RestTemplate();
+            restTemplate.getMessageConverters().add(0, new GithubListHttpMessageConverter(new JsonFactory()));
+
+            List<Repository> repositories = restTemplate.exchange(
+                    server.baseUrl() + "repos",
+                    HttpMethod.GET,
+                    null,
+                    new ParameterizedTypeReference<List<Repository>>(){}
+            ).getBody();
+
+            assertNotNull(repositories);
+            assertEquals(2, repositories.size());
+            assertFalse(repositories.stream().anyMatch(Repository::fork));
+        }
+    }
+
+    private static InputStream toStream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,179 @@
+package com.github.api.client.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.ConditionalRequestCache;
+import com.github.api.client.cache.snapshot.CacheSnapshotStore;
+import com.github.api.client.client.interceptor.RateLimitExchangeFilter;
+import com.github.api.client.client.interceptor.ResponseDecodingInterceptor;
+import com.github.api.client.exception.GithubResponseTooLargeException;
+import com.github.api.client.exception.GithubUserNotFoundException;
+import com.github.api.client.exception.WrongParamValueException;
+import com.github.api.client.model.Branch;
+import com.github.api.client.model.Commit;
+import com.github.api.client.model.Repository;
+import com.github.api.client.ratelimit.RateLimitTracker;
+import com.github.api.client.ratelimit.TokenPool;
+import com.github.api.client.stub.StubGithubServer;
+import com.github.api.client.stub.StubGithubServer.StubResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebClientGithubClientTest {
+    private static final String SHA = "95f9a55fb1d4be8386771107c4d64c5c9045d7be";
+    private final PropertiesValues propertiesValues = new PropertiesValues();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private StubGithubServer server;
+    private WebClientGithubClient client;
+
+    @BeforeEach
+    void init() throws IOException {
+        server = new StubGithubServer();
+        propertiesValues.githubApiBaseUrl = this.server.baseUrl();
+        propertiesValues.githubApiUserReposUrl = "users/%s/repos";
+        propertiesValues.githubApiUserRepoBranchesUrl = "repos/%s/%s/branches";
+        propertiesValues.githubApiAcceptHeader = "application/vnd.github+json";
+        propertiesValues.githubApiVersion = "2022-11-28";
+        propertiesValues.githubApiPageSize = 100;
+        propertiesValues.allowedSorts = List.of("created", "updated", "pushed", "full_name");
+        propertiesValues.allowedDirections = List.of("asc", "desc");
+        propertiesValues.wrongSortParamMessage = "Wrong parameter value for sort.";
+        propertiesValues.userNotFoundMessage = "User with provided username has not been found.";
+        propertiesValues.conditionalCacheMaxEntries = 100;
+        propertiesValues.fanOutMaxParallelism = 4;
+        propertiesValues.rateLimitMaxWaitMs = 1000;
+        propertiesValues.rateLimitLowWatermark = 10;
+        propertiesValues.rateLimitMaxRetries = 1;
+        propertiesValues.rateLimitSecondaryBackoffMs = 10;
+        propertiesValues.rateLimitMaxTrackedTokens = 10;
+        propertiesValues.httpCompressionEnabled = true;
+        propertiesValues.httpMaxResponseBytes = 10000;
+
+        RateLimitTracker rateLimitTracker = new RateLimitTracker(this.propertiesValues, this.meterRegistry);
+        WebClient webClient = WebClient.builder()
+                .filter(new RateLimitExchangeFilter(rateLimitTracker, this.propertiesValues))
+                .build();
+        client = new WebClientGithubClient(
+                webClient,
+                this.propertiesValues,
+                new ConditionalRequestCache(this.propertiesValues, new CacheSnapshotStore(this.propertiesValues)),
+                new JsonFactory(),
+                this.meterRegistry,
+                new TokenPool(this.propertiesValues, rateLimitTracker, this.meterRegistry)
+        );
+    }
+
+    @AfterEach
+    void close() {
+        this.server.close();
+    }
+
+    @Test
+    void test_getUserReposShouldFetchAllPagesInOrderAndSkipForks() {
+        String lastPageLink = "<" + this.server.baseUrl() + "users/userName/repos?sort=pushed&per_page=100&page=3>; rel=\"last\"";
+        this.server.route("GET", "/users/userName/repos", request -> {
+            String page = request.query().matches(".*&page=\\d+") ? request.query().replaceAll(".*&page=", "") : "1";
+
+            return StubResponse.json(200, Map.of("Link", lastPageLink),
+                    "[{\"name\":\"repository" + page + "\",\"owner\":{\"login\":\"userName\"},\"fork\":false}," +
+                    "{\"name\":\"fork" + page + "\",\"owner\":{\"login\":\"userName\"},\"fork\":true}]");
+        });
+
+        List<Repository> repositories = this.client.getUserRepos("userName", "accessToken", "pushed", null)
+                .collectList()
+                .block();
+
+        assertEquals(List.of("repository1", "repository2", "repository3"), repositories.stream().map(Repository::name).toList());
+        assertEquals(3, this.server.requests().size());
+        assertEquals("Bearer accessToken", this.server.requests().get(0).header("Authorization"));
+        assertEquals("2022-11-28", this.server.requests().get(0).header("X-GitHub-Api-Version"));
+        assertEquals("sort=pushed&per_page=100", this.server.requests().get(0).query());
+    }
+
+    @Test
+    void test_getBranchesForUserRepoShouldAcceptGzipResponseAndCountDecodedBytes() {
+        String body = "[" + ("{\"name\":\"main\",\"commit\":{\"sha\":\"" + SHA + "\"}},").repeat(20) + "{\"name\":\"develop\"}]";
+        this.server.route("GET", "/repos/userName/repositoryName/branches", request -> StubResponse.gzipJson(200, Map.of(), body));
+
+        List<Branch> branches = this.client.getBranchesForUserRepo("userName", "repositoryName", null).collectList().block();
+
+        assertEquals(21, branches.size());
+        assertEquals("gzip", this.server.requests().get(0).header("Accept-Encoding"));
+        assertEquals(body.length(), this.meterRegistry.get(ResponseDecodingInterceptor.DECODED_BYTES_METRIC)
+                .tag("endpoint", "branches")
+                .counter()
+                .count());
+    }
+
+    @Test
+    void test_getBranchesForUserRepoShouldFailWhenResponseExceedsMaxBytes() {
+        propertiesValues.httpMaxResponseBytes = 100;
+        this.server.route("GET", "/repos/userName/repositoryName/branches", request -> StubResponse.gzipJson(200, Map.of(),
+                "[" + ("{\"name\":\"main\",\"commit\":{\"sha\":\"" + SHA + "\"}},").repeat(20) + "{\"name\":\"develop\"}]"));
+
+        assertThrows(GithubResponseTooLargeException.class, () -> this.client
+                .getBranchesForUserRepo("userName", "repositoryName", null).collectList().block());
+    }
+
+    @Test
+    void test_getBranchesForUserRepoShouldFailWhenDecodedResponseExceedsMaxBytes() {
+        propertiesValues.httpMaxResponseBytes = 300;
+        this.server.route("GET", "/repos/userName/repositoryName/branches", request -> StubResponse.gzipJson(200, Map.of(),
+                "[" + ("{\"name\":\"main\",\"commit\":{\"sha\":\"" + SHA + "\"}},").repeat(100) + "{\"name\":\"develop\"}]"));
+
+        assertThrows(GithubResponseTooLargeException.class, () -> this.client
+                .getBranchesForUserRepo("userName", "repositoryName", null).collectList().block());
+    }
+
+    @Test
+    void test_getBranchesForUserRepoShouldReuseCachedPageWhenNotModified() {
+        this.server.route("GET", "/repos/userName/repositoryName/branches", request -> "\"etag\"".equals(request.header("If-None-Match"))
+                ? new StubResponse(304, Map.of(), new byte[0])
+                : StubResponse.json(200, Map.of("ETag", "\"etag\""), "[{\"name\":\"main\",\"commit\":{\"sha\":\"" + SHA + "\"}}]"));
+
+        List<Branch> branches = this.client.getBranchesForUserRepo("userName", "repositoryName", null).collectList().block();
+        List<Branch> cachedBranches = this.client.getBranchesForUserRepo("userName", "repositoryName", null).collectList().block();
+
+        assertEquals(List.of(new Branch("main", new Commit(SHA))), branches);
+        assertEquals(branches, cachedBranches);
+        assertEquals(2, this.server.requests().size());
+    }
+
+    @Test
+    void test_getUserReposShouldSignalUserNotFound() {
+        assertThrows(GithubUserNotFoundException.class, () -> this.client.getUserRepos("missing", null, null, null)
+                .collectList()
+                .block());
+    }
+
+    @Test
+    void test_getUserReposShouldSignalWrongParamValueWithoutRequest() {
+        assertThrows(WrongParamValueException.class, () -> this.client.getUserRepos("userName", null, "stars", null)
+                .collectList()
+                .block());
+        assertTrue(this.server.requests().isEmpty());
+    }
+
+    @Test
+    void test_getUserReposShouldRetryRequestRejectedBySecondaryRateLimit() {
+        AtomicInteger calls = new AtomicInteger();
+        this.server.route("GET", "/users/userName/repos", request -> calls.incrementAndGet() == 1
+                ? StubResponse.json(403, Map.of("Retry-After", "0"), "{\"message\":\"You have exceeded a secondary rate limit\"}")
+                : StubResponse.json(200, "[{\"name\":\"repositoryName\",\"owner\":{\"login\":\"userName\"}}]"));
+
+        List<Repository> repositories = this.client.getUserRepos("userName", null, null, null).collectList().block();
+
+        assertEquals(1, repositories.size());
+        assertEquals(2, calls.get());
+    }
+}
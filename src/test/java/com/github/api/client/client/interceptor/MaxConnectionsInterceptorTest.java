@@ -0,0 +1,49 @@
+package com.github.api.client.client.interceptor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(MockitoExtension.class)
+class MaxConnectionsInterceptorTest {
+    private final byte[] body = new byte[0];
+    private final MaxConnectionsInterceptor interceptor = new MaxConnectionsInterceptor(2);
+
+    @Mock
+    HttpRequest request;
+    @Mock
+    ClientHttpRequestExecution execution;
+    @Mock
+    ClientHttpResponse response;
+
+    @Test
+    void test_interceptShouldHoldConnectionUntilResponseIsClosed() throws IOException {
+        Mockito.when(this.execution.execute(this.request, this.body)).thenReturn(this.response);
+
+        ClientHttpResponse interceptedResponse = this.interceptor.intercept(this.request, this.body, this.execution);
+        assertEquals(1, this.interceptor.availableConnections());
+
+        interceptedResponse.close();
+        interceptedResponse.close();
+        assertEquals(2, this.interceptor.availableConnections());
+        Mockito.verify(this.response, Mockito.times(2)).close();
+    }
+
+    @Test
+    void test_interceptShouldReleaseConnectionWhenRequestFails() throws IOException {
+        Mockito.when(this.execution.execute(this.request, this.body)).thenThrow(new IOException());
+
+        assertThrows(IOException.class, () -> this.interceptor.intercept(this.request, this.body, this.execution));
+        assertEquals(2, this.interceptor.availableConnections());
+    }
+}
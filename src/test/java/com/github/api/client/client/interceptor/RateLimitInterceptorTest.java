@@ -0,0 +1,125 @@
+package com.github.api.client.client.interceptor;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.TokenIdentity;
+import com.github.api.client.exception.GithubRateLimitExceededException;
+import com.github.api.client.ratelimit.RateLimitBudget;
+import com.github.api.client.ratelimit.RateLimitTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitInterceptorTest {
+    private final String accessToken = "accessToken";
+    private final byte[] body = new byte[0];
+    private final PropertiesValues propertiesValues = new PropertiesValues();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitTracker rateLimitTracker = new RateLimitTracker(this.propertiesValues, this.meterRegistry);
+    private final RateLimitInterceptor interceptor = new RateLimitInterceptor(this.rateLimitTracker, this.propertiesValues);
+    private final HttpHeaders requestHeaders = new HttpHeaders();
+
+    @Mock
+    HttpRequest request;
+    @Mock
+    ClientHttpRequestExecution execution;
+    @Mock
+    ClientHttpResponse response;
+
+    @BeforeEach
+    void init() {
+        propertiesValues.rateLimitLowWatermark = 100;
+        propertiesValues.rateLimitMaxWaitMs = 1000;
+        propertiesValues.rateLimitSecondaryBackoffMs = 500;
+        propertiesValues.rateLimitMaxTrackedTokens = 10;
+        propertiesValues.rateLimitExceededMessage = "Github API rate limit has been exceeded.";
+        propertiesValues.githubApiGraphQlUrl = "graphql";
+        requestHeaders.setBearerAuth(this.accessToken);
+        Mockito.when(this.request.getHeaders()).thenReturn(this.requestHeaders);
+        Mockito.when(this.request.getURI()).thenReturn(URI.create("https://api.github.com/users/userName/repos"));
+    }
+
+    @Test
+    void test_interceptShouldUpdateBudgetOfRequestToken() throws IOException {
+        Mockito.when(this.execution.execute(this.request, this.body)).thenReturn(this.response);
+        Mockito.when(this.response.getStatusCode()).thenReturn(HttpStatus.OK);
+        Mockito.when(this.response.getHeaders()).thenReturn(rateLimitHeaders("4999"));
+
+        ClientHttpResponse interceptedResponse = this.interceptor.intercept(this.request, this.body, this.execution);
+
+        assertSame(this.response, interceptedResponse);
+        assertEquals(4999, this.rateLimitTracker.budget(TokenIdentity.of(this.accessToken)).remaining());
+        // Budgets of callers' own tokens are not published per token
+        assertNull(this.meterRegistry.find(RateLimitTracker.REMAINING_METRIC).gauge());
+    }
+
+    @Test
+    void test_interceptShouldKeepGraphQlBudgetApartFromRestBudget() throws IOException {
+        HttpHeaders graphQlHeaders = rateLimitHeaders("4900");
+        graphQlHeaders.set(RateLimitTracker.RESOURCE_HEADER_KEY, RateLimitTracker.GRAPHQL_RESOURCE);
+        Mockito.when(this.request.getURI()).thenReturn(URI.create("https://api.github.com/graphql"));
+        Mockito.when(this.execution.execute(this.request, this.body)).thenReturn(this.response);
+        Mockito.when(this.response.getStatusCode()).thenReturn(HttpStatus.OK);
+        Mockito.when(this.response.getHeaders()).thenReturn(graphQlHeaders);
+
+        this.interceptor.intercept(this.request, this.body, this.execution);
+
+        String tokenIdentity = TokenIdentity.of(this.accessToken);
+        assertEquals(4900, this.rateLimitTracker.budget(tokenIdentity, RateLimitTracker.GRAPHQL_RESOURCE).remaining());
+        assertEquals(-1, this.rateLimitTracker.budget(tokenIdentity).remaining());
+    }
+
+    @Test
+    void test_interceptShouldThrowRetryableExceptionForRateLimitedResponse() throws IOException {
+        Mockito.when(this.execution.execute(this.request, this.body)).thenReturn(this.response);
+        Mockito.when(this.response.getStatusCode()).thenReturn(HttpStatus.TOO_MANY_REQUESTS);
+        Mockito.when(this.response.getHeaders()).thenReturn(new HttpHeaders());
+
+        GithubRateLimitExceededException exception = assertThrows(GithubRateLimitExceededException.class,
+                () -> this.interceptor.intercept(this.request, this.body, this.execution));
+
+        assertTrue(exception.isRetryable());
+        assertTrue(exception.getRetryAfterSeconds() > 0);
+        assertEquals(this.propertiesValues.rateLimitExceededMessage, exception.getMessage());
+        Mockito.verify(this.response).close();
+        assertEquals(1, this.meterRegistry.get(RateLimitTracker.REJECTIONS_METRIC).counter().count());
+    }
+
+    @Test
+    void test_interceptShouldNotRetryRateLimitedResponseWhenBackoffExceedsMaxWait() throws IOException {
+        Mockito.when(this.execution.execute(this.request, this.body)).thenReturn(this.response);
+        Mockito.when(this.response.getStatusCode()).thenReturn(HttpStatus.FORBIDDEN);
+        Mockito.when(this.response.getHeaders()).thenReturn(rateLimitHeaders("0"));
+
+        GithubRateLimitExceededException exception = assertThrows(GithubRateLimitExceededException.class,
+                () -> this.interceptor.intercept(this.request, this.body, this.execution));
+
+        assertFalse(exception.isRetryable());
+        assertTrue(exception.getRetryAfterSeconds() > 1);
+    }
+
+    private HttpHeaders rateLimitHeaders(String remaining) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(RateLimitBudget.LIMIT_HEADER_KEY, "5000");
+        headers.set(RateLimitBudget.REMAINING_HEADER_KEY, remaining);
+        headers.set(RateLimitBudget.RESET_HEADER_KEY, String.valueOf(Instant.now().getEpochSecond() + 3600));
+
+        return headers;
+    }
+}
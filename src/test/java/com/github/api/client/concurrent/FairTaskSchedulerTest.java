@@ -0,0 +1,118 @@
+package com.github.api.client.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FairTaskSchedulerTest {
+
+    @Test
+    void test_submitShouldGiveLanesTurnsInsteadOfRunningTasksInSubmissionOrder() throws Exception {
+        final List<String> startedLanes = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch blocker = new CountDownLatch(1);
+
+        try (FairTaskScheduler scheduler = new FairTaskScheduler(1)) {
+            CompletableFuture<Void> blocking = scheduler.submit("blocking", () -> {
+                await(blocker);
+                return null;
+            });
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            IntStream.range(0, 4).forEach(i -> futures.add(scheduler.submit("busyUser", () -> record(startedLanes, "busyUser"))));
+            IntStream.range(0, 2).forEach(i -> futures.add(scheduler.submit("quietUser", () -> record(startedLanes, "quietUser"))));
+
+            blocker.countDown();
+            blocking.get();
+            for (CompletableFuture<String> future : futures) {
+                future.get();
+            }
+        }
+
+        assertEquals(List.of("busyUser", "quietUser", "busyUser", "quietUser", "busyUser", "busyUser"), startedLanes);
+    }
+
+    @Test
+    void test_submitShouldNotExceedMaxParallelism() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        try (FairTaskScheduler scheduler = new FairTaskScheduler(3)) {
+            List<CompletableFuture<Integer>> futures = IntStream.range(0, 30)
+                    .mapToObj(i -> scheduler.submit("user" + (i % 5), () -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        sleep(5);
+                        running.decrementAndGet();
+                        return i;
+                    }))
+                    .toList();
+
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(i, futures.get(i).get());
+            }
+        }
+
+        assertTrue(maxRunning.get() <= 3);
+    }
+
+    @Test
+    void test_submitShouldCompleteFutureWithTaskException() {
+        try (FairTaskScheduler scheduler = new FairTaskScheduler(2)) {
+            CompletableFuture<Object> future = scheduler.submit("user", () -> {
+                throw new IllegalStateException("failure");
+            });
+
+            ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+            assertInstanceOf(IllegalStateException.class, exception.getCause());
+        }
+    }
+
+    @Test
+    void test_closeShouldCancelPendingTasks() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final FairTaskScheduler scheduler = new FairTaskScheduler(1);
+
+        CompletableFuture<Object> running = scheduler.submit("user", () -> {
+            started.countDown();
+            sleep(10000);
+            return null;
+        });
+        CompletableFuture<String> pending = scheduler.submit("user", () -> "result");
+        started.await();
+        scheduler.close();
+
+        assertThrows(CancellationException.class, pending::get);
+        assertThrows(ExecutionException.class, running::get);
+        assertThrows(RejectedExecutionException.class, () -> scheduler.submit("user", () -> "result"));
+    }
+
+    private String record(List<String> startedLanes, String lane) {
+        startedLanes.add(lane);
+        return lane;
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
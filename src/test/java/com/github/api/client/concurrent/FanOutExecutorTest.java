@@ -0,0 +1,149 @@
+package com.github.api.client.concurrent;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.exception.FetchTimeoutException;
+import com.github.api.client.exception.GithubUserNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FanOutExecutorTest {
+    private final PropertiesValues propertiesValues = new PropertiesValues();
+    private final FanOutExecutor fanOutExecutor = new FanOutExecutor(this.propertiesValues, new SimpleMeterRegistry());
+
+    @BeforeEach
+    void init() {
+        propertiesValues.fanOutMaxParallelism = 4;
+        propertiesValues.fanOutDeadlineMs = 5000;
+        propertiesValues.fetchTimeoutMessage = "Fetching repositories data has not finished in the expected time.";
+    }
+
+    @Test
+    void test_mapInOrderShouldReturnResultsInItemsOrder() {
+        final List<Integer> items = IntStream.range(0, 50).boxed().toList();
+
+        List<Integer> results = this.fanOutExecutor.mapInOrder(items, item -> {
+            sleep((50 - item) % 7);
+            return item * 2;
+        });
+
+        assertEquals(items.stream().map(item -> item * 2).toList(), results);
+    }
+
+    @Test
+    void test_mapInOrderShouldReturnEmptyListForNoItems() {
+        List<Integer> results = this.fanOutExecutor.mapInOrder(Collections.<Integer>emptyList(), item -> item);
+
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    void test_mapInOrderShouldNotExceedMaxParallelism() {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        this.fanOutExecutor.mapInOrder(IntStream.range(0, 40).boxed().toList(), item -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(5);
+            running.decrementAndGet();
+            return item;
+        });
+
+        assertTrue(maxRunning.get() <= this.propertiesValues.fanOutMaxParallelism);
+    }
+
+    @Test
+    void test_nestedFanOutsWithinBudgetShouldShareMaxParallelism() {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        List<List<Integer>> results = this.fanOutExecutor.withinBudget(() -> this.fanOutExecutor.mapInOrder(
+                IntStream.range(0, 8).boxed().toList(),
+                item -> this.fanOutExecutor.mapInOrder(IntStream.range(0, 8).boxed().toList(), page -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleep(2);
+                    running.decrementAndGet();
+                    return item * 8 + page;
+                })
+        ));
+
+        assertEquals(IntStream.range(0, 64).boxed().toList(), results.stream().flatMap(List::stream).toList());
+        assertTrue(maxRunning.get() <= this.propertiesValues.fanOutMaxParallelism);
+    }
+
+    @Test
+    void test_fanOutsWithinBudgetShouldShareSingleDeadline() {
+        propertiesValues.fanOutDeadlineMs = 100;
+
+        assertThrows(FetchTimeoutException.class, () -> this.fanOutExecutor.withinBudget(() -> {
+            this.fanOutExecutor.mapInOrder(List.of(1), item -> {
+                sleep(70);
+                return item;
+            });
+            return this.fanOutExecutor.mapInOrder(List.of(2), item -> {
+                sleep(70);
+                return item;
+            });
+        }));
+    }
+
+    @Test
+    void test_mapInOrderShouldThrowFetchTimeoutExceptionWhenDeadlineIsExceeded() {
+        propertiesValues.fanOutDeadlineMs = 50;
+
+        Exception exception = assertThrows(FetchTimeoutException.class, () -> this.fanOutExecutor
+                .mapInOrder(List.of(1, 2), item -> {
+                    sleep(5000);
+                    return item;
+                }));
+        assertEquals(this.propertiesValues.fetchTimeoutMessage, exception.getMessage());
+    }
+
+    @Test
+    void test_mapInOrderShouldRethrowMapperException() {
+        final String message = "User with provided username has not been found.";
+
+        Exception exception = assertThrows(GithubUserNotFoundException.class, () -> this.fanOutExecutor
+                .mapInOrder(List.of(1, 2, 3), item -> {
+                    if (item == 2) {
+                        throw new GithubUserNotFoundException(message);
+                    }
+
+                    sleep(5000);
+                    return item;
+                }));
+        assertEquals(message, exception.getMessage());
+    }
+
+    @Test
+    void test_forEachCompletedShouldPassResultsInOrderOfCompletionOnCallingThread() {
+        final List<Integer> results = new ArrayList<>();
+        final Thread callingThread = Thread.currentThread();
+
+        this.fanOutExecutor.forEachCompleted(List.of(300, 10, 150), item -> {
+            sleep(item);
+            return item;
+        }, result -> {
+            assertSame(callingThread, Thread.currentThread());
+            results.add(result);
+        });
+
+        assertEquals(List.of(10, 150, 300), results);
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.api.client.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.support.SpringFactoriesLoader;
+
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpClientSystemPropertiesTest {
+
+    @Test
+    void test_listenerShouldBeRegisteredForEveryApplication() {
+        assertTrue(SpringFactoriesLoader.forDefaultResourceLocation().load(ApplicationListener.class).stream()
+                .anyMatch(HttpClientSystemProperties.class::isInstance));
+    }
+
+    @Test
+    void test_listenerShouldSetKeepAliveTimeoutsWithoutOverridingJvmFlags() {
+        String keepAliveTimeout = System.getProperty(HttpClientSystemProperties.KEEP_ALIVE_TIMEOUT_PROPERTY);
+        String h2KeepAliveTimeout = System.getProperty(HttpClientSystemProperties.H2_KEEP_ALIVE_TIMEOUT_PROPERTY);
+        System.clearProperty(HttpClientSystemProperties.KEEP_ALIVE_TIMEOUT_PROPERTY);
+        System.setProperty(HttpClientSystemProperties.H2_KEEP_ALIVE_TIMEOUT_PROPERTY, "5");
+
+        SpringApplication application = new SpringApplication(EmptyConfiguration.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        try (ConfigurableApplicationContext context = application.run("--github.api.http.keep-alive-timeout-s=42")) {
+            assertEquals("42", System.getProperty(HttpClientSystemProperties.KEEP_ALIVE_TIMEOUT_PROPERTY));
+            assertEquals("5", System.getProperty(HttpClientSystemProperties.H2_KEEP_ALIVE_TIMEOUT_PROPERTY));
+        } finally {
+            restore(HttpClientSystemProperties.KEEP_ALIVE_TIMEOUT_PROPERTY, keepAliveTimeout);
+            restore(HttpClientSystemProperties.H2_KEEP_ALIVE_TIMEOUT_PROPERTY, h2KeepAliveTimeout);
+        }
+    }
+
+    private static void restore(String property, String value) {
+        if (Objects.isNull(value)) {
+            System.clearProperty(property);
+        } else {
+            System.setProperty(property, value);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class EmptyConfiguration {}
+}
@@ -0,0 +1,67 @@
+package com.github.api.client.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.exception.ExceptionMessage;
+import com.github.api.client.exception.WebhookSignatureException;
+import com.github.api.client.webhook.GithubWebhookService;
+import com.github.api.client.webhook.WebhookSignatureVerifier;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(GithubWebhookController.class)
+class GithubWebhookControllerTest {
+    private final String url = "/api/" + GithubWebhookController.GITHUB_WEBHOOK_URL;
+    private final String body = "{\"zen\":\"Design for failure.\"}";
+    private final String signature = "sha256=signature";
+
+    @Autowired
+    MockMvc mockMvc;
+    @MockBean
+    GithubWebhookService githubWebhookService;
+    @MockBean
+    PropertiesValues propertiesValues;
+
+    @Test
+    void test_receiveGithubWebhookShouldPassRawBodyAndReturnNoContent() throws Exception {
+        mockMvc.perform(post(this.url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(GithubWebhookController.EVENT_HEADER, "ping")
+                        .header(WebhookSignatureVerifier.SIGNATURE_HEADER, this.signature)
+                        .content(this.body)
+                ).andExpect(status().isNoContent());
+
+        Mockito.verify(this.githubWebhookService)
+                .handle(eq("ping"), eq(this.body.getBytes(StandardCharsets.UTF_8)), eq(this.signature));
+    }
+
+    @Test
+    void test_receiveGithubWebhookShouldReturnUnauthorizedForInvalidSignature() throws Exception {
+        final String message = "Webhook signature is missing or invalid.";
+        final String expectedJson = new ObjectMapper()
+                .writeValueAsString(new ExceptionMessage(HttpStatus.UNAUTHORIZED.value(), message));
+
+        Mockito.when(this.githubWebhookService.handle(eq("push"), Mockito.any(), Mockito.isNull()))
+                .thenThrow(new WebhookSignatureException(message));
+
+        mockMvc.perform(post(this.url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(GithubWebhookController.EVENT_HEADER, "push")
+                        .content(this.body)
+                ).andExpect(status().isUnauthorized())
+                .andExpect(content().json(expectedJson));
+    }
+}
@@ -0,0 +1,128 @@
+package com.github.api.client.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.exception.ExceptionMessage;
+import com.github.api.client.exception.GithubUserNotFoundException;
+import com.github.api.client.model.RepositoryFilter;
+import com.github.api.client.model.dto.BranchDTO;
+import com.github.api.client.model.dto.RepositoryDTO;
+import com.github.api.client.model.response.GetUserRepositoriesResponse;
+import com.github.api.client.service.ReactiveReposDataFetcherService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ReactiveReposDataFetcherController.class)
+class ReactiveReposDataFetcherControllerTest {
+    private final String url = "/api/reactive/";
+    private final String userName = "userName";
+    private final String accessToken = "accessToken";
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RepositoryDTO repositoryDTO = new RepositoryDTO(
+            "repositoryName", this.userName, List.of(new BranchDTO("branchName", "sha")));
+
+    @Autowired
+    MockMvc mockMvc;
+    @MockBean
+    ReactiveReposDataFetcherService reactiveReposDataFetcherService;
+    @MockBean
+    PropertiesValues propertiesValues;
+
+    private HttpHeaders headers;
+
+    @BeforeEach
+    void init() {
+        headers = new HttpHeaders();
+        headers.set(HttpHeaders.AUTHORIZATION, this.accessToken);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void test_getUserReposShouldReturnResponseWithListOfRepositories() throws Exception {
+        final String expectedJson = this.objectMapper.writeValueAsString(new GetUserRepositoriesResponse(List.of(this.repositoryDTO)));
+        Mockito.when(this.reactiveReposDataFetcherService.getUserRepos(this.userName, this.accessToken, null, null, RepositoryFilter.NONE))
+                .thenReturn(Mono.just(List.of(this.repositoryDTO)));
+
+        MvcResult mvcResult = mockMvc.perform(get(this.url + ReposDataFetcherController.GET_USER_REPOS_URL, this.userName)
+                        .headers(this.headers)
+                ).andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(expectedJson));
+    }
+
+    @Test
+    void test_getUserReposShouldPassFilterAndLeaveOutBranchesWhichWereNotRequested() throws Exception {
+        final RepositoryFilter filter = new RepositoryFilter("repository*", false, 1, 5);
+        Mockito.when(this.reactiveReposDataFetcherService.getUserRepos(this.userName, this.accessToken, null, null, filter))
+                .thenReturn(Mono.just(List.of(new RepositoryDTO("repositoryName", this.userName, null))));
+
+        MvcResult mvcResult = mockMvc.perform(get(this.url + ReposDataFetcherController.GET_USER_REPOS_URL, this.userName)
+                        .headers(this.headers)
+                        .param("name", "repository*")
+                        .param("branches", "false")
+                        .param("offset", "1")
+                        .param("limit", "5")
+                ).andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"repositories\":[{\"repositoryName\":\"repositoryName\",\"ownerLogin\":\"userName\"}]}", true));
+    }
+
+    @Test
+    void test_streamUserReposShouldWriteRepositoryPerLineForNdjsonAcceptHeader() throws Exception {
+        final RepositoryDTO repositoryDTO2 = new RepositoryDTO("repositoryName2", this.userName, List.of());
+        final String expectedContent = this.objectMapper.writeValueAsString(this.repositoryDTO) + "\n" +
+                this.objectMapper.writeValueAsString(repositoryDTO2) + "\n";
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        Mockito.when(this.reactiveReposDataFetcherService.streamUserRepos(this.userName, this.accessToken, null, null, RepositoryFilter.NONE))
+                .thenReturn(Flux.just(this.repositoryDTO, repositoryDTO2));
+
+        MvcResult mvcResult = mockMvc.perform(get(this.url + ReposDataFetcherController.GET_USER_REPOS_URL, this.userName)
+                        .headers(this.headers)
+                ).andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(expectedContent));
+    }
+
+    @Test
+    void test_getUserReposShouldReturnNotFoundSignalledByService() throws Exception {
+        final String message = "User with provided username has not been found.";
+        final String expectedJson = this.objectMapper.writeValueAsString(new ExceptionMessage(HttpStatus.NOT_FOUND.value(), message));
+        Mockito.when(this.reactiveReposDataFetcherService.getUserRepos(this.userName, this.accessToken, null, null, RepositoryFilter.NONE))
+                .thenReturn(Mono.error(new GithubUserNotFoundException(message)));
+
+        MvcResult mvcResult = mockMvc.perform(get(this.url + ReposDataFetcherController.GET_USER_REPOS_URL, this.userName)
+                        .headers(this.headers)
+                ).andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isNotFound())
+                .andExpect(content().json(expectedJson));
+    }
+}
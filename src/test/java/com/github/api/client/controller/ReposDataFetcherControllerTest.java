@@ -1,12 +1,18 @@
 package com.github.api.client.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.github.api.client.PropertiesValues;
 import com.github.api.client.exception.ExceptionMessage;
+import com.github.api.client.exception.GithubUserNotFoundException;
+import com.github.api.client.model.RepositoryFilter;
 import com.github.api.client.model.dto.BranchDTO;
 import com.github.api.client.model.dto.RepositoryDTO;
+import com.github.api.client.model.response.BatchUserReposResponse;
 import com.github.api.client.model.response.GetUserRepositoriesResponse;
 import com.github.api.client.service.ReposDataFetcherService;
+import com.github.api.client.service.UserReposResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,17 +25,23 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Collections;
+import java.util.HexFormat;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.nullable;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@WebMvcTest
+@WebMvcTest(ReposDataFetcherController.class)
 @ExtendWith(MockitoExtension.class)
 class ReposDataFetcherControllerTest {
     private final String url = "/api/";
@@ -66,7 +78,8 @@ class ReposDataFetcherControllerTest {
                     eq(this.userName),
                     eq(this.accessToken),
                     nullable(String.class),
-                    nullable(String.class)
+                    nullable(String.class),
+                    eq(RepositoryFilter.NONE)
                 )).thenReturn(List.of(repositoryDTO));
 
         mockMvc.perform(get(this.url + ReposDataFetcherController.GET_USER_REPOS_URL, this.userName)
@@ -89,7 +102,8 @@ class ReposDataFetcherControllerTest {
                 eq(this.userName),
                 nullable(String.class),
                 eq(sort),
-                eq(direction)
+                eq(direction),
+                eq(RepositoryFilter.NONE)
         )).thenReturn(List.of(repositoryDTO));
 
         mockMvc.perform(get(this.url + ReposDataFetcherController.GET_USER_REPOS_URL, this.userName)
@@ -101,6 +115,30 @@ class ReposDataFetcherControllerTest {
                 .andExpect(status().isOk()).andReturn();
     }
 
+    @Test
+    void test_getUserReposShouldPassFilterAndLeaveOutBranchesWhichWereNotRequested() throws Exception {
+        final RepositoryFilter filter = new RepositoryFilter("api-*", false, 10, 5);
+        final RepositoryDTO repositoryDTO = new RepositoryDTO("api-client", this.userName, null);
+
+        Mockito.when(this.githubApiClientService.getUserRepos(
+                eq(this.userName),
+                eq(this.accessToken),
+                nullable(String.class),
+                nullable(String.class),
+                eq(filter)
+        )).thenReturn(List.of(repositoryDTO));
+
+        mockMvc.perform(get(this.url + ReposDataFetcherController.GET_USER_REPOS_URL, this.userName)
+                        .headers(this.headers)
+                        .param("name", "api-*")
+                        .param("branches", "false")
+                        .param("offset", "10")
+                        .param("limit", "5")
+                ).andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("{\"repositories\":[{\"repositoryName\":\"api-client\",\"ownerLogin\":\"userName\"}]}", true))
+                .andExpect(status().isOk());
+    }
+
     @Test
     void test_getUserReposShouldReturnResponseWithEmptyList() throws Exception {
         final GetUserRepositoriesResponse expectedResponse = new GetUserRepositoriesResponse(Collections.emptyList());
@@ -110,7 +148,8 @@ class ReposDataFetcherControllerTest {
                 eq(this.userName),
                 eq(this.accessToken),
                 nullable(String.class),
-                nullable(String.class)
+                nullable(String.class),
+                eq(RepositoryFilter.NONE)
         )).thenReturn(Collections.emptyList());
 
         mockMvc.perform(get(this.url + ReposDataFetcherController.GET_USER_REPOS_URL, this.userName)
@@ -120,6 +159,43 @@ class ReposDataFetcherControllerTest {
                 .andExpect(status().isOk()).andReturn();
     }
 
+    @Test
+    void test_getUserReposShouldReturnCompactCborResponseWithOwnerLoginOnceAndBinaryShas() throws Exception {
+        final String sha = "95f9a55fb1d4be8386771107c4d64c5c9045d7be";
+        final List<RepositoryDTO> repositories = List.of(
+                new RepositoryDTO("repositoryName", this.userName, List.of(new BranchDTO("main", sha))),
+                new RepositoryDTO("repositoryName2", this.userName, List.of(new BranchDTO("develop", sha))),
+                new RepositoryDTO("otherRepositoryName", "otherUserName", List.of(new BranchDTO("main", "notHexSha"))),
+                new RepositoryDTO("ownerlessRepositoryName", null, List.of())
+        );
+        headers.setAccept(List.of(MediaType.APPLICATION_CBOR));
+
+        Mockito.when(this.githubApiClientService.getUserRepos(
+                eq(this.userName),
+                eq(this.accessToken),
+                nullable(String.class),
+                nullable(String.class),
+                eq(RepositoryFilter.NONE)
+        )).thenReturn(repositories);
+
+        MvcResult mvcResult = mockMvc.perform(get(this.url + ReposDataFetcherController.GET_USER_REPOS_URL, this.userName)
+                        .headers(this.headers)
+                ).andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk()).andReturn();
+        byte[] content = mvcResult.getResponse().getContentAsByteArray();
+        JsonNode response = new CBORMapper().readTree(content);
+
+        assertEquals(this.userName, response.get("ownerLogin").asText());
+        assertFalse(response.get("repositories").get(0).has("ownerLogin"));
+        assertEquals("otherUserName", response.get("repositories").get(2).get("ownerLogin").asText());
+        assertFalse(response.get("repositories").get(0).has("noOwner"));
+        assertTrue(response.get("repositories").get(3).get("noOwner").asBoolean());
+        assertArrayEquals(HexFormat.of().parseHex(sha),
+                response.get("repositories").get(0).get("branches").get(0).get("sha").binaryValue());
+        assertEquals("notHexSha", response.get("repositories").get(2).get("branches").get(0).get("shaText").asText());
+        assertTrue(content.length < new ObjectMapper().writeValueAsBytes(new GetUserRepositoriesResponse(repositories)).length);
+    }
+
     @Test
     void test_getUserReposShouldThrowMissingHeaderException() throws Exception {
         final ExceptionMessage exceptionMessage = new ExceptionMessage(HttpStatus.BAD_REQUEST.value(), this.propertiesValues.missingHeader);
@@ -163,6 +239,115 @@ class ReposDataFetcherControllerTest {
                 .andExpect(status().isNotAcceptable()).andReturn();
     }
 
+    @Test
+    void test_streamUserReposShouldWriteRepositoryPerLineForNdjsonAcceptHeader() throws Exception {
+        final RepositoryDTO repositoryDTO = buildRepositoryDTO();
+        final RepositoryDTO repositoryDTO2 = new RepositoryDTO("repositoryName2", this.userName, Collections.emptyList());
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final String expectedContent = objectMapper.writeValueAsString(repositoryDTO) + "\n" +
+                objectMapper.writeValueAsString(repositoryDTO2) + "\n";
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+
+        Mockito.when(this.githubApiClientService.streamUserRepos(
+                eq(this.userName),
+                eq(this.accessToken),
+                nullable(String.class),
+                nullable(String.class),
+                eq(RepositoryFilter.NONE)
+        )).thenReturn(List.of(repositoryDTO, repositoryDTO2)::forEach);
+
+        MvcResult mvcResult = mockMvc.perform(get(this.url + ReposDataFetcherController.GET_USER_REPOS_URL, this.userName)
+                        .headers(this.headers)
+                ).andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(expectedContent));
+    }
+
+    @Test
+    void test_streamUserReposShouldWriteRepositoryPerLineForStreamParam() throws Exception {
+        final RepositoryDTO repositoryDTO = buildRepositoryDTO();
+        final String expectedContent = new ObjectMapper().writeValueAsString(repositoryDTO) + "\n";
+
+        Mockito.when(this.githubApiClientService.streamUserRepos(
+                eq(this.userName),
+                eq(this.accessToken),
+                nullable(String.class),
+                nullable(String.class),
+                eq(RepositoryFilter.NONE)
+        )).thenReturn(List.of(repositoryDTO)::forEach);
+
+        MvcResult mvcResult = mockMvc.perform(get(this.url + ReposDataFetcherController.GET_USER_REPOS_URL, this.userName)
+                        .headers(this.headers)
+                        .param("stream", "true")
+                ).andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(expectedContent));
+    }
+
+    @Test
+    void test_streamUserReposShouldReturnNotFoundBeforeStreaming() throws Exception {
+        final String message = "User with provided username has not been found.";
+        final ExceptionMessage exceptionMessage = new ExceptionMessage(HttpStatus.NOT_FOUND.value(), message);
+        final String expectedJson = new ObjectMapper().writeValueAsString(exceptionMessage);
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+
+        Mockito.when(this.githubApiClientService.streamUserRepos(
+                eq(this.userName),
+                eq(this.accessToken),
+                nullable(String.class),
+                nullable(String.class),
+                eq(RepositoryFilter.NONE)
+        )).thenThrow(new GithubUserNotFoundException(message));
+
+        mockMvc.perform(get(this.url + ReposDataFetcherController.GET_USER_REPOS_URL, this.userName)
+                        .headers(this.headers)
+                ).andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json(expectedJson))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void test_streamBatchUserReposShouldWriteLinePerUserWithStatusOfFailedUsers() throws Exception {
+        final String message = "User with provided username has not been found.";
+        final RepositoryDTO repositoryDTO = buildRepositoryDTO();
+        final List<String> userNames = List.of(this.userName, "missingUserName");
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final String expectedContent =
+                objectMapper.writeValueAsString(new BatchUserReposResponse(
+                        this.userName, HttpStatus.OK.value(), null, List.of(repositoryDTO))) + "\n" +
+                objectMapper.writeValueAsString(new BatchUserReposResponse(
+                        "missingUserName", HttpStatus.NOT_FOUND.value(), message, null)) + "\n";
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+
+        Mockito.when(this.githubApiClientService.streamBatchUserRepos(
+                eq(userNames),
+                eq(this.accessToken),
+                nullable(String.class),
+                nullable(String.class),
+                eq(RepositoryFilter.NONE)
+        )).thenReturn(List.of(
+                new UserReposResult(this.userName, List.of(repositoryDTO), null),
+                new UserReposResult("missingUserName", null, new GithubUserNotFoundException(message))
+        )::forEach);
+
+        MvcResult mvcResult = mockMvc.perform(post(this.url + ReposDataFetcherController.BATCH_USER_REPOS_URL)
+                        .headers(this.headers)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userNames))
+                ).andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(expectedContent));
+    }
+
     private RepositoryDTO buildRepositoryDTO() {
         BranchDTO branchDTO = new BranchDTO("branchName", "sha");
         return new RepositoryDTO("repositoryName", this.userName, List.of(branchDTO));
@@ -0,0 +1,61 @@
+package com.github.api.client.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+// Closed-model load: concurrency clients on virtual threads send requests one after another, each as soon as
+// the previous one has finished, until all requests are sent. Responses with status other than 200 are errors.
+final class LoadDriver {
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    LoadReport run(String mode, int concurrency, int requests, IntFunction<URI> uris) throws InterruptedException {
+        long[] latenciesNanos = new long[requests];
+        AtomicInteger nextRequest = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        long startedAt = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < concurrency; client++) {
+                executor.submit(() -> {
+                    for (int index = nextRequest.getAndIncrement(); index < requests; index = nextRequest.getAndIncrement()) {
+                        long requestStartedAt = System.nanoTime();
+                        if (!send(uris.apply(index))) {
+                            errors.incrementAndGet();
+                        }
+                        latenciesNanos[index] = System.nanoTime() - requestStartedAt;
+                    }
+                });
+            }
+        }
+
+        return LoadReport.of(mode, concurrency, latenciesNanos, errors.get(), System.nanoTime() - startedAt);
+    }
+
+    private boolean send(URI uri) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Accept", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+
+        try {
+            return this.httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException exception) {
+            return false;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
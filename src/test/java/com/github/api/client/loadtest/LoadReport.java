@@ -0,0 +1,63 @@
+package com.github.api.client.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+// Throughput and latency percentiles of a single load test run, latencies in milliseconds
+public record LoadReport(
+        String mode,
+        int concurrency,
+        int requests,
+        int errors,
+        double durationSeconds,
+        double p50Ms,
+        double p90Ms,
+        double p99Ms,
+        double maxMs
+) {
+    static LoadReport of(String mode, int concurrency, long[] latenciesNanos, int errors, long durationNanos) {
+        long[] sorted = latenciesNanos.clone();
+        Arrays.sort(sorted);
+
+        return new LoadReport(
+                mode,
+                concurrency,
+                sorted.length,
+                errors,
+                durationNanos / 1e9,
+                percentileMs(sorted, 50),
+                percentileMs(sorted, 90),
+                percentileMs(sorted, 99),
+                sorted.length > 0 ? toMs(sorted[sorted.length - 1]) : 0
+        );
+    }
+
+    public double throughput() {
+        return this.durationSeconds > 0 ? this.requests / this.durationSeconds : 0;
+    }
+
+    public static String header() {
+        return String.format("%-12s %11s %8s %6s %10s %8s %8s %8s %8s",
+                "mode", "concurrency", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+    }
+
+    public String format() {
+        return String.format("%-12s %11d %8d %6d %10.1f %8.2f %8.2f %8.2f %8.2f",
+                this.mode, this.concurrency, this.requests, this.errors, throughput(),
+                this.p50Ms, this.p90Ms, this.p99Ms, this.maxMs);
+    }
+
+    // Nearest-rank percentile
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return toMs(sorted[Math.max(0, index)]);
+    }
+
+    private static double toMs(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
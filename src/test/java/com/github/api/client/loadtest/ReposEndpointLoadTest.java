@@ -0,0 +1,140 @@
+package com.github.api.client.loadtest;
+
+import com.github.api.client.stub.SimulatedGithubApi;
+import com.github.api.client.stub.StubGithubServer;
+import org.junit.jupiter.api.*;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Throughput and latency percentiles of GET /api/{user}/repos served by the whole application against
+// SimulatedGithubApi. Excluded from the default build, run with: mvn -Pload-test test
+// Sizes are set with system properties, e.g. -Dload.concurrency=64 -Dstub.latency-ms=50 (see the fields below).
+// Every mode is a nested class with properties of its own, so it runs in a separate application context.
+// Every mode starts with a warm-up over all users, so ETags of all pages are known and uncached modes
+// measure the whole fan-out revalidated with conditional requests. Results are printed and written to
+// target/load-test/report.txt.
+@Tag("load")
+@TestClassOrder(ClassOrderer.OrderAnnotation.class)
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "fetcher.cache.snapshot.path=",
+                "fetcher.refresh.enabled=false",
+                "fetcher.cache.results.ttl-ms=0",
+                "fetcher.incremental.enabled=false",
+                "logging.level.com.github.api.client=WARN"
+        }
+)
+class ReposEndpointLoadTest {
+    private static final int REQUESTS = Integer.getInteger("load.requests", 400);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("load.warmup-requests", 100);
+    private static final int SEQUENTIAL_REQUESTS = Integer.getInteger("load.sequential-requests", 100);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 32);
+    private static final int USERS = Integer.getInteger("load.users", 20);
+    private static final int REPOSITORIES = Integer.getInteger("stub.repositories", 50);
+    private static final int BRANCHES = Integer.getInteger("stub.branches", 10);
+    private static final long LATENCY_MS = Long.getLong("stub.latency-ms", 20);
+    private static final long LATENCY_JITTER_MS = Long.getLong("stub.latency-jitter-ms", 10);
+    private static final int RATE_LIMIT = Integer.getInteger("stub.rate-limit", 1_000_000);
+    private static final Path REPORT_PATH = Path.of("target", "load-test", "report.txt");
+    private static final List<LoadReport> REPORTS = new ArrayList<>();
+    private static StubGithubServer server;
+    private static SimulatedGithubApi githubApi;
+    private final LoadDriver loadDriver = new LoadDriver();
+
+    // All contexts share one simulated Github API
+    @DynamicPropertySource
+    static synchronized void githubApiUrl(DynamicPropertyRegistry registry) throws IOException {
+        if (Objects.isNull(server)) {
+            server = new StubGithubServer().recordRequests(false);
+            githubApi = SimulatedGithubApi.install(server, SimulatedGithubApi.Settings.of(REPOSITORIES, BRANCHES)
+                    .withLatency(LATENCY_MS, LATENCY_JITTER_MS)
+                    .withRateLimit(RATE_LIMIT));
+        }
+        registry.add("github.api.url.base", server::baseUrl);
+    }
+
+    @AfterAll
+    static void writeReport() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("stub: %d repositories, %d branches, %d+%d ms latency; %d users",
+                REPOSITORIES, BRANCHES, LATENCY_MS, LATENCY_JITTER_MS, USERS));
+        lines.add(LoadReport.header());
+        REPORTS.forEach(report -> lines.add(report.format()));
+
+        lines.forEach(System.out::println);
+        Files.createDirectories(REPORT_PATH.getParent());
+        Files.write(REPORT_PATH, lines);
+        server.close();
+    }
+
+    // Every request fetches the listing and branches of every repository one call at a time, one request at a time
+    @Nested
+    @Order(1)
+    @TestPropertySource(properties = "fetcher.fan-out.max-parallelism=1")
+    class Sequential {
+        @LocalServerPort
+        int port;
+
+        @Test
+        void test_sequential() throws InterruptedException {
+            run("sequential", 1, SEQUENTIAL_REQUESTS, this.port);
+        }
+    }
+
+    // Branches are fetched concurrently, with many requests in progress at once, competing for connections
+    // and fan-out threads
+    @Nested
+    @Order(2)
+    class Concurrent {
+        @LocalServerPort
+        int port;
+
+        @Test
+        void test_concurrent() throws InterruptedException {
+            run("concurrent", CONCURRENCY, REQUESTS, this.port);
+        }
+    }
+
+    // Requests served from the results cache
+    @Nested
+    @Order(3)
+    @TestPropertySource(properties = {"fetcher.cache.results.ttl-ms=600000", "fetcher.incremental.enabled=true"})
+    class Cached {
+        @LocalServerPort
+        int port;
+
+        @Test
+        void test_cached() throws InterruptedException {
+            run("cached", CONCURRENCY, REQUESTS, this.port);
+        }
+    }
+
+    private void run(String mode, int concurrency, int requests, int port) throws InterruptedException {
+        this.loadDriver.run(mode, concurrency, Math.max(USERS, WARMUP_REQUESTS), index -> userReposUri(port, index));
+        long rateLimitedBefore = githubApi.rateLimitedRequests();
+
+        LoadReport report = this.loadDriver.run(mode, concurrency, requests, index -> userReposUri(port, index));
+        REPORTS.add(report);
+
+        assertEquals(0, report.errors());
+        assertEquals(rateLimitedBefore, githubApi.rateLimitedRequests());
+    }
+
+    private static URI userReposUri(int port, int index) {
+        return URI.create("http://localhost:" + port + "/api/load-user-" + index % USERS + "/repos");
+    }
+}
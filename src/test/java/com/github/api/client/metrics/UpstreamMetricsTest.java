@@ -0,0 +1,151 @@
+package com.github.api.client.metrics;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.client.interceptor.ReceivedBytesInterceptor;
+import com.github.api.client.client.interceptor.ResponseDecodingInterceptor;
+import com.github.api.client.concurrent.FanOutExecutor;
+import com.github.api.client.stub.StubGithubServer;
+import com.github.api.client.stub.StubGithubServer.StubResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamMetricsTest {
+    private static final String REPOS_BODY = "[{\"name\":\"repositoryName\"}]";
+    private static final String LARGE_REPOS_BODY = "[" + "{\"name\":\"repositoryName\"},".repeat(100) + "{}]";
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+    private final PropertiesValues propertiesValues = new PropertiesValues();
+    private StubGithubServer server;
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void init() throws IOException {
+        server = new StubGithubServer()
+                .route("GET", "/users/userName/repos", request -> StubResponse.json(200, REPOS_BODY))
+                .route("GET", "/repos/userName/missing/branches", request -> StubResponse.json(404, "{}"))
+                .route("GET", "/users/largeUserName/repos", request -> "gzip".equals(request.header("Accept-Encoding"))
+                        ? StubResponse.gzipJson(200, Map.of(), LARGE_REPOS_BODY)
+                        : StubResponse.json(200, LARGE_REPOS_BODY));
+        observationRegistry.observationConfig()
+                .observationHandler(new DefaultMeterObservationHandler(this.meterRegistry))
+                .observationHandler(new UpstreamCallsObservationHandler(this.meterRegistry));
+        propertiesValues.fanOutMaxParallelism = 2;
+        propertiesValues.fanOutDeadlineMs = 5000;
+        propertiesValues.httpCompressionEnabled = true;
+        propertiesValues.httpMaxResponseBytes = 10000;
+
+        restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(new ResponseDecodingInterceptor(this.propertiesValues, this.meterRegistry));
+        restTemplate.getInterceptors().add(new ReceivedBytesInterceptor(this.meterRegistry));
+        restTemplate.setObservationRegistry(this.observationRegistry);
+        restTemplate.setObservationConvention(new GithubClientRequestObservationConvention());
+    }
+
+    @AfterEach
+    void close() {
+        this.server.close();
+    }
+
+    @Test
+    void test_githubEndpointShouldBeResolvedFromPath() {
+        assertEquals(GithubEndpoint.USER_REPOS, GithubEndpoint.of(URI.create("https://api.github.com/users/userName/repos?page=2")));
+        assertEquals(GithubEndpoint.BRANCHES, GithubEndpoint.of(URI.create("https://api.github.com/repos/userName/repo/branches")));
+        assertEquals(GithubEndpoint.GRAPHQL, GithubEndpoint.of(URI.create("https://api.github.com/graphql")));
+        assertEquals(GithubEndpoint.OTHER, GithubEndpoint.of(URI.create("https://api.github.com/rate_limit")));
+    }
+
+    @Test
+    void test_upstreamCallShouldBeTimedWithEndpointAndStatusAndCountReceivedBytes() {
+        this.restTemplate.getForObject(this.server.baseUrl() + "users/userName/repos", String.class);
+
+        Timer timer = this.meterRegistry.get(GithubClientRequestObservationConvention.REQUESTS_METRIC)
+                .tag("endpoint", "user-repos")
+                .tag("status", "200")
+                .timer();
+        assertEquals(1, timer.count());
+        assertTrue(this.meterRegistry.find(GithubClientRequestObservationConvention.REQUESTS_METRIC).tag("uri", "none").meters().isEmpty());
+        assertEquals(REPOS_BODY.length(), this.meterRegistry.get(ReceivedBytesInterceptor.RECEIVED_BYTES_METRIC)
+                .tag("endpoint", "user-repos")
+                .counter()
+                .count());
+    }
+
+    @Test
+    void test_gzipResponseShouldBeDecodedAndCountedOnWireAndDecoded() {
+        String body = this.restTemplate.getForObject(this.server.baseUrl() + "users/largeUserName/repos", String.class);
+
+        double wireBytes = this.meterRegistry.get(ReceivedBytesInterceptor.RECEIVED_BYTES_METRIC)
+                .tag("endpoint", "user-repos")
+                .counter()
+                .count();
+        double decodedBytes = this.meterRegistry.get(ResponseDecodingInterceptor.DECODED_BYTES_METRIC)
+                .tag("endpoint", "user-repos")
+                .counter()
+                .count();
+        assertEquals(LARGE_REPOS_BODY, body);
+        assertEquals("gzip", this.server.requests().get(0).header("Accept-Encoding"));
+        assertEquals(LARGE_REPOS_BODY.length(), decodedBytes);
+        assertTrue(wireBytes < decodedBytes / 10);
+    }
+
+    @Test
+    void test_responseExceedingMaxDecodedBytesShouldFail() {
+        propertiesValues.httpMaxResponseBytes = LARGE_REPOS_BODY.length() - 1;
+
+        assertThrows(RestClientException.class, () -> this.restTemplate
+                .getForObject(this.server.baseUrl() + "users/largeUserName/repos", String.class));
+    }
+
+    @Test
+    void test_notFoundResponseShouldBeCounted() {
+        assertThrows(HttpClientErrorException.NotFound.class, () -> this.restTemplate
+                .getForObject(this.server.baseUrl() + "repos/userName/missing/branches", String.class));
+
+        assertEquals(1, this.meterRegistry.get(UpstreamCallsObservationHandler.NOT_FOUND_METRIC)
+                .tag("endpoint", "branches")
+                .counter()
+                .count());
+    }
+
+    @Test
+    void test_upstreamCallsOfFanOutTasksShouldBeCountedForTheRequest() {
+        ServerRequestObservationContext serverContext = new ServerRequestObservationContext(
+                new MockHttpServletRequest("GET", "/api/userName/repos"),
+                new MockHttpServletResponse()
+        );
+        serverContext.setPathPattern("/api/{user}/repos");
+        FanOutExecutor fanOutExecutor = new FanOutExecutor(this.propertiesValues, this.meterRegistry);
+
+        Observation.createNotStarted("http.server.requests", () -> serverContext, this.observationRegistry)
+                .observe(() -> fanOutExecutor.mapInOrder(List.of(1, 2, 3), item -> this.restTemplate
+                        .getForObject(this.server.baseUrl() + "users/userName/repos", String.class)));
+
+        DistributionSummary upstreamCalls = this.meterRegistry.get(UpstreamCallsObservationHandler.UPSTREAM_CALLS_METRIC)
+                .tag("uri", "/api/{user}/repos")
+                .summary();
+        assertEquals(1, upstreamCalls.count());
+        assertEquals(3, upstreamCalls.totalAmount());
+        assertEquals(3, this.meterRegistry.get(FanOutExecutor.FAN_OUT_WIDTH_METRIC).summary().totalAmount());
+    }
+}
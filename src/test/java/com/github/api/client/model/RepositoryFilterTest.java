@@ -0,0 +1,49 @@
+package com.github.api.client.model;
+
+import com.github.api.client.model.dto.BranchDTO;
+import com.github.api.client.model.dto.RepositoryDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryFilterTest {
+
+    @Test
+    void test_globMatchesShouldMatchWholeNameIgnoringCase() {
+        assertTrue(RepositoryFilter.globMatches("api-*", "API-client"));
+        assertTrue(RepositoryFilter.globMatches("service-?", "service-1"));
+        assertTrue(RepositoryFilter.globMatches("*a*b*", "xaybz"));
+        assertTrue(RepositoryFilter.globMatches("*", ""));
+        assertFalse(RepositoryFilter.globMatches("api-*", "web-api-client"));
+        assertFalse(RepositoryFilter.globMatches("service-?", "service-10"));
+        assertFalse(RepositoryFilter.globMatches("a.c", "abc"));
+    }
+
+    @Test
+    void test_globMatchesShouldNotBacktrackForLongOnManyStars() {
+        String glob = "*a".repeat(50) + "b";
+        String name = "a".repeat(100);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> assertFalse(RepositoryFilter.globMatches(glob, name)));
+    }
+
+    @Test
+    void test_applyShouldSelectMatchingRepositoriesAndLeaveOutBranchesWhichWereNotRequested() {
+        List<BranchDTO> branches = List.of(new BranchDTO("main", "sha"));
+        List<RepositoryDTO> repositories = List.of(
+                new RepositoryDTO("api-client", "userName", branches),
+                new RepositoryDTO("website", "userName", branches),
+                new RepositoryDTO("api-server", "userName", branches),
+                new RepositoryDTO("api-docs", "userName", branches)
+        );
+
+        assertSame(repositories, new RepositoryFilter(null, null, null, null).apply(repositories));
+        assertEquals(
+                List.of(new RepositoryDTO("api-server", "userName", null)),
+                new RepositoryFilter("api-*", false, 1, 1).apply(repositories)
+        );
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.api.client.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitBudgetTest {
+    private final Instant now = Instant.ofEpochSecond(1_700_000_000);
+    private final Duration maxWait = Duration.ofSeconds(10);
+    private final Duration secondaryBackoff = Duration.ofSeconds(60);
+    private final RateLimitBudget budget = new RateLimitBudget();
+
+    @Test
+    void test_reserveShouldNotWaitForUnknownBudget() {
+        assertEquals(Duration.ZERO, this.budget.reserve(this.now, this.maxWait, 100));
+        assertEquals(-1, this.budget.remaining());
+    }
+
+    @Test
+    void test_reserveShouldDecrementRemainingRequests() {
+        this.budget.update(HttpStatus.OK, rateLimitHeaders(5000, 4000, 3600), this.now, this.secondaryBackoff);
+
+        assertEquals(Duration.ZERO, this.budget.reserve(this.now, this.maxWait, 100));
+        assertEquals(3999, this.budget.remaining());
+        assertEquals(5000, this.budget.limit());
+    }
+
+    @Test
+    void test_reserveShouldSpreadRequestsWhenBudgetIsLow() {
+        this.budget.update(HttpStatus.OK, rateLimitHeaders(60, 10, 100), this.now, this.secondaryBackoff);
+
+        Duration firstWait = this.budget.reserve(this.now, Duration.ofMinutes(5), 100);
+        Duration secondWait = this.budget.reserve(this.now, Duration.ofMinutes(5), 100);
+
+        assertEquals(Duration.ZERO, firstWait);
+        assertEquals(Duration.ofSeconds(10), secondWait);
+    }
+
+    @Test
+    void test_reserveShouldWaitUntilResetWhenBudgetIsExhausted() {
+        this.budget.update(HttpStatus.OK, rateLimitHeaders(60, 0, 30), this.now, this.secondaryBackoff);
+
+        Duration wait = this.budget.reserve(this.now, this.maxWait, 0);
+
+        assertEquals(Duration.ofSeconds(30), wait);
+        assertEquals(30, this.budget.retryAfterSeconds(this.now));
+    }
+
+    @Test
+    void test_updateShouldHonourRetryAfterOfSecondaryRateLimit() {
+        HttpHeaders headers = rateLimitHeaders(5000, 4000, 3600);
+        headers.set(HttpHeaders.RETRY_AFTER, "5");
+
+        boolean rateLimited = this.budget.update(HttpStatus.FORBIDDEN, headers, this.now, this.secondaryBackoff);
+
+        assertTrue(rateLimited);
+        assertEquals(Duration.ofSeconds(5), this.budget.reserve(this.now, this.maxWait, 100));
+    }
+
+    @Test
+    void test_updateShouldBackOffExponentiallyWithoutRetryAfter() {
+        this.budget.update(HttpStatus.TOO_MANY_REQUESTS, new HttpHeaders(), this.now, this.secondaryBackoff);
+        assertEquals(60, this.budget.retryAfterSeconds(this.now));
+
+        this.budget.update(HttpStatus.TOO_MANY_REQUESTS, new HttpHeaders(), this.now, this.secondaryBackoff);
+        assertEquals(120, this.budget.retryAfterSeconds(this.now));
+    }
+
+    @Test
+    void test_updateShouldNotTreatPlainForbiddenAsRateLimit() {
+        boolean rateLimited = this.budget.update(
+                HttpStatus.FORBIDDEN,
+                rateLimitHeaders(5000, 4000, 3600),
+                this.now,
+                this.secondaryBackoff
+        );
+
+        assertFalse(rateLimited);
+        assertEquals(0, this.budget.retryAfterSeconds(this.now));
+    }
+
+    private HttpHeaders rateLimitHeaders(long limit, long remaining, long secondsToReset) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(RateLimitBudget.LIMIT_HEADER_KEY, String.valueOf(limit));
+        headers.set(RateLimitBudget.REMAINING_HEADER_KEY, String.valueOf(remaining));
+        headers.set(RateLimitBudget.RESET_HEADER_KEY, String.valueOf(this.now.getEpochSecond() + secondsToReset));
+
+        return headers;
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.api.client.ratelimit;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.TokenIdentity;
+import com.github.api.client.exception.GithubRateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitTrackerTest {
+    private final PropertiesValues propertiesValues = new PropertiesValues();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitTracker rateLimitTracker = new RateLimitTracker(this.propertiesValues, this.meterRegistry);
+
+    @BeforeEach
+    void init() {
+        propertiesValues.rateLimitMaxTrackedTokens = 2;
+        propertiesValues.rateLimitMaxWaitMs = 5000;
+    }
+
+    @Test
+    void test_awaitBudgetShouldRejectRequestWhenWaitIsTooLong() {
+        HttpHeaders requestHeaders = new HttpHeaders();
+        requestHeaders.setBearerAuth("callerToken");
+        HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.set(RateLimitBudget.LIMIT_HEADER_KEY, "5000");
+        responseHeaders.set(RateLimitBudget.REMAINING_HEADER_KEY, "0");
+        responseHeaders.set(RateLimitBudget.RESET_HEADER_KEY, String.valueOf(Instant.now().getEpochSecond() + 3600));
+        this.rateLimitTracker.budget(TokenIdentity.of("callerToken"))
+                .update(HttpStatus.OK, responseHeaders, Instant.now(), Duration.ZERO);
+
+        GithubRateLimitExceededException exception = assertThrows(GithubRateLimitExceededException.class, () ->
+                this.rateLimitTracker.awaitBudget(URI.create("https://api.github.com/users/userName/repos"), requestHeaders));
+
+        assertFalse(exception.isRetryable());
+        assertEquals(1, this.meterRegistry.get(RateLimitTracker.REJECTIONS_METRIC).counter().count());
+    }
+
+    @Test
+    void test_budgetShouldEvictLeastRecentlyUsedCallerTokens() {
+        RateLimitBudget firstBudget = this.rateLimitTracker.budget(TokenIdentity.of("firstToken"));
+        this.rateLimitTracker.budget(TokenIdentity.of("secondToken"));
+        this.rateLimitTracker.budget(TokenIdentity.of("firstToken"));
+        this.rateLimitTracker.budget(TokenIdentity.of("thirdToken"));
+
+        assertEquals(2, this.rateLimitTracker.trackedCallerBudgets());
+        assertSame(firstBudget, this.rateLimitTracker.budget(TokenIdentity.of("firstToken")));
+        assertNull(this.meterRegistry.find(RateLimitTracker.REMAINING_METRIC).gauge());
+    }
+
+    @Test
+    void test_pinShouldKeepBudgetAndPublishItsGauge() {
+        this.rateLimitTracker.pin(TokenIdentity.of("poolToken"));
+        RateLimitBudget pinnedBudget = this.rateLimitTracker.budget(TokenIdentity.of("poolToken"));
+
+        for (int i = 0; i < 5; i++) {
+            this.rateLimitTracker.budget(TokenIdentity.of("callerToken" + i));
+        }
+
+        assertSame(pinnedBudget, this.rateLimitTracker.budget(TokenIdentity.of("poolToken")));
+        assertNotNull(this.meterRegistry.find(RateLimitTracker.REMAINING_METRIC)
+                .tag(RateLimitTracker.TOKEN_TAG, RateLimitTracker.tokenTag(TokenIdentity.of("poolToken")))
+                .gauge());
+    }
+
+    @Test
+    void test_recordRejectionShouldCountCallerTokensTogether() {
+        this.rateLimitTracker.recordRejection(TokenIdentity.of("firstToken"), RateLimitTracker.CORE_RESOURCE);
+        this.rateLimitTracker.recordRejection(TokenIdentity.of("secondToken"), RateLimitTracker.CORE_RESOURCE);
+
+        assertEquals(1, this.meterRegistry.find(RateLimitTracker.REJECTIONS_METRIC).counters().size());
+        assertEquals(2, this.meterRegistry.get(RateLimitTracker.REJECTIONS_METRIC)
+                .tag(RateLimitTracker.TOKEN_TAG, RateLimitTracker.CALLER_TOKENS_TAG)
+                .counter()
+                .count());
+    }
+
+    @Test
+    void test_isRetryableShouldRequireRetryAfterWithinMaxWait() {
+        assertTrue(this.rateLimitTracker.isRetryable(5));
+        assertFalse(this.rateLimitTracker.isRetryable(6));
+    }
+}
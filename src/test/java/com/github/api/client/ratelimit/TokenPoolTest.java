@@ -0,0 +1,94 @@
+package com.github.api.client.ratelimit;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.TokenIdentity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenPoolTest {
+    private final PropertiesValues propertiesValues = new PropertiesValues();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitTracker rateLimitTracker = new RateLimitTracker(this.propertiesValues, this.meterRegistry);
+    private TokenPool tokenPool;
+
+    @BeforeEach
+    void init() {
+        propertiesValues.tokenPoolTokens = List.of("firstToken", " secondToken", "", "firstToken");
+        propertiesValues.rateLimitMaxTrackedTokens = 10;
+        tokenPool = new TokenPool(this.propertiesValues, this.rateLimitTracker, this.meterRegistry);
+        tokenPool.registerMetrics();
+    }
+
+    @Test
+    void test_resolveShouldKeepCallersTokenAndPassAnonymousWithoutPool() {
+        assertEquals(2, this.tokenPool.size());
+        assertEquals("callerToken", this.tokenPool.resolve("callerToken"));
+
+        this.propertiesValues.tokenPoolTokens = List.of("");
+        TokenPool emptyPool = new TokenPool(this.propertiesValues, this.rateLimitTracker, this.meterRegistry);
+
+        assertFalse(emptyPool.isEnabled());
+        assertNull(emptyPool.resolve(null));
+    }
+
+    @Test
+    void test_resolveShouldTryTokensWithUnknownBudgetFirst() {
+        setRemaining("firstToken", 4000);
+        Set<String> resolved = new HashSet<>();
+
+        for (int i = 0; i < 2; i++) {
+            resolved.add(this.tokenPool.resolve(null));
+        }
+
+        // secondToken has no budget yet, so it is tried with every search
+        assertEquals(Set.of("secondToken"), resolved);
+    }
+
+    @Test
+    void test_resolveShouldSelectTokenWithMostRemainingRequests() {
+        setRemaining("firstToken", 100);
+        setRemaining("secondToken", 4000);
+
+        assertEquals("secondToken", this.tokenPool.resolve(null));
+        assertEquals("secondToken", this.tokenPool.resolve(""));
+        assertEquals(2, this.meterRegistry.get(TokenPool.SELECTIONS_METRIC)
+                .tag("token", TokenIdentity.of("secondToken").substring(0, 8))
+                .counter()
+                .count());
+    }
+
+    @Test
+    void test_headroomShouldSumPoolTokensForAnonymousRequests() {
+        assertEquals(-1, this.tokenPool.headroom(TokenIdentity.ANONYMOUS, 10));
+
+        setRemaining("firstToken", 100);
+        setRemaining("secondToken", 5);
+
+        assertEquals(90, this.tokenPool.headroom(TokenIdentity.ANONYMOUS, 10));
+        assertEquals(95, this.tokenPool.headroom(TokenIdentity.of("firstToken"), 5));
+        assertEquals(-1, this.tokenPool.headroom(TokenIdentity.of("callerToken"), 10));
+        assertEquals(105, this.meterRegistry.get(TokenPool.REMAINING_METRIC).gauge().value());
+    }
+
+    private void setRemaining(String token, long remaining) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(RateLimitBudget.LIMIT_HEADER_KEY, "5000");
+        headers.set(RateLimitBudget.REMAINING_HEADER_KEY, String.valueOf(remaining));
+        headers.set(RateLimitBudget.RESET_HEADER_KEY, String.valueOf(Instant.now().plusSeconds(3600).getEpochSecond()));
+
+        this.rateLimitTracker.budget(TokenIdentity.of(token))
+                .update(HttpStatus.OK, headers, Instant.now(), Duration.ofSeconds(60));
+    }
+}
@@ -0,0 +1,157 @@
+package com.github.api.client.resilience;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.exception.GithubUnavailableException;
+import com.github.api.client.metrics.GithubEndpoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamResilienceTest {
+    private final PropertiesValues propertiesValues = new PropertiesValues();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void init() {
+        propertiesValues.githubUnavailableMessage = "Github API is temporarily unavailable.";
+        propertiesValues.circuitBreakerWindowSize = 4;
+        propertiesValues.circuitBreakerMinCalls = 4;
+        propertiesValues.circuitBreakerFailureRateThreshold = 50;
+        propertiesValues.circuitBreakerOpenMs = 60000;
+        propertiesValues.bulkheadBranchesMaxConcurrent = 1;
+        propertiesValues.bulkheadMaxWaitMs = 10;
+    }
+
+    @Test
+    void test_circuitBreakerShouldOpenWhenFailureRateIsReachedAndCloseAfterSuccessfulProbe() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(4, 4, 50, 1000);
+
+        circuitBreaker.record(CircuitBreaker.Permit.CALL, CircuitBreaker.Outcome.SUCCESS, 0);
+        circuitBreaker.record(CircuitBreaker.Permit.CALL, CircuitBreaker.Outcome.FAILURE, 0);
+        circuitBreaker.record(CircuitBreaker.Permit.CALL, CircuitBreaker.Outcome.SUCCESS, 0);
+        assertFalse(circuitBreaker.isOpen());
+        circuitBreaker.record(CircuitBreaker.Permit.CALL, CircuitBreaker.Outcome.FAILURE, 10);
+
+        assertTrue(circuitBreaker.isOpen());
+        assertEquals(CircuitBreaker.Permit.REJECTED, circuitBreaker.tryAcquire(500));
+        assertEquals(CircuitBreaker.Permit.PROBE, circuitBreaker.tryAcquire(1010));
+        assertEquals(CircuitBreaker.Permit.REJECTED, circuitBreaker.tryAcquire(1020));
+        circuitBreaker.record(CircuitBreaker.Permit.PROBE, CircuitBreaker.Outcome.SUCCESS, 1030);
+        assertFalse(circuitBreaker.isOpen());
+        assertEquals(CircuitBreaker.Permit.CALL, circuitBreaker.tryAcquire(1040));
+    }
+
+    @Test
+    void test_circuitBreakerShouldIgnoreCallsStartedBeforeProbeWhileItRuns() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(4, 4, 50, 1000);
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.record(CircuitBreaker.Permit.CALL, CircuitBreaker.Outcome.FAILURE, 0);
+        }
+
+        assertEquals(CircuitBreaker.Permit.PROBE, circuitBreaker.tryAcquire(1010));
+        circuitBreaker.record(CircuitBreaker.Permit.CALL, CircuitBreaker.Outcome.SUCCESS, 1020);
+        assertEquals(CircuitBreaker.Permit.REJECTED, circuitBreaker.tryAcquire(1030));
+        circuitBreaker.record(CircuitBreaker.Permit.PROBE, CircuitBreaker.Outcome.FAILURE, 1040);
+
+        assertTrue(circuitBreaker.isOpen());
+        assertEquals(CircuitBreaker.Permit.REJECTED, circuitBreaker.tryAcquire(1050));
+    }
+
+    @Test
+    void test_callShouldBeRejectedWhenMostRecentCallsHaveFailedWithServerErrors() {
+        UpstreamResilience resilience = new UpstreamResilience(this.propertiesValues, this.meterRegistry);
+        AtomicInteger sentCalls = new AtomicInteger();
+
+        for (int i = 0; i < 2; i++) {
+            resilience.call(GithubEndpoint.USER_REPOS, sentCalls::incrementAndGet);
+            assertThrows(HttpClientErrorException.class, () -> resilience.call(GithubEndpoint.USER_REPOS, () -> {
+                sentCalls.incrementAndGet();
+                throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+            }));
+        }
+        for (int i = 0; i < 2; i++) {
+            assertThrows(HttpServerErrorException.class, () -> resilience.call(GithubEndpoint.USER_REPOS, () -> {
+                sentCalls.incrementAndGet();
+                throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+            }));
+        }
+
+        assertThrows(GithubUnavailableException.class, () -> resilience.call(GithubEndpoint.USER_REPOS, sentCalls::incrementAndGet));
+        assertEquals(6, sentCalls.get());
+        assertEquals(1, resilience.call(GithubEndpoint.BRANCHES, () -> 1));
+        assertEquals(1, this.meterRegistry.get(UpstreamResilience.REJECTIONS_METRIC)
+                .tag("reason", UpstreamResilience.CIRCUIT_OPEN_REASON)
+                .counter()
+                .count());
+    }
+
+    @Test
+    void test_callShouldBeRejectedWhenBulkheadOfEndpointIsFull() throws InterruptedException {
+        UpstreamResilience resilience = new UpstreamResilience(this.propertiesValues, this.meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread slowCall = Thread.ofVirtual().start(() -> resilience.call(GithubEndpoint.BRANCHES, () -> {
+            started.countDown();
+            return await(release);
+        }));
+        started.await(5, TimeUnit.SECONDS);
+
+        assertThrows(GithubUnavailableException.class, () -> resilience.call(GithubEndpoint.BRANCHES, () -> 1));
+        assertEquals(1, resilience.call(GithubEndpoint.USER_REPOS, () -> 1));
+        release.countDown();
+        slowCall.join();
+        assertEquals(1, resilience.call(GithubEndpoint.BRANCHES, () -> 1));
+    }
+
+    @Test
+    void test_hedgedShouldReturnResultOfDuplicateCallWhenFirstOneIsSlow() {
+        propertiesValues.bulkheadBranchesMaxConcurrent = 0;
+        propertiesValues.hedgingEnabled = true;
+        propertiesValues.hedgingMinSamples = 10;
+        propertiesValues.hedgingMaxRatio = 0.5;
+        UpstreamResilience resilience = new UpstreamResilience(this.propertiesValues, this.meterRegistry);
+        for (int i = 0; i < 10; i++) {
+            resilience.call(GithubEndpoint.BRANCHES, () -> 1);
+        }
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = resilience.hedged(GithubEndpoint.BRANCHES, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                sleep(5000);
+                return "slow";
+            }
+            return "fast";
+        });
+
+        assertEquals("fast", result);
+        assertEquals(2, attempts.get());
+        assertEquals(1, this.meterRegistry.get(UpstreamResilience.HEDGES_METRIC).counter().count());
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
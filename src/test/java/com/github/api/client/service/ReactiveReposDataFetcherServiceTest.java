@@ -0,0 +1,168 @@
+package com.github.api.client.service;
+
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.RepositoryStateCache;
+import com.github.api.client.cache.UserReposCache;
+import com.github.api.client.cache.shared.SharedResultsStore;
+import com.github.api.client.cache.snapshot.CacheSnapshotStore;
+import com.github.api.client.client.GithubGraphQlClient;
+import com.github.api.client.client.ReactiveGithubClient;
+import com.github.api.client.exception.FetchTimeoutException;
+import com.github.api.client.exception.GithubUserNotFoundException;
+import com.github.api.client.model.Branch;
+import com.github.api.client.model.Commit;
+import com.github.api.client.model.Owner;
+import com.github.api.client.model.Repository;
+import com.github.api.client.model.RepositoryFilter;
+import com.github.api.client.model.dto.BranchDTO;
+import com.github.api.client.model.dto.RepositoryDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveReposDataFetcherServiceTest {
+    private final PropertiesValues propertiesValues = new PropertiesValues();
+    private final Owner owner = new Owner("userName");
+    private final Repository repository = new Repository("repositoryName", owner, false);
+    private final Repository repository2 = new Repository("repositoryName2", owner, false);
+
+    @Mock
+    ReactiveGithubClient reactiveGithubClient;
+    @Mock
+    GithubGraphQlClient githubGraphQlClient;
+    UserReposCache userReposCache;
+    ReactiveReposDataFetcherService service;
+
+    @BeforeEach
+    void init() {
+        propertiesValues.githubApiBackend = "rest";
+        propertiesValues.fanOutMaxParallelism = 4;
+        propertiesValues.fanOutDeadlineMs = 5000;
+        propertiesValues.resultsCacheTtlMs = 60000;
+        propertiesValues.resultsCacheMaxEntries = 10;
+        propertiesValues.resultsCacheMaxWeight = 1000;
+        propertiesValues.incrementalEnabled = true;
+        propertiesValues.incrementalMaxEntries = 100;
+        propertiesValues.incrementalMaxAgeMs = 60000;
+        propertiesValues.fetchTimeoutMessage = "Fetching repositories data has not finished in the expected time.";
+        userReposCache = new UserReposCache(
+                this.propertiesValues, new CacheSnapshotStore(this.propertiesValues), SharedResultsStore.NONE
+        );
+        service = new ReactiveReposDataFetcherService(
+                this.propertiesValues,
+                this.reactiveGithubClient,
+                this.githubGraphQlClient,
+                this.userReposCache,
+                new RepositoryStateCache(this.propertiesValues, new CacheSnapshotStore(this.propertiesValues)),
+                Schedulers.boundedElastic()
+        );
+    }
+
+    @Test
+    void test_getUserReposShouldKeepOrderOfListingAndCacheResult() {
+        Mockito.when(this.reactiveGithubClient.getUserRepos("userName", null, null, null))
+                .thenReturn(Flux.just(this.repository, this.repository2));
+        // Branches of the first repository arrive last
+        Mockito.when(this.reactiveGithubClient.getBranchesForUserRepo("userName", "repositoryName", null))
+                .thenReturn(Flux.just(new Branch("main", new Commit("sha"))).delayElements(Duration.ofMillis(50)));
+        Mockito.when(this.reactiveGithubClient.getBranchesForUserRepo("userName", "repositoryName2", null))
+                .thenReturn(Flux.empty());
+
+        List<RepositoryDTO> repositories = this.service.getUserRepos("userName", null, null, null).block();
+        List<RepositoryDTO> cachedRepositories = this.service.getUserRepos("userName", null, null, null).block();
+
+        assertEquals(List.of(
+                new RepositoryDTO("repositoryName", "userName", List.of(new BranchDTO("main", "sha"))),
+                new RepositoryDTO("repositoryName2", "userName", List.of())
+        ), repositories);
+        assertEquals(repositories, cachedRepositories);
+        Mockito.verify(this.reactiveGithubClient, Mockito.times(1)).getUserRepos("userName", null, null, null);
+    }
+
+    @Test
+    void test_streamUserReposShouldEmitInOrderOfCompletionAndCacheInOrderOfListing() {
+        Mockito.when(this.reactiveGithubClient.getUserRepos("userName", null, null, null))
+                .thenReturn(Flux.just(this.repository, this.repository2));
+        Mockito.when(this.reactiveGithubClient.getBranchesForUserRepo("userName", "repositoryName", null))
+                .thenReturn(Flux.just(new Branch("main", new Commit("sha"))).delayElements(Duration.ofMillis(50)));
+        Mockito.when(this.reactiveGithubClient.getBranchesForUserRepo("userName", "repositoryName2", null))
+                .thenReturn(Flux.empty());
+
+        List<String> streamedNames = this.service.streamUserRepos("userName", null, null, null)
+                .map(RepositoryDTO::repositoryName)
+                .collectList()
+                .block();
+
+        assertEquals(List.of("repositoryName2", "repositoryName"), streamedNames);
+        assertEquals(List.of("repositoryName", "repositoryName2"), this.userReposCache
+                .get(UserReposCache.Key.of("userName", null, null, null))
+                .stream()
+                .map(RepositoryDTO::repositoryName)
+                .toList());
+    }
+
+    @Test
+    void test_streamUserReposShouldFetchBranchesOnlyOfSelectedRepositories() {
+        propertiesValues.filterMaxPatternLength = 100;
+        Mockito.when(this.reactiveGithubClient.getUserRepos("userName", null, null, null))
+                .thenReturn(Flux.just(this.repository, this.repository2));
+        Mockito.when(this.reactiveGithubClient.getBranchesForUserRepo("userName", "repositoryName2", null))
+                .thenReturn(Flux.empty());
+
+        List<RepositoryDTO> streamed = this.service
+                .streamUserRepos("userName", null, null, null, new RepositoryFilter("*2", null, null, null))
+                .collectList()
+                .block();
+        List<RepositoryDTO> withoutBranches = this.service
+                .getUserRepos("userName", null, null, null, new RepositoryFilter(null, false, 0, 1))
+                .block();
+
+        assertEquals(List.of(new RepositoryDTO("repositoryName2", "userName", List.of())), streamed);
+        assertEquals(List.of(new RepositoryDTO("repositoryName", "userName", null)), withoutBranches);
+        Mockito.verify(this.reactiveGithubClient, Mockito.never()).getBranchesForUserRepo("userName", "repositoryName", null);
+        assertNull(this.userReposCache.get(UserReposCache.Key.of("userName", null, null, null)));
+    }
+
+    @Test
+    void test_getUserReposShouldSignalErrorOfListing() {
+        Mockito.when(this.reactiveGithubClient.getUserRepos("userName", null, null, null))
+                .thenReturn(Flux.error(new GithubUserNotFoundException("User with provided username has not been found.")));
+
+        assertThrows(GithubUserNotFoundException.class, () -> this.service.getUserRepos("userName", null, null, null).block());
+    }
+
+    @Test
+    void test_getUserReposShouldSignalFetchTimeoutAfterDeadline() {
+        propertiesValues.fanOutDeadlineMs = 100;
+        Mockito.when(this.reactiveGithubClient.getUserRepos("userName", null, null, null))
+                .thenReturn(Flux.just(this.repository));
+        Mockito.when(this.reactiveGithubClient.getBranchesForUserRepo("userName", "repositoryName", null))
+                .thenReturn(Flux.never());
+
+        assertThrows(FetchTimeoutException.class, () -> this.service.getUserRepos("userName", null, null, null).block());
+        assertNull(this.userReposCache.get(UserReposCache.Key.of("userName", null, null, null)));
+    }
+
+    @Test
+    void test_getUserReposShouldUseGraphQlWhenBackendIsGraphQl() {
+        propertiesValues.githubApiBackend = ReposDataFetcherService.GRAPHQL_BACKEND;
+        List<RepositoryDTO> repositories = List.of(new RepositoryDTO("repositoryName", "userName", List.of()));
+        Mockito.when(this.githubGraphQlClient.getUserReposWithBranches("userName", "accessToken", null, null))
+                .thenReturn(repositories);
+
+        assertEquals(repositories, this.service.getUserRepos("userName", "accessToken", null, null).block());
+        Mockito.verifyNoInteractions(this.reactiveGithubClient);
+    }
+}
@@ -1,29 +1,76 @@
 package com.github.api.client.service;
 
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.RepositoryStateCache;
+import com.github.api.client.cache.UserReposCache;
+import com.github.api.client.cache.shared.SharedResultsStore;
+import com.github.api.client.cache.snapshot.CacheSnapshotStore;
 import com.github.api.client.client.GithubApiClient;
+import com.github.api.client.client.GithubGraphQlClient;
+import com.github.api.client.concurrent.FanOutExecutor;
+import com.github.api.client.exception.FetchTimeoutException;
+import com.github.api.client.exception.GithubUnavailableException;
+import com.github.api.client.exception.GithubUserNotFoundException;
+import com.github.api.client.exception.WrongParamValueException;
 import com.github.api.client.model.Branch;
 import com.github.api.client.model.Commit;
 import com.github.api.client.model.Owner;
 import com.github.api.client.model.Repository;
+import com.github.api.client.model.RepositoryFilter;
+import com.github.api.client.model.dto.BranchDTO;
 import com.github.api.client.model.dto.RepositoryDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(MockitoExtension.class)
 class ReposDataFetcherServiceTest {
+    private final PropertiesValues propertiesValues = new PropertiesValues();
+
     @Mock
     GithubApiClient githubApiClient;
-    @InjectMocks
+    @Mock
+    GithubGraphQlClient githubGraphQlClient;
     ReposDataFetcherService service;
 
+    @BeforeEach
+    void init() {
+        propertiesValues.githubApiBackend = "rest";
+        propertiesValues.fanOutMaxParallelism = 4;
+        propertiesValues.fanOutDeadlineMs = 5000;
+        propertiesValues.resultsCacheTtlMs = 60000;
+        propertiesValues.resultsCacheMaxEntries = 10;
+        propertiesValues.resultsCacheMaxWeight = 1000;
+        propertiesValues.batchMaxParallelism = 4;
+        propertiesValues.batchMaxUsers = 10;
+        propertiesValues.incrementalEnabled = true;
+        propertiesValues.incrementalMaxEntries = 100;
+        propertiesValues.incrementalMaxAgeMs = 60000;
+        propertiesValues.partialResultsEnabled = true;
+        service = new ReposDataFetcherService(
+                this.propertiesValues,
+                this.githubApiClient,
+                this.githubGraphQlClient,
+                new FanOutExecutor(this.propertiesValues, new SimpleMeterRegistry()),
+                new UserReposCache(this.propertiesValues, new CacheSnapshotStore(this.propertiesValues), SharedResultsStore.NONE),
+                new RepositoryStateCache(this.propertiesValues, new CacheSnapshotStore(this.propertiesValues))
+        );
+    }
+
     @Test
     void test_getUserReposShouldReturnOnlyNonForkedRepositories() {
         Commit commit = new Commit("sha");
@@ -62,4 +109,360 @@ class ReposDataFetcherServiceTest {
         assertEquals(branch2.name(), repositoryDTOS.get(0).branches().get(1).branchName());
         assertEquals(branch2.commit().sha(), repositoryDTOS.get(0).branches().get(1).sha());
     }
+
+    @Test
+    void test_getUserReposShouldKeepRepositoriesOrderWhenBranchesAreFetchedConcurrently() {
+        Owner owner = new Owner("userName");
+        List<Repository> repositories = IntStream.range(0, 20)
+                .mapToObj(i -> new Repository("repositoryName" + i, owner, false))
+                .toList();
+
+        Mockito.when(this.githubApiClient.getUserRepos(
+                Mockito.anyString(),
+                Mockito.anyString(),
+                Mockito.anyString(),
+                Mockito.anyString())
+        ).thenReturn(repositories);
+        Mockito.when(this.githubApiClient.getBranchesForUserRepo(
+                Mockito.anyString(),
+                Mockito.anyString(),
+                Mockito.anyString())
+        ).thenAnswer(invocation -> {
+            String repositoryName = invocation.getArgument(1);
+            int index = Integer.parseInt(repositoryName.substring("repositoryName".length()));
+            Thread.sleep((20 - index) * 5L);
+
+            return List.of(new Branch(repositoryName, new Commit("sha" + index)));
+        });
+        List<RepositoryDTO> repositoryDTOS = this.service
+                .getUserRepos("userName", "accessToken", "sort", "direction");
+
+        assertEquals(repositories.size(), repositoryDTOS.size());
+        for (int i = 0; i < repositories.size(); i++) {
+            assertEquals(repositories.get(i).name(), repositoryDTOS.get(i).repositoryName());
+            assertEquals(repositories.get(i).name(), repositoryDTOS.get(i).branches().get(0).branchName());
+        }
+    }
+
+    @Test
+    void test_getUserReposShouldServeRepeatedRequestFromCache() {
+        Owner owner = new Owner("userName");
+        Repository repository = new Repository("repositoryName", owner, false);
+        Branch branch = new Branch("branchName", new Commit("sha"));
+
+        Mockito.when(this.githubApiClient.getUserRepos("userName", "accessToken", null, null))
+                .thenReturn(List.of(repository));
+        Mockito.when(this.githubApiClient.getBranchesForUserRepo("userName", "repositoryName", "accessToken"))
+                .thenReturn(List.of(branch));
+        List<RepositoryDTO> repositoryDTOS = this.service.getUserRepos("userName", "accessToken", null, null);
+        List<RepositoryDTO> cachedRepositoryDTOS = this.service.getUserRepos("UserName", "accessToken", null, null);
+
+        assertEquals(repositoryDTOS, cachedRepositoryDTOS);
+        Mockito.verify(this.githubApiClient, Mockito.times(1)).getUserRepos("userName", "accessToken", null, null);
+        Mockito.verify(this.githubApiClient, Mockito.times(1))
+                .getBranchesForUserRepo("userName", "repositoryName", "accessToken");
+    }
+
+    @Test
+    void test_getUserReposShouldReturnPartialResultWithoutCachingItWhenBranchesAreUnavailable() {
+        Owner owner = new Owner("userName");
+        Repository repository = new Repository("repositoryName", owner, false);
+        Repository repository2 = new Repository("repositoryName2", owner, false);
+        Branch branch = new Branch("branchName", new Commit("sha"));
+
+        Mockito.when(this.githubApiClient.getUserRepos("userName", "accessToken", null, null))
+                .thenReturn(List.of(repository, repository2));
+        Mockito.when(this.githubApiClient.getBranchesForUserRepo("userName", "repositoryName", "accessToken"))
+                .thenReturn(List.of(branch));
+        Mockito.when(this.githubApiClient.getBranchesForUserRepo("userName", "repositoryName2", "accessToken"))
+                .thenThrow(new GithubUnavailableException("message"));
+        List<RepositoryDTO> repositoryDTOS = this.service.getUserRepos("userName", "accessToken", null, null);
+        this.service.getUserRepos("userName", "accessToken", null, null);
+
+        assertEquals(List.of(
+                new RepositoryDTO("repositoryName", "userName", List.of(new BranchDTO("branchName", "sha"))),
+                new RepositoryDTO("repositoryName2", "userName", null)
+        ), repositoryDTOS);
+        assertTrue(RepositoryDTO.isPartial(repositoryDTOS));
+        Mockito.verify(this.githubApiClient, Mockito.times(2)).getUserRepos("userName", "accessToken", null, null);
+    }
+
+    @Test
+    void test_getUserReposShouldUseGraphQlBackendForRequestsWithAccessToken() {
+        propertiesValues.githubApiBackend = ReposDataFetcherService.GRAPHQL_BACKEND;
+        List<RepositoryDTO> repositoryDTOS = List.of(
+                new RepositoryDTO("repositoryName", "userName", List.of(new BranchDTO("branchName", "sha")))
+        );
+
+        Mockito.when(this.githubGraphQlClient.getUserReposWithBranches("userName", "accessToken", "created", "asc"))
+                .thenReturn(repositoryDTOS);
+
+        assertEquals(repositoryDTOS, this.service.getUserRepos("userName", "accessToken", "created", "asc"));
+        Mockito.verifyNoInteractions(this.githubApiClient);
+    }
+
+    @Test
+    void test_getUserReposShouldUseRestBackendForAnonymousRequestsWhenGraphQlIsSelected() {
+        propertiesValues.githubApiBackend = ReposDataFetcherService.GRAPHQL_BACKEND;
+
+        Mockito.when(this.githubApiClient.getUserRepos("userName", null, null, null)).thenReturn(List.of());
+
+        assertEquals(List.of(), this.service.getUserRepos("userName", null, null, null));
+        Mockito.verifyNoInteractions(this.githubGraphQlClient);
+    }
+
+    @Test
+    void test_streamUserReposShouldPassRepositoriesAndCacheThemInListingOrder() {
+        Owner owner = new Owner("userName");
+        Repository repository = new Repository("repositoryName", owner, false);
+        Repository repository2 = new Repository("repositoryName2", owner, false);
+        List<RepositoryDTO> streamedRepositoryDTOS = new ArrayList<>();
+
+        Mockito.when(this.githubApiClient.getUserRepos("userName", "accessToken", null, null))
+                .thenReturn(List.of(repository, repository2));
+        Mockito.when(this.githubApiClient.getBranchesForUserRepo("userName", "repositoryName", "accessToken"))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(100);
+                    return List.of(new Branch("branchName", new Commit("sha")));
+                });
+        Mockito.when(this.githubApiClient.getBranchesForUserRepo("userName", "repositoryName2", "accessToken"))
+                .thenReturn(List.of());
+        this.service.streamUserRepos("userName", "accessToken", null, null)
+                .forEachRepository(streamedRepositoryDTOS::add);
+        List<RepositoryDTO> cachedRepositoryDTOS = this.service.getUserRepos("userName", "accessToken", null, null);
+
+        assertEquals(List.of("repositoryName2", "repositoryName"), streamedRepositoryDTOS.stream()
+                .map(RepositoryDTO::repositoryName)
+                .toList());
+        assertEquals(List.of("repositoryName", "repositoryName2"), cachedRepositoryDTOS.stream()
+                .map(RepositoryDTO::repositoryName)
+                .toList());
+        Mockito.verify(this.githubApiClient, Mockito.times(1)).getUserRepos("userName", "accessToken", null, null);
+    }
+
+    @Test
+    void test_streamUserReposShouldNotCountSlowConsumerAgainstFanOutDeadline() {
+        propertiesValues.fanOutDeadlineMs = 200;
+        Owner owner = new Owner("userName");
+        List<Repository> repositories = List.of(
+                new Repository("repositoryName", owner, false),
+                new Repository("repositoryName2", owner, false)
+        );
+        List<RepositoryDTO> streamedRepositoryDTOS = new ArrayList<>();
+
+        Mockito.when(this.githubApiClient.getUserRepos("userName", "accessToken", null, null)).thenReturn(repositories);
+        Mockito.when(this.githubApiClient.getBranchesForUserRepo(Mockito.eq("userName"), Mockito.anyString(), Mockito.eq("accessToken")))
+                .thenReturn(List.of());
+        this.service.streamUserRepos("userName", "accessToken", null, null)
+                .forEachRepository(repositoryDTO -> {
+                    sleep(150);
+                    streamedRepositoryDTOS.add(repositoryDTO);
+                });
+
+        assertEquals(2, streamedRepositoryDTOS.size());
+    }
+
+    @Test
+    void test_streamUserReposShouldShareFetchWithConcurrentRequests() throws Exception {
+        Owner owner = new Owner("userName");
+        CountDownLatch listingStarted = new CountDownLatch(1);
+
+        Mockito.when(this.githubApiClient.getUserRepos("userName", "accessToken", null, null))
+                .thenAnswer(invocation -> {
+                    listingStarted.countDown();
+                    Thread.sleep(200);
+                    return List.of(new Repository("repositoryName", owner, false));
+                });
+        Mockito.when(this.githubApiClient.getBranchesForUserRepo("userName", "repositoryName", "accessToken"))
+                .thenReturn(List.of(new Branch("branchName", new Commit("sha"))));
+        CompletableFuture<List<RepositoryDTO>> fetched = CompletableFuture.supplyAsync(
+                () -> this.service.getUserRepos("userName", "accessToken", null, null)
+        );
+        assertTrue(listingStarted.await(5, TimeUnit.SECONDS));
+        List<RepositoryDTO> streamedRepositoryDTOS = new ArrayList<>();
+        this.service.streamUserRepos("userName", "accessToken", null, null)
+                .forEachRepository(streamedRepositoryDTOS::add);
+
+        assertEquals(fetched.get(5, TimeUnit.SECONDS), streamedRepositoryDTOS);
+        Mockito.verify(this.githubApiClient, Mockito.times(1)).getUserRepos("userName", "accessToken", null, null);
+    }
+
+    @Test
+    void test_streamUserReposShouldReportListingFailureBeforeStreaming() {
+        Mockito.when(this.githubApiClient.getUserRepos("missingUserName", "accessToken", null, null))
+                .thenThrow(new GithubUserNotFoundException("User not found"));
+
+        assertThrows(GithubUserNotFoundException.class,
+                () -> this.service.streamUserRepos("missingUserName", "accessToken", null, null));
+    }
+
+    @Test
+    void test_streamBatchUserReposShouldPassFailureOfOneUserWithoutStoppingOthers() {
+        Repository repository = new Repository("repositoryName", new Owner("userName"), false);
+        List<UserReposResult> results = new ArrayList<>();
+
+        Mockito.when(this.githubApiClient.getUserRepos("userName", null, null, null))
+                .thenReturn(List.of(repository));
+        Mockito.when(this.githubApiClient.getBranchesForUserRepo("userName", "repositoryName", null))
+                .thenReturn(List.of(new Branch("branchName", new Commit("sha"))));
+        Mockito.when(this.githubApiClient.getUserRepos("missingUserName", null, null, null))
+                .thenThrow(new GithubUserNotFoundException("User with provided username has not been found."));
+        this.service.streamBatchUserRepos(List.of("userName", "missingUserName", "userName"), null, null, null)
+                .forEachResult(results::add);
+
+        assertEquals(2, results.size());
+        UserReposResult found = results.stream().filter(result -> result.userName().equals("userName")).findFirst().orElseThrow();
+        UserReposResult missing = results.stream().filter(result -> result.userName().equals("missingUserName")).findFirst().orElseThrow();
+        assertNull(found.failure());
+        assertEquals(List.of(new RepositoryDTO("repositoryName", "userName", List.of(new BranchDTO("branchName", "sha")))),
+                found.repositories());
+        assertInstanceOf(GithubUserNotFoundException.class, missing.failure());
+        assertNull(missing.repositories());
+    }
+
+    @Test
+    void test_streamBatchUserReposShouldFailSlowUserAfterFanOutDeadline() {
+        propertiesValues.fanOutDeadlineMs = 100;
+        List<UserReposResult> results = new ArrayList<>();
+
+        Mockito.when(this.githubApiClient.getUserRepos("userName", null, null, null)).thenReturn(List.of());
+        Mockito.when(this.githubApiClient.getUserRepos("slowUserName", null, null, null)).thenAnswer(invocation -> {
+            sleep(5000);
+            return List.of();
+        });
+        long startedAt = System.nanoTime();
+        this.service.streamBatchUserRepos(List.of("userName", "slowUserName"), null, null, null)
+                .forEachResult(results::add);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt) < 2000);
+        assertEquals(new UserReposResult("userName", List.of(), null), results.get(0));
+        assertInstanceOf(FetchTimeoutException.class, results.get(1).failure());
+    }
+
+    @Test
+    void test_streamBatchUserReposShouldFetchWithCallersToken() {
+        List<UserReposResult> results = new ArrayList<>();
+
+        Mockito.when(this.githubApiClient.getUserRepos("userName", "callerToken", null, null)).thenReturn(List.of());
+        this.service.streamBatchUserRepos(List.of("userName"), "callerToken", null, null)
+                .forEachResult(results::add);
+
+        assertEquals(List.of(new UserReposResult("userName", List.of(), null)), results);
+    }
+
+    @Test
+    void test_streamBatchUserReposShouldRejectTooManyUsersBeforeStreaming() {
+        List<String> userNames = IntStream.range(0, 11).mapToObj(i -> "userName" + i).toList();
+
+        assertThrows(WrongParamValueException.class,
+                () -> this.service.streamBatchUserRepos(userNames, null, null, null));
+        assertThrows(WrongParamValueException.class,
+                () -> this.service.streamBatchUserRepos(List.of(), null, null, null));
+        Mockito.verifyNoInteractions(this.githubApiClient);
+    }
+
+    @Test
+    void test_getUserReposShouldFetchBranchesOnlyOfRepositoriesPushedSinceLastFetch() {
+        propertiesValues.resultsCacheTtlMs = 0;
+        Owner owner = new Owner("userName");
+        Instant pushedAt = Instant.parse("2024-01-02T10:00:00Z");
+        Instant updatedAt = Instant.parse("2024-01-01T10:00:00Z");
+        Repository unchanged = new Repository("unchangedName", owner, false, pushedAt, updatedAt);
+        Repository pushed = new Repository("pushedName", owner, false, pushedAt, updatedAt);
+        Repository pushedAgain = new Repository("pushedName", owner, false, pushedAt.plusSeconds(60), updatedAt);
+        Repository withoutTimestamps = new Repository("withoutTimestampsName", owner, false);
+
+        Mockito.when(this.githubApiClient.getUserRepos("userName", null, null, null))
+                .thenReturn(List.of(unchanged, pushed, withoutTimestamps))
+                .thenReturn(List.of(unchanged, pushedAgain, withoutTimestamps));
+        Mockito.when(this.githubApiClient.getBranchesForUserRepo(
+                Mockito.eq("userName"),
+                Mockito.anyString(),
+                Mockito.isNull())
+        ).thenReturn(List.of(new Branch("branchName", new Commit("sha"))));
+        List<RepositoryDTO> repositoryDTOS = this.service.getUserRepos("userName", null, null, null);
+        List<RepositoryDTO> refreshedRepositoryDTOS = this.service.getUserRepos("userName", null, null, null);
+
+        assertEquals(repositoryDTOS, refreshedRepositoryDTOS);
+        Mockito.verify(this.githubApiClient, Mockito.times(1)).getBranchesForUserRepo("userName", "unchangedName", null);
+        Mockito.verify(this.githubApiClient, Mockito.times(2)).getBranchesForUserRepo("userName", "pushedName", null);
+        Mockito.verify(this.githubApiClient, Mockito.times(2)).getBranchesForUserRepo("userName", "withoutTimestampsName", null);
+    }
+
+    @Test
+    void test_getUserReposShouldFetchBranchesOnlyOfSelectedRepositoriesUntilWholeResultIsCached() {
+        propertiesValues.filterMaxPatternLength = 100;
+        Owner owner = new Owner("userName");
+        List<Repository> repositories = List.of(
+                new Repository("api-client", owner, false),
+                new Repository("api-server", owner, false),
+                new Repository("api-fork", owner, true),
+                new Repository("website", owner, false),
+                new Repository("API-docs", owner, false)
+        );
+
+        Mockito.when(this.githubApiClient.getUserRepos("userName", "accessToken", null, null))
+                .thenReturn(repositories);
+        Mockito.when(this.githubApiClient.getBranchesForUserRepo(
+                Mockito.eq("userName"),
+                Mockito.anyString(),
+                Mockito.eq("accessToken"))
+        ).thenReturn(List.of(new Branch("main", new Commit("sha"))));
+        List<RepositoryDTO> repositoryDTOS = this.service.getUserRepos(
+                "userName", "accessToken", null, null, new RepositoryFilter("api-*", null, 1, 1)
+        );
+
+        assertEquals(List.of("api-server"), repositoryDTOS.stream().map(RepositoryDTO::repositoryName).toList());
+        Mockito.verify(this.githubApiClient, Mockito.times(1)).getBranchesForUserRepo(
+                Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+
+        List<RepositoryDTO> wholeRepositoryDTOS = this.service.getUserRepos("userName", "accessToken", null, null);
+        List<RepositoryDTO> otherRepositoryDTOS = this.service.getUserRepos(
+                "userName", "accessToken", null, null, new RepositoryFilter("*e", null, null, null)
+        );
+
+        assertEquals(4, wholeRepositoryDTOS.size());
+        assertEquals(List.of("website"), otherRepositoryDTOS.stream().map(RepositoryDTO::repositoryName).toList());
+        Mockito.verify(this.githubApiClient, Mockito.times(2)).getUserRepos("userName", "accessToken", null, null);
+        Mockito.verify(this.githubApiClient, Mockito.times(5)).getBranchesForUserRepo(
+                Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+    }
+
+    @Test
+    void test_getUserReposShouldNotFetchBranchesWhichWereNotRequested() {
+        propertiesValues.filterMaxPatternLength = 100;
+        RepositoryFilter filter = new RepositoryFilter("repository?", false, null, null);
+        Owner owner = new Owner("userName");
+
+        Mockito.when(this.githubApiClient.getUserRepos("userName", "accessToken", null, null))
+                .thenReturn(List.of(new Repository("repository1", owner, false), new Repository("other", owner, false)));
+        List<RepositoryDTO> repositoryDTOS = this.service.getUserRepos("userName", "accessToken", null, null, filter);
+        List<RepositoryDTO> streamedRepositoryDTOS = new ArrayList<>();
+        this.service.streamUserRepos("userName", "accessToken", null, null, filter).forEachRepository(streamedRepositoryDTOS::add);
+
+        assertEquals(List.of(new RepositoryDTO("repository1", "userName", null)), repositoryDTOS);
+        assertEquals(repositoryDTOS, streamedRepositoryDTOS);
+        Mockito.verify(this.githubApiClient, Mockito.never()).getBranchesForUserRepo(
+                Mockito.anyString(), Mockito.anyString(), Mockito.anyString());
+    }
+
+    @Test
+    void test_getUserReposShouldRejectInvalidFilterBeforeFetching() {
+        propertiesValues.filterMaxPatternLength = 5;
+        propertiesValues.wrongFilterParamMessage = "message";
+
+        assertThrows(WrongParamValueException.class, () -> this.service.getUserRepos(
+                "userName", "accessToken", null, null, new RepositoryFilter("repository*", null, null, null)));
+        assertThrows(WrongParamValueException.class, () -> this.service.getUserRepos(
+                "userName", "accessToken", null, null, new RepositoryFilter(null, null, -1, null)));
+        Mockito.verifyNoInteractions(this.githubApiClient);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -0,0 +1,216 @@
+package com.github.api.client.stub;
+
+import com.github.api.client.GithubPayloads;
+import com.github.api.client.stub.StubGithubServer.StubRequest;
+import com.github.api.client.stub.StubGithubServer.StubResponse;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Github API simulated on top of StubGithubServer, for tests and load tests which need more than fixed responses.
+// Every user has the configured number of repositories (every fifth one is a fork) with the same number of branches.
+// Like the real API it serves pages of per_page items with Link headers, answers matching If-None-Match with 304,
+// compresses responses for clients which accept gzip, sends rate limit headers of every access token and rejects
+// its requests with 403 once its limit is used up. Every response is delayed by the configured latency.
+public class SimulatedGithubApi {
+    private static final Pattern USER_REPOS_PATH = Pattern.compile("/users/([^/]+)/repos");
+    private static final Pattern BRANCHES_PATH = Pattern.compile("/repos/([^/]+)/([^/]+)/branches");
+    private static final int DEFAULT_PAGE_SIZE = 30;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final long RATE_LIMIT_WINDOW_SECONDS = 3600;
+    private final Settings settings;
+    private final Map<String, Page> pages = new ConcurrentHashMap<>();
+    private final Map<String, RateLimit> rateLimits = new ConcurrentHashMap<>();
+    private final AtomicLong servedPages = new AtomicLong();
+    private final AtomicLong notModifiedPages = new AtomicLong();
+    private final AtomicLong rateLimitedRequests = new AtomicLong();
+
+    private SimulatedGithubApi(Settings settings) {
+        this.settings = settings;
+    }
+
+    public static SimulatedGithubApi install(StubGithubServer server, Settings settings) {
+        SimulatedGithubApi api = new SimulatedGithubApi(settings);
+        server.route("GET", USER_REPOS_PATH, api::userRepos)
+                .route("GET", BRANCHES_PATH, api::branches);
+
+        return api;
+    }
+
+    public long servedPages() {
+        return this.servedPages.get();
+    }
+
+    public long notModifiedPages() {
+        return this.notModifiedPages.get();
+    }
+
+    public long rateLimitedRequests() {
+        return this.rateLimitedRequests.get();
+    }
+
+    private StubResponse userRepos(StubRequest request) {
+        Matcher matcher = USER_REPOS_PATH.matcher(request.path());
+        matcher.matches();
+        String userName = matcher.group(1);
+
+        return respond(request, this.settings.repositoriesCount(), (fromIndex, toIndex) ->
+                GithubPayloads.repositoriesPage(userName, fromIndex, toIndex));
+    }
+
+    private StubResponse branches(StubRequest request) {
+        Matcher matcher = BRANCHES_PATH.matcher(request.path());
+        matcher.matches();
+        String userName = matcher.group(1);
+        String repositoryName = matcher.group(2);
+
+        return respond(request, this.settings.branchesCount(), (fromIndex, toIndex) ->
+                GithubPayloads.branchesPage(userName, repositoryName, fromIndex, toIndex));
+    }
+
+    private StubResponse respond(StubRequest request, int itemsCount, PageContent content) {
+        simulateLatency();
+
+        RateLimit rateLimit = this.rateLimits.computeIfAbsent(
+                String.valueOf(request.header("Authorization")),
+                token -> new RateLimit(this.settings.rateLimit())
+        );
+        int pageSize = Math.min(parseInt(request.queryParam("per_page"), DEFAULT_PAGE_SIZE), MAX_PAGE_SIZE);
+        int lastPage = Math.max(1, (itemsCount + pageSize - 1) / pageSize);
+        int pageNumber = parseInt(request.queryParam("page"), 1);
+        String cacheKey = request.path() + "?" + pageSize + "&" + pageNumber;
+        Page page = this.pages.computeIfAbsent(cacheKey, key -> Page.of(content.create(
+                Math.min((pageNumber - 1) * pageSize, itemsCount),
+                Math.min(pageNumber * pageSize, itemsCount)
+        )));
+
+        // Conditional requests answered with 304 don't count against the rate limit
+        if (page.etag().equals(request.header("If-None-Match"))) {
+            this.notModifiedPages.incrementAndGet();
+            return new StubResponse(304, rateLimit.headers(page.etag()), new byte[0]);
+        }
+
+        if (!rateLimit.tryAcquire()) {
+            this.rateLimitedRequests.incrementAndGet();
+            return StubResponse.json(403, rateLimit.headers(null),
+                    "{\"message\":\"API rate limit exceeded\",\"documentation_url\":\"https://docs.github.com/rest\"}");
+        }
+
+        this.servedPages.incrementAndGet();
+        Map<String, String> headers = rateLimit.headers(page.etag());
+        headers.put("Content-Type", "application/json");
+        if (lastPage > 1) {
+            headers.put("Link", linkHeader(request.path(), pageSize, pageNumber, lastPage));
+        }
+
+        String acceptEncoding = request.header("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            headers.put("Content-Encoding", "gzip");
+            return new StubResponse(200, headers, page.gzipBody());
+        }
+
+        return new StubResponse(200, headers, page.body());
+    }
+
+    private void simulateLatency() {
+        long latencyMs = this.settings.latencyMs();
+        if (this.settings.latencyJitterMs() > 0) {
+            latencyMs += ThreadLocalRandom.current().nextLong(this.settings.latencyJitterMs() + 1);
+        }
+
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Same format as api.github.com, the client reads only rel="last"
+    private String linkHeader(String path, int pageSize, int pageNumber, int lastPage) {
+        String url = "https://api.github.com" + path + "?per_page=" + pageSize + "&page=";
+        StringBuilder links = new StringBuilder();
+
+        if (pageNumber < lastPage) {
+            links.append('<').append(url).append(pageNumber + 1).append(">; rel=\"next\", ");
+        }
+        links.append('<').append(url).append(lastPage).append(">; rel=\"last\"");
+
+        return links.toString();
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        try {
+            return value != null ? Math.max(1, Integer.parseInt(value)) : defaultValue;
+        } catch (NumberFormatException exception) {
+            return defaultValue;
+        }
+    }
+
+    // rateLimit of 0 disables rate limiting and its headers
+    public record Settings(int repositoriesCount, int branchesCount, long latencyMs, long latencyJitterMs, int rateLimit) {
+        public static Settings of(int repositoriesCount, int branchesCount) {
+            return new Settings(repositoriesCount, branchesCount, 0, 0, 0);
+        }
+
+        public Settings withLatency(long latencyMs, long latencyJitterMs) {
+            return new Settings(this.repositoriesCount, this.branchesCount, latencyMs, latencyJitterMs, this.rateLimit);
+        }
+
+        public Settings withRateLimit(int rateLimit) {
+            return new Settings(this.repositoriesCount, this.branchesCount, this.latencyMs, this.latencyJitterMs, rateLimit);
+        }
+    }
+
+    @FunctionalInterface
+    private interface PageContent {
+        byte[] create(int fromIndex, int toIndex);
+    }
+
+    private record Page(byte[] body, byte[] gzipBody, String etag) {
+        static Page of(byte[] body) {
+            return new Page(body, StubResponse.gzip(body), "\"" + Integer.toHexString(Arrays.hashCode(body)) + "\"");
+        }
+    }
+
+    private static final class RateLimit {
+        private final int limit;
+        private final long resetAt = Instant.now().getEpochSecond() + RATE_LIMIT_WINDOW_SECONDS;
+        private final AtomicInteger used = new AtomicInteger();
+
+        RateLimit(int limit) {
+            this.limit = limit;
+        }
+
+        boolean tryAcquire() {
+            return this.limit <= 0 || this.used.getAndUpdate(used -> Math.min(used + 1, this.limit)) < this.limit;
+        }
+
+        Map<String, String> headers(String etag) {
+            Map<String, String> headers = new HashMap<>();
+
+            if (etag != null) {
+                headers.put("ETag", etag);
+            }
+            if (this.limit > 0) {
+                int used = this.used.get();
+                headers.put("X-RateLimit-Limit", String.valueOf(this.limit));
+                headers.put("X-RateLimit-Remaining", String.valueOf(this.limit - used));
+                headers.put("X-RateLimit-Used", String.valueOf(used));
+                headers.put("X-RateLimit-Reset", String.valueOf(this.resetAt));
+                headers.put("X-RateLimit-Resource", "core");
+            }
+
+            return headers;
+        }
+    }
+}
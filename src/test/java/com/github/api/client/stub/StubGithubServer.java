@@ -0,0 +1,173 @@
+package com.github.api.client.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+// Local HTTP server standing in for api.github.com in tests
+public class StubGithubServer implements AutoCloseable {
+    // Without TCP_NODELAY every response is held back by delayed ACK of the client for ~40 ms.
+    // Property is read once, when the first server is created.
+    static {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final Map<String, Function<StubRequest, StubResponse>> routes = new ConcurrentHashMap<>();
+    private final List<PatternRoute> patternRoutes = new CopyOnWriteArrayList<>();
+    private final List<StubRequest> requests = new CopyOnWriteArrayList<>();
+    private volatile boolean recordRequests = true;
+
+    public StubGithubServer() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/", this::handle);
+        this.server.start();
+    }
+
+    // Requests are routed by method and path, without query
+    public StubGithubServer route(String method, String path, Function<StubRequest, StubResponse> handler) {
+        this.routes.put(method + " " + path, handler);
+        return this;
+    }
+
+    // Checked in order of adding, after routes with exact paths
+    public StubGithubServer route(String method, Pattern pathPattern, Function<StubRequest, StubResponse> handler) {
+        this.patternRoutes.add(new PatternRoute(method, pathPattern, handler));
+        return this;
+    }
+
+    // Load tests send too many requests to keep all of them
+    public StubGithubServer recordRequests(boolean recordRequests) {
+        this.recordRequests = recordRequests;
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + this.server.getAddress().getPort() + "/";
+    }
+
+    public List<StubRequest> requests() {
+        return this.requests;
+    }
+
+    @Override
+    public void close() {
+        this.server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        StubRequest request = new StubRequest(
+                exchange.getRequestMethod(),
+                exchange.getRequestURI().getPath(),
+                exchange.getRequestURI().getRawQuery(),
+                exchange.getRequestHeaders(),
+                new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)
+        );
+        if (this.recordRequests) {
+            this.requests.add(request);
+        }
+
+        Function<StubRequest, StubResponse> handler = findHandler(request);
+        StubResponse response = handler != null
+                ? handler.apply(request)
+                : StubResponse.json(404, "{\"message\":\"Not Found\"}");
+
+        response.headers().forEach((name, value) -> exchange.getResponseHeaders().set(name, value));
+        byte[] body = response.body();
+        exchange.sendResponseHeaders(response.status(), body.length == 0 ? -1 : body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+
+    private Function<StubRequest, StubResponse> findHandler(StubRequest request) {
+        Function<StubRequest, StubResponse> handler = this.routes.get(request.method() + " " + request.path());
+
+        if (handler != null) {
+            return handler;
+        }
+
+        return this.patternRoutes.stream()
+                .filter(route -> route.method().equals(request.method()) && route.pathPattern().matcher(request.path()).matches())
+                .map(PatternRoute::handler)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private record PatternRoute(String method, Pattern pathPattern, Function<StubRequest, StubResponse> handler) {}
+
+    public record StubRequest(String method, String path, String query, Map<String, List<String>> headers, String body) {
+        public String header(String name) {
+            return this.headers.entrySet().stream()
+                    .filter(header -> header.getKey().equalsIgnoreCase(name))
+                    .map(header -> header.getValue().get(0))
+                    .findFirst()
+                    .orElse(null);
+        }
+
+        // Query parameter without decoding, null when it is missing
+        public String queryParam(String name) {
+            if (this.query == null) {
+                return null;
+            }
+
+            for (String parameter : this.query.split("&")) {
+                int separator = parameter.indexOf('=');
+                if (separator > 0 && parameter.substring(0, separator).equals(name)) {
+                    return parameter.substring(separator + 1);
+                }
+            }
+
+            return null;
+        }
+    }
+
+    public record StubResponse(int status, Map<String, String> headers, byte[] body) {
+        public static StubResponse json(int status, String body) {
+            return json(status, Map.of(), body);
+        }
+
+        public static StubResponse json(int status, Map<String, String> headers, String body) {
+            Map<String, String> allHeaders = new HashMap<>(headers);
+            allHeaders.put("Content-Type", "application/json");
+
+            return new StubResponse(status, allHeaders, body.getBytes(StandardCharsets.UTF_8));
+        }
+
+        // Compressed like Github API does for requests which accept gzip encoding
+        public static StubResponse gzipJson(int status, Map<String, String> headers, String body) {
+            Map<String, String> allHeaders = new HashMap<>(headers);
+            allHeaders.put("Content-Type", "application/json");
+            allHeaders.put("Content-Encoding", "gzip");
+
+            return new StubResponse(status, allHeaders, gzip(body.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        public static byte[] gzip(byte[] body) {
+            ByteArrayOutputStream compressedBody = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressedBody)) {
+                gzipStream.write(body);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+
+            return compressedBody.toByteArray();
+        }
+    }
+}
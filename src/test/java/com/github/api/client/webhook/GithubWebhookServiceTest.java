@@ -0,0 +1,159 @@
+package com.github.api.client.webhook;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.api.client.PropertiesValues;
+import com.github.api.client.cache.UserReposCache;
+import com.github.api.client.cache.shared.SharedResultsStore;
+import com.github.api.client.cache.snapshot.CacheSnapshotStore;
+import com.github.api.client.exception.WebhookSignatureException;
+import com.github.api.client.model.dto.BranchDTO;
+import com.github.api.client.model.dto.RepositoryDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Replays recorded Github webhook payloads from src/test/resources/webhooks against cached results
+class GithubWebhookServiceTest {
+    private static final String OLD_SHA = "6113728f27ae82c7b1a177c8d03f9e96e0adf246";
+    private final PropertiesValues propertiesValues = new PropertiesValues();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserReposCache userReposCache = new UserReposCache(
+            this.propertiesValues, new CacheSnapshotStore(this.propertiesValues), SharedResultsStore.NONE
+    );
+    private final WebhookSignatureVerifier signatureVerifier = new WebhookSignatureVerifier(this.propertiesValues);
+    private final GithubWebhookService service = new GithubWebhookService(
+            this.propertiesValues,
+            this.signatureVerifier,
+            this.userReposCache,
+            new ObjectMapper(),
+            this.meterRegistry
+    );
+    private final UserReposCache.Key key = UserReposCache.Key.of("codertocat", "accessToken", null, null);
+    private final RepositoryDTO helloWorld = new RepositoryDTO("Hello-World", "Codertocat", List.of(
+            new BranchDTO("main", OLD_SHA),
+            new BranchDTO("simple-branch", OLD_SHA)
+    ));
+    private final RepositoryDTO spoonKnife = new RepositoryDTO("Spoon-Knife", "Codertocat", List.of(
+            new BranchDTO("main", OLD_SHA)
+    ));
+
+    @BeforeEach
+    void init() {
+        propertiesValues.resultsCacheTtlMs = 60000;
+        propertiesValues.resultsCacheMaxEntries = 10;
+        propertiesValues.resultsCacheMaxWeight = 1000;
+        propertiesValues.webhookSecret = "webhookSecret";
+        propertiesValues.invalidWebhookSignatureMessage = "message";
+        propertiesValues.invalidWebhookPayloadMessage = "message";
+
+        this.userReposCache.put(this.key, List.of(this.helloWorld, this.spoonKnife));
+    }
+
+    @Test
+    void test_pushShouldChangeShaOfBranchInPlace() {
+        int changedResults = replay(GithubWebhookService.PUSH_EVENT, "push.json");
+
+        assertEquals(1, changedResults);
+        assertEquals(List.of(
+                new RepositoryDTO("Hello-World", "Codertocat", List.of(
+                        new BranchDTO("main", "a10867b14bb761a232cd80139fbd4c0d33264240"),
+                        new BranchDTO("simple-branch", OLD_SHA)
+                )),
+                this.spoonKnife
+        ), this.userReposCache.get(this.key));
+        assertEquals(1, this.meterRegistry.get(GithubWebhookService.EVENTS_METRIC)
+                .tag("event", "push").tag("outcome", "applied").counter().count());
+    }
+
+    @Test
+    void test_pushOfNewBranchShouldAddItInOrderOfNames() {
+        replay(GithubWebhookService.PUSH_EVENT, "push-new-branch.json");
+
+        assertEquals(List.of("feature", "main", "simple-branch"), this.userReposCache.get(this.key).get(0).branches()
+                .stream()
+                .map(BranchDTO::branchName)
+                .toList());
+    }
+
+    @Test
+    void test_pushOfTagShouldNotChangeResults() {
+        assertEquals(0, replay(GithubWebhookService.PUSH_EVENT, "push-tag.json"));
+        assertEquals(List.of(this.helloWorld, this.spoonKnife), this.userReposCache.get(this.key));
+    }
+
+    @Test
+    void test_deleteShouldRemoveBranchAndCreateShouldDropResultsWithoutIt() {
+        replay(GithubWebhookService.DELETE_EVENT, "delete-branch.json");
+
+        assertEquals(List.of(new BranchDTO("main", OLD_SHA)), this.userReposCache.get(this.key).get(0).branches());
+
+        replay(GithubWebhookService.CREATE_EVENT, "create-branch.json");
+
+        assertNull(this.userReposCache.get(this.key));
+    }
+
+    @Test
+    void test_repositoryDeletedShouldRemoveRepository() {
+        int changedResults = replay(GithubWebhookService.REPOSITORY_EVENT, "repository-deleted.json");
+
+        assertEquals(1, changedResults);
+        assertEquals(List.of(this.spoonKnife), this.userReposCache.get(this.key));
+    }
+
+    @Test
+    void test_pushShouldDropResultsSortedByPushTimeAndRenameShouldDropAllResultsOfOwner() {
+        UserReposCache.Key pushedKey = UserReposCache.Key.of("codertocat", "accessToken", "pushed", null);
+        this.userReposCache.put(pushedKey, List.of(this.helloWorld, this.spoonKnife));
+
+        replay(GithubWebhookService.PUSH_EVENT, "push.json");
+
+        assertNull(this.userReposCache.get(pushedKey));
+        assertNotNull(this.userReposCache.get(this.key));
+
+        replay(GithubWebhookService.REPOSITORY_EVENT, "repository-renamed.json");
+
+        assertNull(this.userReposCache.get(this.key));
+    }
+
+    @Test
+    void test_handleShouldRejectPayloadWithInvalidSignatureWithoutChangingResults() {
+        byte[] body = payload("push.json");
+
+        assertThrows(WebhookSignatureException.class,
+                () -> this.service.handle(GithubWebhookService.PUSH_EVENT, body, "sha256=" + "0".repeat(64)));
+        assertThrows(WebhookSignatureException.class,
+                () -> this.service.handle(GithubWebhookService.PUSH_EVENT, body, null));
+        assertEquals(List.of(this.helloWorld, this.spoonKnife), this.userReposCache.get(this.key));
+    }
+
+    @Test
+    void test_handleShouldRejectEverySignatureWhenSecretIsNotConfigured() {
+        byte[] body = payload("push.json");
+        String signature = this.signatureVerifier.sign(body);
+        propertiesValues.webhookSecret = "";
+
+        assertThrows(WebhookSignatureException.class,
+                () -> this.service.handle(GithubWebhookService.PUSH_EVENT, body, signature));
+    }
+
+    private int replay(String event, String fileName) {
+        byte[] body = payload(fileName);
+
+        return this.service.handle(event, body, this.signatureVerifier.sign(body));
+    }
+
+    private byte[] payload(String fileName) {
+        try (InputStream inputStream = getClass().getResourceAsStream("/webhooks/" + fileName)) {
+            return inputStream.readAllBytes();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}